@@ -1,5 +1,6 @@
 package com.ecommerce.analyticsservice.client;
 
+import com.ecommerce.analyticsservice.dto.external.CursorPage;
 import com.ecommerce.analyticsservice.dto.external.OrderDTO;
 import com.ecommerce.analyticsservice.dto.external.PaginatedResponse;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -13,6 +14,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class OrderServiceClient {
@@ -55,6 +57,32 @@ public class OrderServiceClient {
                 .doOnError(error -> logger.error("Error fetching orders: {}", error.getMessage()));
     }
 
+    /**
+     * Get the next slice of all orders, newest first, after the given cursor (null for the first slice)
+     */
+    public Mono<CursorPage<OrderDTO>> getOrdersAfter(String cursor, int size) {
+        logger.info("Fetching orders from order service - cursor: {}, size: {}", cursor, size);
+        
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/admin/orders/cursor")
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .queryParam("size", size)
+                        .build())
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(Duration.ofSeconds(30))
+                .map(response -> {
+                    try {
+                        Object ordersData = response.get("orders");
+                        return objectMapper.convertValue(ordersData, new TypeReference<CursorPage<OrderDTO>>() {});
+                    } catch (Exception e) {
+                        logger.error("Error parsing order response: {}", e.getMessage());
+                        return new CursorPage<OrderDTO>();
+                    }
+                })
+                .doOnError(error -> logger.error("Error fetching orders: {}", error.getMessage()));
+    }
+
     /**
      * Get order statistics
      */
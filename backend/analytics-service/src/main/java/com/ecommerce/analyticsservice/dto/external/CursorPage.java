@@ -0,0 +1,66 @@
+package com.ecommerce.analyticsservice.dto.external;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class CursorPage<T> {
+    @JsonProperty("content")
+    private List<T> content;
+    
+    @JsonProperty("size")
+    private int size;
+    
+    @JsonProperty("numberOfElements")
+    private int numberOfElements;
+    
+    @JsonProperty("hasMore")
+    private boolean hasMore;
+    
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    // Default constructor
+    public CursorPage() {}
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getNumberOfElements() {
+        return numberOfElements;
+    }
+
+    public void setNumberOfElements(int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -6,7 +6,6 @@ import com.ecommerce.analyticsservice.client.UserServiceClient;
 import com.ecommerce.analyticsservice.dto.*;
 import com.ecommerce.analyticsservice.dto.external.OrderDTO;
 import com.ecommerce.analyticsservice.dto.external.OrderItemDTO;
-import com.ecommerce.analyticsservice.dto.external.PaginatedResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -54,29 +53,29 @@ public class AnalyticsService {
     private Mono<List<OrderDTO>> fetchAllOrders() {
         List<OrderDTO> allOrders = new ArrayList<>();
         
-        return fetchOrdersRecursively(0, 100, allOrders)
+        return fetchOrdersRecursively(null, 100, allOrders)
                 .then(Mono.just(allOrders));
     }
 
     /**
-     * Recursively fetch all orders with pagination
+     * Recursively fetch all orders by following the cursor, so every slice costs order-service the same
      */
-    private Mono<Void> fetchOrdersRecursively(int page, int size, List<OrderDTO> allOrders) {
-        return orderServiceClient.getAllOrdersForAdmin(page, size)
-                .flatMap(paginatedResponse -> {
-                    if (paginatedResponse.getContent() != null) {
-                        allOrders.addAll(paginatedResponse.getContent());
+    private Mono<Void> fetchOrdersRecursively(String cursor, int size, List<OrderDTO> allOrders) {
+        return orderServiceClient.getOrdersAfter(cursor, size)
+                .flatMap(cursorPage -> {
+                    if (cursorPage.getContent() != null) {
+                        allOrders.addAll(cursorPage.getContent());
                     }
                     
-                    // If there are more pages, recursively fetch them
-                    if (!paginatedResponse.isLast() && paginatedResponse.getContent() != null && !paginatedResponse.getContent().isEmpty()) {
-                        return fetchOrdersRecursively(page + 1, size, allOrders);
+                    // If there are more orders, recursively fetch them
+                    if (cursorPage.isHasMore() && cursorPage.getNextCursor() != null) {
+                        return fetchOrdersRecursively(cursorPage.getNextCursor(), size, allOrders);
                     } else {
                         return Mono.<Void>empty();
                     }
                 })
                 .onErrorResume(error -> {
-                    logger.warn("Error fetching orders page {}: {}", page, error.getMessage());
+                    logger.warn("Error fetching orders after cursor {}: {}", cursor, error.getMessage());
                     return Mono.empty();
                 });
     }
@@ -1,5 +1,6 @@
 package com.ecommerce.analyticsservice.client;
 
+import com.ecommerce.analyticsservice.dto.external.CursorPage;
 import com.ecommerce.analyticsservice.dto.external.OrderDTO;
 import com.ecommerce.analyticsservice.dto.external.PaginatedResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -88,6 +89,30 @@ class ClientTest {
         verify(webClient).get();
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    void testOrderServiceClient_GetOrdersAfter() {
+        CursorPage<OrderDTO> cursorPage = new CursorPage<>();
+        cursorPage.setContent(paginatedResponse.getContent());
+        cursorPage.setHasMore(true);
+        cursorPage.setNextCursor("next");
+        Map<String, Object> cursorResponse = new HashMap<>();
+        cursorResponse.put("orders", cursorPage);
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(java.util.function.Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(Map.class)).thenReturn(Mono.just(cursorResponse));
+        when(objectMapper.convertValue(eq(cursorPage), any(com.fasterxml.jackson.core.type.TypeReference.class)))
+                .thenReturn(cursorPage);
+
+        CursorPage<OrderDTO> result = orderServiceClient.getOrdersAfter("cursor", 10).block();
+
+        assertNotNull(result);
+        assertEquals("next", result.getNextCursor());
+        assertTrue(result.isHasMore());
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     void testOrderServiceClient_GetOrderStatistics() {
@@ -6,7 +6,7 @@ import com.ecommerce.analyticsservice.client.UserServiceClient;
 import com.ecommerce.analyticsservice.dto.*;
 import com.ecommerce.analyticsservice.dto.external.OrderDTO;
 import com.ecommerce.analyticsservice.dto.external.OrderItemDTO;
-import com.ecommerce.analyticsservice.dto.external.PaginatedResponse;
+import com.ecommerce.analyticsservice.dto.external.CursorPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
@@ -42,7 +43,7 @@ class AnalyticsServiceTest {
     private AnalyticsService analyticsService;
 
     private List<OrderDTO> testOrders;
-    private PaginatedResponse<OrderDTO> paginatedResponse;
+    private CursorPage<OrderDTO> cursorPage;
 
     @BeforeEach
     void setUp() {
@@ -97,21 +98,17 @@ class AnalyticsServiceTest {
 
         testOrders = Arrays.asList(order1, order2, order3);
 
-        paginatedResponse = new PaginatedResponse<>();
-        paginatedResponse.setContent(testOrders);
-        paginatedResponse.setPage(0);
-        paginatedResponse.setSize(100);
-        paginatedResponse.setTotalElements(3L);
-        paginatedResponse.setTotalPages(1);
-        paginatedResponse.setFirst(true);
-        paginatedResponse.setLast(true);
-        paginatedResponse.setNumberOfElements(3);
+        cursorPage = new CursorPage<>();
+        cursorPage.setContent(testOrders);
+        cursorPage.setSize(100);
+        cursorPage.setHasMore(false);
+        cursorPage.setNumberOfElements(3);
     }
 
     @Test
     void testGenerateSalesReport_Success() {
-        when(orderServiceClient.getAllOrdersForAdmin(0, 100))
-                .thenReturn(Mono.just(paginatedResponse));
+        when(orderServiceClient.getOrdersAfter(null, 100))
+                .thenReturn(Mono.just(cursorPage));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
 
@@ -131,17 +128,13 @@ class AnalyticsServiceTest {
 
     @Test
     void testGenerateSalesReport_EmptyOrders() {
-        PaginatedResponse<OrderDTO> emptyResponse = new PaginatedResponse<>();
+        CursorPage<OrderDTO> emptyResponse = new CursorPage<>();
         emptyResponse.setContent(Collections.emptyList());
-        emptyResponse.setPage(0);
         emptyResponse.setSize(100);
-        emptyResponse.setTotalElements(0L);
-        emptyResponse.setTotalPages(0);
-        emptyResponse.setFirst(true);
-        emptyResponse.setLast(true);
+        emptyResponse.setHasMore(false);
         emptyResponse.setNumberOfElements(0);
 
-        when(orderServiceClient.getAllOrdersForAdmin(0, 100))
+        when(orderServiceClient.getOrdersAfter(null, 100))
                 .thenReturn(Mono.just(emptyResponse));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
@@ -159,30 +152,23 @@ class AnalyticsServiceTest {
     @Test
     void testGenerateSalesReport_MultiplePages() {
         // First page
-        PaginatedResponse<OrderDTO> page1 = new PaginatedResponse<>();
+        CursorPage<OrderDTO> page1 = new CursorPage<>();
         page1.setContent(Arrays.asList(testOrders.get(0)));
-        page1.setPage(0);
         page1.setSize(100);
-        page1.setTotalElements(3L);
-        page1.setTotalPages(2);
-        page1.setFirst(true);
-        page1.setLast(false);
+        page1.setHasMore(true);
+        page1.setNextCursor("cursor-1");
         page1.setNumberOfElements(1);
 
         // Second page
-        PaginatedResponse<OrderDTO> page2 = new PaginatedResponse<>();
+        CursorPage<OrderDTO> page2 = new CursorPage<>();
         page2.setContent(Arrays.asList(testOrders.get(1), testOrders.get(2)));
-        page2.setPage(1);
         page2.setSize(100);
-        page2.setTotalElements(3L);
-        page2.setTotalPages(2);
-        page2.setFirst(false);
-        page2.setLast(true);
+        page2.setHasMore(false);
         page2.setNumberOfElements(2);
 
-        when(orderServiceClient.getAllOrdersForAdmin(0, 100))
+        when(orderServiceClient.getOrdersAfter(null, 100))
                 .thenReturn(Mono.just(page1));
-        when(orderServiceClient.getAllOrdersForAdmin(1, 100))
+        when(orderServiceClient.getOrdersAfter("cursor-1", 100))
                 .thenReturn(Mono.just(page2));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
@@ -194,13 +180,13 @@ class AnalyticsServiceTest {
                 })
                 .verifyComplete();
 
-        verify(orderServiceClient).getAllOrdersForAdmin(0, 100);
-        verify(orderServiceClient).getAllOrdersForAdmin(1, 100);
+        verify(orderServiceClient).getOrdersAfter(null, 100);
+        verify(orderServiceClient).getOrdersAfter("cursor-1", 100);
     }
 
     @Test
     void testGenerateSalesReport_WithError() {
-        when(orderServiceClient.getAllOrdersForAdmin(anyInt(), anyInt()))
+        when(orderServiceClient.getOrdersAfter(any(), anyInt()))
                 .thenReturn(Mono.error(new RuntimeException("Service unavailable")));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
@@ -212,8 +198,8 @@ class AnalyticsServiceTest {
 
     @Test
     void testGenerateSalesReport_TopProducts() {
-        when(orderServiceClient.getAllOrdersForAdmin(0, 100))
-                .thenReturn(Mono.just(paginatedResponse));
+        when(orderServiceClient.getOrdersAfter(null, 100))
+                .thenReturn(Mono.just(cursorPage));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
 
@@ -231,8 +217,8 @@ class AnalyticsServiceTest {
 
     @Test
     void testGenerateSalesReport_RevenueByMonth() {
-        when(orderServiceClient.getAllOrdersForAdmin(0, 100))
-                .thenReturn(Mono.just(paginatedResponse));
+        when(orderServiceClient.getOrdersAfter(null, 100))
+                .thenReturn(Mono.just(cursorPage));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
 
@@ -248,8 +234,8 @@ class AnalyticsServiceTest {
 
     @Test
     void testGenerateSalesReport_OrdersByStatus() {
-        when(orderServiceClient.getAllOrdersForAdmin(0, 100))
-                .thenReturn(Mono.just(paginatedResponse));
+        when(orderServiceClient.getOrdersAfter(null, 100))
+                .thenReturn(Mono.just(cursorPage));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
 
@@ -278,17 +264,13 @@ class AnalyticsServiceTest {
         orderWithoutItems.setCreatedAt(LocalDateTime.now());
         orderWithoutItems.setOrderItems(null);
 
-        PaginatedResponse<OrderDTO> response = new PaginatedResponse<>();
+        CursorPage<OrderDTO> response = new CursorPage<>();
         response.setContent(Arrays.asList(orderWithoutItems));
-        response.setPage(0);
         response.setSize(100);
-        response.setTotalElements(1L);
-        response.setTotalPages(1);
-        response.setFirst(true);
-        response.setLast(true);
+        response.setHasMore(false);
         response.setNumberOfElements(1);
 
-        when(orderServiceClient.getAllOrdersForAdmin(0, 100))
+        when(orderServiceClient.getOrdersAfter(null, 100))
                 .thenReturn(Mono.just(response));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
@@ -318,17 +300,13 @@ class AnalyticsServiceTest {
         shippedOrder.setTotalAmount(new BigDecimal("150.00"));
         shippedOrder.setCreatedAt(LocalDateTime.now());
 
-        PaginatedResponse<OrderDTO> response = new PaginatedResponse<>();
+        CursorPage<OrderDTO> response = new CursorPage<>();
         response.setContent(Arrays.asList(confirmedOrder, processingOrder, shippedOrder));
-        response.setPage(0);
         response.setSize(100);
-        response.setTotalElements(3L);
-        response.setTotalPages(1);
-        response.setFirst(true);
-        response.setLast(true);
+        response.setHasMore(false);
         response.setNumberOfElements(3);
 
-        when(orderServiceClient.getAllOrdersForAdmin(0, 100))
+        when(orderServiceClient.getOrdersAfter(null, 100))
                 .thenReturn(Mono.just(response));
 
         Mono<SalesReportDTO> result = analyticsService.generateSalesReport();
@@ -0,0 +1,82 @@
+package com.ecommerce.orderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica routing, active when orders.read-replicas.urls lists at least one replica. The primary
+ * pool is still configured through spring.datasource.*; replicas share its driver and, unless set,
+ * its credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.read-replicas.urls")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    @Value("${orders.read-replicas.sticky-ms:5000}")
+    private long stickyMillis;
+
+    @Bean
+    public ReadYourWrites readYourWrites() {
+        return new ReadYourWrites(stickyMillis);
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, DataSourceProperties properties,
+            @Value("${orders.read-replicas.urls}") List<String> urls,
+            @Value("${orders.read-replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${orders.read-replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${orders.read-replicas.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${orders.read-replicas.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${orders.read-replicas.lag-column:Seconds_Behind_Source}") String lagColumn) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setReadOnly(true);
+            replicas.put(name, replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites(), maxLagSeconds,
+                lagQuery, lagColumn);
+    }
+
+    /**
+     * The data source JPA and JDBC use. The lazy proxy takes the physical connection at the first
+     * statement, after the transaction has been marked read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWrites());
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.orderservice.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Read-your-writes stickiness for replica routing. When a request's read-write transaction commits,
+ * the response carries the commit time in the last-write cookie (and header); while a client sends
+ * back a last-write time younger than sticky-ms, its read-only transactions stay on the primary, so a
+ * replica that has not caught up yet never hides the client's own change. The marker travels with the
+ * client, so it holds whichever instance the gateway picks for the next request.
+ */
+public class ReadYourWrites implements HandlerInterceptor {
+
+    static final String LAST_WRITE_COOKIE = "last-write-at";
+    static final String LAST_WRITE_HEADER = "X-Last-Write-At";
+
+    private final ThreadLocal<Long> lastWriteAt = new ThreadLocal<>();
+    private final ThreadLocal<HttpServletResponse> currentResponse = new ThreadLocal<>();
+    private final long stickyMillis;
+
+    public ReadYourWrites(long stickyMillis) {
+        if (stickyMillis < 0) {
+            throw new IllegalArgumentException("Sticky window must not be negative");
+        }
+        this.stickyMillis = stickyMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        bind(lastWriteOf(request), response);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        clear();
+    }
+
+    /**
+     * Attribute the current thread's transactions to a client that last wrote at the given time
+     * (null: not recently), and to whose response the next write's marker goes
+     */
+    public void bind(Long lastWriteAt, HttpServletResponse response) {
+        this.lastWriteAt.set(lastWriteAt);
+        currentResponse.set(response);
+    }
+
+    public void clear() {
+        lastWriteAt.remove();
+        currentResponse.remove();
+    }
+
+    /**
+     * Hand the bound client a fresh last-write marker once the current read-write transaction commits
+     */
+    void recordWrite() {
+        HttpServletResponse response = currentResponse.get();
+        if (response == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.currentTimeMillis();
+                lastWriteAt.set(now);
+                if (!response.isCommitted()) {
+                    Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+                    cookie.setPath("/");
+                    cookie.setHttpOnly(true);
+                    cookie.setMaxAge((int) Math.max(1, (stickyMillis + 999) / 1000));
+                    response.addCookie(cookie);
+                    response.setHeader(LAST_WRITE_HEADER, Long.toString(now));
+                }
+            }
+        });
+    }
+
+    /**
+     * Whether the bound client wrote recently enough that replicas may not show it yet
+     */
+    boolean requiresPrimary() {
+        Long writtenAt = lastWriteAt.get();
+        if (writtenAt == null) {
+            return false;
+        }
+        long age = System.currentTimeMillis() - writtenAt;
+        // A marker from the future is a clock skew between instances, or made up; trust it for one window at most
+        return age < stickyMillis && age > -stickyMillis;
+    }
+
+    // Helper Methods
+
+    private static Long lastWriteOf(HttpServletRequest request) {
+        String value = request.getHeader(LAST_WRITE_HEADER);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                }
+            }
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
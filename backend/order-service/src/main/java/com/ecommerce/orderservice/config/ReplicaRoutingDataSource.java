@@ -0,0 +1,127 @@
+package com.ecommerce.orderservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a replica and everything else to the primary.
+ * Replicas are used round-robin while their measured lag is within max-lag-seconds; a replica that
+ * lags further, or cannot be measured, gets no reads until it catches up. Reads fall back to the
+ * primary when no replica is usable or the client wrote recently (see {@link ReadYourWrites}).
+ * Must sit behind a LazyConnectionDataSourceProxy so the transaction is known when the connection is taken.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> usableReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWrites readYourWrites,
+                                    long maxLagSeconds, String lagQuery, String lagColumn) {
+        if (replicas.containsKey(PRIMARY) || maxLagSeconds < 0) {
+            throw new IllegalArgumentException("Replicas must not be named " + PRIMARY + " and max lag must not be negative");
+        }
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.recordWrite();
+            }
+            return PRIMARY;
+        }
+        List<String> usable = usableReplicas;
+        if (usable.isEmpty() || readYourWrites.requiresPrimary()) {
+            return PRIMARY;
+        }
+        return usable.get(Math.floorMod(nextReplica.getAndIncrement(), usable.size()));
+    }
+
+    /**
+     * Re-measure every replica's lag and route reads only to those within the tolerance
+     */
+    @Scheduled(fixedDelayString = "${orders.read-replicas.lag-check-ms:2000}")
+    public void checkReplicaLag() {
+        List<String> usable = new ArrayList<>();
+        replicas.forEach((name, replica) -> {
+            Long lag = measureLag(name, replica);
+            if (lag != null && lag <= maxLagSeconds) {
+                usable.add(name);
+            } else if (usableReplicas.contains(name)) {
+                logger.warn("Replica {} stopped serving reads, lag: {} s (tolerance {} s)", name, lag, maxLagSeconds);
+            }
+        });
+        if (usable.size() > usableReplicas.size()) {
+            logger.info("Serving reads from replicas {}", usable);
+        }
+        usableReplicas = List.copyOf(usable);
+    }
+
+    public List<String> getUsableReplicas() {
+        return usableReplicas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The primary pool is shut down by whoever owns it
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Helper Methods
+
+    private Long measureLag(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                // Not replicating at all
+                return null;
+            }
+            long lag = resultSet.getLong(lagColumn);
+            return resultSet.wasNull() ? null : lag;
+        } catch (SQLException e) {
+            logger.warn("Could not measure lag of replica {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -3,18 +3,26 @@ package com.ecommerce.orderservice.controller;
 import com.ecommerce.orderservice.dto.*;
 import com.ecommerce.orderservice.entity.OrderStatus;
 import com.ecommerce.orderservice.entity.PaymentStatus;
+import com.ecommerce.orderservice.service.BulkOrderStatusService;
+import com.ecommerce.orderservice.service.OrderExporter;
 import com.ecommerce.orderservice.service.OrderService;
+import com.ecommerce.orderservice.service.ProductSalesRollup;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -24,14 +32,21 @@ public class AdminOrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminOrderController.class);
     private final OrderService orderService;
+    private final BulkOrderStatusService bulkOrderStatusService;
+    private final OrderExporter orderExporter;
+    private final ProductSalesRollup productSalesRollup;
 
     @Autowired
-    public AdminOrderController(OrderService orderService) {
+    public AdminOrderController(OrderService orderService, BulkOrderStatusService bulkOrderStatusService,
+                                OrderExporter orderExporter, ProductSalesRollup productSalesRollup) {
         this.orderService = orderService;
+        this.bulkOrderStatusService = bulkOrderStatusService;
+        this.orderExporter = orderExporter;
+        this.productSalesRollup = productSalesRollup;
     }
 
     /**
-     * Get all orders with filters and pagination (Admin only)
+     * Get all orders with filters and pagination, archived ones on request (Admin only)
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllOrders(
@@ -44,13 +59,14 @@ public class AdminOrderController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDirection,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             logger.info("Admin getting all orders with filters - page: {}, size: {}, search: {}", page, size, search);
             
             PaginatedResponse<OrderDTO> orders = orderService.getAllOrdersForAdmin(
                     userId, orderStatus, paymentStatus, startDate, endDate, 
-                    page, size, sortBy, sortDirection, search);
+                    page, size, sortBy, sortDirection, search, includeArchived);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -69,6 +85,73 @@ public class AdminOrderController {
         }
     }
 
+    /**
+     * Get all orders with filters newest first using a continuation cursor, without page counts (Admin only)
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<Map<String, Object>> getAllOrdersByCursor(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) OrderStatus orderStatus,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            logger.info("Admin getting orders by cursor - cursor: {}, size: {}, search: {}", cursor, size, search);
+            
+            CursorPage<OrderDTO> orders = orderService.getAllOrdersForAdminByCursor(
+                    userId, orderStatus, paymentStatus, startDate, endDate, search, cursor, size);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Orders retrieved successfully");
+            response.put("orders", orders);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting orders by cursor for admin: {}", e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    /**
+     * Export all orders matching the filters as CSV or NDJSON, streamed as they are read, archived orders
+     * only if asked for (Admin only).
+     * An unsupported format is rejected by the exception handler before anything is streamed.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) OrderStatus orderStatus,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "csv") String format) {
+        logger.info("Admin exporting orders - format: {}, search: {}", format, search);
+
+        OrderExporter.Format exportFormat = OrderExporter.Format.of(format);
+        StreamingResponseBody body = outputStream -> {
+            long exported = orderExporter.export(userId, orderStatus, paymentStatus, startDate, endDate,
+                    search, includeArchived, exportFormat, outputStream);
+            logger.info("Exported {} orders as {}", exported, exportFormat);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     /**
      * Get specific order by ID (Admin only)
      */
@@ -125,6 +208,34 @@ public class AdminOrderController {
         }
     }
 
+    /**
+     * Apply one status change to many orders, selected by ID or by filter (Admin only)
+     */
+    @PostMapping("/status/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkOrderStatusUpdateDTO bulkUpdateDTO) {
+        try {
+            logger.info("Admin bulk updating order status: {}", bulkUpdateDTO);
+            
+            BulkOrderStatusResultDTO result = bulkOrderStatusService.updateOrderStatuses(bulkUpdateDTO);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", result.getFailed() == 0);
+            response.put("message", result.getUpdated() + " of " + result.getRequested() + " orders updated");
+            response.put("result", result);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error bulk updating order status: {}", e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
     /**
      * Get order statistics (Admin only)
      */
@@ -152,6 +263,93 @@ public class AdminOrderController {
         }
     }
 
+    /**
+     * Get the best selling products, optionally only on orders created since a day (Admin only)
+     */
+    @GetMapping("/products/popular")
+    public ResponseEntity<Map<String, Object>> getMostPopularProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since) {
+        try {
+            logger.info("Admin getting most popular products - limit: {}, since: {}", limit, since);
+            
+            List<ProductSalesDTO> products = productSalesRollup.getMostPopularProducts(since, limit);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Popular products retrieved successfully");
+            response.put("products", products);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting popular products: {}", e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    /**
+     * Get a product's sales totals, optionally only on orders created since a day (Admin only)
+     */
+    @GetMapping("/products/{productId}/sales")
+    public ResponseEntity<Map<String, Object>> getProductSales(
+            @PathVariable Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since) {
+        try {
+            logger.info("Admin getting sales of product {} since {}", productId, since);
+            
+            ProductSalesDTO sales = productSalesRollup.getProductSales(productId, since);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Product sales retrieved successfully");
+            response.put("sales", sales);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting sales of product {}: {}", productId, e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    /**
+     * Rebuild the product sales rollup from all orders, e.g. to seed it (Admin only)
+     */
+    @PostMapping("/products/sales/backfill")
+    public ResponseEntity<Map<String, Object>> backfillProductSales() {
+        try {
+            logger.info("Admin backfilling product sales rollup");
+            
+            int days = productSalesRollup.backfill();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", days >= 0);
+            response.put("message", days >= 0
+                    ? "Product sales rebuilt for " + days + " days"
+                    : "A backfill is already running");
+            response.put("days", days);
+            
+            return days >= 0 ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            logger.error("Error backfilling product sales: {}", e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
     /**
      * Get orders by status (Admin only)
      */
@@ -160,13 +358,14 @@ public class AdminOrderController {
                                                                @RequestParam(defaultValue = "0") int page,
                                                                @RequestParam(defaultValue = "10") int size,
                                                                @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                               @RequestParam(defaultValue = "desc") String sortDirection) {
+                                                               @RequestParam(defaultValue = "desc") String sortDirection,
+                                                               @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             logger.info("Admin getting orders by status: {} - page: {}, size: {}", orderStatus, page, size);
             
             PaginatedResponse<OrderDTO> orders = orderService.getAllOrdersForAdmin(
                     null, orderStatus, null, null, null, 
-                    page, size, sortBy, sortDirection, null);
+                    page, size, sortBy, sortDirection, null, includeArchived);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -193,13 +392,14 @@ public class AdminOrderController {
                                                                @RequestParam(defaultValue = "0") int page,
                                                                @RequestParam(defaultValue = "10") int size,
                                                                @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                               @RequestParam(defaultValue = "desc") String sortDirection) {
+                                                               @RequestParam(defaultValue = "desc") String sortDirection,
+                                                               @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             logger.info("Admin getting orders for user: {} - page: {}, size: {}", userId, page, size);
             
             PaginatedResponse<OrderDTO> orders = orderService.getAllOrdersForAdmin(
                     userId, null, null, null, null, 
-                    page, size, sortBy, sortDirection, null);
+                    page, size, sortBy, sortDirection, null, includeArchived);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
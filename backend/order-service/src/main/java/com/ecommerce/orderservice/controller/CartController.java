@@ -6,6 +6,8 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -81,6 +83,34 @@ public class CartController {
         }
     }
 
+    /**
+     * Apply a batch of add/update/remove operations to the cart in one step
+     */
+    @PostMapping("/{userId}/batch")
+    public ResponseEntity<Map<String, Object>> applyCartBatch(@PathVariable Long userId,
+                                                            @Valid @RequestBody CartBatchDTO batchDTO) {
+        try {
+            logger.info("Applying cart batch for user {}: {}", userId, batchDTO);
+            
+            CartDTO updatedCart = cartService.applyBatch(userId, batchDTO.getOperations());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Cart updated successfully");
+            response.put("cart", updatedCart);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error applying cart batch for user {}: {}", userId, e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
     /**
      * Update cart item quantity
      */
@@ -168,18 +198,32 @@ public class CartController {
      * Get cart items count
      */
     @GetMapping("/{userId}/count")
-    public ResponseEntity<Map<String, Object>> getCartItemsCount(@PathVariable Long userId) {
+    public ResponseEntity<Map<String, Object>> getCartItemsCount(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            logger.info("Getting cart items count for user: {}", userId);
+            logger.debug("Getting cart items count for user: {}", userId);
             
             Integer itemsCount = cartService.getCartItemsCount(userId);
+
+            // The count is the whole payload, so it doubles as the ETag; clients revalidate on every page view
+            String eTag = "\"" + itemsCount + "\"";
+            if (ifNoneMatch != null && (ifNoneMatch.equals(eTag) || ifNoneMatch.equals("W/" + eTag))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Cart items count retrieved successfully");
             response.put("itemsCount", itemsCount);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(response);
         } catch (Exception e) {
             logger.error("Error getting cart items count for user {}: {}", userId, e.getMessage());
             
@@ -111,18 +111,49 @@ public class OrderController {
     }
 
     /**
-     * Get user's orders with pagination
+     * Get user's orders with pagination, archived ones on request
      */
     @GetMapping("/users/{userId}")
     public ResponseEntity<Map<String, Object>> getUserOrders(@PathVariable Long userId,
                                                            @RequestParam(defaultValue = "0") int page,
                                                            @RequestParam(defaultValue = "10") int size,
                                                            @RequestParam(defaultValue = "createdAt") String sortBy,
-                                                           @RequestParam(defaultValue = "desc") String sortDirection) {
+                                                           @RequestParam(defaultValue = "desc") String sortDirection,
+                                                           @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
             logger.info("Getting orders for user {} - page: {}, size: {}", userId, page, size);
             
-            PaginatedResponse<OrderDTO> orders = orderService.getUserOrders(userId, page, size, sortBy, sortDirection);
+            PaginatedResponse<OrderDTO> orders = orderService.getUserOrders(userId, page, size, sortBy, sortDirection,
+                    includeArchived);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Orders retrieved successfully");
+            response.put("orders", orders);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting orders for user {}: {}", userId, e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    /**
+     * Get user's orders newest first using a continuation cursor instead of page numbers
+     */
+    @GetMapping("/users/{userId}/cursor")
+    public ResponseEntity<Map<String, Object>> getUserOrdersByCursor(@PathVariable Long userId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "10") int size) {
+        try {
+            logger.info("Getting orders for user {} - cursor: {}, size: {}", userId, cursor, size);
+            
+            CursorPage<OrderDTO> orders = orderService.getUserOrdersByCursor(userId, cursor, size);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
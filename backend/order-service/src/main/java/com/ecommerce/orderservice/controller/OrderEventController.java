@@ -0,0 +1,56 @@
+package com.ecommerce.orderservice.controller;
+
+import com.ecommerce.orderservice.dto.OrderEventDTO;
+import com.ecommerce.orderservice.service.OrderEventOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/internal/order-events")
+public class OrderEventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventController.class);
+    private final OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    public OrderEventController(OrderEventOutbox orderEventOutbox) {
+        this.orderEventOutbox = orderEventOutbox;
+    }
+
+    /**
+     * Order events after the given offset (service-to-service). Pass the returned nextAfter to continue.
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getOrderEvents(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<OrderEventDTO> events = orderEventOutbox.getEvents(after, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Order events retrieved successfully");
+            response.put("events", events);
+            response.put("nextAfter", events.isEmpty() ? after : events.get(events.size() - 1).getOffset());
+            response.put("hasMore", events.size() == limit);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting order events after {}: {}", after, e.getMessage());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+}
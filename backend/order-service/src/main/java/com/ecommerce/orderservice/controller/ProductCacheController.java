@@ -0,0 +1,49 @@
+package com.ecommerce.orderservice.controller;
+
+import com.ecommerce.orderservice.service.ProductServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/product-cache")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ProductCacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheController.class);
+    private final ProductServiceClient productServiceClient;
+
+    @Autowired
+    public ProductCacheController(ProductServiceClient productServiceClient) {
+        this.productServiceClient = productServiceClient;
+    }
+
+    /**
+     * Get product snapshot cache metrics (Admin only)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Product cache statistics retrieved successfully");
+            response.put("statistics", productServiceClient.getCacheStats());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error getting product cache statistics: {}", e.getMessage());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.orderservice.dto;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk status update, with one result per requested order
+ */
+public class BulkOrderStatusResultDTO {
+
+    private int requested;
+    private int updated;
+    private int failed;
+    private List<OrderResult> results = new ArrayList<>();
+
+    public void addResult(OrderResult result) {
+        results.add(result);
+        requested++;
+        if (result.isSuccess()) {
+            updated++;
+        } else {
+            failed++;
+        }
+    }
+
+    // Getters and Setters
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<OrderResult> getResults() {
+        return results;
+    }
+
+    public static class OrderResult {
+
+        private Long orderId;
+        private boolean success;
+        private OrderStatus previousStatus;
+        private OrderStatus orderStatus;
+        private String message;
+
+        public OrderResult() {}
+
+        public static OrderResult updated(Long orderId, OrderStatus previousStatus, OrderStatus orderStatus) {
+            OrderResult result = new OrderResult();
+            result.orderId = orderId;
+            result.success = true;
+            result.previousStatus = previousStatus;
+            result.orderStatus = orderStatus;
+            return result;
+        }
+
+        public static OrderResult failed(Long orderId, String message) {
+            OrderResult result = new OrderResult();
+            result.orderId = orderId;
+            result.message = message;
+            return result;
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public OrderStatus getPreviousStatus() {
+            return previousStatus;
+        }
+
+        public OrderStatus getOrderStatus() {
+            return orderStatus;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.orderservice.dto;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A status change for many orders, selected either by ID or by a filter on status, payment status
+ * and creation date
+ */
+public class BulkOrderStatusUpdateDTO {
+
+    @Size(max = 10000, message = "At most 10000 orders can be updated at once")
+    private List<Long> orderIds;
+
+    // Filter, used when no order IDs are given
+    private OrderStatus filterOrderStatus;
+    private PaymentStatus filterPaymentStatus;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+
+    @NotNull(message = "Update is required")
+    @Valid
+    private UpdateOrderStatusDTO update;
+
+    // Constructors
+    public BulkOrderStatusUpdateDTO() {}
+
+    public BulkOrderStatusUpdateDTO(List<Long> orderIds, UpdateOrderStatusDTO update) {
+        this.orderIds = orderIds;
+        this.update = update;
+    }
+
+    public boolean hasFilter() {
+        return filterOrderStatus != null || filterPaymentStatus != null || createdFrom != null || createdTo != null;
+    }
+
+    // Getters and Setters
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public OrderStatus getFilterOrderStatus() {
+        return filterOrderStatus;
+    }
+
+    public void setFilterOrderStatus(OrderStatus filterOrderStatus) {
+        this.filterOrderStatus = filterOrderStatus;
+    }
+
+    public PaymentStatus getFilterPaymentStatus() {
+        return filterPaymentStatus;
+    }
+
+    public void setFilterPaymentStatus(PaymentStatus filterPaymentStatus) {
+        this.filterPaymentStatus = filterPaymentStatus;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public UpdateOrderStatusDTO getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(UpdateOrderStatusDTO update) {
+        this.update = update;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOrderStatusUpdateDTO{" +
+                "orderIds=" + (orderIds != null ? orderIds.size() + " ids" : null) +
+                ", filterOrderStatus=" + filterOrderStatus +
+                ", filterPaymentStatus=" + filterPaymentStatus +
+                ", createdFrom=" + createdFrom +
+                ", createdTo=" + createdTo +
+                ", update=" + update +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.orderservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CartBatchDTO {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "A batch cannot exceed 100 operations")
+    @Valid
+    private List<CartOperationDTO> operations = new ArrayList<>();
+
+    // Constructors
+    public CartBatchDTO() {}
+
+    public CartBatchDTO(List<CartOperationDTO> operations) {
+        this.operations = operations;
+    }
+
+    // Getters and Setters
+    public List<CartOperationDTO> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<CartOperationDTO> operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public String toString() {
+        return "CartBatchDTO{" +
+                "operations=" + operations +
+                '}';
+    }
+}
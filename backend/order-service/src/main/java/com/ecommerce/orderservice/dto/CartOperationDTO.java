@@ -0,0 +1,91 @@
+package com.ecommerce.orderservice.dto;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * One operation of a batch cart mutation. ADD takes a product ID and quantity, UPDATE a cart item ID
+ * and quantity, REMOVE a cart item ID.
+ */
+public class CartOperationDTO {
+
+    public enum Type {
+        ADD, UPDATE, REMOVE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type type;
+
+    @Min(value = 1, message = "Product ID must be positive")
+    private Long productId;
+
+    private Long cartItemId;
+
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 100, message = "Quantity cannot exceed 100 items")
+    private Integer quantity;
+
+    // Constructors
+    public CartOperationDTO() {}
+
+    public CartOperationDTO(Type type, Long productId, Long cartItemId, Integer quantity) {
+        this.type = type;
+        this.productId = productId;
+        this.cartItemId = cartItemId;
+        this.quantity = quantity;
+    }
+
+    public static CartOperationDTO add(Long productId, Integer quantity) {
+        return new CartOperationDTO(Type.ADD, productId, null, quantity);
+    }
+
+    public static CartOperationDTO update(Long cartItemId, Integer quantity) {
+        return new CartOperationDTO(Type.UPDATE, null, cartItemId, quantity);
+    }
+
+    public static CartOperationDTO remove(Long cartItemId) {
+        return new CartOperationDTO(Type.REMOVE, null, cartItemId, null);
+    }
+
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+
+    public void setCartItemId(Long cartItemId) {
+        this.cartItemId = cartItemId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "CartOperationDTO{" +
+                "type=" + type +
+                ", productId=" + productId +
+                ", cartItemId=" + cartItemId +
+                ", quantity=" + quantity +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.orderservice.dto;
+
+import java.util.List;
+
+/**
+ * One slice of a cursor-paginated listing. Pass nextCursor back to get the following slice;
+ * it is null on the last one. There is no total count.
+ */
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int size;
+    private int numberOfElements;
+    private boolean hasMore;
+    private String nextCursor;
+
+    // Constructors
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, int size, boolean hasMore, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.numberOfElements = content.size();
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getNumberOfElements() {
+        return numberOfElements;
+    }
+
+    public void setNumberOfElements(int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPage{" +
+                "size=" + size +
+                ", numberOfElements=" + numberOfElements +
+                ", hasMore=" + hasMore +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.orderservice.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A product's sales summed over the sales rollup
+ */
+public class ProductSalesDTO {
+
+    private Long productId;
+    private String productName;
+    private long units;
+    private BigDecimal revenue;
+    private long orders;
+
+    // Constructors
+    public ProductSalesDTO() {}
+
+    public ProductSalesDTO(Long productId, String productName, Long units, BigDecimal revenue, Long orders) {
+        this.productId = productId;
+        this.productName = productName;
+        this.units = units != null ? units : 0;
+        this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+        this.orders = orders != null ? orders : 0;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(long orders) {
+        this.orders = orders;
+    }
+}
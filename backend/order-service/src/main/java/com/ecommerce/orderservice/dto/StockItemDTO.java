@@ -0,0 +1,58 @@
+package com.ecommerce.orderservice.dto;
+
+import jakarta.validation.constraints.*;
+
+public class StockItemDTO {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    // Idempotency key of a queued release line; product-service applies each key at most once
+    private String releaseKey;
+
+    // Constructors
+    public StockItemDTO() {}
+
+    public StockItemDTO(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getReleaseKey() {
+        return releaseKey;
+    }
+
+    public void setReleaseKey(String releaseKey) {
+        this.releaseKey = releaseKey;
+    }
+
+    @Override
+    public String toString() {
+        return "StockItemDTO{" +
+                "productId=" + productId +
+                ", quantity=" + quantity +
+                ", releaseKey='" + releaseKey + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,179 @@
+package com.ecommerce.orderservice.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An order moved out of the orders table once it reached a final status and aged past the archive
+ * cutoff. The order keeps its id and order number; the order and its items are stored as one JSON
+ * document, since archived orders are only ever read back whole. The fields order listings filter,
+ * search and sort on are copied into columns of their own.
+ */
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_user_created_at", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_archive_created_at", columnList = "created_at, id")
+})
+public class ArchivedOrder implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_number", nullable = false, unique = true, length = 50)
+    private String orderNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", nullable = false)
+    private OrderStatus orderStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status")
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "total_amount", precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "final_amount", precision = 12, scale = 2)
+    private BigDecimal finalAmount;
+
+    @Column(name = "shipping_address", length = 1000)
+    private String shippingAddress;
+
+    @Column(name = "phone_number", length = 20)
+    private String phoneNumber;
+
+    @Column(name = "email", length = 100)
+    private String email;
+
+    @Column(name = "transaction_id", length = 200)
+    private String transactionId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Lob
+    @Column(name = "order_data", nullable = false)
+    private String orderData;
+
+    // Rows are written once and never updated: persist without a lookup by id first
+    @Transient
+    private boolean newEntity;
+
+    // Constructors
+    public ArchivedOrder() {}
+
+    public ArchivedOrder(Order order, String orderData) {
+        this.id = order.getId();
+        this.userId = order.getUserId();
+        this.orderNumber = order.getOrderNumber();
+        this.orderStatus = order.getOrderStatus();
+        this.paymentStatus = order.getPaymentStatus();
+        this.totalAmount = order.getTotalAmount();
+        this.finalAmount = order.getFinalAmount();
+        this.shippingAddress = order.getShippingAddress();
+        this.phoneNumber = order.getPhoneNumber();
+        this.email = order.getEmail();
+        this.transactionId = order.getTransactionId();
+        this.createdAt = order.getCreatedAt();
+        this.updatedAt = order.getUpdatedAt();
+        this.orderData = orderData;
+        this.archivedAt = LocalDateTime.now();
+        this.newEntity = true;
+    }
+
+    // Getters and Setters
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public BigDecimal getFinalAmount() {
+        return finalAmount;
+    }
+
+    public String getShippingAddress() {
+        return shippingAddress;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public String getOrderData() {
+        return orderData;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedOrder{" +
+                "id=" + id +
+                ", orderNumber='" + orderNumber + '\'' +
+                ", userId=" + userId +
+                ", orderStatus=" + orderStatus +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
@@ -8,11 +8,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+        @Index(name = "idx_carts_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "uk_carts_user_id", columnList = "user_id", unique = true)
+})
 public class Cart {
 
+    // Sequence ids (a table on MySQL); IDENTITY would rule out insert batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_seq")
+    @SequenceGenerator(name = "carts_seq", sequenceName = "carts_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "User ID is required")
@@ -27,6 +32,15 @@ public class Cart {
     @Column(name = "total_amount", nullable = false, precision = 12, scale = 2)
     private BigDecimal totalAmount = BigDecimal.ZERO;
 
+    // Sum of line quantities; like the total amount, updated as lines are added, removed or changed
+    @Column(name = "total_items", nullable = false)
+    private Integer totalItems = 0;
+
+    // Optimistic lock: lets each instance tell whether its cached copy of the cart is still current
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -54,33 +68,67 @@ public class Cart {
     }
 
     // Business methods
+
+    /**
+     * Recompute both totals from every line; adding, removing and changing lines keeps them current
+     */
     public void calculateTotalAmount() {
-        this.totalAmount = cartItems.stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = BigDecimal.ZERO;
+        int quantity = 0;
+        for (CartItem item : cartItems) {
+            total = total.add(amountOf(item.getTotalPrice()));
+            quantity += quantityOf(item.getQuantity());
+        }
+        this.totalAmount = total;
+        this.totalItems = quantity;
     }
 
     public void addCartItem(CartItem cartItem) {
         cartItems.add(cartItem);
         cartItem.setCart(this);
-        calculateTotalAmount();
+        addToTotals(quantityOf(cartItem.getQuantity()), amountOf(cartItem.getTotalPrice()));
     }
 
     public void removeCartItem(CartItem cartItem) {
-        cartItems.remove(cartItem);
+        if (cartItems.remove(cartItem)) {
+            addToTotals(-quantityOf(cartItem.getQuantity()), amountOf(cartItem.getTotalPrice()).negate());
+        }
         cartItem.setCart(null);
-        calculateTotalAmount();
+    }
+
+    /**
+     * Called by a line of this cart after its quantity or unit price changed
+     */
+    void itemChanged(CartItem cartItem, Integer previousQuantity, BigDecimal previousTotalPrice) {
+        addToTotals(quantityOf(cartItem.getQuantity()) - quantityOf(previousQuantity),
+                amountOf(cartItem.getTotalPrice()).subtract(amountOf(previousTotalPrice)));
+    }
+
+    private void addToTotals(int quantity, BigDecimal amount) {
+        this.totalItems = quantityOf(totalItems) + quantity;
+        this.totalAmount = amountOf(totalAmount).add(amount);
+    }
+
+    private static int quantityOf(Integer quantity) {
+        return quantity != null ? quantity : 0;
+    }
+
+    private static BigDecimal amountOf(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
     }
 
     public void clearCart() {
         cartItems.clear();
         this.totalAmount = BigDecimal.ZERO;
+        this.totalItems = 0;
     }
 
     public int getTotalItems() {
-        return cartItems.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        return totalItems;
+    }
+
+    public void setTotalItems(Integer totalItems) {
+        this.totalItems = totalItems;
     }
 
     // Getters and Setters
@@ -116,6 +164,14 @@ public class Cart {
         this.totalAmount = totalAmount;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -9,8 +9,10 @@ import java.time.LocalDateTime;
 @Table(name = "cart_items")
 public class CartItem {
 
+    // Sequence ids (a table on MySQL) so new cart lines can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Product ID is required")
@@ -85,8 +87,14 @@ public class CartItem {
     }
 
     public void updateQuantity(Integer newQuantity) {
-        this.quantity = newQuantity;
-        calculateTotalPrice();
+        setQuantity(newQuantity);
+    }
+
+    // Keeps the cart's running totals in step with this line
+    private void notifyCart(Integer previousQuantity, BigDecimal previousTotalPrice) {
+        if (cart != null) {
+            cart.itemChanged(this, previousQuantity, previousTotalPrice);
+        }
     }
 
     // Getters and Setters
@@ -119,7 +127,11 @@ public class CartItem {
     }
 
     public void setUnitPrice(BigDecimal unitPrice) {
+        Integer previousQuantity = this.quantity;
+        BigDecimal previousTotalPrice = this.totalPrice;
         this.unitPrice = unitPrice;
+        calculateTotalPrice();
+        notifyCart(previousQuantity, previousTotalPrice);
     }
 
     public Integer getQuantity() {
@@ -127,8 +139,11 @@ public class CartItem {
     }
 
     public void setQuantity(Integer quantity) {
+        Integer previousQuantity = this.quantity;
+        BigDecimal previousTotalPrice = this.totalPrice;
         this.quantity = quantity;
         calculateTotalPrice();
+        notifyCart(previousQuantity, previousTotalPrice);
     }
 
     public BigDecimal getTotalPrice() {
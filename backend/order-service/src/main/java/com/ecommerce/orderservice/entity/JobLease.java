@@ -0,0 +1,76 @@
+package com.ecommerce.orderservice.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a background job shared by all instances: the job runs only on the instance holding an
+ * unexpired lease
+ */
+@Entity
+@Table(name = "job_leases")
+public class JobLease implements Persistable<String> {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "leased_by", length = 200)
+    private String leasedBy;
+
+    @Column(name = "leased_until", nullable = false)
+    private LocalDateTime leasedUntil;
+
+    // Created rows are inserted, never merged over a lease another instance may have taken meanwhile
+    @Transient
+    private boolean newEntity;
+
+    // Constructors
+    public JobLease() {}
+
+    public JobLease(String jobName, LocalDateTime leasedUntil) {
+        this.jobName = jobName;
+        this.leasedUntil = leasedUntil;
+        this.newEntity = true;
+    }
+
+    // Getters and Setters
+    @Override
+    public String getId() {
+        return jobName;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getLeasedBy() {
+        return leasedBy;
+    }
+
+    public LocalDateTime getLeasedUntil() {
+        return leasedUntil;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+
+    @Override
+    public String toString() {
+        return "JobLease{" +
+                "jobName='" + jobName + '\'' +
+                ", leasedBy='" + leasedBy + '\'' +
+                ", leasedUntil=" + leasedUntil +
+                '}';
+    }
+}
@@ -8,11 +8,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_updated_at", columnList = "updated_at")
+})
 public class Order {
 
+    // Sequence ids (a table on MySQL): an order and its items are inserted as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "User ID is required")
@@ -108,6 +114,14 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Running sums over the lines, updated as lines are added, removed or changed so a line costs the
+    // same on a 10,000-line order as on an empty one. Null until counted for an order loaded from the database
+    @Transient
+    private BigDecimal itemsTotal = BigDecimal.ZERO;
+
+    @Transient
+    private Integer itemsQuantity = 0;
+
     // Constructors
     public Order() {}
 
@@ -138,11 +152,21 @@ public class Order {
         calculateFinalAmount();
     }
 
+    @PostLoad
+    protected void onLoad() {
+        itemsTotal = null;
+        itemsQuantity = null;
+    }
+
     // Business methods
+
+    /**
+     * Recompute the total amount from every line; adding, removing and changing lines keeps it current
+     */
     public void calculateTotalAmount() {
-        this.totalAmount = orderItems.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        itemsTotal = null;
+        countItems();
+        this.totalAmount = itemsTotal;
         calculateFinalAmount();
     }
 
@@ -153,21 +177,66 @@ public class Order {
     }
 
     public void addOrderItem(OrderItem orderItem) {
+        countItems();
         orderItems.add(orderItem);
         orderItem.setOrder(this);
-        calculateTotalAmount();
+        addToTotals(quantityOf(orderItem.getQuantity()), amountOf(orderItem.getTotalPrice()));
     }
 
     public void removeOrderItem(OrderItem orderItem) {
-        orderItems.remove(orderItem);
+        countItems();
+        if (orderItems.remove(orderItem)) {
+            addToTotals(-quantityOf(orderItem.getQuantity()), amountOf(orderItem.getTotalPrice()).negate());
+        }
         orderItem.setOrder(null);
-        calculateTotalAmount();
     }
 
     public int getTotalItems() {
-        return orderItems.stream()
-                .mapToInt(OrderItem::getQuantity)
-                .sum();
+        countItems();
+        return itemsQuantity;
+    }
+
+    /**
+     * Called by a line of this order after its quantity or unit price changed
+     */
+    void itemChanged(OrderItem orderItem, Integer previousQuantity, BigDecimal previousTotalPrice) {
+        if (itemsTotal == null) {
+            // Counting sees the line's new values already
+            countItems();
+            addToTotals(0, BigDecimal.ZERO);
+            return;
+        }
+        addToTotals(quantityOf(orderItem.getQuantity()) - quantityOf(previousQuantity),
+                amountOf(orderItem.getTotalPrice()).subtract(amountOf(previousTotalPrice)));
+    }
+
+    private void countItems() {
+        if (itemsTotal != null) {
+            return;
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        int quantity = 0;
+        for (OrderItem item : orderItems) {
+            total = total.add(amountOf(item.getTotalPrice()));
+            quantity += quantityOf(item.getQuantity());
+        }
+        itemsTotal = total;
+        itemsQuantity = quantity;
+    }
+
+    private void addToTotals(int quantity, BigDecimal amount) {
+        itemsQuantity += quantity;
+        itemsTotal = itemsTotal.add(amount);
+        this.totalAmount = itemsTotal;
+        calculateFinalAmount();
+    }
+
+    private static int quantityOf(Integer quantity) {
+        return quantity != null ? quantity : 0;
+    }
+
+    private static BigDecimal amountOf(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
     }
 
     private void generateOrderNumber() {
@@ -220,6 +289,8 @@ public class Order {
 
     public void setOrderItems(List<OrderItem> orderItems) {
         this.orderItems = orderItems;
+        itemsTotal = null;
+        itemsQuantity = null;
     }
 
     public OrderStatus getOrderStatus() {
@@ -0,0 +1,140 @@
+package com.ecommerce.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for one order lifecycle event, written in the transaction that changed the order. The
+ * relay gives committed events their position in the feed (sequence) in commit order, so a consumer
+ * that has read up to some sequence never misses an event that commits later with a lower id.
+ */
+@Entity
+@Table(name = "order_events", indexes = {
+        @Index(name = "idx_order_events_sequence", columnList = "sequence_number", unique = true),
+        @Index(name = "idx_order_events_order_id", columnList = "order_id")
+})
+public class OrderEvent {
+
+    // Sequence ids (a table on MySQL) so the events of a bulk update are inserted as JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+    @SequenceGenerator(name = "order_events_seq", sequenceName = "order_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "sequence_number")
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OrderEventType eventType;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "order_number", nullable = false, length = 50)
+    private String orderNumber;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private OrderStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", nullable = false)
+    private OrderStatus orderStatus;
+
+    @Lob
+    @Column(name = "order_data", nullable = false)
+    private String orderData;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Constructors
+    public OrderEvent() {}
+
+    public OrderEvent(OrderEventType eventType, Order order, OrderStatus previousStatus, String orderData) {
+        this.eventType = eventType;
+        this.orderId = order.getId();
+        this.orderNumber = order.getOrderNumber();
+        this.userId = order.getUserId();
+        this.previousStatus = previousStatus;
+        this.orderStatus = order.getOrderStatus();
+        this.orderData = orderData;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Give the event its position in the feed
+     */
+    public void publish(long sequence) {
+        this.sequence = sequence;
+        this.publishedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public OrderEventType getEventType() {
+        return eventType;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public String getOrderData() {
+        return orderData;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderEvent{" +
+                "id=" + id +
+                ", sequence=" + sequence +
+                ", eventType=" + eventType +
+                ", orderId=" + orderId +
+                ", orderStatus=" + orderStatus +
+                '}';
+    }
+}
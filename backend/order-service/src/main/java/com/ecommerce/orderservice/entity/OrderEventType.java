@@ -0,0 +1,7 @@
+package com.ecommerce.orderservice.entity;
+
+public enum OrderEventType {
+    CREATED,
+    STATUS_CHANGED,
+    CANCELLED
+}
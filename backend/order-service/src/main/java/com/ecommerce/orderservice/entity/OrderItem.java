@@ -9,8 +9,10 @@ import java.time.LocalDateTime;
 @Table(name = "order_items")
 public class OrderItem {
 
+    // Sequence ids (a table on MySQL) so the lines of an order go out as one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Product ID is required")
@@ -96,8 +98,7 @@ public class OrderItem {
     }
 
     public void updateQuantity(Integer newQuantity) {
-        this.quantity = newQuantity;
-        calculateTotalPrice();
+        setQuantity(newQuantity);
     }
 
     // Create from CartItem
@@ -112,6 +113,13 @@ public class OrderItem {
         return orderItem;
     }
 
+    // Keeps the order's running totals in step with this line
+    private void notifyOrder(Integer previousQuantity, BigDecimal previousTotalPrice) {
+        if (order != null) {
+            order.itemChanged(this, previousQuantity, previousTotalPrice);
+        }
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -150,8 +158,11 @@ public class OrderItem {
     }
 
     public void setUnitPrice(BigDecimal unitPrice) {
+        Integer previousQuantity = this.quantity;
+        BigDecimal previousTotalPrice = this.totalPrice;
         this.unitPrice = unitPrice;
         calculateTotalPrice();
+        notifyOrder(previousQuantity, previousTotalPrice);
     }
 
     public Integer getQuantity() {
@@ -159,8 +170,11 @@ public class OrderItem {
     }
 
     public void setQuantity(Integer quantity) {
+        Integer previousQuantity = this.quantity;
+        BigDecimal previousTotalPrice = this.totalPrice;
         this.quantity = quantity;
         calculateTotalPrice();
+        notifyOrder(previousQuantity, previousTotalPrice);
     }
 
     public BigDecimal getTotalPrice() {
@@ -0,0 +1,77 @@
+package com.ecommerce.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sales of one product on the orders created on one day, net of those orders that were cancelled since:
+ * units and revenue of its order items and the number of orders containing it
+ */
+@Entity
+@Table(name = "product_sales_rollup", indexes = {
+        @Index(name = "idx_product_sales_rollup_product_date", columnList = "product_id, sales_date")
+})
+@IdClass(ProductDailySalesId.class)
+public class ProductDailySales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    // Constructors
+    public ProductDailySales() {}
+
+    // Getters
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductDailySales{" +
+                "salesDate=" + salesDate +
+                ", productId=" + productId +
+                ", units=" + units +
+                ", revenue=" + revenue +
+                ", orderCount=" + orderCount +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.orderservice.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Primary key of a product's sales rollup row: the day first, so one day's rows are one key range
+ */
+public class ProductDailySalesId implements Serializable {
+
+    private LocalDate salesDate;
+    private Long productId;
+
+    // Constructors
+    public ProductDailySalesId() {}
+
+    public ProductDailySalesId(LocalDate salesDate, Long productId) {
+        this.salesDate = salesDate;
+        this.productId = productId;
+    }
+
+    // Getters
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProductDailySalesId that)) return false;
+        return Objects.equals(salesDate, that.salesDate) && Objects.equals(productId, that.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(salesDate, productId);
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reserved stock of one product of an order that still has to be settled with product-service:
+ * handed back when the order was cancelled, or committed when it shipped. Written in the transaction
+ * that changes the order and deleted once product-service applied it, or kept as a dead letter if
+ * product-service keeps refusing it.
+ */
+@Entity
+@Table(name = "stock_releases", indexes = {
+        @Index(name = "idx_stock_releases_next_attempt_at", columnList = "next_attempt_at")
+})
+public class StockRelease {
+
+    public enum Operation {
+        RELEASE, COMMIT
+    }
+
+    // Sequence ids (a table on MySQL) so the releases of a bulk cancellation are inserted as JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_releases_seq")
+    @SequenceGenerator(name = "stock_releases_seq", sequenceName = "stock_releases_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 16)
+    private Operation operation = Operation.RELEASE;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set once product-service has refused the line max-attempts times; the worker then leaves it alone
+    @Column(name = "dead_lettered_at")
+    private LocalDateTime deadLetteredAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public StockRelease() {}
+
+    public StockRelease(Long orderId, Long productId, Integer quantity) {
+        this(orderId, productId, quantity, Operation.RELEASE);
+    }
+
+    public StockRelease(Long orderId, Long productId, Integer quantity, Operation operation) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.operation = operation;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    /**
+     * Idempotency key product-service records when it applies this line; an order releases or commits
+     * each product once
+     */
+    public String getReleaseKey() {
+        String key = "order-" + orderId + "-product-" + productId;
+        return operation == Operation.COMMIT ? key + "-commit" : key;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getDeadLetteredAt() {
+        return deadLetteredAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StockRelease{" +
+                "id=" + id +
+                ", orderId=" + orderId +
+                ", productId=" + productId +
+                ", quantity=" + quantity +
+                ", operation=" + operation +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.orderservice.mapper;
+
+import com.ecommerce.orderservice.dto.CartDTO;
+import com.ecommerce.orderservice.dto.CartItemDTO;
+import com.ecommerce.orderservice.entity.Cart;
+import com.ecommerce.orderservice.entity.CartItem;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps carts and their items to DTOs with plain getter/setter calls
+ */
+@Component
+public class CartMapper {
+
+    public CartDTO toDTO(Cart cart) {
+        CartDTO dto = new CartDTO();
+        dto.setId(cart.getId());
+        dto.setUserId(cart.getUserId());
+        dto.setTotalAmount(cart.getTotalAmount());
+        dto.setCreatedAt(cart.getCreatedAt());
+        dto.setUpdatedAt(cart.getUpdatedAt());
+
+        List<CartItem> items = cart.getCartItems();
+        List<CartItemDTO> itemDTOs = new ArrayList<>(items.size());
+        int totalItems = 0;
+        for (CartItem item : items) {
+            itemDTOs.add(toDTO(item));
+            totalItems += item.getQuantity();
+        }
+        dto.setCartItems(itemDTOs);
+        dto.setTotalItems(totalItems);
+        return dto;
+    }
+
+    public CartItemDTO toDTO(CartItem item) {
+        CartItemDTO dto = new CartItemDTO();
+        dto.setId(item.getId());
+        dto.setProductId(item.getProductId());
+        dto.setProductName(item.getProductName());
+        dto.setUnitPrice(item.getUnitPrice());
+        dto.setQuantity(item.getQuantity());
+        dto.setTotalPrice(item.getTotalPrice());
+        dto.setProductImageUrl(item.getProductImageUrl());
+        dto.setCreatedAt(item.getCreatedAt());
+        dto.setUpdatedAt(item.getUpdatedAt());
+        return dto;
+    }
+}
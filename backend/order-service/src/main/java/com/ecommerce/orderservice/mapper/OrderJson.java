@@ -0,0 +1,39 @@
+package com.ecommerce.orderservice.mapper;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Stored JSON form of an order with its items, as kept in the order archive and the order event outbox.
+ * Dates are ISO strings and unknown properties are ignored, so documents written before a DTO change stay readable.
+ */
+public final class OrderJson {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private OrderJson() {}
+
+    public static String write(OrderDTO order) {
+        try {
+            return MAPPER.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize order " + order.getId(), e);
+        }
+    }
+
+    public static OrderDTO read(String json) {
+        try {
+            return MAPPER.readValue(json, OrderDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored order", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.orderservice.mapper;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.OrderItemDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps orders and their items to DTOs with plain getter/setter calls
+ */
+@Component
+public class OrderMapper {
+
+    public OrderDTO toDTO(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+        dto.setUserId(order.getUserId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setOrderStatus(order.getOrderStatus());
+        dto.setPaymentStatus(order.getPaymentStatus());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setTaxAmount(order.getTaxAmount());
+        dto.setShippingAmount(order.getShippingAmount());
+        dto.setDiscountAmount(order.getDiscountAmount());
+        dto.setCouponCode(order.getCouponCode());
+        dto.setFinalAmount(order.getFinalAmount());
+        dto.setShippingAddress(order.getShippingAddress());
+        dto.setBillingAddress(order.getBillingAddress());
+        dto.setPhoneNumber(order.getPhoneNumber());
+        dto.setEmail(order.getEmail());
+        dto.setNotes(order.getNotes());
+        dto.setPaymentMethod(order.getPaymentMethod());
+        dto.setTransactionId(order.getTransactionId());
+        dto.setEstimatedDeliveryDate(order.getEstimatedDeliveryDate());
+        dto.setActualDeliveryDate(order.getActualDeliveryDate());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setUpdatedAt(order.getUpdatedAt());
+
+        List<OrderItem> items = order.getOrderItems();
+        List<OrderItemDTO> itemDTOs = new ArrayList<>(items.size());
+        int totalItems = 0;
+        for (OrderItem item : items) {
+            itemDTOs.add(toDTO(item));
+            totalItems += item.getQuantity();
+        }
+        dto.setOrderItems(itemDTOs);
+        dto.setTotalItems(totalItems);
+        return dto;
+    }
+
+    public OrderItemDTO toDTO(OrderItem item) {
+        OrderItemDTO dto = new OrderItemDTO();
+        dto.setId(item.getId());
+        dto.setProductId(item.getProductId());
+        dto.setProductName(item.getProductName());
+        dto.setProductDescription(item.getProductDescription());
+        dto.setUnitPrice(item.getUnitPrice());
+        dto.setQuantity(item.getQuantity());
+        dto.setTotalPrice(item.getTotalPrice());
+        dto.setProductImageUrl(item.getProductImageUrl());
+        dto.setProductCategory(item.getProductCategory());
+        dto.setCreatedAt(item.getCreatedAt());
+        dto.setUpdatedAt(item.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    /**
+     * Find archived order by order number
+     */
+    Optional<ArchivedOrder> findByOrderNumber(String orderNumber);
+
+    /**
+     * Find a user's archived orders with pagination
+     */
+    Page<ArchivedOrder> findByUserId(Long userId, Pageable pageable);
+
+    /**
+     * Keyset page of a user's archived orders, newest first, strictly after the (createdAt, id) position
+     */
+    @Query("SELECT a FROM ArchivedOrder a WHERE a.userId = :userId AND " +
+           "a.createdAt <= :afterCreatedAt AND (a.createdAt < :afterCreatedAt OR a.id < :afterId) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArchivedOrder> findByUserIdAfter(@Param("userId") Long userId,
+                                          @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                          @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    /**
+     * Find archived orders with the admin filters and search
+     */
+    @Query("SELECT a FROM ArchivedOrder a WHERE " +
+           "(:userId IS NULL OR a.userId = :userId) AND " +
+           "(:orderStatus IS NULL OR a.orderStatus = :orderStatus) AND " +
+           "(:paymentStatus IS NULL OR a.paymentStatus = :paymentStatus) AND " +
+           "(:startDate IS NULL OR a.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR a.createdAt <= :endDate) AND " +
+           "(:search IS NULL OR :search = '' OR " +
+           "LOWER(a.orderNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.phoneNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.shippingAddress) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.transactionId) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<ArchivedOrder> findWithFiltersAndSearch(@Param("userId") Long userId,
+                                                 @Param("orderStatus") OrderStatus orderStatus,
+                                                 @Param("paymentStatus") PaymentStatus paymentStatus,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate,
+                                                 @Param("search") String search,
+                                                 Pageable pageable);
+
+    /**
+     * Keyset page of archived orders matching the admin filters and search, newest first, strictly after the (createdAt, id) position
+     */
+    @Query("SELECT a FROM ArchivedOrder a WHERE " +
+           "(:userId IS NULL OR a.userId = :userId) AND " +
+           "(:orderStatus IS NULL OR a.orderStatus = :orderStatus) AND " +
+           "(:paymentStatus IS NULL OR a.paymentStatus = :paymentStatus) AND " +
+           "(:startDate IS NULL OR a.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR a.createdAt <= :endDate) AND " +
+           "(:search IS NULL OR :search = '' OR " +
+           "LOWER(a.orderNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.phoneNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.shippingAddress) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.transactionId) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "a.createdAt <= :afterCreatedAt AND (a.createdAt < :afterCreatedAt OR a.id < :afterId) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArchivedOrder> findWithFiltersAndSearchAfter(@Param("userId") Long userId,
+                                                      @Param("orderStatus") OrderStatus orderStatus,
+                                                      @Param("paymentStatus") PaymentStatus paymentStatus,
+                                                      @Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate,
+                                                      @Param("search") String search,
+                                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                      @Param("afterId") Long afterId,
+                                                      Limit limit);
+
+    /**
+     * Count archived orders per status in one query
+     */
+    @Query("SELECT a.orderStatus, COUNT(a) FROM ArchivedOrder a GROUP BY a.orderStatus")
+    List<Object[]> countArchivedOrdersGroupedByStatus();
+
+    /**
+     * Next chunk by id of the archived orders created in [start, end), leaving out the excluded status
+     */
+    @Query("SELECT a FROM ArchivedOrder a WHERE a.createdAt >= :start AND a.createdAt < :end AND " +
+           "a.orderStatus <> :excludedStatus AND a.id > :afterId ORDER BY a.id")
+    List<ArchivedOrder> findCreatedBetween(@Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end,
+                                           @Param("excludedStatus") OrderStatus excludedStatus,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    /**
+     * Creation time of the oldest archived order
+     */
+    @Query("SELECT MIN(a.createdAt) FROM ArchivedOrder a")
+    Optional<LocalDateTime> findEarliestCreatedAt();
+}
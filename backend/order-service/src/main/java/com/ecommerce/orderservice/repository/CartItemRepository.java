@@ -2,10 +2,14 @@ package com.ecommerce.orderservice.repository;
 
 import com.ecommerce.orderservice.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,4 +48,22 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
      */
     @Query("SELECT COUNT(ci) > 0 FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.productId = :productId")
     boolean existsByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
-} 
\ No newline at end of file
+
+    /**
+     * Overwrite the product details and quantity of one line
+     */
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.productName = :productName, ci.unitPrice = :unitPrice, ci.quantity = :quantity, " +
+           "ci.totalPrice = :totalPrice, ci.productImageUrl = :productImageUrl, ci.updatedAt = :updatedAt WHERE ci.id = :id")
+    int updateLine(@Param("id") Long id, @Param("productName") String productName,
+                   @Param("unitPrice") BigDecimal unitPrice, @Param("quantity") Integer quantity,
+                   @Param("totalPrice") BigDecimal totalPrice, @Param("productImageUrl") String productImageUrl,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Delete the cart items of the given carts in one statement
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds")
+    int deleteByCartIdIn(@Param("cartIds") Collection<Long> cartIds);
+}
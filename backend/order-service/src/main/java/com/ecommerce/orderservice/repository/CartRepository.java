@@ -1,11 +1,19 @@
 package com.ecommerce.orderservice.repository;
 
 import com.ecommerce.orderservice.entity.Cart;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -32,9 +40,58 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.cartItems WHERE c.userId = :userId")
     Optional<Cart> findByUserIdWithCartItems(@Param("userId") Long userId);
 
+    /**
+     * Version of the user's cart, to check a cached copy without loading the cart
+     */
+    @Query("SELECT c.version FROM Cart c WHERE c.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Move the cart to the next version with the given totals, provided it is still at the expected
+     * version. Returns 0 if another change got there first; otherwise the row stays locked until the
+     * transaction ends.
+     */
+    @Modifying
+    @Query("UPDATE Cart c SET c.version = c.version + 1, c.totalAmount = :totalAmount, c.totalItems = :totalItems, " +
+           "c.updatedAt = :updatedAt WHERE c.id = :id AND c.version = :version")
+    int updateIfVersion(@Param("id") Long id, @Param("version") long version,
+                        @Param("totalAmount") BigDecimal totalAmount, @Param("totalItems") Integer totalItems,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Get the carts of several users with their cart items
+     */
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.cartItems WHERE c.userId IN :userIds")
+    List<Cart> findByUserIdInWithCartItems(@Param("userIds") Collection<Long> userIds);
+
     /**
      * Count total items in user's cart
      */
-    @Query("SELECT COALESCE(SUM(ci.quantity), 0) FROM Cart c JOIN c.cartItems ci WHERE c.userId = :userId")
+    @Query("SELECT COALESCE(MAX(c.totalItems), 0) FROM Cart c WHERE c.userId = :userId")
     Integer getTotalItemsByUserId(@Param("userId") Long userId);
-} 
\ No newline at end of file
+
+    /**
+     * ID, user ID and last change of carts idle since the cutoff, after the given (updatedAt, id) position in that order
+     */
+    @Query("SELECT c.id, c.userId, c.updatedAt FROM Cart c WHERE c.updatedAt < :cutoff AND " +
+           "(c.updatedAt > :afterUpdatedAt OR (c.updatedAt = :afterUpdatedAt AND c.id > :afterId)) " +
+           "ORDER BY c.updatedAt, c.id")
+    List<Object[]> findIdleAfter(@Param("cutoff") LocalDateTime cutoff,
+                                 @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                 @Param("afterId") Long afterId,
+                                 Limit limit);
+
+    /**
+     * Lock those of the given carts that are still idle since the cutoff (without their items)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.id IN :cartIds AND c.updatedAt < :cutoff")
+    List<Cart> lockIdle(@Param("cartIds") Collection<Long> cartIds, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Delete the given carts if they are still idle since the cutoff. Their cart items must be deleted first.
+     */
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :cartIds AND c.updatedAt < :cutoff")
+    int deleteIdle(@Param("cartIds") Collection<Long> cartIds, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.OrderEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    /**
+     * Committed events not yet in the feed, oldest first
+     */
+    @Query("SELECT e FROM OrderEvent e WHERE e.sequence IS NULL ORDER BY e.id")
+    List<OrderEvent> findUnpublished(Limit limit);
+
+    /**
+     * Highest feed position handed out so far (0 when the feed is empty)
+     */
+    @Query("SELECT COALESCE(MAX(e.sequence), 0) FROM OrderEvent e")
+    long findMaxSequence();
+
+    /**
+     * Feed events after the given position, in feed order
+     */
+    @Query("SELECT e FROM OrderEvent e WHERE e.sequence > :after ORDER BY e.sequence")
+    List<OrderEvent> findPublishedAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Ids of events published before the cutoff and below the given feed position, in feed order
+     */
+    @Query("SELECT e.id FROM OrderEvent e WHERE e.sequence < :below AND e.publishedAt < :cutoff ORDER BY e.sequence")
+    List<Long> findPublishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("below") long below, Limit limit);
+}
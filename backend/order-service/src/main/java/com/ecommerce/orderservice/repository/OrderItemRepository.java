@@ -1,11 +1,15 @@
 package com.ecommerce.orderservice.repository;
 
 import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,23 +36,27 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     void deleteByOrderId(Long orderId);
 
     /**
-     * Find order items by user ID through order
+     * Delete the order items of the given orders in one statement
      */
-    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.userId = :userId")
-    List<OrderItem> findByUserId(@Param("userId") Long userId);
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 
     /**
-     * Get total quantity of a product across all orders
+     * Find order items by user ID through order
      */
-    @Query("SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi WHERE oi.productId = :productId")
-    Long getTotalQuantityByProductId(@Param("productId") Long productId);
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.userId = :userId")
+    List<OrderItem> findByUserId(@Param("userId") Long userId);
 
     /**
-     * Find most popular products (by total quantity ordered)
+     * Sales per product on the orders created in [start, end), leaving out orders in the excluded status:
+     * product id, product name, units, revenue and number of orders
      */
-    @Query("SELECT oi.productId, oi.productName, SUM(oi.quantity) as totalQuantity " +
-           "FROM OrderItem oi " +
-           "GROUP BY oi.productId, oi.productName " +
-           "ORDER BY totalQuantity DESC")
-    List<Object[]> findMostPopularProducts();
-} 
\ No newline at end of file
+    @Query("SELECT oi.productId, MAX(oi.productName), SUM(oi.quantity), SUM(oi.totalPrice), COUNT(DISTINCT o.id) " +
+           "FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.createdAt >= :start AND o.createdAt < :end AND o.orderStatus <> :excludedStatus " +
+           "GROUP BY oi.productId")
+    List<Object[]> sumSalesByProductCreatedBetween(@Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end,
+                                                   @Param("excludedStatus") OrderStatus excludedStatus);
+}
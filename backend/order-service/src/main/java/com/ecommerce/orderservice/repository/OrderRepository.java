@@ -3,14 +3,17 @@ package com.ecommerce.orderservice.repository;
 import com.ecommerce.orderservice.entity.Order;
 import com.ecommerce.orderservice.entity.OrderStatus;
 import com.ecommerce.orderservice.entity.PaymentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +42,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :orderId")
     Optional<Order> findByIdWithOrderItems(@Param("orderId") Long orderId);
 
+    /**
+     * Load the given orders with their order items in one query (used to fill a page of orders)
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :orderIds")
+    List<Order> findWithOrderItemsByIdIn(@Param("orderIds") Collection<Long> orderIds);
+
     /**
      * Find orders by status
      */
@@ -100,16 +109,151 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                                               @Param("search") String search,
                                               Pageable pageable);
 
+    /**
+     * Keyset page of a user's orders, newest first, strictly after the (createdAt, id) position
+     */
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND " +
+           "o.createdAt <= :afterCreatedAt AND (o.createdAt < :afterCreatedAt OR o.id < :afterId) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByUserIdAfter(@Param("userId") Long userId,
+                                  @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                  @Param("afterId") Long afterId,
+                                  Limit limit);
+
+    /**
+     * Keyset page of orders matching the admin filters and search, newest first, strictly after the (createdAt, id) position
+     */
+    @Query("SELECT o FROM Order o WHERE " +
+           "(:userId IS NULL OR o.userId = :userId) AND " +
+           "(:orderStatus IS NULL OR o.orderStatus = :orderStatus) AND " +
+           "(:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) AND " +
+           "(:startDate IS NULL OR o.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR o.createdAt <= :endDate) AND " +
+           "(:search IS NULL OR :search = '' OR " +
+           "LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(o.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(o.phoneNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(o.shippingAddress) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(o.transactionId) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "o.createdAt <= :afterCreatedAt AND (o.createdAt < :afterCreatedAt OR o.id < :afterId) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findOrdersWithFiltersAndSearchAfter(@Param("userId") Long userId,
+                                                   @Param("orderStatus") OrderStatus orderStatus,
+                                                   @Param("paymentStatus") PaymentStatus paymentStatus,
+                                                   @Param("startDate") LocalDateTime startDate,
+                                                   @Param("endDate") LocalDateTime endDate,
+                                                   @Param("search") String search,
+                                                   @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    /**
+     * Find orders among the given ids (search index matches) with the admin filters
+     */
+    @Query("SELECT o FROM Order o WHERE o.id IN :orderIds AND " +
+           "(:userId IS NULL OR o.userId = :userId) AND " +
+           "(:orderStatus IS NULL OR o.orderStatus = :orderStatus) AND " +
+           "(:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) AND " +
+           "(:startDate IS NULL OR o.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR o.createdAt <= :endDate)")
+    Page<Order> findOrdersWithFiltersByIdIn(@Param("orderIds") Collection<Long> orderIds,
+                                           @Param("userId") Long userId,
+                                           @Param("orderStatus") OrderStatus orderStatus,
+                                           @Param("paymentStatus") PaymentStatus paymentStatus,
+                                           @Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate,
+                                           Pageable pageable);
+
+    /**
+     * Keyset page of orders among the given ids (search index matches) with the admin filters
+     */
+    @Query("SELECT o FROM Order o WHERE o.id IN :orderIds AND " +
+           "(:userId IS NULL OR o.userId = :userId) AND " +
+           "(:orderStatus IS NULL OR o.orderStatus = :orderStatus) AND " +
+           "(:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) AND " +
+           "(:startDate IS NULL OR o.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR o.createdAt <= :endDate) AND " +
+           "o.createdAt <= :afterCreatedAt AND (o.createdAt < :afterCreatedAt OR o.id < :afterId) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findOrdersWithFiltersByIdInAfter(@Param("orderIds") Collection<Long> orderIds,
+                                                @Param("userId") Long userId,
+                                                @Param("orderStatus") OrderStatus orderStatus,
+                                                @Param("paymentStatus") PaymentStatus paymentStatus,
+                                                @Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate,
+                                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                @Param("afterId") Long afterId,
+                                                Limit limit);
+
+    /**
+     * Searchable fields of orders after the given id, in id order (loading the search index)
+     */
+    @Query("SELECT o.id, o.orderNumber, o.email, o.phoneNumber, o.shippingAddress, o.transactionId " +
+           "FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Object[]> findSearchFieldsAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Searchable fields of orders changed since the given time (keeping the search index current)
+     */
+    @Query("SELECT o.id, o.orderNumber, o.email, o.phoneNumber, o.shippingAddress, o.transactionId " +
+           "FROM Order o WHERE o.updatedAt >= :since")
+    List<Object[]> findSearchFieldsUpdatedSince(@Param("since") LocalDateTime since);
+
     /**
      * Count orders by user ID
      */
     int countByUserId(Long userId);
 
+    /**
+     * IDs of the orders matching the filters, in ID order (selects the orders of a bulk status update)
+     */
+    @Query("SELECT o.id FROM Order o WHERE " +
+           "(:orderStatus IS NULL OR o.orderStatus = :orderStatus) AND " +
+           "(:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) AND " +
+           "(:startDate IS NULL OR o.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR o.createdAt <= :endDate) " +
+           "ORDER BY o.id")
+    List<Long> findIdsWithFilters(@Param("orderStatus") OrderStatus orderStatus,
+                                  @Param("paymentStatus") PaymentStatus paymentStatus,
+                                  @Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate,
+                                  Limit limit);
+
+    /**
+     * IDs of orders in one of the given statuses not changed since the cutoff, in ID order (selects orders to archive)
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.orderStatus IN :statuses AND o.updatedAt < :cutoff ORDER BY o.id")
+    List<Long> findIdsToArchive(@Param("statuses") Collection<OrderStatus> statuses,
+                                @Param("cutoff") LocalDateTime cutoff,
+                                Limit limit);
+
+    /**
+     * Delete the given orders if they still are in one of the statuses and unchanged since the cutoff.
+     * Their order items must be deleted first.
+     */
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :orderIds AND o.orderStatus IN :statuses AND o.updatedAt < :cutoff")
+    int deleteArchived(@Param("orderIds") Collection<Long> orderIds,
+                       @Param("statuses") Collection<OrderStatus> statuses,
+                       @Param("cutoff") LocalDateTime cutoff);
+
     /**
      * Count orders by status
      */
     int countByOrderStatus(OrderStatus orderStatus);
 
+    /**
+     * Count orders per status in one query
+     */
+    @Query("SELECT o.orderStatus, COUNT(o) FROM Order o GROUP BY o.orderStatus")
+    List<Object[]> countOrdersGroupedByStatus();
+
+    /**
+     * Creation time of the oldest order
+     */
+    @Query("SELECT MIN(o.createdAt) FROM Order o")
+    Optional<LocalDateTime> findEarliestCreatedAt();
+
     /**
      * Check if order number exists
      */
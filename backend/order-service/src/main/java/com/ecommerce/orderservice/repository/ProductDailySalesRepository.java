@@ -0,0 +1,61 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.dto.ProductSalesDTO;
+import com.ecommerce.orderservice.entity.ProductDailySales;
+import com.ecommerce.orderservice.entity.ProductDailySalesId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductDailySalesRepository extends JpaRepository<ProductDailySales, ProductDailySalesId> {
+
+    /**
+     * Add to a product's sales on a day in one statement, creating the row on the first sale. Safe against
+     * concurrent writers of the same row, which an update-or-insert in two statements is not.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_sales_rollup (sales_date, product_id, product_name, units, revenue, order_count) " +
+                   "VALUES (:salesDate, :productId, :productName, :units, :revenue, :orders) " +
+                   "ON DUPLICATE KEY UPDATE product_name = :productName, units = units + :units, " +
+                   "revenue = revenue + :revenue, order_count = order_count + :orders",
+           nativeQuery = true)
+    int addSales(@Param("salesDate") LocalDate salesDate,
+                 @Param("productId") Long productId,
+                 @Param("productName") String productName,
+                 @Param("units") long units,
+                 @Param("revenue") BigDecimal revenue,
+                 @Param("orders") long orders);
+
+    /**
+     * Delete all rows of a day
+     */
+    @Modifying
+    @Query("DELETE FROM ProductDailySales s WHERE s.salesDate = :salesDate")
+    int deleteBySalesDate(@Param("salesDate") LocalDate salesDate);
+
+    /**
+     * Products by units sold on orders created on or after the given day (any day when null), best selling first
+     */
+    @Query("SELECT new com.ecommerce.orderservice.dto.ProductSalesDTO(s.productId, MAX(s.productName), " +
+           "SUM(s.units), SUM(s.revenue), SUM(s.orderCount)) " +
+           "FROM ProductDailySales s WHERE (:since IS NULL OR s.salesDate >= :since) " +
+           "GROUP BY s.productId ORDER BY SUM(s.units) DESC, s.productId")
+    List<ProductSalesDTO> findMostPopularProducts(@Param("since") LocalDate since, Limit limit);
+
+    /**
+     * A product's sales on orders created on or after the given day (any day when null)
+     */
+    @Query("SELECT new com.ecommerce.orderservice.dto.ProductSalesDTO(s.productId, MAX(s.productName), " +
+           "SUM(s.units), SUM(s.revenue), SUM(s.orderCount)) " +
+           "FROM ProductDailySales s WHERE s.productId = :productId AND (:since IS NULL OR s.salesDate >= :since) " +
+           "GROUP BY s.productId")
+    List<ProductSalesDTO> findProductSales(@Param("productId") Long productId, @Param("since") LocalDate since);
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.StockRelease;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReleaseRepository extends JpaRepository<StockRelease, Long> {
+
+    /**
+     * Lock releases that are due, oldest first, skipping dead letters and rows another instance has locked
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM StockRelease r WHERE r.nextAttemptAt <= :now AND r.deadLetteredAt IS NULL " +
+           "ORDER BY r.nextAttemptAt, r.id")
+    List<StockRelease> lockDue(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Count a failed attempt for the given releases and schedule their next one
+     */
+    @Modifying
+    @Query("UPDATE StockRelease r SET r.attempts = r.attempts + 1, r.nextAttemptAt = :nextAttemptAt WHERE r.id IN :ids")
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Count a last refused attempt and take the releases out of the queue
+     */
+    @Modifying
+    @Query("UPDATE StockRelease r SET r.attempts = r.attempts + 1, r.deadLetteredAt = :now WHERE r.id IN :ids")
+    int deadLetter(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    long countByDeadLetteredAtIsNull();
+
+    long countByDeadLetteredAtIsNotNull();
+}
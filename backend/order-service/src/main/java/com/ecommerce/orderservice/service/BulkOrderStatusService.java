@@ -0,0 +1,173 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.BulkOrderStatusResultDTO;
+import com.ecommerce.orderservice.dto.BulkOrderStatusResultDTO.OrderResult;
+import com.ecommerce.orderservice.dto.BulkOrderStatusUpdateDTO;
+import com.ecommerce.orderservice.dto.UpdateOrderStatusDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies one status change to many orders. Orders are processed in chunks of chunk-size orders,
+ * each in its own transaction: one query loads the chunk with its items, the changes are written as
+ * JDBC batched updates (hibernate.jdbc.batch_size) on commit. Stock of orders that ship is queued for
+ * commit, stock of cancelled orders for release, and order events are written with the chunk, so a
+ * chunk that rolls back settles nothing. Statistics counters and the search index follow every
+ * committed chunk; a failing chunk fails only its orders.
+ */
+@Service
+public class BulkOrderStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOrderStatusService.class);
+    static final int MAX_ORDERS = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusCounters orderStatusCounters;
+    private final OrderSearchIndex orderSearchIndex;
+    private final OrderEventOutbox orderEventOutbox;
+    private final StockReleaseQueue stockReleaseQueue;
+    private final ProductSalesRollup productSalesRollup;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public BulkOrderStatusService(OrderRepository orderRepository,
+                                  OrderStatusCounters orderStatusCounters, OrderSearchIndex orderSearchIndex,
+                                  OrderEventOutbox orderEventOutbox, StockReleaseQueue stockReleaseQueue,
+                                  ProductSalesRollup productSalesRollup, PlatformTransactionManager transactionManager,
+                                  @Value("${orders.bulk-update.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Bulk update chunk size must be at least 1");
+        }
+        this.orderRepository = orderRepository;
+        this.orderStatusCounters = orderStatusCounters;
+        this.orderSearchIndex = orderSearchIndex;
+        this.orderEventOutbox = orderEventOutbox;
+        this.stockReleaseQueue = stockReleaseQueue;
+        this.productSalesRollup = productSalesRollup;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Apply the update to the selected orders and report the outcome for each of them
+     */
+    public BulkOrderStatusResultDTO updateOrderStatuses(BulkOrderStatusUpdateDTO bulkUpdateDTO) {
+        UpdateOrderStatusDTO update = bulkUpdateDTO.getUpdate();
+        if (update == null || (update.getOrderStatus() == null && update.getPaymentStatus() == null
+                && update.getTransactionId() == null && update.getEstimatedDeliveryDate() == null
+                && update.getActualDeliveryDate() == null && update.getNotes() == null)) {
+            throw new IllegalArgumentException("Bulk update must change at least one field");
+        }
+
+        List<Long> orderIds = selectOrderIds(bulkUpdateDTO);
+        logger.info("Bulk updating {} orders: {}", orderIds.size(), update);
+
+        BulkOrderStatusResultDTO result = new BulkOrderStatusResultDTO();
+        for (int start = 0; start < orderIds.size(); start += chunkSize) {
+            List<Long> chunk = orderIds.subList(start, Math.min(start + chunkSize, orderIds.size()));
+            try {
+                updateChunk(chunk, update).forEach(result::addResult);
+            } catch (RuntimeException e) {
+                logger.error("Bulk update of {} orders starting at {} failed: {}", chunk.size(), chunk.get(0), e.getMessage());
+                chunk.forEach(orderId -> result.addResult(OrderResult.failed(orderId, "Update failed: " + e.getMessage())));
+            }
+        }
+
+        logger.info("Bulk update finished: {} updated, {} failed", result.getUpdated(), result.getFailed());
+        return result;
+    }
+
+    // Helper Methods
+
+    private List<Long> selectOrderIds(BulkOrderStatusUpdateDTO bulkUpdateDTO) {
+        List<Long> orderIds = bulkUpdateDTO.getOrderIds();
+        if (orderIds != null && !orderIds.isEmpty()) {
+            if (bulkUpdateDTO.hasFilter()) {
+                throw new IllegalArgumentException("Give either order IDs or a filter, not both");
+            }
+            if (orderIds.size() > MAX_ORDERS) {
+                throw new IllegalArgumentException("At most " + MAX_ORDERS + " orders can be updated at once");
+            }
+            return new ArrayList<>(new LinkedHashSet<>(orderIds));
+        }
+        if (!bulkUpdateDTO.hasFilter()) {
+            throw new IllegalArgumentException("Order IDs or a filter are required");
+        }
+
+        List<Long> matching = orderRepository.findIdsWithFilters(bulkUpdateDTO.getFilterOrderStatus(),
+                bulkUpdateDTO.getFilterPaymentStatus(), bulkUpdateDTO.getCreatedFrom(), bulkUpdateDTO.getCreatedTo(),
+                Limit.of(MAX_ORDERS + 1));
+        if (matching.size() > MAX_ORDERS) {
+            throw new IllegalArgumentException("Filter matches more than " + MAX_ORDERS + " orders; narrow it down");
+        }
+        return matching;
+    }
+
+    private List<OrderResult> updateChunk(List<Long> orderIds, UpdateOrderStatusDTO update) {
+        OrderStatus newStatus = update.getOrderStatus();
+        List<Order> changed = new ArrayList<>();
+        Map<Order, OrderStatus> previousStatuses = new HashMap<>();
+
+        List<OrderResult> results = transactionTemplate.execute(status -> {
+            Map<Long, Order> orders = orderRepository.findWithOrderItemsByIdIn(orderIds).stream()
+                    .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+            List<OrderResult> chunkResults = new ArrayList<>(orderIds.size());
+            for (Long orderId : orderIds) {
+                Order order = orders.get(orderId);
+                if (order == null) {
+                    chunkResults.add(OrderResult.failed(orderId, "Order not found: " + orderId));
+                    continue;
+                }
+
+                OrderStatus previousStatus = order.getOrderStatus();
+                if (newStatus != null) {
+                    if (OrderService.holdsStockReservation(previousStatus) && !OrderService.holdsStockReservation(newStatus)) {
+                        if (newStatus == OrderStatus.CANCELLED) {
+                            stockReleaseQueue.enqueue(orderId, OrderService.getStockQuantities(order));
+                        } else {
+                            stockReleaseQueue.enqueueCommit(orderId, OrderService.getStockQuantities(order));
+                        }
+                    }
+                    order.setOrderStatus(newStatus);
+                    orderStatusCounters.recordTransition(previousStatus, newStatus);
+                }
+                OrderService.applyStatusUpdate(order, update);
+                orderEventOutbox.record(OrderService.eventTypeOf(previousStatus, order.getOrderStatus()), order, previousStatus);
+
+                changed.add(order);
+                previousStatuses.put(order, previousStatus);
+                chunkResults.add(OrderResult.updated(orderId, previousStatus, order.getOrderStatus()));
+            }
+            productSalesRollup.recordStatusChanges(previousStatuses);
+            // Flushed on commit as one batched UPDATE statement per batch_size orders
+            orderRepository.saveAll(changed);
+            return chunkResults;
+        });
+
+        if (update.getTransactionId() != null) {
+            changed.forEach(orderSearchIndex::index);
+        }
+        return results;
+    }
+}
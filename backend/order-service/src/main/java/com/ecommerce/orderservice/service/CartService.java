@@ -3,37 +3,38 @@ package com.ecommerce.orderservice.service;
 import com.ecommerce.orderservice.dto.*;
 import com.ecommerce.orderservice.entity.Cart;
 import com.ecommerce.orderservice.entity.CartItem;
-import com.ecommerce.orderservice.repository.CartRepository;
-import com.ecommerce.orderservice.repository.CartItemRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.orderservice.mapper.CartMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Cart operations. Carts are read through the version-checked {@link CartStore}, and every change is
+ * written to the database before it is returned.
+ */
 @Service
-@Transactional
 public class CartService {
 
     private static final Logger logger = LoggerFactory.getLogger(CartService.class);
 
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
     private final ProductServiceClient productServiceClient;
-    private final ModelMapper modelMapper;
+    private final CartMapper cartMapper;
 
     @Autowired
-    public CartService(CartRepository cartRepository, CartItemRepository cartItemRepository,
-                      ProductServiceClient productServiceClient, ModelMapper modelMapper) {
-        this.cartRepository = cartRepository;
-        this.cartItemRepository = cartItemRepository;
+    public CartService(CartStore cartStore, ProductServiceClient productServiceClient, CartMapper cartMapper) {
+        this.cartStore = cartStore;
         this.productServiceClient = productServiceClient;
-        this.modelMapper = modelMapper;
+        this.cartMapper = cartMapper;
     }
 
     /**
@@ -42,19 +43,15 @@ public class CartService {
     public CartDTO getOrCreateCartForUser(Long userId) {
         logger.info("Getting or creating cart for user: {}", userId);
 
-        Optional<Cart> existingCart = cartRepository.findByUserIdWithCartItems(userId);
-        
-        Cart cart;
+        Optional<CartDTO> existingCart = cartStore.read(userId, cartMapper::toDTO);
         if (existingCart.isPresent()) {
-            cart = existingCart.get();
-            logger.info("Found existing cart for user {}: {}", userId, cart.getId());
-        } else {
-            cart = new Cart(userId);
-            cart = cartRepository.save(cart);
-            logger.info("Created new cart for user {}: {}", userId, cart.getId());
+            logger.info("Found existing cart for user {}: {}", userId, existingCart.get().getId());
+            return existingCart.get();
         }
 
-        return convertToCartDTO(cart);
+        CartDTO cart = cartStore.update(userId, newCart -> { }, cartMapper::toDTO);
+        logger.info("Created new cart for user {}", userId);
+        return cart;
     }
 
     /**
@@ -64,56 +61,50 @@ public class CartService {
         logger.info("Adding item to cart for user {}: productId={}, quantity={}", 
                    userId, addToCartDTO.getProductId(), addToCartDTO.getQuantity());
 
-        // Get or create cart
-        Cart cart = getOrCreateCart(userId);
-
-        // Get product details
-        ProductDTO product = productServiceClient.getProductById(addToCartDTO.getProductId());
+        // Get fresh product details once; they serve both the cart line and the stock checks below
+        ProductDTO product = productServiceClient.getProductById(addToCartDTO.getProductId(), true);
         if (product == null) {
             throw new RuntimeException("Product not found: " + addToCartDTO.getProductId());
         }
 
         // Check product availability
-        if (!productServiceClient.isProductAvailable(addToCartDTO.getProductId(), addToCartDTO.getQuantity())) {
+        if (!productServiceClient.isProductAvailable(product, addToCartDTO.getQuantity())) {
             throw new RuntimeException("Product is not available in the requested quantity");
         }
 
-        // Check if item already exists in cart
-        Optional<CartItem> existingItem = cartItemRepository.findByCartIdAndProductId(
-                cart.getId(), addToCartDTO.getProductId());
-
-        CartItem cartItem;
-        if (existingItem.isPresent()) {
-            // Update existing item
-            cartItem = existingItem.get();
-            Integer newQuantity = cartItem.getQuantity() + addToCartDTO.getQuantity();
-            
-            // Validate total quantity
-            if (!productServiceClient.isProductAvailable(addToCartDTO.getProductId(), newQuantity)) {
-                throw new RuntimeException("Requested total quantity exceeds available stock");
+        CartDTO cartDTO = cartStore.update(userId, cart -> {
+            // Check if item already exists in cart
+            Optional<CartItem> existingItem = cart.getCartItems().stream()
+                    .filter(item -> item.getProductId().equals(addToCartDTO.getProductId()))
+                    .findFirst();
+
+            if (existingItem.isPresent()) {
+                // Update existing item
+                CartItem cartItem = existingItem.get();
+                Integer newQuantity = cartItem.getQuantity() + addToCartDTO.getQuantity();
+
+                // Validate total quantity
+                if (!productServiceClient.isProductAvailable(product, newQuantity)) {
+                    throw new RuntimeException("Requested total quantity exceeds available stock");
+                }
+
+                cartItem.updateQuantity(newQuantity);
+                logger.info("Updated existing cart item. New quantity: {}", newQuantity);
+            } else {
+                // Create new cart item
+                cart.addCartItem(new CartItem(
+                        product.getId(),
+                        product.getName(),
+                        product.getPrice(),
+                        addToCartDTO.getQuantity(),
+                        product.getImageUrl()
+                ));
+                logger.info("Added new cart item for product: {}", product.getName());
             }
-            
-            cartItem.setQuantity(newQuantity);
-            logger.info("Updated existing cart item. New quantity: {}", newQuantity);
-        } else {
-            // Create new cart item
-            cartItem = new CartItem(
-                    product.getId(),
-                    product.getName(),
-                    product.getPrice(),
-                    addToCartDTO.getQuantity(),
-                    product.getImageUrl()
-            );
-            cart.addCartItem(cartItem);
-            logger.info("Added new cart item for product: {}", product.getName());
-        }
+        }, cartMapper::toDTO);
 
-        cartItem = cartItemRepository.save(cartItem);
-        cart.calculateTotalAmount();
-        cart = cartRepository.save(cart);
-
-        logger.info("Cart updated successfully. Total amount: {}", cart.getTotalAmount());
-        return convertToCartDTO(cart);
+        logger.info("Cart updated successfully. Total amount: {}", cartDTO.getTotalAmount());
+        return cartDTO;
     }
 
     /**
@@ -123,29 +114,21 @@ public class CartService {
         logger.info("Updating cart item {} for user {}: new quantity={}", 
                    cartItemId, userId, updateDTO.getQuantity());
 
-        Cart cart = getCartEntityByUserId(userId);
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found: " + cartItemId));
-
-        // Verify cart item belongs to user's cart
-        if (!cartItem.getCart().getUserId().equals(userId)) {
-            throw new RuntimeException("Cart item does not belong to user");
-        }
+        // Only items in the user's own cart can be found, so an item of another user is "not found"
+        Long productId = cartStore.read(userId, cart -> findCartItem(cart, cartItemId).getProductId())
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
 
         // Check product availability for new quantity
-        if (!productServiceClient.isProductAvailable(cartItem.getProductId(), updateDTO.getQuantity())) {
+        if (!productServiceClient.isProductAvailable(productId, updateDTO.getQuantity())) {
             throw new RuntimeException("Requested quantity exceeds available stock");
         }
 
-        cartItem.setQuantity(updateDTO.getQuantity());
-        cartItem = cartItemRepository.save(cartItem);
-
-        cart.calculateTotalAmount();
-        cart = cartRepository.save(cart);
+        CartDTO cartDTO = cartStore.update(userId,
+                cart -> findCartItem(cart, cartItemId).updateQuantity(updateDTO.getQuantity()),
+                cartMapper::toDTO);
 
-        logger.info("Cart item updated successfully. New total: {}", cart.getTotalAmount());
-        return convertToCartDTO(cart);
+        logger.info("Cart item updated successfully. New total: {}", cartDTO.getTotalAmount());
+        return cartDTO;
     }
 
     /**
@@ -154,62 +137,78 @@ public class CartService {
     public CartDTO removeItemFromCart(Long userId, Long cartItemId) {
         logger.info("Removing cart item {} for user {}", cartItemId, userId);
 
-        Cart cart = getCartEntityByUserId(userId);
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found: " + cartItemId));
+        cartStore.read(userId, cart -> findCartItem(cart, cartItemId))
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
 
-        // Verify cart item belongs to user's cart
-        if (!cartItem.getCart().getUserId().equals(userId)) {
-            throw new RuntimeException("Cart item does not belong to user");
+        CartDTO cartDTO = cartStore.update(userId,
+                cart -> cart.removeCartItem(findCartItem(cart, cartItemId)),
+                cartMapper::toDTO);
+
+        logger.info("Cart item removed successfully. New total: {}", cartDTO.getTotalAmount());
+        return cartDTO;
+    }
+
+    /**
+     * Apply several add/update/remove operations as one change: one product lookup for every product
+     * the batch touches, one availability check per product on its final quantity, and one cart write.
+     * Either every operation applies or none does.
+     */
+    public CartDTO applyBatch(Long userId, List<CartOperationDTO> operations) {
+        logger.info("Applying {} cart operations for user {}", operations.size(), userId);
+
+        for (CartOperationDTO operation : operations) {
+            validateOperation(operation);
         }
 
-        cart.removeCartItem(cartItem);
-        cartItemRepository.delete(cartItem);
+        // Products of the lines the batch updates, read from the user's own cart
+        Map<Long, Long> lineProducts = cartStore.read(userId, cart -> cart.getCartItems().stream()
+                        .collect(Collectors.toMap(CartItem::getId, CartItem::getProductId)))
+                .orElse(Map.of());
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (CartOperationDTO operation : operations) {
+            if (operation.getType() == CartOperationDTO.Type.ADD) {
+                productIds.add(operation.getProductId());
+            } else if (!lineProducts.containsKey(operation.getCartItemId())) {
+                throw new RuntimeException("Cart item not found: " + operation.getCartItemId());
+            } else if (operation.getType() == CartOperationDTO.Type.UPDATE) {
+                productIds.add(lineProducts.get(operation.getCartItemId()));
+            }
+        }
+        Map<Long, ProductDTO> products = productIds.isEmpty()
+                ? Map.of()
+                : productServiceClient.getProductsByIds(productIds);
 
-        cart.calculateTotalAmount();
-        cart = cartRepository.save(cart);
+        CartDTO cartDTO = cartStore.update(userId, cart -> applyOperations(cart, operations, products),
+                cartMapper::toDTO);
 
-        logger.info("Cart item removed successfully. New total: {}", cart.getTotalAmount());
-        return convertToCartDTO(cart);
+        logger.info("Cart batch applied successfully. New total: {}", cartDTO.getTotalAmount());
+        return cartDTO;
     }
 
     /**
-     * Clear entire cart
+     * Clear entire cart. Within a transaction (checkout) the cart is cleared once it commits.
      */
     public void clearCart(Long userId) {
         logger.info("Clearing cart for user: {}", userId);
-
-        Optional<Cart> cartOpt = cartRepository.findByUserId(userId);
-        if (cartOpt.isPresent()) {
-            Cart cart = cartOpt.get();
-            cart.clearCart();
-            cart = cartRepository.save(cart);
-            logger.info("Cart cleared for user: {}", userId);
-        } else {
-            logger.warn("No cart found to clear for user: {}", userId);
-        }
+        cartStore.clear(userId);
     }
 
     /**
      * Get cart by user ID
      */
-    @Transactional(readOnly = true)
     public CartDTO getCartByUserId(Long userId) {
         logger.info("Getting cart for user: {}", userId);
         
-        Cart cart = cartRepository.findByUserIdWithCartItems(userId)
+        return cartStore.read(userId, cartMapper::toDTO)
                 .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
-        
-        return convertToCartDTO(cart);
     }
 
     /**
      * Get cart total items count
      */
-    @Transactional(readOnly = true)
     public Integer getCartItemsCount(Long userId) {
-        return cartRepository.getTotalItemsByUserId(userId);
+        return cartStore.read(userId, Cart::getTotalItems).orElse(0);
     }
 
     /**
@@ -218,21 +217,25 @@ public class CartService {
     public boolean validateCartForCheckout(Long userId) {
         logger.info("Validating cart for checkout for user: {}", userId);
 
-        Optional<Cart> cartOpt = cartRepository.findByUserIdWithCartItems(userId);
+        Optional<CartDTO> cartOpt = cartStore.read(userId, cartMapper::toDTO);
         if (cartOpt.isEmpty()) {
             logger.warn("No cart found for user: {}", userId);
             return false;
         }
 
-        Cart cart = cartOpt.get();
+        CartDTO cart = cartOpt.get();
         if (cart.getCartItems().isEmpty()) {
             logger.warn("Cart is empty for user: {}", userId);
             return false;
         }
 
-        // Validate each cart item
-        for (CartItem item : cart.getCartItems()) {
-            if (!productServiceClient.isProductAvailable(item.getProductId(), item.getQuantity())) {
+        // Resolve all products in one call, then validate each cart item
+        Map<Long, ProductDTO> products = productServiceClient.getProductsByIds(cart.getCartItems().stream()
+                .map(CartItemDTO::getProductId)
+                .collect(Collectors.toList()));
+
+        for (CartItemDTO item : cart.getCartItems()) {
+            if (!productServiceClient.isProductAvailable(products.get(item.getProductId()), item.getQuantity())) {
                 logger.warn("Product {} is not available in required quantity", item.getProductId());
                 return false;
             }
@@ -242,32 +245,102 @@ public class CartService {
         return true;
     }
 
+    /**
+     * Validate cart items for checkout against already resolved products: every product must exist and
+     * be active. Stock is not checked here; the checkout's stock hold reserves it atomically and may
+     * already have taken it from the resolved products.
+     */
+    public boolean validateCartForCheckout(CartDTO cartDTO, Map<Long, ProductDTO> products) {
+        if (cartDTO.getCartItems() == null || cartDTO.getCartItems().isEmpty()) {
+            logger.warn("Cart is empty for user: {}", cartDTO.getUserId());
+            return false;
+        }
+
+        for (CartItemDTO item : cartDTO.getCartItems()) {
+            if (!productServiceClient.isProductOrderable(products.get(item.getProductId()))) {
+                logger.warn("Product {} is missing or no longer active", item.getProductId());
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     // Helper methods
 
-    private Cart getOrCreateCart(Long userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    Cart newCart = new Cart(userId);
-                    return cartRepository.save(newCart);
-                });
+    private void validateOperation(CartOperationDTO operation) {
+        if (operation.getType() == null) {
+            throw new IllegalArgumentException("Operation type is required");
+        }
+        if (operation.getType() == CartOperationDTO.Type.ADD && operation.getProductId() == null) {
+            throw new IllegalArgumentException("Product ID is required to add an item");
+        }
+        if (operation.getType() != CartOperationDTO.Type.ADD && operation.getCartItemId() == null) {
+            throw new IllegalArgumentException("Cart item ID is required to " + operation.getType().name().toLowerCase() + " an item");
+        }
+        if (operation.getType() != CartOperationDTO.Type.REMOVE
+                && (operation.getQuantity() == null || operation.getQuantity() < 1)) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
     }
 
-    private Cart getCartEntityByUserId(Long userId) {
-        return cartRepository.findByUserIdWithCartItems(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+    /**
+     * Work out the final quantity of every product first and check it, then change the lines. A failing
+     * operation therefore leaves the cart as it was. Totals are left to the store, which recalculates
+     * them once after the mutation.
+     */
+    private void applyOperations(Cart cart, List<CartOperationDTO> operations, Map<Long, ProductDTO> products) {
+        Map<Long, CartItem> linesByProduct = new LinkedHashMap<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem item : cart.getCartItems()) {
+            linesByProduct.put(item.getProductId(), item);
+            quantities.put(item.getProductId(), item.getQuantity());
+        }
+
+        Set<Long> changed = new LinkedHashSet<>();
+        for (CartOperationDTO operation : operations) {
+            Long productId;
+            if (operation.getType() == CartOperationDTO.Type.ADD) {
+                productId = operation.getProductId();
+                quantities.merge(productId, operation.getQuantity(), Integer::sum);
+            } else {
+                productId = findCartItem(cart, operation.getCartItemId()).getProductId();
+                if (quantities.get(productId) == 0) {
+                    throw new RuntimeException("Cart item not found: " + operation.getCartItemId());
+                }
+                quantities.put(productId, operation.getType() == CartOperationDTO.Type.UPDATE ? operation.getQuantity() : 0);
+            }
+            changed.add(productId);
+        }
+
+        for (Long productId : changed) {
+            int quantity = quantities.get(productId);
+            if (quantity > 0 && !productServiceClient.isProductAvailable(products.get(productId), quantity)) {
+                throw new RuntimeException("Product " + productId + " is not available in the requested quantity");
+            }
+        }
+
+        for (Long productId : changed) {
+            int quantity = quantities.get(productId);
+            CartItem line = linesByProduct.get(productId);
+            if (quantity == 0) {
+                if (line != null) {
+                    cart.removeCartItem(line);
+                }
+            } else if (line == null) {
+                ProductDTO product = products.get(productId);
+                cart.addCartItem(new CartItem(product.getId(), product.getName(), product.getPrice(),
+                        quantity, product.getImageUrl()));
+            } else {
+                line.updateQuantity(quantity);
+            }
+        }
     }
 
-    private CartDTO convertToCartDTO(Cart cart) {
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-        
-        // Map cart items
-        List<CartItemDTO> cartItemDTOs = cart.getCartItems().stream()
-                .map(item -> modelMapper.map(item, CartItemDTO.class))
-                .collect(Collectors.toList());
-        
-        cartDTO.setCartItems(cartItemDTOs);
-        cartDTO.setTotalItems(cart.getTotalItems());
-        
-        return cartDTO;
+    private CartItem findCartItem(Cart cart, Long cartItemId) {
+        return cart.getCartItems().stream()
+                .filter(item -> item.getId().equals(cartItemId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Cart item not found: " + cartItemId));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,354 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.Cart;
+import com.ecommerce.orderservice.entity.CartItem;
+import com.ecommerce.orderservice.repository.CartItemRepository;
+import com.ecommerce.orderservice.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for shopping carts, safe with any number of instances behind a round-robin
+ * gateway. Every cart row carries an optimistic version: a cached cart is served only while the
+ * stored version still matches (one single-column query by user id instead of loading the cart and
+ * its lines), and is reloaded otherwise. Changes are written through before they are returned, as
+ * the difference to the version they were made on with a conditional UPDATE of that version; a change
+ * that lost a race with another instance is re-applied to the fresh cart. Lines therefore only ever
+ * carry their database ids.
+ *
+ * Carts are evicted least recently used first once their estimated size exceeds the memory budget.
+ * Users without a cart are not remembered: another instance may create their cart at any time.
+ */
+@Component
+public class CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+    // Rough heap cost of a cached cart and of each of its lines, used for the memory budget
+    static final long CART_BYTES = 512;
+    static final long ITEM_BYTES = 384;
+    // Attempts at a change that keeps losing to concurrent changes of the same cart
+    static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxBytes;
+
+    // Cached carts are never changed in place: a change replaces the entry with the written copy
+    private final Map<Long, CartState> carts = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    @Autowired
+    public CartStore(CartRepository cartRepository, CartItemRepository cartItemRepository,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${orders.cart-store.max-memory-mb:64}") long maxMemoryMb) {
+        if (maxMemoryMb < 1) {
+            throw new IllegalArgumentException("Cart store memory budget must be at least 1 MB");
+        }
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxBytes = maxMemoryMb << 20;
+    }
+
+    /**
+     * Apply the reader to the user's cart, empty if the user has no cart
+     */
+    public <T> Optional<T> read(Long userId, Function<Cart, T> reader) {
+        return current(userId).map(reader);
+    }
+
+    /**
+     * Change the user's cart (creating it if needed), write the change through and return a view of
+     * the stored result. The mutation runs on a copy, so a mutation that throws changes nothing; it
+     * may run more than once if other instances change the same cart at the same time.
+     */
+    public <T> T update(Long userId, Consumer<Cart> mutation, Function<Cart, T> view) {
+        RuntimeException lastConflict = null;
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            Optional<Cart> base = current(userId);
+            Cart working = base.map(CartStore::detachedCopy).orElseGet(() -> new Cart(userId));
+            mutation.accept(working);
+
+            try {
+                Cart stored = transactionTemplate.execute(status -> write(base.orElse(null), working));
+                cache(userId, stored);
+                return view.apply(stored);
+            } catch (CartConflictException | OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // Another request changed or created the cart since it was read; start over from the stored cart
+                logger.debug("Cart for user {} changed concurrently (attempt {}): {}", userId, attempt, e.getMessage());
+                evict(Set.of(userId));
+                lastConflict = e;
+            }
+        }
+        throw new RuntimeException("Cart for user " + userId + " is being changed concurrently, please retry",
+                lastConflict);
+    }
+
+    /**
+     * Empty the user's cart. Inside a transaction this happens only once the transaction commits,
+     * so a rolled back checkout leaves the cart intact.
+     */
+    public void clear(Long userId) {
+        Runnable clear = () -> {
+            if (current(userId).isPresent()) {
+                update(userId, Cart::clearCart, cart -> null);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear.run();
+                }
+            });
+        } else {
+            clear.run();
+        }
+    }
+
+    /**
+     * Drop the given users' carts from memory, e.g. after deleting them as idle. Harmless if they
+     * are still in use: the next read reloads them.
+     */
+    public void evict(Collection<Long> userIds) {
+        synchronized (carts) {
+            for (Long userId : userIds) {
+                CartState state = carts.remove(userId);
+                if (state != null) {
+                    usedBytes.addAndGet(-state.bytes);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (carts) {
+            return carts.size();
+        }
+    }
+
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    // Helper Methods
+
+    /**
+     * The user's cart as currently stored: the cached copy if its version is still the stored one,
+     * otherwise freshly loaded. Empty if the user has no cart.
+     *
+     * The version is checked on every read, badge and ETag requests included. Instances share no
+     * channel that a writer could push new versions over (they only know each other through the
+     * registry), and the gateway sends a client's next request to any instance, so a cache trusted for
+     * even a short TTL would show the badge from before the client's own change. The check is one
+     * indexed single-column lookup by the unique user id, with no lines loaded.
+     */
+    private Optional<Cart> current(Long userId) {
+        CartState cached;
+        synchronized (carts) {
+            cached = carts.get(userId);
+        }
+
+        if (cached != null) {
+            Optional<Long> storedVersion = cartRepository.findVersionByUserId(userId);
+            if (storedVersion.isPresent() && storedVersion.get() == cached.cart.getVersion()) {
+                return Optional.of(cached.cart);
+            }
+            evict(Set.of(userId));
+            if (storedVersion.isEmpty()) {
+                return Optional.empty();
+            }
+        }
+
+        Optional<Cart> stored = cartRepository.findByUserIdWithCartItems(userId).map(CartStore::detachedCopy);
+        stored.ifPresent(cart -> cache(userId, cart));
+        return stored;
+    }
+
+    /**
+     * Cache a detached cart unless a newer version of it is already cached
+     */
+    private void cache(Long userId, Cart cart) {
+        CartState loaded = new CartState(cart);
+        synchronized (carts) {
+            CartState cached = carts.get(userId);
+            if (cached != null && cached.cart.getVersion() > cart.getVersion()) {
+                return;
+            }
+            carts.put(userId, loaded);
+            usedBytes.addAndGet(loaded.bytes - (cached != null ? cached.bytes : 0));
+        }
+        evictIfOverBudget();
+    }
+
+    private void evictIfOverBudget() {
+        if (usedBytes.get() <= maxBytes) {
+            return;
+        }
+        int evicted = 0;
+        synchronized (carts) {
+            // Access order: least recently used first
+            Iterator<CartState> iterator = carts.values().iterator();
+            while (usedBytes.get() > maxBytes && iterator.hasNext()) {
+                CartState state = iterator.next();
+                iterator.remove();
+                usedBytes.addAndGet(-state.bytes);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} carts from the cart store", evicted);
+        }
+    }
+
+    /**
+     * Write the changed copy over the stored cart, provided the stored cart is still the base the copy
+     * was made from (null: no cart stored). Only the difference is written: one conditional UPDATE
+     * moves the cart row to the next version with the new totals, or finds another change got there
+     * first, then changed lines are updated, new ones inserted and dropped ones deleted. The base was
+     * just checked against the stored version, so nothing is read back. Returns a detached copy of the
+     * written cart.
+     */
+    private Cart write(Cart base, Cart working) {
+        working.calculateTotalAmount();
+        if (base == null) {
+            Cart cart = new Cart(working.getUserId());
+            for (CartItem line : working.getCartItems()) {
+                CartItem item = copyOf(line, null);
+                item.setId(null);
+                cart.addCartItem(item);
+            }
+            // A cart created meanwhile by another request trips the unique user id
+            return detachedCopy(cartRepository.saveAndFlush(cart));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (cartRepository.updateIfVersion(base.getId(), base.getVersion(), working.getTotalAmount(),
+                working.getTotalItems(), now) == 0) {
+            throw new CartConflictException();
+        }
+
+        Map<Long, CartItem> storedItems = new HashMap<>();
+        for (CartItem item : base.getCartItems()) {
+            storedItems.put(item.getId(), item);
+        }
+        Cart storedCart = cartRepository.getReferenceById(base.getId());
+        List<CartItem> newLines = new ArrayList<>();
+        List<CartItem> inserted = new ArrayList<>();
+        for (CartItem line : working.getCartItems()) {
+            CartItem stored = line.getId() != null ? storedItems.remove(line.getId()) : null;
+            if (stored == null) {
+                CartItem item = copyOf(line, storedCart);
+                item.setId(null);
+                newLines.add(line);
+                inserted.add(item);
+            } else if (!sameLine(stored, line)) {
+                cartItemRepository.updateLine(line.getId(), line.getProductName(), line.getUnitPrice(),
+                        line.getQuantity(), line.getTotalPrice(), line.getProductImageUrl(), now);
+                line.setUpdatedAt(now);
+            }
+        }
+        if (!storedItems.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(storedItems.keySet());
+        }
+        if (!inserted.isEmpty()) {
+            cartItemRepository.saveAll(inserted);
+            // Assigns the ids of inserted lines before the copy is taken
+            cartItemRepository.flush();
+        }
+
+        for (int i = 0; i < newLines.size(); i++) {
+            CartItem line = newLines.get(i);
+            line.setId(inserted.get(i).getId());
+            line.setCreatedAt(inserted.get(i).getCreatedAt());
+            line.setUpdatedAt(inserted.get(i).getUpdatedAt());
+        }
+        working.setId(base.getId());
+        working.setVersion(base.getVersion() + 1);
+        working.setCreatedAt(base.getCreatedAt());
+        working.setUpdatedAt(now);
+        return detachedCopy(working);
+    }
+
+    private static boolean sameLine(CartItem stored, CartItem line) {
+        return Objects.equals(stored.getProductName(), line.getProductName())
+                && stored.getUnitPrice() != null && line.getUnitPrice() != null
+                && stored.getUnitPrice().compareTo(line.getUnitPrice()) == 0
+                && Objects.equals(stored.getQuantity(), line.getQuantity())
+                && Objects.equals(stored.getProductImageUrl(), line.getProductImageUrl());
+    }
+
+    private static Cart detachedCopy(Cart stored) {
+        Cart cart = new Cart(stored.getUserId());
+        cart.setId(stored.getId());
+        cart.setVersion(stored.getVersion());
+        cart.setCreatedAt(stored.getCreatedAt());
+        cart.setUpdatedAt(stored.getUpdatedAt());
+        for (CartItem storedItem : stored.getCartItems()) {
+            cart.getCartItems().add(copyOf(storedItem, cart));
+        }
+        cart.calculateTotalAmount();
+        return cart;
+    }
+
+    private static CartItem copyOf(CartItem source, Cart cart) {
+        CartItem item = new CartItem(source.getProductId(), source.getProductName(), source.getUnitPrice(),
+                source.getQuantity(), source.getProductImageUrl());
+        item.setId(source.getId());
+        item.setCart(cart);
+        item.setCreatedAt(source.getCreatedAt());
+        item.setUpdatedAt(source.getUpdatedAt());
+        return item;
+    }
+
+    /**
+     * A cached cart: a detached copy of one stored version, never changed after it is cached
+     */
+    private static final class CartState {
+
+        private final Cart cart;
+        private final long bytes;
+
+        private CartState(Cart cart) {
+            this.cart = cart;
+            this.bytes = CART_BYTES + ITEM_BYTES * cart.getCartItems().size();
+        }
+    }
+
+    /**
+     * The stored cart is no longer the version a change was made on
+     */
+    private static final class CartConflictException extends RuntimeException {
+
+        private CartConflictException() {
+            super("Cart changed since it was read");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.Cart;
+import com.ecommerce.orderservice.repository.CartItemRepository;
+import com.ecommerce.orderservice.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deletes carts nobody has changed for ttl-days. Idle carts are walked in (updated_at, id) order,
+ * chunk-size carts at a time, each chunk deleted with two bulk statements in its own short
+ * transaction and followed by a pause so foreground cart traffic keeps the database. A run stops
+ * after max-run-ms and is held by a database lease, so only one instance sweeps at a time. The cart
+ * store writes every change through, so updated_at is the last change on any instance.
+ */
+@Service
+public class CartSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartSweeper.class);
+    static final String JOB_NAME = "cart-sweeper";
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // Extra lease time beyond the longest run, covering the last chunk
+    private static final long LEASE_MARGIN_MILLIS = 60_000;
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
+    private final JobLeases jobLeases;
+    private final TransactionTemplate transactionTemplate;
+    private final int ttlDays;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long maxRunMillis;
+
+    @Autowired
+    public CartSweeper(CartRepository cartRepository, CartItemRepository cartItemRepository, CartStore cartStore,
+                       JobLeases jobLeases, PlatformTransactionManager transactionManager,
+                       @Value("${orders.cart-sweeper.ttl-days:30}") int ttlDays,
+                       @Value("${orders.cart-sweeper.chunk-size:200}") int chunkSize,
+                       @Value("${orders.cart-sweeper.pause-ms:100}") long pauseMillis,
+                       @Value("${orders.cart-sweeper.max-run-ms:600000}") long maxRunMillis) {
+        if (ttlDays < 1 || chunkSize < 1 || pauseMillis < 0 || maxRunMillis < 1) {
+            throw new IllegalArgumentException("Cart sweeper TTL, chunk size and run time must be at least 1 and the pause not negative");
+        }
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.cartStore = cartStore;
+        this.jobLeases = jobLeases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlDays = ttlDays;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxRunMillis = maxRunMillis;
+    }
+
+    /**
+     * Delete idle carts, unless another instance is already sweeping. Returns the number deleted.
+     */
+    @Scheduled(cron = "${orders.cart-sweeper.cron:0 15 * * * *}")
+    public int sweep() {
+        if (!jobLeases.tryAcquire(JOB_NAME, maxRunMillis + LEASE_MARGIN_MILLIS)) {
+            return 0;
+        }
+        try {
+            return sweepIdleCarts();
+        } finally {
+            jobLeases.release(JOB_NAME);
+        }
+    }
+
+    // Helper Methods
+
+    private int sweepIdleCarts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ttlDays);
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime afterUpdatedAt = START;
+        Long afterId = 0L;
+        int deleted = 0;
+
+        while (System.currentTimeMillis() - startedAt < maxRunMillis) {
+            List<Object[]> idle = cartRepository.findIdleAfter(cutoff, afterUpdatedAt, afterId, Limit.of(chunkSize));
+            if (idle.isEmpty()) {
+                break;
+            }
+            Object[] last = idle.get(idle.size() - 1);
+            afterId = (Long) last[0];
+            afterUpdatedAt = (LocalDateTime) last[2];
+
+            List<Long> cartIds = new ArrayList<>();
+            List<Long> userIds = new ArrayList<>();
+            for (Object[] row : idle) {
+                cartIds.add((Long) row[0]);
+                userIds.add((Long) row[1]);
+            }
+            deleted += transactionTemplate.execute(status -> deleteIdle(cartIds, cutoff));
+            // Cached copies would be caught by their version check anyway; this just frees the memory
+            cartStore.evict(userIds);
+            if (idle.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            logger.info("Cart sweep deleted {} carts idle since {} in {} ms", deleted, cutoff,
+                    System.currentTimeMillis() - startedAt);
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete the carts that are still idle; locking them first keeps a concurrent cart change from
+     * writing lines into a cart whose lines are being deleted
+     */
+    private int deleteIdle(List<Long> cartIds, LocalDateTime cutoff) {
+        List<Long> stillIdle = cartRepository.lockIdle(cartIds, cutoff).stream()
+                .map(Cart::getId)
+                .toList();
+        if (stillIdle.isEmpty()) {
+            return 0;
+        }
+        cartItemRepository.deleteByCartIdIn(stillIdle);
+        return cartRepository.deleteIdle(stillIdle, cutoff);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.ProductDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Remote part of checkout. Product details are resolved in chunks of product-batch-size products,
+ * at most parallelism calls at a time for each checkout, while the all-or-nothing stock hold for the
+ * whole cart is requested alongside them; checkout then waits for the slowest call instead of the sum
+ * of all of them. The calls are non-blocking, so a slow product-service call only delays its own
+ * checkout. Everything runs against one deadline. If checkout fails or runs out of time after the
+ * hold was granted, the hold is released, also when it is granted only after checkout has given up.
+ */
+@Component
+public class CheckoutPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutPipeline.class);
+
+    private final ProductServiceClient productServiceClient;
+    private final long deadlineMillis;
+    private final int productBatchSize;
+    private final int parallelism;
+
+    @Autowired
+    public CheckoutPipeline(ProductServiceClient productServiceClient,
+                            @Value("${orders.checkout.deadline-ms:8000}") long deadlineMillis,
+                            @Value("${orders.checkout.product-batch-size:50}") int productBatchSize,
+                            @Value("${orders.checkout.parallelism:8}") int parallelism) {
+        if (deadlineMillis < 1 || productBatchSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Checkout deadline, product batch size and parallelism must be at least 1");
+        }
+        this.productServiceClient = productServiceClient;
+        this.deadlineMillis = deadlineMillis;
+        this.productBatchSize = productBatchSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Resolve the products and hold their stock. The validator sees the resolved products before the
+     * hold is accepted; if it rejects them the hold is released and checkout fails. The hold may have
+     * been granted before the products were read, so their stock can already be net of it: stock is
+     * for the hold to decide, not the validator.
+     */
+    public Reservation reserve(Map<Long, Integer> quantities, Predicate<Map<Long, ProductDTO>> validator) {
+        Reservation reservation = new Reservation(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis));
+
+        long holdStartedAt = System.nanoTime();
+        CompletableFuture<String> hold = productServiceClient.createStockHoldAsync(quantities)
+                .doOnTerminate(() -> reservation.record("hold", holdStartedAt))
+                .toFuture();
+
+        try {
+            long startedAt = System.nanoTime();
+            reservation.products = await(resolveProducts(new ArrayList<>(quantities.keySet())), reservation, "resolve");
+            reservation.record("resolve", startedAt);
+
+            if (!validator.test(reservation.products)) {
+                throw new RuntimeException("Cart validation failed. Cannot proceed with order creation.");
+            }
+
+            reservation.holdId = await(hold, reservation, "hold");
+            if (reservation.holdId == null) {
+                throw new RuntimeException("Failed to reserve stock for cart items. Some products are no longer available.");
+            }
+            return reservation;
+        } catch (RuntimeException e) {
+            logger.warn("Checkout failed after {} ms, releasing any stock hold: {}", reservation.getElapsedMillis(), e.getMessage());
+            // The hold may still be on its way; release it whenever it turns up
+            hold.thenAccept(holdId -> {
+                if (holdId != null) {
+                    productServiceClient.releaseStockHoldAsync(holdId).subscribe();
+                }
+            });
+            throw e;
+        }
+    }
+
+    // Helper Methods
+
+    private CompletableFuture<Map<Long, ProductDTO>> resolveProducts(List<Long> productIds) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int start = 0; start < productIds.size(); start += productBatchSize) {
+            chunks.add(productIds.subList(start, Math.min(start + productBatchSize, productIds.size())));
+        }
+        return Flux.fromIterable(chunks)
+                .flatMap(productServiceClient::getProductsByIdsAsync, parallelism)
+                .collect(LinkedHashMap<Long, ProductDTO>::new, Map::putAll)
+                .<Map<Long, ProductDTO>>map(products -> products)
+                .toFuture();
+    }
+
+    private <T> T await(CompletableFuture<T> future, Reservation reservation, String stage) {
+        try {
+            return future.get(reservation.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Left running rather than cancelled: a late hold must still arrive to be released
+            throw new RuntimeException("Checkout timed out waiting for " + stage + " after " + deadlineMillis + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Checkout interrupted while waiting for " + stage);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Outcome of the remote stages, with the time each stage took. Later stages of checkout add their
+     * own timings and check the same deadline.
+     */
+    public static final class Reservation {
+
+        private final long deadlineNanos;
+        private final long startedAt = System.nanoTime();
+        private final Map<String, Long> stageMillis = new LinkedHashMap<>();
+        private Map<Long, ProductDTO> products;
+        private String holdId;
+
+        private Reservation(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public Map<Long, ProductDTO> getProducts() {
+            return products;
+        }
+
+        public String getHoldId() {
+            return holdId;
+        }
+
+        /**
+         * Milliseconds each stage took, in the order the stages finished
+         */
+        public Map<String, Long> getStageMillis() {
+            synchronized (stageMillis) {
+                return new LinkedHashMap<>(stageMillis);
+            }
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        }
+
+        public void record(String stage, long stageStartedAt) {
+            synchronized (stageMillis) {
+                stageMillis.put(stage, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stageStartedAt));
+            }
+        }
+
+        /**
+         * Fail if the checkout deadline has passed
+         */
+        public void checkDeadline(String stage) {
+            if (remainingNanos() <= 0) {
+                throw new RuntimeException("Checkout deadline passed during " + stage);
+            }
+        }
+
+        private long remainingNanos() {
+            return Math.max(0, deadlineNanos - System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.JobLease;
+import com.ecommerce.orderservice.repository.JobLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Database leases that keep a scheduled job to one instance at a time. A lease is a row per job with
+ * an expiry; taking it is a single conditional update, so it works the same on every database, and a
+ * lease left behind by an instance that died expires on its own.
+ */
+@Component
+public class JobLeases {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLeases.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    @Autowired
+    public JobLeases(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Take or extend the lease on the job for the given time; false if another instance holds it
+     */
+    public boolean tryAcquire(String jobName, long leaseMillis) {
+        LocalDateTime now = now();
+        LocalDateTime until = now.plusNanos(leaseMillis * 1_000_000);
+        if (!jobLeaseRepository.existsById(jobName)) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jobLeaseRepository.saveAndFlush(new JobLease(jobName, now)));
+            } catch (DataIntegrityViolationException e) {
+                // Created by another instance at the same time
+            }
+        }
+        boolean acquired = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                jobLeaseRepository.acquire(jobName, owner, now, until) == 1));
+        if (!acquired) {
+            logger.debug("Job {} is leased by another instance", jobName);
+        }
+        return acquired;
+    }
+
+    /**
+     * Give the lease back so the next run on any instance can take it
+     */
+    public void release(String jobName) {
+        transactionTemplate.executeWithoutResult(status ->
+                jobLeaseRepository.release(jobName, owner, now()));
+    }
+
+    // Helper Methods
+
+    /**
+     * Current time at millisecond precision, which every database stores exactly; a value rounded up
+     * on storage would make a lease look unexpired
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -0,0 +1,209 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import com.ecommerce.orderservice.mapper.OrderJson;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
+import com.ecommerce.orderservice.repository.OrderItemRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cold storage for finished orders. Orders that reached a final status and have not changed for
+ * min-age-days are moved from the orders and order_items tables into orders_archive by a scheduled
+ * job, chunk-size orders per transaction, so the hot tables (and their indexes) only hold orders that
+ * can still change. A run stops after max-run-ms and is held by a database lease, so only one instance
+ * archives at a time. Archived orders are looked up by id or order number when the hot tables miss, and
+ * order listings merge them in on request (see OrderService).
+ */
+@Service
+public class OrderArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchive.class);
+    static final Set<OrderStatus> ARCHIVED_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED,
+            OrderStatus.RETURNED);
+    static final String JOB_NAME = "order-archive";
+    // Extra lease time beyond the longest run, covering the last chunk
+    private static final long LEASE_MARGIN_MILLIS = 60_000;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderMapper orderMapper;
+    private final OrderSearchIndex orderSearchIndex;
+    private final JobLeases jobLeases;
+    private final TransactionTemplate transactionTemplate;
+    private final int minAgeDays;
+    private final int chunkSize;
+    private final long maxRunMillis;
+
+    @Autowired
+    public OrderArchive(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                        ArchivedOrderRepository archivedOrderRepository, OrderMapper orderMapper,
+                        OrderSearchIndex orderSearchIndex, JobLeases jobLeases,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${orders.archive.min-age-days:90}") int minAgeDays,
+                        @Value("${orders.archive.chunk-size:500}") int chunkSize,
+                        @Value("${orders.archive.max-run-ms:1800000}") long maxRunMillis) {
+        if (minAgeDays < 0 || chunkSize < 1 || maxRunMillis < 1) {
+            throw new IllegalArgumentException("Archive minimum age must not be negative, and chunk size and run time must be at least 1");
+        }
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderMapper = orderMapper;
+        this.orderSearchIndex = orderSearchIndex;
+        this.jobLeases = jobLeases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.minAgeDays = minAgeDays;
+        this.chunkSize = chunkSize;
+        this.maxRunMillis = maxRunMillis;
+    }
+
+    /**
+     * Find an archived order by ID
+     */
+    public Optional<OrderDTO> findById(Long orderId) {
+        return archivedOrderRepository.findById(orderId)
+                .map(archivedOrder -> OrderJson.read(archivedOrder.getOrderData()));
+    }
+
+    /**
+     * Find an archived order by order number
+     */
+    public Optional<OrderDTO> findByOrderNumber(String orderNumber) {
+        return archivedOrderRepository.findByOrderNumber(orderNumber)
+                .map(archivedOrder -> OrderJson.read(archivedOrder.getOrderData()));
+    }
+
+    /**
+     * A page of a user's archived orders
+     */
+    public Page<ArchivedOrder> findUserOrders(Long userId, Pageable pageable) {
+        return archivedOrderRepository.findByUserId(userId, pageable);
+    }
+
+    /**
+     * Up to limit of a user's archived orders, newest first, after the (createdAt, id) position
+     */
+    public List<ArchivedOrder> findUserOrdersAfter(Long userId, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return archivedOrderRepository.findByUserIdAfter(userId, afterCreatedAt, afterId, Limit.of(limit));
+    }
+
+    /**
+     * A page of archived orders matching the admin filters and search
+     */
+    public Page<ArchivedOrder> findOrders(Long userId, OrderStatus orderStatus, PaymentStatus paymentStatus,
+                                          LocalDateTime startDate, LocalDateTime endDate, String search,
+                                          Pageable pageable) {
+        return archivedOrderRepository.findWithFiltersAndSearch(
+                userId, orderStatus, paymentStatus, startDate, endDate, search, pageable);
+    }
+
+    /**
+     * Up to limit archived orders matching the admin filters and search, newest first, after the (createdAt, id) position
+     */
+    public List<ArchivedOrder> findOrdersAfter(Long userId, OrderStatus orderStatus, PaymentStatus paymentStatus,
+                                               LocalDateTime startDate, LocalDateTime endDate, String search,
+                                               LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return archivedOrderRepository.findWithFiltersAndSearchAfter(userId, orderStatus, paymentStatus,
+                startDate, endDate, search, afterCreatedAt, afterId, Limit.of(limit));
+    }
+
+    /**
+     * Move every order that is due into the archive, unless another instance is already archiving.
+     * A failing chunk is rolled back and ends the run; the next run picks its orders up again.
+     */
+    @Scheduled(cron = "${orders.archive.cron:0 30 3 * * *}")
+    public int archiveOrders() {
+        if (!jobLeases.tryAcquire(JOB_NAME, maxRunMillis + LEASE_MARGIN_MILLIS)) {
+            return 0;
+        }
+        try {
+            return archiveDueOrders();
+        } finally {
+            jobLeases.release(JOB_NAME);
+        }
+    }
+
+    // Helper Methods
+
+    private int archiveDueOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        long startedAt = System.currentTimeMillis();
+        int archived = 0;
+
+        while (System.currentTimeMillis() - startedAt < maxRunMillis) {
+            List<Long> orderIds = orderRepository.findIdsToArchive(ARCHIVED_STATUSES, cutoff, Limit.of(chunkSize));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            try {
+                List<Long> moved = archiveChunk(orderIds, cutoff);
+                moved.forEach(orderSearchIndex::remove);
+                archived += moved.size();
+            } catch (RuntimeException e) {
+                logger.error("Archiving {} orders starting at {} failed: {}", orderIds.size(), orderIds.get(0), e.getMessage());
+                break;
+            }
+            if (orderIds.size() < chunkSize) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} orders last changed before {} in {} ms", archived, cutoff,
+                    System.currentTimeMillis() - startedAt);
+        }
+        return archived;
+    }
+
+    private List<Long> archiveChunk(List<Long> orderIds, LocalDateTime cutoff) {
+        return transactionTemplate.execute(status -> {
+            // Orders changed since they were selected stay where they are
+            List<Order> orders = orderRepository.findWithOrderItemsByIdIn(orderIds).stream()
+                    .filter(order -> ARCHIVED_STATUSES.contains(order.getOrderStatus())
+                            && order.getUpdatedAt() != null && order.getUpdatedAt().isBefore(cutoff))
+                    .toList();
+            if (orders.isEmpty()) {
+                return List.<Long>of();
+            }
+
+            archivedOrderRepository.saveAll(orders.stream()
+                    .map(order -> new ArchivedOrder(order, OrderJson.write(orderMapper.toDTO(order))))
+                    .toList());
+            archivedOrderRepository.flush();
+
+            List<Long> moved = orders.stream().map(Order::getId).toList();
+            orderItemRepository.deleteByOrderIdIn(moved);
+            int deleted = orderRepository.deleteArchived(moved, ARCHIVED_STATUSES, cutoff);
+            if (deleted != moved.size()) {
+                // Another instance changed or archived some of them meanwhile; roll back and retry next run
+                throw new IllegalStateException("Expected to archive " + moved.size() + " orders but removed " + deleted);
+            }
+            return moved;
+        });
+    }
+}
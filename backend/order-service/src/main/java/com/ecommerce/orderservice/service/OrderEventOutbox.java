@@ -0,0 +1,199 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderEventDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderEvent;
+import com.ecommerce.orderservice.entity.OrderEventType;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.mapper.OrderJson;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.OrderEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transactional outbox for order lifecycle events. Events are inserted in the transaction that changes
+ * the order, so an event exists exactly when its change committed. A relay then moves committed events
+ * into the feed in batches by numbering them; consumers poll the feed by offset instead of re-reading
+ * the orders. Published events are kept for retention-days, then purged by one instance at a time
+ * under a database lease; a consumer that falls further behind resumes at the oldest event kept.
+ */
+@Service
+public class OrderEventOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventOutbox.class);
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String PURGE_JOB_NAME = "order-event-purge";
+    // Extra lease time beyond the longest purge run, covering the last chunk
+    private static final long LEASE_MARGIN_MILLIS = 60_000;
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderMapper orderMapper;
+    private final JobLeases jobLeases;
+    private final TransactionTemplate transactionTemplate;
+    private final int relayBatchSize;
+    private final int retentionDays;
+    private final int purgeChunkSize;
+    private final long purgeMaxRunMillis;
+
+    @Autowired
+    public OrderEventOutbox(OrderEventRepository orderEventRepository, OrderMapper orderMapper, JobLeases jobLeases,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${orders.events.relay-batch-size:500}") int relayBatchSize,
+                            @Value("${orders.events.retention-days:7}") int retentionDays,
+                            @Value("${orders.events.purge-chunk-size:1000}") int purgeChunkSize,
+                            @Value("${orders.events.purge-max-run-ms:600000}") long purgeMaxRunMillis) {
+        if (relayBatchSize < 1) {
+            throw new IllegalArgumentException("Order event relay batch size must be at least 1");
+        }
+        if (retentionDays < 1 || purgeChunkSize < 1 || purgeMaxRunMillis < 1) {
+            throw new IllegalArgumentException("Order event retention, purge chunk size and run time must be at least 1");
+        }
+        this.orderEventRepository = orderEventRepository;
+        this.orderMapper = orderMapper;
+        this.jobLeases = jobLeases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.relayBatchSize = relayBatchSize;
+        this.retentionDays = retentionDays;
+        this.purgeChunkSize = purgeChunkSize;
+        this.purgeMaxRunMillis = purgeMaxRunMillis;
+    }
+
+    /**
+     * Record an event for the order, with the order and its items as they are now. Must run inside
+     * the transaction that saves the change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OrderEventType eventType, Order order, OrderStatus previousStatus) {
+        orderEventRepository.save(new OrderEvent(eventType, order, previousStatus,
+                OrderJson.write(orderMapper.toDTO(order))));
+    }
+
+    /**
+     * Number the committed events that are not in the feed yet, relay-batch-size per transaction.
+     * Instances relaying at the same time collide on the unique feed position; the loser stops and
+     * leaves the rest to the next run.
+     */
+    @Scheduled(fixedDelayString = "${orders.events.relay-interval-ms:1000}")
+    public int relay() {
+        int published = 0;
+        while (true) {
+            int batch;
+            try {
+                batch = transactionTemplate.execute(status -> publishBatch());
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Order events are being relayed by another instance: {}", e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Relaying order events failed: {}", e.getMessage());
+                break;
+            }
+            published += batch;
+            if (batch < relayBatchSize) {
+                break;
+            }
+        }
+        if (published > 0) {
+            logger.debug("Relayed {} order events", published);
+        }
+        return published;
+    }
+
+    /**
+     * Delete events published more than retention-days ago, unless another instance is already
+     * purging. The newest published event is always kept: it carries the feed position the relay
+     * continues from. Returns the number deleted.
+     */
+    @Scheduled(cron = "${orders.events.purge-cron:0 45 4 * * *}")
+    public int purge() {
+        if (!jobLeases.tryAcquire(PURGE_JOB_NAME, purgeMaxRunMillis + LEASE_MARGIN_MILLIS)) {
+            return 0;
+        }
+        try {
+            return purgePublished();
+        } finally {
+            jobLeases.release(PURGE_JOB_NAME);
+        }
+    }
+
+    /**
+     * Feed events after the given offset, oldest first
+     */
+    public List<OrderEventDTO> getEvents(long after, int limit) {
+        if (after < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return orderEventRepository.findPublishedAfter(after, Limit.of(limit)).stream()
+                .map(OrderEventOutbox::toDTO)
+                .toList();
+    }
+
+    // Helper Methods
+
+    private int publishBatch() {
+        List<OrderEvent> events = orderEventRepository.findUnpublished(Limit.of(relayBatchSize));
+        long sequence = orderEventRepository.findMaxSequence();
+        for (OrderEvent event : events) {
+            event.publish(++sequence);
+        }
+        // Written on commit as batched updates
+        return events.size();
+    }
+
+    private int purgePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long newest = orderEventRepository.findMaxSequence();
+        long startedAt = System.currentTimeMillis();
+        int deleted = 0;
+
+        while (System.currentTimeMillis() - startedAt < purgeMaxRunMillis) {
+            List<Long> ids = orderEventRepository.findPublishedBefore(cutoff, newest, Limit.of(purgeChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> orderEventRepository.deleteAllByIdInBatch(ids));
+            deleted += ids.size();
+            if (ids.size() < purgeChunkSize) {
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            logger.info("Purged {} order events published before {} in {} ms", deleted, cutoff,
+                    System.currentTimeMillis() - startedAt);
+        }
+        return deleted;
+    }
+
+    private static OrderEventDTO toDTO(OrderEvent event) {
+        OrderEventDTO dto = new OrderEventDTO();
+        dto.setOffset(event.getSequence());
+        dto.setEventType(event.getEventType());
+        dto.setOrderId(event.getOrderId());
+        dto.setOrderNumber(event.getOrderNumber());
+        dto.setUserId(event.getUserId());
+        dto.setPreviousStatus(event.getPreviousStatus());
+        dto.setOrderStatus(event.getOrderStatus());
+        dto.setOccurredAt(event.getCreatedAt());
+        dto.setOrder(OrderJson.read(event.getOrderData()));
+        return dto;
+    }
+}
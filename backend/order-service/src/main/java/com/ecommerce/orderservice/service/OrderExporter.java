@@ -0,0 +1,315 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import com.ecommerce.orderservice.mapper.OrderJson;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams orders matching the admin filters as CSV or NDJSON. Rows are read through a forward-only,
+ * read-only cursor fetch-size rows at a time and written out as they arrive, so memory use does not
+ * depend on how many orders are exported. The filters match findOrdersWithFiltersAndSearch; orders come
+ * newest first. Archived orders are exported only on request, after the live ones and newest first
+ * among themselves; their columns are read from the stored order document.
+ */
+@Service
+public class OrderExporter {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String format) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + format + " (use csv or ndjson)");
+            }
+        }
+    }
+
+    private static final String[] COLUMNS = {
+            "id", "order_number", "user_id", "order_status", "payment_status", "total_amount", "tax_amount",
+            "shipping_amount", "discount_amount", "coupon_code", "final_amount", "payment_method", "transaction_id",
+            "email", "phone_number", "shipping_address", "created_at", "updated_at"
+    };
+    private static final String[] SEARCHED_COLUMNS = {
+            "order_number", "email", "phone_number", "shipping_address", "transaction_id"
+    };
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    @Autowired
+    public OrderExporter(JdbcTemplate jdbcTemplate, @Value("${orders.export.fetch-size:1000}") int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Export fetch size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Write every matching order to the stream, archived ones too if asked, and return how many were written
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, OrderStatus orderStatus, PaymentStatus paymentStatus,
+                       LocalDateTime startDate, LocalDateTime endDate, String search, boolean includeArchived,
+                       Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        rowWriter.start();
+
+        List<Object> parameters = new ArrayList<>();
+        String sql = buildQuery(String.join(", ", COLUMNS), "orders", userId, orderStatus, paymentStatus,
+                startDate, endDate, search, parameters);
+        long written = stream(sql, parameters, rowWriter, resultSet -> {
+            Object[] values = new Object[COLUMNS.length];
+            for (int i = 0; i < COLUMNS.length; i++) {
+                values[i] = columnValue(resultSet, COLUMNS[i]);
+            }
+            return values;
+        });
+
+        if (includeArchived) {
+            List<Object> archiveParameters = new ArrayList<>();
+            String archiveSql = buildQuery("order_data", "orders_archive", userId, orderStatus, paymentStatus,
+                    startDate, endDate, search, archiveParameters);
+            written += stream(archiveSql, archiveParameters, rowWriter,
+                    resultSet -> archivedValues(OrderJson.read(resultSet.getString("order_data"))));
+        }
+        writer.flush();
+        return written;
+    }
+
+    // Helper Methods
+
+    private long stream(String sql, List<Object> parameters, RowWriter rowWriter, RowReader rowReader)
+            throws IOException {
+        PreparedStatementCreator statementCreator = connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        };
+
+        long[] written = {0};
+        try {
+            jdbcTemplate.query(statementCreator, resultSet -> {
+                try {
+                    rowWriter.write(rowReader.read(resultSet));
+                } catch (IOException e) {
+                    // Client went away; ends the query and releases the cursor
+                    throw new UncheckedIOException(e);
+                }
+                written[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return written[0];
+    }
+
+    // The orders table and the archive share the filtered and searched columns
+    private String buildQuery(String selected, String table, Long userId, OrderStatus orderStatus,
+                              PaymentStatus paymentStatus, LocalDateTime startDate, LocalDateTime endDate,
+                              String search, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(selected)
+                .append(" FROM ").append(table).append(" WHERE 1 = 1");
+        if (userId != null) {
+            sql.append(" AND user_id = ?");
+            parameters.add(userId);
+        }
+        if (orderStatus != null) {
+            sql.append(" AND order_status = ?");
+            parameters.add(orderStatus.name());
+        }
+        if (paymentStatus != null) {
+            sql.append(" AND payment_status = ?");
+            parameters.add(paymentStatus.name());
+        }
+        if (startDate != null) {
+            sql.append(" AND created_at >= ?");
+            parameters.add(Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND created_at <= ?");
+            parameters.add(Timestamp.valueOf(endDate));
+        }
+        if (search != null && !search.isEmpty()) {
+            String pattern = "%" + search.toLowerCase(Locale.ROOT) + "%";
+            List<String> conditions = new ArrayList<>();
+            for (String column : SEARCHED_COLUMNS) {
+                conditions.add("LOWER(" + column + ") LIKE ?");
+                parameters.add(pattern);
+            }
+            sql.append(" AND (").append(String.join(" OR ", conditions)).append(")");
+        }
+        return sql.append(" ORDER BY created_at DESC, id DESC").toString();
+    }
+
+    private static Object columnValue(ResultSet resultSet, String column) throws SQLException {
+        if (column.endsWith("_at")) {
+            Timestamp timestamp = resultSet.getTimestamp(column);
+            return timestamp != null ? timestamp.toLocalDateTime() : null;
+        }
+        if (column.endsWith("_amount")) {
+            return resultSet.getBigDecimal(column);
+        }
+        if (column.equals("id") || column.equals("user_id")) {
+            long value = resultSet.getLong(column);
+            return resultSet.wasNull() ? null : value;
+        }
+        return resultSet.getString(column);
+    }
+
+    /**
+     * An archived order's values in COLUMNS order
+     */
+    private static Object[] archivedValues(OrderDTO order) {
+        return new Object[]{
+                order.getId(), order.getOrderNumber(), order.getUserId(), order.getOrderStatus(),
+                order.getPaymentStatus(), order.getTotalAmount(), order.getTaxAmount(), order.getShippingAmount(),
+                order.getDiscountAmount(), order.getCouponCode(), order.getFinalAmount(), order.getPaymentMethod(),
+                order.getTransactionId(), order.getEmail(), order.getPhoneNumber(), order.getShippingAddress(),
+                order.getCreatedAt(), order.getUpdatedAt()
+        };
+    }
+
+    private interface RowReader {
+
+        Object[] read(ResultSet resultSet) throws SQLException;
+    }
+
+    private interface RowWriter {
+
+        default void start() throws IOException {
+        }
+
+        void write(Object[] values) throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof BigDecimal amount) {
+                    writer.write(amount.toPlainString());
+                } else if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Lines are separated below, not by the generator
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = values[i];
+                generator.writeFieldName(COLUMNS[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal amount) {
+                    generator.writeNumber(amount);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ecommerce.orderservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order number generator. Each id packs 41 bits of milliseconds since a custom
+ * epoch, a 10-bit node id and a 12-bit per-millisecond sequence, so ids are unique across up to
+ * 1024 order-service instances and increase monotonically per node.
+ *
+ * Node ids must never be shared by two running instances. Either set orders.number.node-id per
+ * instance, or leave it unset and each instance leases a free node id through {@link JobLeases},
+ * renews the lease while it runs and refuses to hand out ids once its lease may have run out.
+ *
+ * Timestamp and sequence live in one {@link AtomicLong} and advance with a single CAS. When the
+ * sequence for a millisecond runs out, or the wall clock steps backwards, the generator keeps
+ * counting on from the last value it handed out instead of blocking.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberGenerator.class);
+
+    static final long EPOCH_MS = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "ORD-";
+    private static final String NODE_LEASE_PREFIX = "order-number-node-";
+    // Ids stop this long before the lease runs out, to allow for clock differences between instances
+    static final long NODE_LEASE_SAFETY_MS = 5_000;
+
+    private final LongSupplier clock;
+    // Null when the node id is configured rather than leased
+    private final JobLeases jobLeases;
+    private final long nodeLeaseMillis;
+    private volatile long nodeId;
+    // Local time after which the node id may be leased by another instance
+    private volatile long nodeLeaseValidUntil = Long.MAX_VALUE;
+    // (ms since epoch << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public OrderNumberGenerator(@Value("${orders.number.node-id:-1}") long configuredNodeId,
+                                @Value("${orders.number.node-lease-ms:60000}") long nodeLeaseMillis,
+                                @Value("${eureka.instance.instance-id:${spring.application.name:order-service}}") String instanceId,
+                                @Value("${spring.cloud.client.ip-address:}") String ipAddress,
+                                JobLeases jobLeases) {
+        this(configuredNodeId >= 0 ? configuredNodeId : nodeIdFor(ipAddress + "/" + instanceId),
+                configuredNodeId >= 0 ? null : jobLeases, nodeLeaseMillis, System::currentTimeMillis);
+        logger.info("Order number generator using {} node id {} (instance {} on {})",
+                this.jobLeases != null ? "leased" : "configured", nodeId, instanceId, ipAddress);
+    }
+
+    OrderNumberGenerator(long nodeId, LongSupplier clock) {
+        this(nodeId, null, 0, clock);
+    }
+
+    /**
+     * With jobLeases set, nodeId is only the preferred node id: the first free one from there on is leased
+     */
+    OrderNumberGenerator(long nodeId, JobLeases jobLeases, long nodeLeaseMillis, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        if (jobLeases != null && nodeLeaseMillis <= 2 * NODE_LEASE_SAFETY_MS) {
+            throw new IllegalArgumentException("Node id lease must be longer than " + 2 * NODE_LEASE_SAFETY_MS + " ms");
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.jobLeases = jobLeases;
+        this.nodeLeaseMillis = nodeLeaseMillis;
+        if (jobLeases != null) {
+            leaseNodeId(nodeId);
+        }
+    }
+
+    /**
+     * Next order number, e.g. ORD-0123456789012345678
+     */
+    public String nextOrderNumber() {
+        return PREFIX + nextId();
+    }
+
+    /**
+     * Next raw 63-bit id
+     */
+    public long nextId() {
+        if (clock.getAsLong() > nodeLeaseValidUntil) {
+            throw new IllegalStateException("Lease on order number node id " + nodeId + " has run out");
+        }
+        long state;
+        long next;
+        do {
+            state = lastState.get();
+            long now = (clock.getAsLong() - EPOCH_MS) << SEQUENCE_BITS;
+            // Take the first sequence of a new millisecond, otherwise the next sequence after the last id
+            next = now > state ? now : state + 1;
+        } while (!lastState.compareAndSet(state, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Extend the node id lease well before it runs out. Should another instance have taken it over
+     * meanwhile, move to the next free node id.
+     */
+    @Scheduled(fixedDelayString = "${orders.number.node-lease-renew-ms:15000}")
+    public void renewNodeLease() {
+        if (jobLeases == null) {
+            return;
+        }
+        long renewedAt = clock.getAsLong();
+        try {
+            if (jobLeases.tryAcquire(leaseName(nodeId), nodeLeaseMillis)) {
+                nodeLeaseValidUntil = renewedAt + nodeLeaseMillis - NODE_LEASE_SAFETY_MS;
+                return;
+            }
+            logger.error("Lease on order number node id {} was taken by another instance", nodeId);
+            nodeLeaseValidUntil = Long.MIN_VALUE;
+            leaseNodeId((nodeId + 1) & MAX_NODE_ID);
+        } catch (RuntimeException e) {
+            // Ids keep flowing until the current lease runs out; the next renewal tries again
+            logger.error("Failed to renew the lease on order number node id {}", nodeId, e);
+        }
+    }
+
+    @PreDestroy
+    public void releaseNodeLease() {
+        if (jobLeases != null && nodeLeaseValidUntil != Long.MIN_VALUE) {
+            jobLeases.release(leaseName(nodeId));
+        }
+    }
+
+    // Helper Methods
+
+    /**
+     * Lease the first free node id from the preferred one on
+     */
+    private void leaseNodeId(long preferredNodeId) {
+        for (long i = 0; i <= MAX_NODE_ID; i++) {
+            long candidate = (preferredNodeId + i) & MAX_NODE_ID;
+            long leasedAt = clock.getAsLong();
+            if (jobLeases.tryAcquire(leaseName(candidate), nodeLeaseMillis)) {
+                nodeId = candidate;
+                nodeLeaseValidUntil = leasedAt + nodeLeaseMillis - NODE_LEASE_SAFETY_MS;
+                return;
+            }
+        }
+        throw new IllegalStateException("All " + (MAX_NODE_ID + 1) + " order number node ids are leased");
+    }
+
+    private static String leaseName(long nodeId) {
+        return NODE_LEASE_PREFIX + nodeId;
+    }
+
+    /**
+     * Preferred node id derived from the Eureka instance id (name:port here) and the host address,
+     * so an instance usually gets the same node id back; collisions are resolved by the lease
+     */
+    static long nodeIdFor(String instanceId) {
+        int hash = instanceId.hashCode();
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return hash & MAX_NODE_ID;
+    }
+}
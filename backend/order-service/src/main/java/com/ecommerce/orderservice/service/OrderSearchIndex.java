@@ -0,0 +1,343 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over the fields admin search matches with LIKE '%term%': order number,
+ * email, phone number, shipping address and transaction id. A term is resolved to the orders
+ * containing all of its trigrams, and each candidate is then checked against its indexed text,
+ * so results match the LIKE query exactly.
+ *
+ * The index is loaded on startup, updated by this instance's own writes, and picks up orders
+ * written by other instances from a periodic sync on updatedAt. Until the first load finishes,
+ * or for terms it cannot answer, {@link #search(String)} returns empty and callers fall back to
+ * the database query.
+ */
+@Component
+public class OrderSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderSearchIndex.class);
+    private static final int LOAD_BATCH_SIZE = 5_000;
+    private static final char FIELD_SEPARATOR = '\n';
+    // Rows written on other instances can carry a slightly different clock
+    private static final long SYNC_OVERLAP_SECONDS = 30;
+
+    private final OrderRepository orderRepository;
+    private final int maxCandidates;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private long[] orderIds = new long[1024];
+    private String[] documents = new String[1024];
+    private int documentCount;
+
+    private volatile boolean ready;
+    private volatile LocalDateTime lastSync;
+
+    @Autowired
+    public OrderSearchIndex(OrderRepository orderRepository,
+                            @Value("${orders.search-index.max-candidates:2000}") int maxCandidates) {
+        this.orderRepository = orderRepository;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * (Re)load every order's searchable fields, walking the table by id in batches
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            ordinals.clear();
+            postings.clear();
+            Arrays.fill(documents, 0, documentCount, null);
+            documentCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LocalDateTime syncFrom = LocalDateTime.now().minusSeconds(SYNC_OVERLAP_SECONDS);
+        long afterId = 0;
+        int loaded = 0;
+        List<Object[]> batch;
+        do {
+            batch = orderRepository.findSearchFieldsAfterId(afterId, Limit.of(LOAD_BATCH_SIZE));
+            index(batch);
+            loaded += batch.size();
+            if (!batch.isEmpty()) {
+                afterId = (Long) batch.get(batch.size() - 1)[0];
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        lastSync = syncFrom;
+        ready = true;
+        logger.info("Order search index built with {} orders and {} trigrams in {} ms",
+                loaded, trigramCount(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Pick up orders created or changed since the last sync, including those written by other instances
+     */
+    @Scheduled(fixedDelayString = "${orders.search-index.sync-interval-ms:30000}")
+    public void syncRecentChanges() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime syncFrom = LocalDateTime.now().minusSeconds(SYNC_OVERLAP_SECONDS);
+        List<Object[]> changed = orderRepository.findSearchFieldsUpdatedSince(lastSync);
+        index(changed);
+        lastSync = syncFrom;
+        if (!changed.isEmpty()) {
+            logger.debug("Order search index synced {} changed orders", changed.size());
+        }
+    }
+
+    /**
+     * Index or re-index one order after it was saved on this instance
+     */
+    public void index(Order order) {
+        if (order == null || order.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            put(order.getId(), documentOf(order.getOrderNumber(), order.getEmail(), order.getPhoneNumber(),
+                    order.getShippingAddress(), order.getTransactionId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stop matching an order that left the orders table (archived). Its slot and postings stay until
+     * the next rebuild; the empty document never passes the text check in search().
+     */
+    public void remove(Long orderId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(orderId);
+            if (ordinal != null) {
+                documents[ordinal] = "";
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids (ascending) of the orders whose searchable fields contain the term, ignoring case.
+     * Empty when the index cannot answer: not loaded yet, no term or one shorter than three
+     * characters, or more matches than are worth passing to the database as an id list.
+     */
+    public Optional<List<Long>> search(String term) {
+        if (!ready || term == null) {
+            return Optional.empty();
+        }
+        String needle = term.toLowerCase(Locale.ROOT);
+        if (needle.length() < 3 || needle.indexOf(FIELD_SEPARATOR) >= 0) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> trigrams = trigramsOf(needle);
+            List<Postings> lists = new ArrayList<>(trigrams.size());
+            for (Long trigram : trigrams) {
+                Postings list = postings.get(trigram);
+                if (list == null) {
+                    return Optional.of(List.of());
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            List<Long> matches = new ArrayList<>();
+            Postings smallest = lists.get(0);
+            for (int i = 0; i < smallest.size; i++) {
+                int ordinal = smallest.ordinals[i];
+                if (containsInAll(lists, ordinal) && documents[ordinal].contains(needle)) {
+                    if (matches.size() == maxCandidates) {
+                        return Optional.empty();
+                    }
+                    matches.add(orderIds[ordinal]);
+                }
+            }
+            matches.sort(null);
+            return Optional.of(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper Methods
+
+    private void index(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                put((Long) row[0], documentOf((String) row[1], (String) row[2], (String) row[3],
+                        (String) row[4], (String) row[5]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Store the document and add postings for its trigrams. Trigrams an order no longer has are left
+     * in place; the text check in search() filters them out.
+     */
+    private void put(Long orderId, String document) {
+        Integer existing = ordinals.get(orderId);
+        int ordinal;
+        Set<Long> previous = Set.of();
+        if (existing != null) {
+            ordinal = existing;
+            if (document.equals(documents[ordinal])) {
+                return;
+            }
+            previous = trigramsOf(documents[ordinal]);
+        } else {
+            ordinal = documentCount++;
+            if (ordinal == orderIds.length) {
+                orderIds = Arrays.copyOf(orderIds, ordinal * 2);
+                documents = Arrays.copyOf(documents, ordinal * 2);
+            }
+            orderIds[ordinal] = orderId;
+            ordinals.put(orderId, ordinal);
+        }
+        documents[ordinal] = document;
+
+        for (Long trigram : trigramsOf(document)) {
+            if (!previous.contains(trigram)) {
+                postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+            }
+        }
+    }
+
+    private static boolean containsInAll(List<Postings> lists, int ordinal) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(ordinal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String documentOf(String... fields) {
+        StringBuilder document = new StringBuilder();
+        for (String field : fields) {
+            if (field != null) {
+                document.append(field.toLowerCase(Locale.ROOT).replace(FIELD_SEPARATOR, ' '));
+            }
+            document.append(FIELD_SEPARATOR);
+        }
+        return document.toString();
+    }
+
+    /**
+     * Distinct trigrams of the text, each packed into a long; trigrams spanning two fields are skipped
+     */
+    private static Set<Long> trigramsOf(String text) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+                continue;
+            }
+            trigrams.add(((long) a << 32) | ((long) b << 16) | c);
+        }
+        return trigrams;
+    }
+
+    private int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free ordinals of the documents containing one trigram. New orders get the
+     * highest ordinal so adds are almost always appends.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] >= ordinal) {
+                insertSorted(ordinal);
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        private void insertSorted(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+            ordinals[insertAt] = ordinal;
+            size++;
+        }
+
+        private boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+    }
+}
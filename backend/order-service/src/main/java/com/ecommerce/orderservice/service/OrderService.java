@@ -2,22 +2,34 @@ package com.ecommerce.orderservice.service;
 
 import com.ecommerce.orderservice.dto.*;
 import com.ecommerce.orderservice.entity.*;
+import com.ecommerce.orderservice.mapper.OrderJson;
+import com.ecommerce.orderservice.mapper.OrderMapper;
 import com.ecommerce.orderservice.repository.*;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,22 +37,49 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+    // Offset listings that include archived orders merge them in memory, so they only reach this deep;
+    // hot-only and cursor listings have no limit
+    static final int MAX_MERGED_OFFSET_ROWS = 10_000;
+    // Order properties the archive stores as well, so listings that include archived orders can sort on them
+    static final Set<String> SORTABLE_PROPERTIES = new TreeSet<>(List.of("id", "orderNumber", "orderStatus",
+            "paymentStatus", "totalAmount", "finalAmount", "createdAt", "updatedAt"));
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartService cartService;
     private final ProductServiceClient productServiceClient;
-    private final ModelMapper modelMapper;
+    private final OrderMapper orderMapper;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderSearchIndex orderSearchIndex;
+    private final OrderStatusCounters orderStatusCounters;
+    private final CheckoutPipeline checkoutPipeline;
+    private final OrderArchive orderArchive;
+    private final OrderEventOutbox orderEventOutbox;
+    private final StockReleaseQueue stockReleaseQueue;
+    private final ProductSalesRollup productSalesRollup;
 
     @Autowired
     public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
                        CartService cartService, ProductServiceClient productServiceClient,
-                       ModelMapper modelMapper) {
+                       OrderMapper orderMapper, OrderNumberGenerator orderNumberGenerator,
+                       OrderSearchIndex orderSearchIndex, OrderStatusCounters orderStatusCounters,
+                       CheckoutPipeline checkoutPipeline, OrderArchive orderArchive,
+                       OrderEventOutbox orderEventOutbox, StockReleaseQueue stockReleaseQueue,
+                       ProductSalesRollup productSalesRollup) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.cartService = cartService;
         this.productServiceClient = productServiceClient;
-        this.modelMapper = modelMapper;
+        this.orderMapper = orderMapper;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.orderSearchIndex = orderSearchIndex;
+        this.orderStatusCounters = orderStatusCounters;
+        this.checkoutPipeline = checkoutPipeline;
+        this.orderArchive = orderArchive;
+        this.orderEventOutbox = orderEventOutbox;
+        this.stockReleaseQueue = stockReleaseQueue;
+        this.productSalesRollup = productSalesRollup;
     }
 
     /**
@@ -49,20 +88,27 @@ public class OrderService {
     public OrderDTO createOrderFromCart(Long userId, CreateOrderDTO createOrderDTO) {
         logger.info("Creating order from cart for user: {}", userId);
 
-        // Validate cart
-        if (!cartService.validateCartForCheckout(userId)) {
-            throw new RuntimeException("Cart validation failed. Cannot proceed with order creation.");
-        }
-
         // Get user's cart
         CartDTO cartDTO = cartService.getCartByUserId(userId);
         if (cartDTO.getCartItems().isEmpty()) {
             throw new RuntimeException("Cart is empty. Cannot create order.");
         }
 
+        // Resolve fresh product details and hold stock for every line (all or nothing) concurrently, within
+        // the checkout deadline; the hold is released if validation fails and expires if never confirmed
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartItemDTO cartItemDTO : cartDTO.getCartItems()) {
+            quantities.merge(cartItemDTO.getProductId(), cartItemDTO.getQuantity(), Integer::sum);
+        }
+        CheckoutPipeline.Reservation reservation = checkoutPipeline.reserve(quantities,
+                products -> cartService.validateCartForCheckout(cartDTO, products));
+        Map<Long, ProductDTO> products = reservation.getProducts();
+        String holdId = reservation.getHoldId();
+
         // Create order
         Order order = new Order();
         order.setUserId(userId);
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
         order.setShippingAddress(createOrderDTO.getShippingAddress());
         order.setBillingAddress(createOrderDTO.getBillingAddress() != null ? 
                                createOrderDTO.getBillingAddress() : createOrderDTO.getShippingAddress());
@@ -80,16 +126,9 @@ public class OrderService {
         // Calculate estimated delivery date (5-7 business days from now)
         order.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(7));
 
-        // Convert cart items to order items
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        // Convert cart items to order items; the order keeps its totals as they are added
         for (CartItemDTO cartItemDTO : cartDTO.getCartItems()) {
-            // Get fresh product details
-            ProductDTO product = productServiceClient.getProductById(cartItemDTO.getProductId());
-            
-            // Reserve stock
-            if (!productServiceClient.reserveProductStock(cartItemDTO.getProductId(), cartItemDTO.getQuantity())) {
-                throw new RuntimeException("Failed to reserve stock for product: " + product.getName());
-            }
+            ProductDTO product = products.get(cartItemDTO.getProductId());
 
             OrderItem orderItem = new OrderItem(
                     product.getId(),
@@ -102,20 +141,38 @@ public class OrderService {
             );
 
             order.addOrderItem(orderItem);
-            totalAmount = totalAmount.add(orderItem.getTotalPrice());
         }
 
-        order.setTotalAmount(totalAmount);
-        order.calculateFinalAmount();
-
-        // Save order
-        order = orderRepository.save(order);
-        logger.info("Order created successfully: {}", order.getOrderNumber());
-
-        // Clear user's cart after successful order creation
-        cartService.clearCart(userId);
+        try {
+            // Save order (flushed so insert failures surface while we can still release the stock)
+            long savedAt = System.nanoTime();
+            order = orderRepository.saveAndFlush(order);
+            orderEventOutbox.record(OrderEventType.CREATED, order, null);
+            productSalesRollup.recordCreated(order);
+            reservation.record("save", savedAt);
+            reservation.checkDeadline("save");
+            logger.info("Order created successfully: {}", order.getOrderNumber());
+
+            // Clear user's cart after successful order creation
+            cartService.clearCart(userId);
+
+            // Hand the held units over to the order
+            long confirmedAt = System.nanoTime();
+            if (!productServiceClient.confirmStockHold(holdId)) {
+                throw new RuntimeException("Stock hold expired before the order could be placed. Please try again.");
+            }
+            reservation.record("confirm", confirmedAt);
+        } catch (RuntimeException e) {
+            logger.error("Order creation failed for user {}, releasing stock hold: {}", userId, e.getMessage());
+            productServiceClient.releaseStockHold(holdId);
+            throw e;
+        }
 
-        return convertToOrderDTO(order);
+        orderSearchIndex.index(order);
+        orderStatusCounters.recordCreated(order.getOrderStatus());
+        logger.info("Checkout for user {} took {} ms, stages (ms): {}", userId,
+                reservation.getElapsedMillis(), reservation.getStageMillis());
+        return orderMapper.toDTO(order);
     }
 
     /**
@@ -125,7 +182,10 @@ public class OrderService {
     public OrderDTO getOrderById(Long userId, Long orderId) {
         logger.info("Getting order {} for user {}", orderId, userId);
 
-        Order order = orderRepository.findByIdWithOrderItems(orderId)
+        // Finished orders past the archive cutoff are only in the archive
+        OrderDTO order = orderRepository.findByIdWithOrderItems(orderId)
+                .map(orderMapper::toDTO)
+                .or(() -> orderArchive.findById(orderId))
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
         // Verify order belongs to user
@@ -133,7 +193,7 @@ public class OrderService {
             throw new RuntimeException("Order does not belong to user");
         }
 
-        return convertToOrderDTO(order);
+        return order;
     }
 
     /**
@@ -143,7 +203,9 @@ public class OrderService {
     public OrderDTO getOrderByNumber(Long userId, String orderNumber) {
         logger.info("Getting order {} for user {}", orderNumber, userId);
 
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        OrderDTO order = orderRepository.findByOrderNumber(orderNumber)
+                .map(orderMapper::toDTO)
+                .or(() -> orderArchive.findByOrderNumber(orderNumber))
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderNumber));
 
         // Verify order belongs to user
@@ -151,37 +213,38 @@ public class OrderService {
             throw new RuntimeException("Order does not belong to user");
         }
 
-        return convertToOrderDTO(order);
+        return order;
     }
 
     /**
-     * Get user's orders with pagination
+     * Get user's orders with pagination; archived ones only when asked for
      */
     @Transactional(readOnly = true)
-    public PaginatedResponse<OrderDTO> getUserOrders(Long userId, int page, int size, String sortBy, String sortDirection) {
-        logger.info("Getting orders for user {} - page: {}, size: {}", userId, page, size);
+    public PaginatedResponse<OrderDTO> getUserOrders(Long userId, int page, int size, String sortBy, String sortDirection,
+                                                     boolean includeArchived) {
+        logger.info("Getting orders for user {} - page: {}, size: {}, archived: {}", userId, page, size, includeArchived);
 
-        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? 
-                Sort.Direction.DESC : Sort.Direction.ASC;
-        Sort sort = Sort.by(direction, sortBy != null ? sortBy : "createdAt");
-        Pageable pageable = PageRequest.of(page, size, sort);
+        return listingPage(page, size, sortOf(sortBy, sortDirection),
+                pageable -> orderRepository.findByUserId(userId, pageable),
+                includeArchived ? pageable -> orderArchive.findUserOrders(userId, pageable) : null);
+    }
 
-        Page<Order> orderPage = orderRepository.findByUserId(userId, pageable);
-        
-        List<OrderDTO> orderDTOs = orderPage.getContent().stream()
-                .map(this::convertToOrderDTO)
-                .collect(Collectors.toList());
+    /**
+     * Get user's orders newest first, archived ones included, continuing after the given cursor.
+     * Every page costs the same: no offset, no count.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> getUserOrdersByCursor(Long userId, String cursor, int size) {
+        logger.info("Getting orders for user {} - cursor: {}, size: {}", userId, cursor, size);
 
-        return new PaginatedResponse<>(
-                orderDTOs,
-                orderPage.getNumber(),
-                orderPage.getSize(),
-                orderPage.getTotalElements(),
-                orderPage.getTotalPages(),
-                orderPage.isFirst(),
-                orderPage.isLast(),
-                orderPage.getNumberOfElements()
-        );
+        validateCursorPageSize(size);
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<Order> orders = orderRepository.findByUserIdAfter(
+                userId, after.getCreatedAt(), after.getId(), Limit.of(size + 1));
+        List<ArchivedOrder> archived = orderArchive.findUserOrdersAfter(
+                userId, after.getCreatedAt(), after.getId(), size + 1);
+
+        return toCursorPage(orders, archived, size);
     }
 
     /**
@@ -203,53 +266,82 @@ public class OrderService {
             throw new RuntimeException("Order cannot be cancelled at this stage: " + order.getOrderStatus());
         }
 
-        // Release reserved stock
-        for (OrderItem item : order.getOrderItems()) {
-            productServiceClient.releaseProductStock(item.getProductId(), item.getQuantity());
-        }
+        // Queue the reserved stock for release; product-service is called in the background
+        stockReleaseQueue.enqueue(order.getId(), getStockQuantities(order));
 
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(OrderStatus.CANCELLED);
         order.setPaymentStatus(PaymentStatus.REFUNDED);
         order = orderRepository.save(order);
+        orderEventOutbox.record(OrderEventType.CANCELLED, order, previousStatus);
+        productSalesRollup.recordStatusChange(order, previousStatus);
+        orderStatusCounters.recordTransition(previousStatus, OrderStatus.CANCELLED);
 
         logger.info("Order cancelled successfully: {}", order.getOrderNumber());
-        return convertToOrderDTO(order);
+        return orderMapper.toDTO(order);
     }
 
     // Admin methods
 
     /**
-     * Get all orders with filters (Admin only)
+     * Get all orders with filters; archived ones only when asked for (Admin only)
      */
     @Transactional(readOnly = true)
     public PaginatedResponse<OrderDTO> getAllOrdersForAdmin(Long userId, OrderStatus orderStatus, 
                                                            PaymentStatus paymentStatus, LocalDateTime startDate, 
                                                            LocalDateTime endDate, int page, int size, 
-                                                           String sortBy, String sortDirection, String search) {
-        logger.info("Getting orders for admin with filters - search: {}", search);
-
-        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? 
-                Sort.Direction.DESC : Sort.Direction.ASC;
-        Sort sort = Sort.by(direction, sortBy != null ? sortBy : "createdAt");
-        Pageable pageable = PageRequest.of(page, size, sort);
-
-        Page<Order> orderPage = orderRepository.findOrdersWithFiltersAndSearch(
-                userId, orderStatus, paymentStatus, startDate, endDate, search, pageable);
+                                                           String sortBy, String sortDirection, String search,
+                                                           boolean includeArchived) {
+        logger.info("Getting orders for admin with filters - search: {}, archived: {}", search, includeArchived);
+
+        // Resolve the search term through the in-memory index when it can answer, otherwise LIKE-scan.
+        // The index only holds orders that are not archived; the archive is always searched with LIKE.
+        List<Long> matchingIds = orderSearchIndex.search(search).orElse(null);
+        return listingPage(page, size, sortOf(sortBy, sortDirection),
+                pageable -> {
+                    if (matchingIds == null) {
+                        return orderRepository.findOrdersWithFiltersAndSearch(
+                                userId, orderStatus, paymentStatus, startDate, endDate, search, pageable);
+                    }
+                    if (matchingIds.isEmpty()) {
+                        return Page.empty(pageable);
+                    }
+                    return orderRepository.findOrdersWithFiltersByIdIn(
+                            matchingIds, userId, orderStatus, paymentStatus, startDate, endDate, pageable);
+                },
+                includeArchived ? pageable -> orderArchive.findOrders(
+                        userId, orderStatus, paymentStatus, startDate, endDate, search, pageable) : null);
+    }
 
-        List<OrderDTO> orderDTOs = orderPage.getContent().stream()
-                .map(this::convertToOrderDTO)
-                .collect(Collectors.toList());
+    /**
+     * Get all orders with filters newest first, archived ones included, continuing after the given cursor (Admin only)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> getAllOrdersForAdminByCursor(Long userId, OrderStatus orderStatus,
+                                                            PaymentStatus paymentStatus, LocalDateTime startDate,
+                                                            LocalDateTime endDate, String search,
+                                                            String cursor, int size) {
+        logger.info("Getting orders for admin by cursor - cursor: {}, size: {}, search: {}", cursor, size, search);
+
+        validateCursorPageSize(size);
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<Long> matchingIds = orderSearchIndex.search(search).orElse(null);
+        List<Order> orders;
+        if (matchingIds == null) {
+            orders = orderRepository.findOrdersWithFiltersAndSearchAfter(
+                    userId, orderStatus, paymentStatus, startDate, endDate, search,
+                    after.getCreatedAt(), after.getId(), Limit.of(size + 1));
+        } else if (matchingIds.isEmpty()) {
+            orders = List.of();
+        } else {
+            orders = orderRepository.findOrdersWithFiltersByIdInAfter(
+                    matchingIds, userId, orderStatus, paymentStatus, startDate, endDate,
+                    after.getCreatedAt(), after.getId(), Limit.of(size + 1));
+        }
+        List<ArchivedOrder> archived = orderArchive.findOrdersAfter(userId, orderStatus, paymentStatus,
+                startDate, endDate, search, after.getCreatedAt(), after.getId(), size + 1);
 
-        return new PaginatedResponse<>(
-                orderDTOs,
-                orderPage.getNumber(),
-                orderPage.getSize(),
-                orderPage.getTotalElements(),
-                orderPage.getTotalPages(),
-                orderPage.isFirst(),
-                orderPage.isLast(),
-                orderPage.getNumberOfElements()
-        );
+        return toCursorPage(orders, archived, size);
     }
 
     /**
@@ -261,91 +353,268 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
-        // Update order status if provided
+        // Update order status if provided, settling the stock reservation on the way
+        OrderStatus previousStatus = order.getOrderStatus();
         if (updateStatusDTO.getOrderStatus() != null) {
-            order.setOrderStatus(updateStatusDTO.getOrderStatus());
+            OrderStatus newStatus = updateStatusDTO.getOrderStatus();
+            if (holdsStockReservation(previousStatus) && !holdsStockReservation(newStatus)) {
+                // Queued with the order change, sent to product-service once it has committed
+                if (newStatus == OrderStatus.CANCELLED) {
+                    stockReleaseQueue.enqueue(order.getId(), getStockQuantities(order));
+                } else {
+                    stockReleaseQueue.enqueueCommit(order.getId(), getStockQuantities(order));
+                }
+            }
+            order.setOrderStatus(newStatus);
+            orderStatusCounters.recordTransition(previousStatus, newStatus);
         }
 
+        applyStatusUpdate(order, updateStatusDTO);
+
+        order = orderRepository.save(order);
+        orderEventOutbox.record(eventTypeOf(previousStatus, order.getOrderStatus()), order, previousStatus);
+        productSalesRollup.recordStatusChange(order, previousStatus);
+        orderSearchIndex.index(order);
+        logger.info("Order status updated successfully for: {}", order.getOrderNumber());
+
+        return orderMapper.toDTO(order);
+    }
+
+    /**
+     * Get order by ID for admin (without user validation)
+     */
+    @Transactional(readOnly = true)
+    public OrderDTO getOrderByIdForAdmin(Long orderId) {
+        logger.info("Admin getting order: {}", orderId);
+
+        return orderRepository.findByIdWithOrderItems(orderId)
+                .map(orderMapper::toDTO)
+                .or(() -> orderArchive.findById(orderId))
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+    }
+
+    /**
+     * Get order statistics (Admin only)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderStatisticsDTO getOrderStatistics() {
+        logger.info("Getting order statistics");
+
+        // Served from the in-memory counters, no database access
+        OrderStatisticsDTO stats = new OrderStatisticsDTO();
+        stats.setTotalOrders(orderStatusCounters.getTotal());
+        stats.setPendingOrders((int) orderStatusCounters.getCount(OrderStatus.PENDING));
+        stats.setProcessingOrders((int) orderStatusCounters.getCount(OrderStatus.PROCESSING));
+        stats.setShippedOrders((int) orderStatusCounters.getCount(OrderStatus.SHIPPED));
+        stats.setDeliveredOrders((int) orderStatusCounters.getCount(OrderStatus.DELIVERED));
+        stats.setCancelledOrders((int) orderStatusCounters.getCount(OrderStatus.CANCELLED));
+
+        return stats;
+    }
+
+    // Helper methods
+
+    /**
+     * Copy the payment, tracking, delivery and notes fields of a status update onto the order. The order
+     * status itself is set by the caller, which also settles stock and statistics.
+     */
+    static void applyStatusUpdate(Order order, UpdateOrderStatusDTO update) {
         // Update payment status if provided
-        if (updateStatusDTO.getPaymentStatus() != null) {
-            order.setPaymentStatus(updateStatusDTO.getPaymentStatus());
+        if (update.getPaymentStatus() != null) {
+            order.setPaymentStatus(update.getPaymentStatus());
         }
 
         // Update transaction ID if provided
-        if (updateStatusDTO.getTransactionId() != null) {
-            order.setTransactionId(updateStatusDTO.getTransactionId());
+        if (update.getTransactionId() != null) {
+            order.setTransactionId(update.getTransactionId());
         }
 
         // Update delivery dates if provided
-        if (updateStatusDTO.getEstimatedDeliveryDate() != null) {
-            order.setEstimatedDeliveryDate(updateStatusDTO.getEstimatedDeliveryDate());
+        if (update.getEstimatedDeliveryDate() != null) {
+            order.setEstimatedDeliveryDate(update.getEstimatedDeliveryDate());
         }
 
-        if (updateStatusDTO.getActualDeliveryDate() != null) {
-            order.setActualDeliveryDate(updateStatusDTO.getActualDeliveryDate());
+        if (update.getActualDeliveryDate() != null) {
+            order.setActualDeliveryDate(update.getActualDeliveryDate());
         }
 
         // Update notes if provided
-        if (updateStatusDTO.getNotes() != null) {
-            order.setNotes(updateStatusDTO.getNotes());
+        if (update.getNotes() != null) {
+            order.setNotes(update.getNotes());
         }
 
         // Auto-set actual delivery date if status changed to DELIVERED
-        if (updateStatusDTO.getOrderStatus() == OrderStatus.DELIVERED && order.getActualDeliveryDate() == null) {
+        if (update.getOrderStatus() == OrderStatus.DELIVERED && order.getActualDeliveryDate() == null) {
             order.setActualDeliveryDate(LocalDateTime.now());
         }
+    }
 
-        order = orderRepository.save(order);
-        logger.info("Order status updated successfully for: {}", order.getOrderNumber());
+    /**
+     * Event for an admin update: a cancellation, or any other change of status, payment or delivery details
+     */
+    static OrderEventType eventTypeOf(OrderStatus previousStatus, OrderStatus newStatus) {
+        return newStatus == OrderStatus.CANCELLED && previousStatus != OrderStatus.CANCELLED
+                ? OrderEventType.CANCELLED : OrderEventType.STATUS_CHANGED;
+    }
+
+    /**
+     * Orders hold reserved stock from checkout until they ship or are cancelled
+     */
+    static boolean holdsStockReservation(OrderStatus status) {
+        return status == OrderStatus.PENDING || status == OrderStatus.CONFIRMED || status == OrderStatus.PROCESSING;
+    }
 
-        return convertToOrderDTO(order);
+    static Map<Long, Integer> getStockQuantities(Order order) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private void validateCursorPageSize(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+    }
+
+    private static Sort sortOf(String sortBy, String sortDirection) {
+        String property = sortBy != null ? sortBy : "createdAt";
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new IllegalArgumentException("Orders can only be sorted by " + String.join(", ", SORTABLE_PROPERTIES));
+        }
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ?
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, property);
     }
 
     /**
-     * Get order by ID for admin (without user validation)
+     * One offset page of a listing. Without archived orders (null) this is the hot page alone, at any
+     * depth, and the archive is not queried. With them, the first (page + 1) * size of each are merged
+     * in memory when the archive has any that match, which is why those listings stop at
+     * MAX_MERGED_OFFSET_ROWS; the cursor listings go on from there.
      */
-    @Transactional(readOnly = true)
-    public OrderDTO getOrderByIdForAdmin(Long orderId) {
-        logger.info("Admin getting order: {}", orderId);
+    private PaginatedResponse<OrderDTO> listingPage(int page, int size, Sort sort,
+                                                    Function<Pageable, Page<Order>> hotOrders,
+                                                    Function<Pageable, Page<ArchivedOrder>> archivedOrders) {
+        if (archivedOrders == null) {
+            return hotPage(hotOrders.apply(PageRequest.of(page, size, sort)));
+        }
+        long rowsNeeded = (long) (page + 1) * size;
+        Page<ArchivedOrder> archived = archivedOrders.apply(
+                PageRequest.of(0, (int) Math.min(rowsNeeded, MAX_MERGED_OFFSET_ROWS), sort));
+        if (archived.getTotalElements() == 0) {
+            return hotPage(hotOrders.apply(PageRequest.of(page, size, sort)));
+        }
+        if (rowsNeeded > MAX_MERGED_OFFSET_ROWS) {
+            throw new IllegalArgumentException("Pages beyond the first " + MAX_MERGED_OFFSET_ROWS +
+                    " orders including archived ones are only available through the cursor listing");
+        }
 
-        Order order = orderRepository.findByIdWithOrderItems(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        Page<Order> hot = hotOrders.apply(PageRequest.of(0, (int) rowsNeeded, sort));
+        List<Object> merged = merge(hot.getContent(), archived.getContent(), comparatorOf(sort), (int) rowsNeeded);
+        List<Object> content = merged.subList(Math.min(page * size, merged.size()), merged.size());
 
-        return convertToOrderDTO(order);
+        long totalElements = hot.getTotalElements() + archived.getTotalElements();
+        int totalPages = (int) ((totalElements + size - 1) / size);
+        return new PaginatedResponse<>(toOrderDTOs(content), page, size, totalElements, totalPages,
+                page == 0, page + 1 >= totalPages, content.size());
+    }
+
+    private PaginatedResponse<OrderDTO> hotPage(Page<Order> orderPage) {
+        return new PaginatedResponse<>(
+                convertToOrderDTOs(orderPage.getContent()),
+                orderPage.getNumber(),
+                orderPage.getSize(),
+                orderPage.getTotalElements(),
+                orderPage.getTotalPages(),
+                orderPage.isFirst(),
+                orderPage.isLast(),
+                orderPage.getNumberOfElements()
+        );
     }
 
     /**
-     * Get order statistics (Admin only)
+     * Build a cursor page from up to size + 1 hot and size + 1 archived orders, both newest first;
+     * the extra one only tells us whether there is a next page
      */
-    @Transactional(readOnly = true)
-    public OrderStatisticsDTO getOrderStatistics() {
-        logger.info("Getting order statistics");
+    private CursorPage<OrderDTO> toCursorPage(List<Order> orders, List<ArchivedOrder> archived, int size) {
+        Comparator<Object> newestFirst = comparatorOf(Sort.by(Sort.Direction.DESC, "createdAt"));
+        List<Object> merged = merge(orders, archived, newestFirst, size + 1);
+        boolean hasMore = merged.size() > size;
+        List<Object> content = hasMore ? merged.subList(0, size) : merged;
+        String nextCursor = null;
+        if (hasMore) {
+            BeanWrapper last = new BeanWrapperImpl(content.get(content.size() - 1));
+            nextCursor = new OrderCursor((LocalDateTime) last.getPropertyValue("createdAt"),
+                    (Long) last.getPropertyValue("id")).encode();
+        }
+        return new CursorPage<>(toOrderDTOs(content), size, hasMore, nextCursor);
+    }
 
-        OrderStatisticsDTO stats = new OrderStatisticsDTO();
-        stats.setTotalOrders(orderRepository.count());
-        stats.setPendingOrders(orderRepository.countByOrderStatus(OrderStatus.PENDING));
-        stats.setProcessingOrders(orderRepository.countByOrderStatus(OrderStatus.PROCESSING));
-        stats.setShippedOrders(orderRepository.countByOrderStatus(OrderStatus.SHIPPED));
-        stats.setDeliveredOrders(orderRepository.countByOrderStatus(OrderStatus.DELIVERED));
-        stats.setCancelledOrders(orderRepository.countByOrderStatus(OrderStatus.CANCELLED));
+    /**
+     * Merge hot orders and archived orders, each already in the given order, keeping the first limit
+     */
+    private static List<Object> merge(List<Order> orders, List<ArchivedOrder> archived,
+                                      Comparator<Object> comparator, int limit) {
+        List<Object> merged = new ArrayList<>(orders.size() + archived.size());
+        merged.addAll(orders);
+        merged.addAll(archived);
+        merged.sort(comparator);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
 
-        return stats;
+    /**
+     * Compares hot and archived orders by the sort property, then by id, the way the listing queries order them
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object> comparatorOf(Sort sort) {
+        Sort.Order order = sort.iterator().next();
+        Comparator<Object> byProperty = Comparator.comparing(
+                entity -> (Comparable) new BeanWrapperImpl(entity).getPropertyValue(order.getProperty()),
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+        Comparator<Object> byId = Comparator.comparing(entity -> (Long) new BeanWrapperImpl(entity).getPropertyValue("id"));
+        Comparator<Object> comparator = byProperty.thenComparing(byId);
+        return order.isAscending() ? comparator : comparator.reversed();
     }
 
-    // Helper methods
+    /**
+     * DTOs for a merged listing in its order: hot orders with their items in one query, archived ones from their JSON
+     */
+    private List<OrderDTO> toOrderDTOs(List<Object> entities) {
+        List<Order> orders = new ArrayList<>();
+        for (Object entity : entities) {
+            if (entity instanceof Order order) {
+                orders.add(order);
+            }
+        }
+        Map<Long, OrderDTO> hotDTOs = new HashMap<>();
+        for (OrderDTO dto : convertToOrderDTOs(orders)) {
+            hotDTOs.put(dto.getId(), dto);
+        }
+
+        List<OrderDTO> dtos = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            dtos.add(entity instanceof ArchivedOrder archivedOrder
+                    ? OrderJson.read(archivedOrder.getOrderData())
+                    : hotDTOs.get(((Order) entity).getId()));
+        }
+        return dtos;
+    }
 
-    private OrderDTO convertToOrderDTO(Order order) {
-        OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
-        
-        // Map order items
-        List<OrderItemDTO> orderItemDTOs = order.getOrderItems().stream()
-                .map(item -> modelMapper.map(item, OrderItemDTO.class))
+    /**
+     * Convert a page of orders, loading the items of all of them in one query instead of one lazy load per order
+     */
+    private List<OrderDTO> convertToOrderDTOs(List<Order> orders) {
+        if (!orders.isEmpty()) {
+            // Fetch-joins into the orders already in the persistence context, initialising their item collections
+            orderRepository.findWithOrderItemsByIdIn(orders.stream()
+                    .map(Order::getId)
+                    .collect(Collectors.toList()));
+        }
+        return orders.stream()
+                .map(orderMapper::toDTO)
                 .collect(Collectors.toList());
-        
-        orderDTO.setOrderItems(orderItemDTOs);
-        orderDTO.setTotalItems(order.getTotalItems());
-        
-        return orderDTO;
     }
 
     // Inner class for statistics
@@ -0,0 +1,153 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-status order counts kept in memory so the admin dashboard does not query the orders table.
+ * Seeded from one GROUP BY on startup and moved on every status change made by this instance once
+ * its transaction commits. A periodic reconciliation re-reads the counts, which corrects drift and
+ * picks up changes made by other instances. The counts are read without blocking changes: changes
+ * applied while the queries run are noted and added on top of their result when it replaces the
+ * counters. Only a change that commits in the moment between the start of the reconciliation and the
+ * queries' snapshot can be counted twice, until the next reconciliation.
+ */
+@Component
+public class OrderStatusCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusCounters.class);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final Map<OrderStatus, AtomicLong> counts = new EnumMap<>(OrderStatus.class);
+    private final Object reconcileLock = new Object();
+    // Changes applied since the running reconciliation started counting, null when none runs; guarded by this
+    private Map<OrderStatus, Long> changedWhileCounting;
+
+    @Autowired
+    public OrderStatusCounters(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, new AtomicLong());
+        }
+    }
+
+    /**
+     * Replace the counters with the counts in the orders and archive tables
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${orders.statistics.reconcile-interval-ms:60000}",
+               fixedDelayString = "${orders.statistics.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                changedWhileCounting = new EnumMap<>(OrderStatus.class);
+            }
+            Map<OrderStatus, Long> actual;
+            try {
+                actual = countInDatabase();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedWhileCounting = null;
+                }
+                throw e;
+            }
+            apply(actual);
+        }
+    }
+
+    /**
+     * Count a new order, once the surrounding transaction (if any) commits
+     */
+    public void recordCreated(OrderStatus status) {
+        afterCommit(() -> add(status, 1));
+    }
+
+    /**
+     * Move an order from one status to another, once the surrounding transaction (if any) commits
+     */
+    public void recordTransition(OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            add(from, -1);
+            add(to, 1);
+        });
+    }
+
+    public long getCount(OrderStatus status) {
+        return counts.get(status).get();
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (AtomicLong count : counts.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    // Helper Methods
+
+    private Map<OrderStatus, Long> countInDatabase() {
+        Map<OrderStatus, Long> actual = new EnumMap<>(OrderStatus.class);
+        for (Object[] row : orderRepository.countOrdersGroupedByStatus()) {
+            actual.put((OrderStatus) row[0], (Long) row[1]);
+        }
+        // Archived orders still count; they only moved to cold storage
+        for (Object[] row : archivedOrderRepository.countArchivedOrdersGroupedByStatus()) {
+            actual.merge((OrderStatus) row[0], (Long) row[1], Long::sum);
+        }
+        return actual;
+    }
+
+    /**
+     * Replace the counters with the counted result plus the changes applied while it was counted
+     */
+    private synchronized void apply(Map<OrderStatus, Long> actual) {
+        for (OrderStatus status : OrderStatus.values()) {
+            long expected = actual.getOrDefault(status, 0L) + changedWhileCounting.getOrDefault(status, 0L);
+            long previous = counts.get(status).getAndSet(expected);
+            if (previous != expected) {
+                logger.debug("Reconciled {} order count from {} to {}", status, previous, expected);
+            }
+        }
+        changedWhileCounting = null;
+    }
+
+    private synchronized void add(OrderStatus status, long delta) {
+        counts.get(status).addAndGet(delta);
+        if (changedWhileCounting != null) {
+            changedWhileCounting.merge(status, delta, Long::sum);
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.ProductSalesDTO;
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.mapper.OrderJson;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
+import com.ecommerce.orderservice.repository.OrderItemRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.ProductDailySalesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Product sales per day in the product_sales_rollup table, so sales totals cost one row per product
+ * and day instead of a scan over every order item. Rows are keyed by the day the orders were created;
+ * creating an order adds its items in the same transaction, cancelling it takes them off again (and
+ * moving it out of CANCELLED adds them back). Archiving does not touch the rollup.
+ *
+ * The backfill rebuilds the rollup from the orders and the archive, one day per transaction. A day is
+ * rebuilt by deleting its rows first, so order changes of that day made meanwhile wait for the rebuild
+ * and are applied on top of it.
+ */
+@Service
+public class ProductSalesRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSalesRollup.class);
+    static final String BACKFILL_JOB_NAME = "product-sales-backfill";
+    private static final int ARCHIVE_CHUNK_SIZE = 500;
+
+    private final ProductDailySalesRepository productDailySalesRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final JobLeases jobLeases;
+    private final TransactionTemplate transactionTemplate;
+    private final long backfillLeaseMillis;
+
+    @Autowired
+    public ProductSalesRollup(ProductDailySalesRepository productDailySalesRepository, OrderRepository orderRepository,
+                              OrderItemRepository orderItemRepository, ArchivedOrderRepository archivedOrderRepository,
+                              JobLeases jobLeases, PlatformTransactionManager transactionManager,
+                              @Value("${orders.sales-rollup.backfill-lease-ms:3600000}") long backfillLeaseMillis) {
+        this.productDailySalesRepository = productDailySalesRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.jobLeases = jobLeases;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.backfillLeaseMillis = backfillLeaseMillis;
+    }
+
+    /**
+     * Add a new order's items to the rollup, as part of the transaction creating it
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Order order) {
+        if (order.getOrderStatus() != OrderStatus.CANCELLED) {
+            addSales(Map.of(order, 1));
+        }
+    }
+
+    /**
+     * Apply a status change to the rollup, as part of the transaction making it
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Order order, OrderStatus previousStatus) {
+        recordStatusChanges(Map.of(order, previousStatus));
+    }
+
+    /**
+     * Apply status changes to the rollup, as part of the transaction making them: orders entering
+     * CANCELLED are taken off, orders leaving it are added back, other changes leave the rollup alone
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(Map<Order, OrderStatus> previousStatuses) {
+        Map<Order, Integer> signs = new HashMap<>();
+        previousStatuses.forEach((order, previousStatus) -> {
+            int sign = salesSign(previousStatus, order.getOrderStatus());
+            if (sign != 0) {
+                signs.put(order, sign);
+            }
+        });
+        addSales(signs);
+    }
+
+    /**
+     * Best selling products by units on orders created on or after the given day (all days when null)
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSalesDTO> getMostPopularProducts(LocalDate since, int limit) {
+        if (limit < 1 || limit > 1000) {
+            throw new IllegalArgumentException("Limit must be between 1 and 1000");
+        }
+        return productDailySalesRepository.findMostPopularProducts(since, Limit.of(limit));
+    }
+
+    /**
+     * A product's sales on orders created on or after the given day (all days when null)
+     */
+    @Transactional(readOnly = true)
+    public ProductSalesDTO getProductSales(Long productId, LocalDate since) {
+        return productDailySalesRepository.findProductSales(productId, since).stream()
+                .findFirst()
+                .orElseGet(() -> new ProductSalesDTO(productId, null, 0L, BigDecimal.ZERO, 0L));
+    }
+
+    /**
+     * Rebuild the rollup for every day from the oldest order to today. Returns the number of days
+     * rebuilt, or -1 if another instance is already backfilling. A failing day ends the run.
+     */
+    public int backfill() {
+        if (!jobLeases.tryAcquire(BACKFILL_JOB_NAME, backfillLeaseMillis)) {
+            logger.info("Sales rollup backfill already running on another instance");
+            return -1;
+        }
+        try {
+            Optional<LocalDate> firstDay = Stream.of(orderRepository.findEarliestCreatedAt(),
+                            archivedOrderRepository.findEarliestCreatedAt())
+                    .flatMap(Optional::stream)
+                    .min(Comparator.naturalOrder())
+                    .map(LocalDateTime::toLocalDate);
+            if (firstDay.isEmpty()) {
+                return 0;
+            }
+
+            long startedAt = System.currentTimeMillis();
+            int days = 0;
+            for (LocalDate day = firstDay.get(); !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+                LocalDate salesDate = day;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> rebuildDay(salesDate));
+                } catch (RuntimeException e) {
+                    logger.error("Rebuilding sales rollup for {} failed: {}", salesDate, e.getMessage());
+                    break;
+                }
+                days++;
+            }
+            logger.info("Rebuilt sales rollup for {} days from {} in {} ms", days, firstDay.get(),
+                    System.currentTimeMillis() - startedAt);
+            return days;
+        } finally {
+            jobLeases.release(BACKFILL_JOB_NAME);
+        }
+    }
+
+    /**
+     * +1 when an order's sales count again after the change, -1 when they stop counting, 0 otherwise
+     */
+    static int salesSign(OrderStatus previousStatus, OrderStatus newStatus) {
+        boolean wasCounted = previousStatus != OrderStatus.CANCELLED;
+        boolean isCounted = newStatus != OrderStatus.CANCELLED;
+        return wasCounted == isCounted ? 0 : (isCounted ? 1 : -1);
+    }
+
+    // Helper Methods
+
+    private void addSales(Map<Order, Integer> signs) {
+        SalesTotals totals = new SalesTotals();
+        signs.forEach((order, sign) -> {
+            LocalDate salesDate = order.getCreatedAt().toLocalDate();
+            Set<Long> products = new HashSet<>();
+            order.getOrderItems().forEach(item -> totals.add(salesDate, item.getProductId(), item.getProductName(),
+                    sign * item.getQuantity(), item.getTotalPrice().multiply(BigDecimal.valueOf(sign)),
+                    products.add(item.getProductId()) ? sign : 0));
+        });
+        totals.writeTo(productDailySalesRepository);
+    }
+
+    private void rebuildDay(LocalDate salesDate) {
+        productDailySalesRepository.deleteBySalesDate(salesDate);
+
+        LocalDateTime start = salesDate.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        SalesTotals totals = new SalesTotals();
+        for (Object[] row : orderItemRepository.sumSalesByProductCreatedBetween(start, end, OrderStatus.CANCELLED)) {
+            totals.add(salesDate, (Long) row[0], (String) row[1], ((Number) row[2]).longValue(),
+                    (BigDecimal) row[3], ((Number) row[4]).longValue());
+        }
+
+        long afterId = 0;
+        List<ArchivedOrder> archived;
+        do {
+            archived = archivedOrderRepository.findCreatedBetween(start, end, OrderStatus.CANCELLED, afterId,
+                    Limit.of(ARCHIVE_CHUNK_SIZE));
+            for (ArchivedOrder archivedOrder : archived) {
+                OrderDTO order = OrderJson.read(archivedOrder.getOrderData());
+                Set<Long> products = new HashSet<>();
+                order.getOrderItems().forEach(item -> totals.add(salesDate, item.getProductId(), item.getProductName(),
+                        item.getQuantity(), item.getTotalPrice(), products.add(item.getProductId()) ? 1 : 0));
+                afterId = archivedOrder.getId();
+            }
+        } while (archived.size() == ARCHIVE_CHUNK_SIZE);
+
+        totals.writeTo(productDailySalesRepository);
+    }
+
+    /**
+     * Sales summed per day and product, written in key order so concurrent writers lock rows in the same order
+     */
+    private static final class SalesTotals {
+
+        private final TreeMap<LocalDate, TreeMap<Long, Sales>> byDay = new TreeMap<>();
+
+        void add(LocalDate salesDate, Long productId, String productName, long units, BigDecimal revenue, long orders) {
+            Sales sales = byDay.computeIfAbsent(salesDate, day -> new TreeMap<>())
+                    .computeIfAbsent(productId, id -> new Sales());
+            sales.productName = productName;
+            sales.units += units;
+            sales.revenue = sales.revenue.add(revenue);
+            sales.orders += orders;
+        }
+
+        void writeTo(ProductDailySalesRepository repository) {
+            byDay.forEach((salesDate, products) -> products.forEach((productId, sales) ->
+                    repository.addSales(salesDate, productId, sales.productName, sales.units, sales.revenue, sales.orders)));
+        }
+    }
+
+    private static final class Sales {
+        private String productName;
+        private long units;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long orders;
+    }
+}
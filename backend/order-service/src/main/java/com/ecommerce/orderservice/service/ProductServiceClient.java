@@ -1,83 +1,131 @@
 package com.ecommerce.orderservice.service;
 
 import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.StockItemDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class ProductServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceClient.class);
+    // Most IDs product-service accepts in one batch request
+    static final int MAX_BATCH_SIZE = 500;
+
+    /**
+     * Result of a keyed stock release or commit: applied, refused by product-service (nothing applied),
+     * or not delivered
+     */
+    public enum StockReleaseOutcome {
+        RELEASED, REJECTED, UNAVAILABLE
+    }
 
     private final WebClient webClient;
+    private final ProductSnapshotCache productCache;
 
     @Value("${services.product.name}")
     private String productServiceName;
 
     @Autowired
-    public ProductServiceClient(WebClient webClient) {
+    public ProductServiceClient(WebClient webClient, ProductSnapshotCache productCache) {
         this.webClient = webClient;
+        this.productCache = productCache;
     }
 
     /**
-     * Get product details by ID
+     * Get product details by ID, served from the snapshot cache when fresh
      */
     public ProductDTO getProductById(Long productId) {
-        try {
-            logger.info("Fetching product details for product ID: {}", productId);
-            
-            return webClient.get()
-                    .uri("http://" + productServiceName + "/api/products/" + productId)
-                    .retrieve()
-                    .bodyToMono(ProductDTO.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .doOnError(error -> logger.error("Error fetching product {}: {}", productId, error.getMessage()))
-                    .onErrorResume(error -> {
-                        logger.warn("Fallback: Creating empty product for ID: {}", productId);
-                        ProductDTO fallbackProduct = new ProductDTO();
-                        fallbackProduct.setId(productId);
-                        fallbackProduct.setName("Product Not Available");
-                        fallbackProduct.setDescription("Product details not available");
-                        fallbackProduct.setImageUrl("assets/placeholder.png");
-                        return Mono.just(fallbackProduct);
-                    })
-                    .block();
-                    
-        } catch (Exception e) {
-            logger.error("Failed to fetch product {}: {}", productId, e.getMessage());
-            
-            // Create fallback product
-            ProductDTO fallbackProduct = new ProductDTO();
-            fallbackProduct.setId(productId);
-            fallbackProduct.setName("Product Not Available");
-            fallbackProduct.setDescription("Product details not available");
-            fallbackProduct.setImageUrl("assets/placeholder.png");
-            return fallbackProduct;
+        return getProductById(productId, false);
+    }
+
+    /**
+     * Get product details by ID. Pass bypassCache for stock-sensitive reads; the fresh copy is cached either way.
+     */
+    public ProductDTO getProductById(Long productId, boolean bypassCache) {
+        ProductDTO product = bypassCache
+                ? productCache.refresh(productId, this::fetchProduct)
+                : productCache.get(productId, this::fetchProduct);
+        if (product == null) {
+            logger.warn("Fallback: Creating empty product for ID: {}", productId);
+            return createFallbackProduct(productId);
+        }
+        return product;
+    }
+
+    /**
+     * Hit, miss, eviction and load counters of the product snapshot cache
+     */
+    public Map<String, Object> getCacheStats() {
+        return productCache.getStats();
+    }
+
+    /**
+     * Get details for several products in as few calls as the batch limit allows, keyed by product ID.
+     * IDs the product service does not return (missing, inactive or on error) map to a fallback product.
+     */
+    public Map<Long, ProductDTO> getProductsByIds(Collection<Long> productIds) {
+        Map<Long, ProductDTO> products = getProductsByIdsAsync(productIds).block();
+        return products != null ? products : new LinkedHashMap<>();
+    }
+
+    /**
+     * Non-blocking {@link #getProductsByIds}: the batch requests go out together and never fail the result
+     */
+    public Mono<Map<Long, ProductDTO>> getProductsByIdsAsync(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Mono.just(new LinkedHashMap<>());
         }
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(productIds));
+        logger.info("Fetching product details for {} product IDs", distinctIds.size());
+        // product-service refuses larger batches; a chunk that fails only costs its own products
+        List<Mono<List<ProductDTO>>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += MAX_BATCH_SIZE) {
+            chunks.add(fetchProducts(distinctIds.subList(from, Math.min(from + MAX_BATCH_SIZE, distinctIds.size()))));
+        }
+        return Flux.mergeSequential(chunks).collectList().map(fetched -> {
+            Map<Long, ProductDTO> products = new LinkedHashMap<>();
+            for (List<ProductDTO> chunk : fetched) {
+                for (ProductDTO product : chunk) {
+                    products.put(product.getId(), product);
+                    productCache.put(product);
+                }
+            }
+            for (Long productId : distinctIds) {
+                if (!products.containsKey(productId)) {
+                    logger.warn("Fallback: Creating empty product for ID: {}", productId);
+                    products.put(productId, createFallbackProduct(productId));
+                }
+            }
+            return products;
+        });
     }
 
     /**
-     * Check product availability and stock
+     * Check product availability and stock (always against fresh product details)
      */
     public boolean isProductAvailable(Long productId, Integer quantity) {
         try {
             logger.info("Checking availability for product ID: {} with quantity: {}", productId, quantity);
             
-            ProductDTO product = getProductById(productId);
-            
-            if (product == null || product.getStock() == null) {
-                return false;
-            }
-            
-            return "ACTIVE".equalsIgnoreCase(product.getStatus()) && 
-                   product.getStock() >= quantity;
+            return isProductAvailable(getProductById(productId, true), quantity);
                    
         } catch (Exception e) {
             logger.error("Error checking product availability for {}: {}", productId, e.getMessage());
@@ -86,34 +134,203 @@ public class ProductServiceClient {
     }
 
     /**
-     * Reserve product stock (placeholder - would integrate with inventory service)
+     * Check availability against already fetched product details (no remote call)
+     */
+    public boolean isProductAvailable(ProductDTO product, Integer quantity) {
+        return isProductOrderable(product) && product.getStock() >= quantity;
+    }
+
+    /**
+     * Whether already fetched product details belong to an existing, active product, whatever its stock
      */
-    public boolean reserveProductStock(Long productId, Integer quantity) {
+    public boolean isProductOrderable(ProductDTO product) {
+        return product != null && product.getStock() != null && "ACTIVE".equalsIgnoreCase(product.getStatus());
+    }
+
+    /**
+     * Release queued stock lines, each carrying its release key so product-service applies it at most
+     * once however often it is sent. Product-service applies the request all or nothing.
+     */
+    public StockReleaseOutcome releaseStock(List<StockItemDTO> items) {
+        return sendStockLines("release", items);
+    }
+
+    /**
+     * Commit queued stock lines of shipped orders, keyed and all or nothing like {@link #releaseStock}
+     */
+    public StockReleaseOutcome commitStock(List<StockItemDTO> items) {
+        return sendStockLines("commit", items);
+    }
+
+    /**
+     * Hold stock for several products (all or nothing) until the order is placed. The hold expires
+     * on its own in product-service if it is never confirmed. Returns the hold ID, or null on failure.
+     */
+    public String createStockHold(Map<Long, Integer> quantities) {
         try {
-            logger.info("Attempting to reserve {} units of product ID: {}", quantity, productId);
-            
-            // In a real implementation, this would call an inventory management API
-            // For now, we'll just check availability
-            return isProductAvailable(productId, quantity);
-            
+            return createStockHoldAsync(quantities).block();
         } catch (Exception e) {
-            logger.error("Error reserving product stock for {}: {}", productId, e.getMessage());
+            logger.error("Stock hold request failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Non-blocking {@link #createStockHold}: completes with the hold ID, or empty on failure
+     */
+    public Mono<String> createStockHoldAsync(Map<Long, Integer> quantities) {
+        logger.info("Creating stock hold for {} products", quantities.size());
+        return webClient.post()
+                .uri("http://" + productServiceName + "/api/products/stock/holds")
+                .bodyValue(toStockRequest(quantities))
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(Duration.ofSeconds(5))
+                .doOnError(error -> logger.error("Stock hold request failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .flatMap(response -> Mono.justOrEmpty(response.get("holdId")))
+                .map(Object::toString);
+    }
+
+    /**
+     * Confirm a stock hold once the order is saved; the units stay reserved for the order
+     */
+    public boolean confirmStockHold(String holdId) {
+        logger.info("Confirming stock hold {}", holdId);
+        return postStockOperation("/api/products/stock/holds/" + holdId + "/confirm", null);
+    }
+
+    /**
+     * Release a stock hold whose order could not be placed
+     */
+    public boolean releaseStockHold(String holdId) {
+        try {
+            return Boolean.TRUE.equals(releaseStockHoldAsync(holdId).block());
+        } catch (Exception e) {
+            logger.error("Failed to release stock hold {}: {}", holdId, e.getMessage());
             return false;
         }
     }
 
     /**
-     * Release product stock (placeholder - would integrate with inventory service)
+     * Non-blocking {@link #releaseStockHold}: completes with whether product-service released the hold
      */
-    public void releaseProductStock(Long productId, Integer quantity) {
+    public Mono<Boolean> releaseStockHoldAsync(String holdId) {
+        logger.info("Releasing stock hold {}", holdId);
+        return webClient.delete()
+                .uri("http://" + productServiceName + "/api/products/stock/holds/" + holdId)
+                .retrieve()
+                .toBodilessEntity()
+                .map(response -> response.getStatusCode().is2xxSuccessful())
+                .timeout(Duration.ofSeconds(5))
+                .doOnError(error -> logger.error("Failed to release stock hold {}: {}", holdId, error.getMessage()))
+                .onErrorReturn(false);
+    }
+
+    /**
+     * Post keyed stock lines to the release or commit endpoint. A refusal (4xx) is REJECTED, anything
+     * else that fails is UNAVAILABLE.
+     */
+    private StockReleaseOutcome sendStockLines(String operation, List<StockItemDTO> items) {
+        if (items.isEmpty()) {
+            return StockReleaseOutcome.RELEASED;
+        }
+        logger.info("Sending {} queued stock lines to {}", items.size(), operation);
         try {
-            logger.info("Releasing {} units of product ID: {}", quantity, productId);
-            
-            // In a real implementation, this would call an inventory management API
-            // to release the reserved stock
-            
+            StockReleaseOutcome outcome = webClient.post()
+                    .uri("http://" + productServiceName + "/api/products/stock/" + operation)
+                    .bodyValue(Map.of("items", items))
+                    .retrieve()
+                    .toBodilessEntity()
+                    .map(response -> StockReleaseOutcome.RELEASED)
+                    .timeout(Duration.ofSeconds(5))
+                    .onErrorResume(WebClientResponseException.class, error -> {
+                        logger.error("Stock {} answered {}: {}", operation, error.getStatusCode(),
+                                error.getResponseBodyAsString());
+                        return Mono.just(error.getStatusCode().is4xxClientError()
+                                ? StockReleaseOutcome.REJECTED : StockReleaseOutcome.UNAVAILABLE);
+                    })
+                    .doOnError(error -> logger.error("Stock {} failed: {}", operation, error.getMessage()))
+                    .onErrorReturn(StockReleaseOutcome.UNAVAILABLE)
+                    .block();
+            return outcome != null ? outcome : StockReleaseOutcome.UNAVAILABLE;
+
         } catch (Exception e) {
-            logger.error("Error releasing product stock for {}: {}", productId, e.getMessage());
+            logger.error("Stock {} failed: {}", operation, e.getMessage());
+            return StockReleaseOutcome.UNAVAILABLE;
         }
     }
-} 
\ No newline at end of file
+
+    private boolean postStockOperation(String path, Object body) {
+        try {
+            WebClient.RequestBodySpec request = webClient.post()
+                    .uri("http://" + productServiceName + path);
+            WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+
+            Boolean success = spec.retrieve()
+                    .toBodilessEntity()
+                    .map(response -> response.getStatusCode().is2xxSuccessful())
+                    .timeout(Duration.ofSeconds(5))
+                    .doOnError(error -> logger.error("Stock operation {} failed: {}", path, error.getMessage()))
+                    .onErrorReturn(false)
+                    .block();
+            return Boolean.TRUE.equals(success);
+
+        } catch (Exception e) {
+            logger.error("Stock operation {} failed: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<String, Object> toStockRequest(Map<Long, Integer> quantities) {
+        List<StockItemDTO> items = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> items.add(new StockItemDTO(productId, quantity)));
+        return Map.of("items", items);
+    }
+
+    /**
+     * Fetch one product from product-service, returning null if it is missing or the call fails
+     */
+    private ProductDTO fetchProduct(Long productId) {
+        try {
+            logger.info("Fetching product details for product ID: {}", productId);
+
+            return webClient.get()
+                    .uri("http://" + productServiceName + "/api/products/" + productId)
+                    .retrieve()
+                    .bodyToMono(ProductDTO.class)
+                    .timeout(Duration.ofSeconds(5))
+                    .doOnError(error -> logger.error("Error fetching product {}: {}", productId, error.getMessage()))
+                    .onErrorResume(error -> Mono.empty())
+                    .block();
+
+        } catch (Exception e) {
+            logger.error("Failed to fetch product {}: {}", productId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * One batch request for at most MAX_BATCH_SIZE products; empty on error
+     */
+    private Mono<List<ProductDTO>> fetchProducts(List<Long> productIds) {
+        return webClient.post()
+                .uri("http://" + productServiceName + "/api/products/batch")
+                .bodyValue(productIds)
+                .retrieve()
+                .bodyToFlux(ProductDTO.class)
+                .collectList()
+                .timeout(Duration.ofSeconds(5))
+                .doOnError(error -> logger.error("Error fetching products {}: {}", productIds, error.getMessage()))
+                .onErrorResume(error -> Mono.just(Collections.emptyList()));
+    }
+
+    private ProductDTO createFallbackProduct(Long productId) {
+        ProductDTO fallbackProduct = new ProductDTO();
+        fallbackProduct.setId(productId);
+        fallbackProduct.setName("Product Not Available");
+        fallbackProduct.setDescription("Product details not available");
+        fallbackProduct.setImageUrl("assets/placeholder.png");
+        return fallbackProduct;
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.ProductDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, short-lived cache of product details fetched from product-service. Entries expire
+ * after a TTL, the least recently used entry is evicted once the cache is full, and concurrent
+ * loads of the same product share a single fetch. Cached snapshots are shared between callers
+ * and must be treated as read-only.
+ */
+@Component
+public class ProductSnapshotCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final Map<Long, Entry> entries;
+    private final Map<Long, CompletableFuture<ProductDTO>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public ProductSnapshotCache(@Value("${services.product.cache.ttl-seconds:30}") long ttlSeconds,
+                                @Value("${services.product.cache.max-size:10000}") int maxSize) {
+        this(ttlSeconds, maxSize, System::nanoTime);
+    }
+
+    ProductSnapshotCache(long ttlSeconds, int maxSize, LongSupplier clock) {
+        if (ttlSeconds < 0 || maxSize < 1) {
+            throw new IllegalArgumentException("Cache TTL cannot be negative and size must be at least 1");
+        }
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ProductSnapshotCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cached product if still fresh, otherwise load it (sharing any load already in flight)
+     */
+    public ProductDTO get(Long productId, Function<Long, ProductDTO> loader) {
+        ProductDTO cached = getIfPresent(productId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        return load(productId, loader);
+    }
+
+    /**
+     * Skip the cached copy and load the product again, e.g. for stock checks. The result replaces the cached copy.
+     */
+    public ProductDTO refresh(Long productId, Function<Long, ProductDTO> loader) {
+        bypasses.increment();
+        return load(productId, loader);
+    }
+
+    public void put(ProductDTO product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(product.getId(), new Entry(product, clock.getAsLong() + ttlNanos));
+        }
+    }
+
+    public void invalidate(Long productId) {
+        synchronized (entries) {
+            entries.remove(productId);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlNanos / 1_000_000_000L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("bypasses", bypasses.sum());
+        stats.put("loads", loads.sum());
+        stats.put("coalescedLoads", coalesced.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private ProductDTO getIfPresent(Long productId) {
+        synchronized (entries) {
+            Entry entry = entries.get(productId);
+            if (entry == null) {
+                return null;
+            }
+            if (clock.getAsLong() - entry.expiresAtNanos >= 0) {
+                entries.remove(productId);
+                return null;
+            }
+            return entry.product;
+        }
+    }
+
+    /**
+     * Single-flight load: the first caller fetches, concurrent callers for the same product wait for its result.
+     * Null results (product missing or service unavailable) are handed to the waiters but never cached.
+     */
+    private ProductDTO load(Long productId, Function<Long, ProductDTO> loader) {
+        CompletableFuture<ProductDTO> mine = new CompletableFuture<>();
+        CompletableFuture<ProductDTO> existing = inFlight.putIfAbsent(productId, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.join();
+        }
+
+        try {
+            loads.increment();
+            ProductDTO product = loader.apply(productId);
+            put(product);
+            mine.complete(product);
+            return product;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(productId, mine);
+        }
+    }
+
+    private static final class Entry {
+
+        private final ProductDTO product;
+        private final long expiresAtNanos;
+
+        private Entry(ProductDTO product, long expiresAtNanos) {
+            this.product = product;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
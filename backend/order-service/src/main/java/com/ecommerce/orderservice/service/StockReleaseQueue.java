@@ -0,0 +1,231 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.StockItemDTO;
+import com.ecommerce.orderservice.entity.StockRelease;
+import com.ecommerce.orderservice.entity.StockRelease.Operation;
+import com.ecommerce.orderservice.repository.StockReleaseRepository;
+import com.ecommerce.orderservice.service.ProductServiceClient.StockReleaseOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Durable queue of reserved stock to settle with product-service: handed back for cancelled orders,
+ * committed for shipped ones. Changing the order only inserts rows in its own transaction, so nothing
+ * is settled for a change that rolls back; a background worker claims due rows batch-size at a time,
+ * sends the releases and the commits in one call each and deletes them when the call succeeds. Every
+ * row carries its own key (order, product and operation), which product-service records as it applies
+ * the row, so a batch sent again after a lost response or an expired claim settles nothing twice.
+ *
+ * While product-service is unreachable the batch is retried with exponential backoff. A batch
+ * product-service refuses is split in halves until the refused rows are isolated, so the rest go
+ * through straight away; a row refused on its own is retried with backoff and dead-lettered after
+ * max-attempts refusals.
+ */
+@Service
+public class StockReleaseQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReleaseQueue.class);
+
+    private final StockReleaseRepository stockReleaseRepository;
+    private final ProductServiceClient productServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long claimMillis;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxAttempts;
+
+    @Autowired
+    public StockReleaseQueue(StockReleaseRepository stockReleaseRepository, ProductServiceClient productServiceClient,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${orders.stock-release.batch-size:500}") int batchSize,
+                             @Value("${orders.stock-release.claim-ms:60000}") long claimMillis,
+                             @Value("${orders.stock-release.initial-backoff-ms:1000}") long initialBackoffMillis,
+                             @Value("${orders.stock-release.max-backoff-ms:300000}") long maxBackoffMillis,
+                             @Value("${orders.stock-release.max-attempts:8}") int maxAttempts) {
+        if (batchSize < 1 || claimMillis < 1 || initialBackoffMillis < 1 || maxBackoffMillis < initialBackoffMillis
+                || maxAttempts < 1) {
+            throw new IllegalArgumentException("Stock release batch size, claim, backoff and attempts must be positive, "
+                    + "and the maximum backoff at least the initial one");
+        }
+        this.stockReleaseRepository = stockReleaseRepository;
+        this.productServiceClient = productServiceClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.claimMillis = claimMillis;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Queue the reserved stock of a cancelled order, keyed by product ID. Must run inside the
+     * transaction that cancels the order, so the release exists exactly when the cancellation commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long orderId, Map<Long, Integer> quantities) {
+        save(orderId, quantities, Operation.RELEASE);
+    }
+
+    /**
+     * Queue the reserved stock of a shipped order for commit, keyed by product ID. Must run inside the
+     * transaction that moves the order on, like {@link #enqueue}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCommit(Long orderId, Map<Long, Integer> quantities) {
+        save(orderId, quantities, Operation.COMMIT);
+    }
+
+    /**
+     * Send every due release and commit to product-service. Stops when product-service is unreachable; the
+     * unsent rows are retried after the backoff.
+     */
+    @Scheduled(fixedDelayString = "${orders.stock-release.drain-interval-ms:1000}")
+    public int drain() {
+        int released = 0;
+        while (true) {
+            List<StockRelease> claimed = transactionTemplate.execute(status -> claimDue());
+            if (claimed.isEmpty()) {
+                break;
+            }
+
+            // One call per operation; the halves of a refused batch keep a single operation
+            Deque<List<StockRelease>> batches = new ArrayDeque<>();
+            claimed.stream()
+                    .collect(Collectors.groupingBy(StockRelease::getOperation, () -> new EnumMap<>(Operation.class),
+                            Collectors.toList()))
+                    .values()
+                    .forEach(batches::push);
+            while (!batches.isEmpty()) {
+                List<StockRelease> batch = batches.pop();
+                StockReleaseOutcome outcome = send(batch);
+                if (outcome == StockReleaseOutcome.RELEASED) {
+                    List<Long> ids = batch.stream().map(StockRelease::getId).toList();
+                    transactionTemplate.executeWithoutResult(status -> stockReleaseRepository.deleteAllByIdInBatch(ids));
+                    released += batch.size();
+                } else if (outcome == StockReleaseOutcome.REJECTED && batch.size() > 1) {
+                    // Product-service applies nothing of a refused request; find the rows it refuses
+                    int half = batch.size() / 2;
+                    batches.push(batch.subList(half, batch.size()));
+                    batches.push(batch.subList(0, half));
+                } else if (outcome == StockReleaseOutcome.REJECTED) {
+                    refused(batch.get(0));
+                } else {
+                    List<StockRelease> unsent = new ArrayList<>(batch);
+                    batches.forEach(unsent::addAll);
+                    retryLater(unsent);
+                    return logReleased(released);
+                }
+            }
+            if (claimed.size() < batchSize) {
+                break;
+            }
+        }
+        return logReleased(released);
+    }
+
+    public long getPendingCount() {
+        return stockReleaseRepository.countByDeadLetteredAtIsNull();
+    }
+
+    public long getDeadLetterCount() {
+        return stockReleaseRepository.countByDeadLetteredAtIsNotNull();
+    }
+
+    // Helper Methods
+
+    private void save(Long orderId, Map<Long, Integer> quantities, Operation operation) {
+        stockReleaseRepository.saveAll(quantities.entrySet().stream()
+                .map(entry -> new StockRelease(orderId, entry.getKey(), entry.getValue(), operation))
+                .toList());
+    }
+
+    /**
+     * Lock the due releases and push their next attempt past the claim period, so no other worker
+     * picks them up while this one calls product-service
+     */
+    private List<StockRelease> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockRelease> due = stockReleaseRepository.lockDue(now, Limit.of(batchSize));
+        LocalDateTime claimedUntil = now.plusNanos(claimMillis * 1_000_000);
+        due.forEach(release -> release.setNextAttemptAt(claimedUntil));
+        return due;
+    }
+
+    private StockReleaseOutcome send(List<StockRelease> batch) {
+        List<StockItemDTO> items = new ArrayList<>(batch.size());
+        for (StockRelease release : batch) {
+            StockItemDTO item = new StockItemDTO(release.getProductId(), release.getQuantity());
+            item.setReleaseKey(release.getReleaseKey());
+            items.add(item);
+        }
+        try {
+            return batch.get(0).getOperation() == Operation.COMMIT
+                    ? productServiceClient.commitStock(items) : productServiceClient.releaseStock(items);
+        } catch (RuntimeException e) {
+            logger.error("Stock {} request failed: {}", batch.get(0).getOperation(), e.getMessage());
+            return StockReleaseOutcome.UNAVAILABLE;
+        }
+    }
+
+    /**
+     * Product-service could not be reached: try the rows again after the backoff
+     */
+    private void retryLater(List<StockRelease> unsent) {
+        int attempts = unsent.stream().mapToInt(StockRelease::getAttempts).max().orElse(0) + 1;
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(backoffMillis(attempts) * 1_000_000);
+        List<Long> ids = unsent.stream().map(StockRelease::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> stockReleaseRepository.recordFailedAttempt(ids, nextAttemptAt));
+        logger.warn("Settling {} queued stock lines failed (attempt {}), retrying at {}", unsent.size(), attempts,
+                nextAttemptAt);
+    }
+
+    /**
+     * Product-service refused the row on its own: back off, or dead-letter it after max-attempts refusals
+     */
+    private void refused(StockRelease release) {
+        int attempts = release.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            transactionTemplate.executeWithoutResult(status ->
+                    stockReleaseRepository.deadLetter(List.of(release.getId()), LocalDateTime.now()));
+            logger.error("Dead-lettered stock release {} after {} refused attempts", release, attempts);
+            return;
+        }
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(backoffMillis(attempts) * 1_000_000);
+        transactionTemplate.executeWithoutResult(status ->
+                stockReleaseRepository.recordFailedAttempt(List.of(release.getId()), nextAttemptAt));
+        logger.warn("Stock release {} refused (attempt {}), retrying at {}", release, attempts, nextAttemptAt);
+    }
+
+    private int logReleased(int released) {
+        if (released > 0) {
+            logger.info("Settled {} queued stock reservations", released);
+        }
+        return released;
+    }
+
+    long backoffMillis(int attempts) {
+        long backoff = initialBackoffMillis << Math.min(attempts - 1, 30);
+        return backoff > 0 ? Math.min(backoff, maxBackoffMillis) : maxBackoffMillis;
+    }
+}
@@ -0,0 +1,22 @@
+-- Migration script for the sequence-based entity ids
+-- Run this in MySQL Workbench or your database tool BEFORE starting the new version against an existing database
+
+-- Hibernate keeps each id sequence in a one-row <table>_seq table on MySQL and reserves 50 ids per read,
+-- handing out next_val - 49 up to next_val. Seeding next_val with MAX(id) + 50 makes new ids start right after
+-- the existing rows. Safe to re-run while the service is stopped.
+
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT);
+DELETE FROM orders_seq;
+INSERT INTO orders_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM orders;
+
+CREATE TABLE IF NOT EXISTS order_items_seq (next_val BIGINT);
+DELETE FROM order_items_seq;
+INSERT INTO order_items_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM order_items;
+
+CREATE TABLE IF NOT EXISTS carts_seq (next_val BIGINT);
+DELETE FROM carts_seq;
+INSERT INTO carts_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM carts;
+
+CREATE TABLE IF NOT EXISTS cart_items_seq (next_val BIGINT);
+DELETE FROM cart_items_seq;
+INSERT INTO cart_items_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM cart_items;
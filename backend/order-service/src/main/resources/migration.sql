@@ -8,4 +8,10 @@ ALTER TABLE orders ADD COLUMN discount_amount DECIMAL(12,2) NOT NULL DEFAULT 0.0
 ALTER TABLE orders ADD COLUMN coupon_code VARCHAR(50) NULL AFTER discount_amount;
 
 -- Update existing final_amount calculation to account for discount
-UPDATE orders SET final_amount = total_amount + tax_amount + shipping_amount - discount_amount WHERE discount_amount > 0; 
\ No newline at end of file
+UPDATE orders SET final_amount = total_amount + tax_amount + shipping_amount - discount_amount WHERE discount_amount > 0; 
+-- Optimistic version on carts, checked by every instance's cart cache, and one cart per user
+ALTER TABLE carts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+CREATE UNIQUE INDEX uk_carts_user_id ON carts (user_id);
+
+-- Stock commits of shipped orders share the durable queue with cancellation releases
+ALTER TABLE stock_releases ADD COLUMN operation VARCHAR(16) NOT NULL DEFAULT 'RELEASE';
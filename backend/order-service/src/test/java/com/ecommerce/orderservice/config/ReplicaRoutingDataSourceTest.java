@@ -0,0 +1,163 @@
+package com.ecommerce.orderservice.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private JdbcTemplate routedJdbc;
+    private ReadYourWrites readYourWrites;
+    private ReplicaRoutingDataSource routingDataSource;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "sa", "");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", "");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        primaryJdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        primaryJdbc.update("INSERT INTO marker VALUES ('primary')");
+        replicaJdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        replicaJdbc.update("INSERT INTO marker VALUES ('replica')");
+        replicaJdbc.execute("CREATE TABLE replica_status (lag_seconds BIGINT)");
+        replicaJdbc.update("INSERT INTO replica_status VALUES (0)");
+
+        readYourWrites = new ReadYourWrites(300);
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), readYourWrites, 5,
+                "SELECT lag_seconds FROM replica_status", "lag_seconds");
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        routedJdbc = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readYourWrites.clear();
+        primaryJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseReplica() {
+        assertEquals("primary", readInTransaction(readOnly), "No replica is used before its lag was measured");
+
+        routingDataSource.checkReplicaLag();
+
+        assertEquals(List.of("replica-1"), routingDataSource.getUsableReplicas());
+        assertEquals("replica", readInTransaction(readOnly));
+        assertEquals("primary", readInTransaction(readWrite));
+        assertEquals("primary", routedJdbc.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    void testLaggingReplicaIsSkippedUntilItCatchesUp() {
+        replicaJdbc.update("UPDATE replica_status SET lag_seconds = 30");
+        routingDataSource.checkReplicaLag();
+        assertEquals("primary", readInTransaction(readOnly));
+
+        replicaJdbc.update("UPDATE replica_status SET lag_seconds = 5");
+        routingDataSource.checkReplicaLag();
+        assertEquals("replica", readInTransaction(readOnly));
+
+        // A replica that is not replicating reports no status at all
+        replicaJdbc.update("DELETE FROM replica_status");
+        routingDataSource.checkReplicaLag();
+        assertEquals("primary", readInTransaction(readOnly));
+    }
+
+    @Test
+    void testClientReadsOwnWritesFromPrimary() throws Exception {
+        routingDataSource.checkReplicaLag();
+
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        readYourWrites.preHandle(new MockHttpServletRequest(), writeResponse, null);
+        readWrite.executeWithoutResult(status -> routedJdbc.update("INSERT INTO marker VALUES ('written')"));
+        assertEquals("primary", readInTransaction(readOnly), "Reads later in the writing request");
+        readYourWrites.clear();
+
+        Cookie marker = writeResponse.getCookie(ReadYourWrites.LAST_WRITE_COOKIE);
+        assertNotNull(marker);
+        assertEquals(marker.getValue(), writeResponse.getHeader(ReadYourWrites.LAST_WRITE_HEADER));
+
+        // The next request may land on any instance: only the marker it carries counts
+        assertEquals("primary", readInRequest(request(marker)));
+        assertEquals("replica", readInRequest(new MockHttpServletRequest()), "Other clients keep reading from the replica");
+
+        MockHttpServletRequest headerRequest = new MockHttpServletRequest();
+        headerRequest.addHeader(ReadYourWrites.LAST_WRITE_HEADER, marker.getValue());
+        assertEquals("primary", readInRequest(headerRequest));
+
+        Thread.sleep(350);
+        assertEquals("replica", readInRequest(request(marker)), "Stickiness ends after the window");
+    }
+
+    @Test
+    void testRolledBackWriteIsNotSticky() throws Exception {
+        routingDataSource.checkReplicaLag();
+
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        readYourWrites.preHandle(new MockHttpServletRequest(), writeResponse, null);
+        readWrite.executeWithoutResult(status -> {
+            routedJdbc.update("INSERT INTO marker VALUES ('written')");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readInTransaction(readOnly));
+        assertNull(writeResponse.getCookie(ReadYourWrites.LAST_WRITE_COOKIE));
+    }
+
+    @Test
+    void testUnusableMarkersAreIgnored() throws Exception {
+        routingDataSource.checkReplicaLag();
+
+        assertEquals("replica", readInRequest(request(new Cookie(ReadYourWrites.LAST_WRITE_COOKIE, "soon"))));
+        String farFuture = Long.toString(System.currentTimeMillis() + 60_000);
+        assertEquals("replica", readInRequest(request(new Cookie(ReadYourWrites.LAST_WRITE_COOKIE, farFuture))));
+    }
+
+    // Helper Methods
+
+    private String readInRequest(MockHttpServletRequest request) throws Exception {
+        readYourWrites.preHandle(request, new MockHttpServletResponse(), null);
+        try {
+            return readInTransaction(readOnly);
+        } finally {
+            readYourWrites.afterCompletion(request, null, null, null);
+        }
+    }
+
+    private static MockHttpServletRequest request(Cookie marker) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(marker);
+        return request;
+    }
+
+    private String readInTransaction(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status ->
+                routedJdbc.queryForObject("SELECT name FROM marker ORDER BY name FETCH FIRST 1 ROWS ONLY", String.class));
+    }
+}
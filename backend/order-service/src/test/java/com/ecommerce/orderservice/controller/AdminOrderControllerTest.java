@@ -3,7 +3,10 @@ package com.ecommerce.orderservice.controller;
 import com.ecommerce.orderservice.dto.*;
 import com.ecommerce.orderservice.entity.OrderStatus;
 import com.ecommerce.orderservice.entity.PaymentStatus;
+import com.ecommerce.orderservice.service.BulkOrderStatusService;
+import com.ecommerce.orderservice.service.OrderExporter;
 import com.ecommerce.orderservice.service.OrderService;
+import com.ecommerce.orderservice.service.ProductSalesRollup;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,10 +15,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -34,6 +42,15 @@ class AdminOrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private BulkOrderStatusService bulkOrderStatusService;
+
+    @MockBean
+    private OrderExporter orderExporter;
+
+    @MockBean
+    private ProductSalesRollup productSalesRollup;
+
     private OrderDTO testOrderDTO;
     private UpdateOrderStatusDTO updateOrderStatusDTO;
     private PaginatedResponse<OrderDTO> paginatedResponse;
@@ -70,7 +87,7 @@ class AdminOrderControllerTest {
     @Test
     void testGetAllOrders() throws Exception {
         when(orderService.getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any()))
+                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any(), anyBoolean()))
                 .thenReturn(paginatedResponse);
 
         mockMvc.perform(get("/api/admin/orders")
@@ -81,7 +98,7 @@ class AdminOrderControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
 
         verify(orderService).getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), eq(0), eq(10), anyString(), anyString(), any());
+                any(), any(), any(), any(), any(), eq(0), eq(10), anyString(), anyString(), any(), eq(false));
     }
 
     @Test
@@ -113,6 +130,36 @@ class AdminOrderControllerTest {
         verify(orderService).updateOrderStatus(eq(1L), any(UpdateOrderStatusDTO.class));
     }
 
+    @Test
+    void testBulkUpdateOrderStatus() throws Exception {
+        BulkOrderStatusResultDTO result = new BulkOrderStatusResultDTO();
+        result.addResult(BulkOrderStatusResultDTO.OrderResult.updated(1L, OrderStatus.PROCESSING, OrderStatus.SHIPPED));
+        result.addResult(BulkOrderStatusResultDTO.OrderResult.failed(2L, "Order not found: 2"));
+        when(bulkOrderStatusService.updateOrderStatuses(any(BulkOrderStatusUpdateDTO.class))).thenReturn(result);
+
+        mockMvc.perform(post("/api/admin/orders/status/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkOrderStatusUpdateDTO(Arrays.asList(1L, 2L), updateOrderStatusDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("1 of 2 orders updated"))
+                .andExpect(jsonPath("$.result.results[0].orderStatus").value("SHIPPED"))
+                .andExpect(jsonPath("$.result.results[1].message").value("Order not found: 2"));
+    }
+
+    @Test
+    void testBulkUpdateOrderStatus_WithError() throws Exception {
+        when(bulkOrderStatusService.updateOrderStatuses(any(BulkOrderStatusUpdateDTO.class)))
+                .thenThrow(new IllegalArgumentException("Order IDs or a filter are required"));
+
+        mockMvc.perform(post("/api/admin/orders/status/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkOrderStatusUpdateDTO(null, updateOrderStatusDTO))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Order IDs or a filter are required"));
+    }
+
     @Test
     void testGetOrderStatistics() throws Exception {
         when(orderService.getOrderStatistics()).thenReturn(statistics);
@@ -129,7 +176,7 @@ class AdminOrderControllerTest {
     @Test
     void testGetAllOrdersWithFilters() throws Exception {
         when(orderService.getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any()))
+                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any(), anyBoolean()))
                 .thenReturn(paginatedResponse);
 
         mockMvc.perform(get("/api/admin/orders")
@@ -141,7 +188,7 @@ class AdminOrderControllerTest {
                 .andExpect(jsonPath("$.content").isArray());
 
         verify(orderService).getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), eq(0), eq(10), anyString(), anyString(), any());
+                any(), any(), any(), any(), any(), eq(0), eq(10), anyString(), anyString(), any(), eq(false));
     }
 
     @Test
@@ -162,7 +209,7 @@ class AdminOrderControllerTest {
     @Test
     void testGetOrdersByStatus() throws Exception {
         when(orderService.getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any()))
+                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any(), anyBoolean()))
                 .thenReturn(paginatedResponse);
 
         mockMvc.perform(get("/api/admin/orders/status/PENDING")
@@ -177,13 +224,13 @@ class AdminOrderControllerTest {
 
         verify(orderService).getAllOrdersForAdmin(
                 eq(null), eq(OrderStatus.PENDING), eq(null), eq(null), eq(null), 
-                eq(0), eq(10), eq("createdAt"), eq("desc"), eq(null));
+                eq(0), eq(10), eq("createdAt"), eq("desc"), eq(null), eq(false));
     }
 
     @Test
     void testGetOrdersByStatus_WithError() throws Exception {
         when(orderService.getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any()))
+                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any(), anyBoolean()))
                 .thenThrow(new RuntimeException("Database error"));
 
         mockMvc.perform(get("/api/admin/orders/status/PENDING")
@@ -197,7 +244,7 @@ class AdminOrderControllerTest {
     @Test
     void testGetOrdersByUserId() throws Exception {
         when(orderService.getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any()))
+                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any(), anyBoolean()))
                 .thenReturn(paginatedResponse);
 
         mockMvc.perform(get("/api/admin/orders/users/1")
@@ -212,13 +259,13 @@ class AdminOrderControllerTest {
 
         verify(orderService).getAllOrdersForAdmin(
                 eq(1L), eq(null), eq(null), eq(null), eq(null), 
-                eq(0), eq(10), eq("createdAt"), eq("desc"), eq(null));
+                eq(0), eq(10), eq("createdAt"), eq("desc"), eq(null), eq(false));
     }
 
     @Test
     void testGetOrdersByUserId_WithError() throws Exception {
         when(orderService.getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any()))
+                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any(), anyBoolean()))
                 .thenThrow(new RuntimeException("User not found"));
 
         mockMvc.perform(get("/api/admin/orders/users/999")
@@ -232,7 +279,7 @@ class AdminOrderControllerTest {
     @Test
     void testGetAllOrders_WithError() throws Exception {
         when(orderService.getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any()))
+                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any(), anyBoolean()))
                 .thenThrow(new RuntimeException("Service unavailable"));
 
         mockMvc.perform(get("/api/admin/orders")
@@ -272,7 +319,7 @@ class AdminOrderControllerTest {
     @Test
     void testGetAllOrders_SuccessResponse() throws Exception {
         when(orderService.getAllOrdersForAdmin(
-                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any()))
+                any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), any(), anyBoolean()))
                 .thenReturn(paginatedResponse);
 
         mockMvc.perform(get("/api/admin/orders")
@@ -319,5 +366,57 @@ class AdminOrderControllerTest {
                 .andExpect(jsonPath("$.message").value("Order statistics retrieved successfully"))
                 .andExpect(jsonPath("$.statistics").exists());
     }
-}
 
+    @Test
+    void testExportOrders_StreamsCsv() throws Exception {
+        when(orderExporter.export(eq(1L), eq(OrderStatus.PENDING), isNull(), isNull(), isNull(), isNull(), eq(false),
+                eq(OrderExporter.Format.CSV), any(OutputStream.class))).thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(8);
+                    out.write("id,order_number\r\n1,ORD-12345\r\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/admin/orders/export")
+                        .param("userId", "1")
+                        .param("orderStatus", "PENDING"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders.csv\""))
+                .andExpect(content().string("id,order_number\r\n1,ORD-12345\r\n"));
+    }
+
+    @Test
+    void testExportOrders_UnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/api/admin/orders/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported export format: xlsx (use csv or ndjson)"));
+
+        verifyNoInteractions(orderExporter);
+    }
+
+    @Test
+    void testGetMostPopularProducts() throws Exception {
+        when(productSalesRollup.getMostPopularProducts(LocalDate.of(2026, 1, 1), 5)).thenReturn(List.of(
+                new ProductSalesDTO(7L, "Product 7", 12L, new BigDecimal("120.00"), 4L)));
+
+        mockMvc.perform(get("/api/admin/orders/products/popular").param("limit", "5").param("since", "2026-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.products[0].productId").value(7))
+                .andExpect(jsonPath("$.products[0].units").value(12))
+                .andExpect(jsonPath("$.products[0].orders").value(4));
+    }
+
+    @Test
+    void testBackfillProductSales_AlreadyRunning() throws Exception {
+        when(productSalesRollup.backfill()).thenReturn(-1);
+
+        mockMvc.perform(post("/api/admin/orders/products/sales/backfill"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
@@ -232,11 +232,27 @@ class CartControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Cart items count retrieved successfully"))
-                .andExpect(jsonPath("$.itemsCount").value(5));
+                .andExpect(jsonPath("$.itemsCount").value(5))
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
 
         verify(cartService).getCartItemsCount(1L);
     }
 
+    @Test
+    void testGetCartItemsCount_NotModified() throws Exception {
+        when(cartService.getCartItemsCount(anyLong())).thenReturn(5);
+
+        mockMvc.perform(get("/api/cart/1/count").header("If-None-Match", "\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/cart/1/count").header("If-None-Match", "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemsCount").value(5));
+    }
+
     @Test
     void testGetCartItemsCount_WithError() throws Exception {
         when(cartService.getCartItemsCount(anyLong()))
@@ -250,6 +266,35 @@ class CartControllerTest {
         verify(cartService).getCartItemsCount(999L);
     }
 
+    @Test
+    void testApplyCartBatch() throws Exception {
+        when(cartService.applyBatch(anyLong(), anyList())).thenReturn(testCartDTO);
+        CartBatchDTO batchDTO = new CartBatchDTO(Arrays.asList(
+                CartOperationDTO.add(1L, 2),
+                CartOperationDTO.update(5L, 3),
+                CartOperationDTO.remove(6L)));
+
+        mockMvc.perform(post("/api/cart/1/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.cart.totalItems").value(2));
+
+        verify(cartService).applyBatch(eq(1L), argThat(operations -> operations.size() == 3
+                && operations.get(2).getType() == CartOperationDTO.Type.REMOVE));
+    }
+
+    @Test
+    void testApplyCartBatch_EmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/cart/1/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CartBatchDTO())))
+                .andExpect(status().isBadRequest());
+
+        verify(cartService, never()).applyBatch(anyLong(), anyList());
+    }
+
     @Test
     void testCartTest() throws Exception {
         when(cartService.getOrCreateCartForUser(anyLong())).thenReturn(testCartDTO);
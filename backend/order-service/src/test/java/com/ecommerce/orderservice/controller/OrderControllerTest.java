@@ -117,7 +117,7 @@ class OrderControllerTest {
 
     @Test
     void testGetUserOrders() throws Exception {
-        when(orderService.getUserOrders(anyLong(), anyInt(), anyInt(), anyString(), anyString()))
+        when(orderService.getUserOrders(anyLong(), anyInt(), anyInt(), anyString(), anyString(), anyBoolean()))
                 .thenReturn(paginatedResponse);
 
         mockMvc.perform(get("/api/orders/users/1")
@@ -129,7 +129,34 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.orders.content").isArray())
                 .andExpect(jsonPath("$.orders.totalElements").value(1));
 
-        verify(orderService).getUserOrders(eq(1L), eq(0), eq(10), anyString(), anyString());
+        verify(orderService).getUserOrders(eq(1L), eq(0), eq(10), anyString(), anyString(), eq(false));
+    }
+
+    @Test
+    void testGetUserOrdersByCursor() throws Exception {
+        CursorPage<OrderDTO> cursorPage = new CursorPage<>(Arrays.asList(testOrderDTO), 10, true, "next-token");
+        when(orderService.getUserOrdersByCursor(1L, "token", 10)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/orders/users/1/cursor")
+                        .param("cursor", "token")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.orders.content").isArray())
+                .andExpect(jsonPath("$.orders.hasMore").value(true))
+                .andExpect(jsonPath("$.orders.nextCursor").value("next-token"));
+    }
+
+    @Test
+    void testGetUserOrdersByCursor_InvalidCursor() throws Exception {
+        when(orderService.getUserOrdersByCursor(1L, "bad", 10))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/orders/users/1/cursor")
+                        .param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Invalid cursor: bad"));
     }
 
     @Test
@@ -202,7 +229,7 @@ class OrderControllerTest {
 
     @Test
     void testGetUserOrdersWithSorting() throws Exception {
-        when(orderService.getUserOrders(anyLong(), anyInt(), anyInt(), anyString(), anyString()))
+        when(orderService.getUserOrders(anyLong(), anyInt(), anyInt(), anyString(), anyString(), anyBoolean()))
                 .thenReturn(paginatedResponse);
 
         mockMvc.perform(get("/api/orders/users/1")
@@ -214,12 +241,12 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.orders.content").isArray());
 
-        verify(orderService).getUserOrders(eq(1L), eq(0), eq(10), eq("createdAt"), eq("desc"));
+        verify(orderService).getUserOrders(eq(1L), eq(0), eq(10), eq("createdAt"), eq("desc"), eq(false));
     }
 
     @Test
     void testGetUserOrders_WithError() throws Exception {
-        when(orderService.getUserOrders(anyLong(), anyInt(), anyInt(), anyString(), anyString()))
+        when(orderService.getUserOrders(anyLong(), anyInt(), anyInt(), anyString(), anyString(), anyBoolean()))
                 .thenThrow(new RuntimeException("Database error"));
 
         mockMvc.perform(get("/api/orders/users/1")
@@ -229,7 +256,7 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Database error"));
 
-        verify(orderService).getUserOrders(eq(1L), eq(0), eq(10), anyString(), anyString());
+        verify(orderService).getUserOrders(eq(1L), eq(0), eq(10), anyString(), anyString(), eq(false));
     }
 }
 
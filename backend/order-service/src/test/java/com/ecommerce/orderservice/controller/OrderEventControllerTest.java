@@ -0,0 +1,65 @@
+package com.ecommerce.orderservice.controller;
+
+import com.ecommerce.orderservice.dto.OrderEventDTO;
+import com.ecommerce.orderservice.entity.OrderEventType;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.service.OrderEventOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OrderEventController.class)
+class OrderEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderEventOutbox orderEventOutbox;
+
+    @Test
+    void testGetOrderEvents() throws Exception {
+        OrderEventDTO event = new OrderEventDTO();
+        event.setOffset(42L);
+        event.setEventType(OrderEventType.STATUS_CHANGED);
+        event.setOrderId(7L);
+        event.setPreviousStatus(OrderStatus.PROCESSING);
+        event.setOrderStatus(OrderStatus.SHIPPED);
+        when(orderEventOutbox.getEvents(41L, 2)).thenReturn(List.of(event));
+
+        mockMvc.perform(get("/internal/order-events").param("after", "41").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.events[0].offset").value(42))
+                .andExpect(jsonPath("$.events[0].eventType").value("STATUS_CHANGED"))
+                .andExpect(jsonPath("$.nextAfter").value(42))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void testGetOrderEvents_NothingNewKeepsOffset() throws Exception {
+        when(orderEventOutbox.getEvents(42L, 100)).thenReturn(List.of());
+
+        mockMvc.perform(get("/internal/order-events").param("after", "42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events").isEmpty())
+                .andExpect(jsonPath("$.nextAfter").value(42));
+    }
+
+    @Test
+    void testGetOrderEvents_InvalidLimit() throws Exception {
+        when(orderEventOutbox.getEvents(0L, 5000)).thenThrow(new IllegalArgumentException("Limit must be between 1 and 1000"));
+
+        mockMvc.perform(get("/internal/order-events").param("limit", "5000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.orderservice.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building an order and a cart line by line, up to 10,000 lines: the running totals kept by
+ * addOrderItem/addCartItem against recounting every line after each add, as both entities used to.
+ * Not part of the regular build; run it after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.ecommerce.orderservice.entity.BasketTotalsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BasketTotalsBenchmark {
+
+    @Param({"1000", "10000"})
+    private int lines;
+
+    private List<OrderItem> orderItems;
+    private List<CartItem> cartItems;
+
+    @Setup
+    public void setUp() {
+        orderItems = new ArrayList<>(lines);
+        cartItems = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            BigDecimal unitPrice = new BigDecimal("19.99").add(BigDecimal.valueOf(i % 100));
+            orderItems.add(new OrderItem(100L + i, "Product " + i, null, unitPrice, 1 + i % 5, null, "Books"));
+            cartItems.add(new CartItem(100L + i, "Product " + i, unitPrice, 1 + i % 5, null));
+        }
+    }
+
+    @Benchmark
+    public Order orderRunningTotals() {
+        Order order = new Order();
+        for (OrderItem item : orderItems) {
+            order.addOrderItem(item);
+        }
+        return order;
+    }
+
+    /**
+     * What Order.addOrderItem did before the running totals
+     */
+    @Benchmark
+    public Order orderRecountEachAdd() {
+        Order order = new Order();
+        for (OrderItem item : orderItems) {
+            order.getOrderItems().add(item);
+            item.setOrder(order);
+            order.calculateTotalAmount();
+        }
+        return order;
+    }
+
+    @Benchmark
+    public Cart cartRunningTotals() {
+        Cart cart = new Cart(1L);
+        for (CartItem item : cartItems) {
+            cart.addCartItem(item);
+        }
+        return cart;
+    }
+
+    /**
+     * What Cart.addCartItem did before the running totals
+     */
+    @Benchmark
+    public Cart cartRecountEachAdd() {
+        Cart cart = new Cart(1L);
+        for (CartItem item : cartItems) {
+            cart.getCartItems().add(item);
+            item.setCart(cart);
+            cart.calculateTotalAmount();
+        }
+        return cart;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BasketTotalsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -136,5 +136,26 @@ class CartTest {
         assertEquals(new BigDecimal("210.00"), cart.getTotalAmount());
         assertEquals(6, cart.getTotalItems());
     }
-}
 
+    @Test
+    void testLineChanges_KeepRunningTotals() {
+        CartItem item1 = new CartItem(1L, "Product 1", new BigDecimal("50.00"), 2, "url");
+        CartItem item2 = new CartItem(2L, "Product 2", new BigDecimal("30.00"), 3, "url");
+        cart.addCartItem(item1);
+        cart.addCartItem(item2);
+
+        item1.updateQuantity(4);
+        item2.setUnitPrice(new BigDecimal("10.00"));
+
+        assertEquals(new BigDecimal("230.00"), cart.getTotalAmount());
+        assertEquals(7, cart.getTotalItems());
+
+        cart.removeCartItem(item1);
+        item1.setQuantity(10);
+
+        assertEquals(new BigDecimal("30.00"), cart.getTotalAmount());
+        assertEquals(3, cart.getTotalItems());
+        cart.calculateTotalAmount();
+        assertEquals(new BigDecimal("30.00"), cart.getTotalAmount());
+    }
+}
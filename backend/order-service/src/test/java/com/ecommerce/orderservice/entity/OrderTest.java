@@ -241,5 +241,46 @@ class OrderTest {
         assertEquals(new BigDecimal("210.00"), order.getTotalAmount());
         assertEquals(6, order.getTotalItems());
     }
-}
 
+    @Test
+    void testLineChanges_KeepRunningTotals() {
+        OrderItem item1 = new OrderItem(1L, "Product 1", "Desc", new BigDecimal("50.00"), 2, "url", "Cat");
+        OrderItem item2 = new OrderItem(2L, "Product 2", "Desc", new BigDecimal("30.00"), 3, "url", "Cat");
+        order.setTaxAmount(new BigDecimal("5.00"));
+        order.addOrderItem(item1);
+        order.addOrderItem(item2);
+
+        item1.updateQuantity(4);
+        item2.setUnitPrice(new BigDecimal("10.00"));
+
+        assertEquals(new BigDecimal("230.00"), order.getTotalAmount());
+        assertEquals(new BigDecimal("235.00"), order.getFinalAmount());
+        assertEquals(7, order.getTotalItems());
+
+        order.removeOrderItem(item1);
+        item1.setQuantity(10);
+
+        assertEquals(new BigDecimal("30.00"), order.getTotalAmount());
+        assertEquals(3, order.getTotalItems());
+        order.calculateTotalAmount();
+        assertEquals(new BigDecimal("30.00"), order.getTotalAmount());
+    }
+
+    @Test
+    void testLoadedOrder_CountsItemsOnDemand() {
+        OrderItem stored = new OrderItem(1L, "Product 1", "Desc", new BigDecimal("50.00"), 2, "url", "Cat");
+        stored.setOrder(order);
+        order.getOrderItems().add(stored);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.onLoad();
+
+        assertEquals(2, order.getTotalItems());
+        assertEquals(new BigDecimal("100.00"), order.getTotalAmount());
+
+        order.addOrderItem(new OrderItem(2L, "Product 2", "Desc", new BigDecimal("30.00"), 1, "url", "Cat"));
+        stored.updateQuantity(1);
+
+        assertEquals(new BigDecimal("80.00"), order.getTotalAmount());
+        assertEquals(2, order.getTotalItems());
+    }
+}
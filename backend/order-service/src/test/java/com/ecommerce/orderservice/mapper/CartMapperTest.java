@@ -0,0 +1,46 @@
+package com.ecommerce.orderservice.mapper;
+
+import com.ecommerce.orderservice.dto.CartDTO;
+import com.ecommerce.orderservice.dto.CartItemDTO;
+import com.ecommerce.orderservice.entity.Cart;
+import com.ecommerce.orderservice.entity.CartItem;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartMapperTest {
+
+    private final CartMapper cartMapper = new CartMapper();
+
+    @Test
+    void testToDTO_SameResultAsModelMapper() throws IllegalAccessException {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 10, 0);
+        Cart cart = new Cart(5L);
+        cart.setId(2L);
+        cart.setCreatedAt(now);
+        cart.setUpdatedAt(now);
+        CartItem item = new CartItem(10L, "Product", new BigDecimal("4.50"), 3, "http://example.com/p.jpg");
+        item.setId(20L);
+        item.setCreatedAt(now);
+        item.setUpdatedAt(now);
+        cart.addCartItem(item);
+
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+
+        CartDTO dto = cartMapper.toDTO(cart);
+
+        OrderMapperTest.assertSameFields(modelMapper.map(cart, CartDTO.class), dto, "cartItems", "totalItems");
+        OrderMapperTest.assertSameFields(modelMapper.map(item, CartItemDTO.class), dto.getCartItems().get(0));
+        assertEquals(3, dto.getTotalItems());
+        assertEquals(new BigDecimal("13.50"), dto.getTotalAmount());
+    }
+}
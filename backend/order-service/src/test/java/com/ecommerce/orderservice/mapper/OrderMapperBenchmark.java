@@ -0,0 +1,111 @@
+package com.ecommerce.orderservice.mapper;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.OrderItemDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-object cost of mapping an Order with 20 items to an OrderDTO: the hand-written
+ * {@link OrderMapper} against ModelMapper configured as the services used to configure it.
+ * Allocation per operation is reported by the GC profiler (gc.alloc.rate.norm).
+ * Not part of the regular build; run it after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.ecommerce.orderservice.mapper.OrderMapperBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+    private static final int ITEMS = 20;
+
+    private OrderMapper orderMapper;
+    private ModelMapper modelMapper;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        orderMapper = new OrderMapper();
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+
+        LocalDateTime now = LocalDateTime.now();
+        order = new Order(42L, "ORD-123456789", BigDecimal.ZERO, "123 Main St, Springfield");
+        order.setId(1L);
+        order.setOrderStatus(OrderStatus.SHIPPED);
+        order.setPaymentStatus(PaymentStatus.COMPLETED);
+        order.setBillingAddress("123 Main St, Springfield");
+        order.setPhoneNumber("555-0101");
+        order.setEmail("customer@example.com");
+        order.setPaymentMethod("CREDIT_CARD");
+        order.setTransactionId("TXN-987654321");
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        for (int i = 0; i < ITEMS; i++) {
+            OrderItem item = new OrderItem(100L + i, "Product " + i, "Description of product " + i,
+                    new BigDecimal("19.99"), 1 + i % 3, "http://example.com/" + i + ".jpg", "Books");
+            item.setId(1000L + i);
+            item.setCreatedAt(now);
+            item.setUpdatedAt(now);
+            order.addOrderItem(item);
+        }
+        order.calculateTotalAmount();
+        order.calculateFinalAmount();
+    }
+
+    @Benchmark
+    public OrderDTO handWritten() {
+        return orderMapper.toDTO(order);
+    }
+
+    /**
+     * What OrderService.convertToOrderDTO did before the hand-written mapper
+     */
+    @Benchmark
+    public OrderDTO modelMapper() {
+        OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
+        List<OrderItemDTO> orderItemDTOs = order.getOrderItems().stream()
+                .map(item -> modelMapper.map(item, OrderItemDTO.class))
+                .collect(Collectors.toList());
+        orderDTO.setOrderItems(orderItemDTOs);
+        orderDTO.setTotalItems(order.getTotalItems());
+        return orderDTO;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
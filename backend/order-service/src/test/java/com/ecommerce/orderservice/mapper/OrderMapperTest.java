@@ -0,0 +1,108 @@
+package com.ecommerce.orderservice.mapper;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.OrderItemDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderMapperTest {
+
+    private final OrderMapper orderMapper = new OrderMapper();
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 10, 0);
+        order = new Order(7L, "ORD-1", BigDecimal.ZERO, "1 Main St");
+        order.setId(3L);
+        order.setOrderStatus(OrderStatus.SHIPPED);
+        order.setPaymentStatus(PaymentStatus.COMPLETED);
+        order.setCouponCode("SAVE10");
+        order.setDiscountAmount(new BigDecimal("5.00"));
+        order.setBillingAddress("2 Side St");
+        order.setPhoneNumber("555-0101");
+        order.setEmail("a@example.com");
+        order.setNotes("Leave at door");
+        order.setPaymentMethod("CREDIT_CARD");
+        order.setTransactionId("TXN-1");
+        order.setEstimatedDeliveryDate(now.plusDays(3));
+        order.setActualDeliveryDate(now.plusDays(2));
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now.plusHours(1));
+        for (int i = 0; i < 2; i++) {
+            OrderItem item = new OrderItem(10L + i, "Product " + i, "Description " + i,
+                    new BigDecimal("9.99"), 2 + i, "http://example.com/" + i + ".jpg", "Books");
+            item.setId(100L + i);
+            item.setCreatedAt(now);
+            item.setUpdatedAt(now);
+            order.addOrderItem(item);
+        }
+        order.calculateTotalAmount();
+        order.calculateFinalAmount();
+    }
+
+    @Test
+    void testToDTO_MapsOrderAndItems() {
+        OrderDTO dto = orderMapper.toDTO(order);
+
+        assertEquals(3L, dto.getId());
+        assertEquals("ORD-1", dto.getOrderNumber());
+        assertEquals(OrderStatus.SHIPPED, dto.getOrderStatus());
+        assertEquals(order.getFinalAmount(), dto.getFinalAmount());
+        assertEquals(5, dto.getTotalItems());
+        assertEquals(2, dto.getOrderItems().size());
+        assertEquals(101L, dto.getOrderItems().get(1).getId());
+        assertEquals(3, dto.getOrderItems().get(1).getQuantity());
+        assertEquals("Books", dto.getOrderItems().get(1).getProductCategory());
+    }
+
+    @Test
+    void testToDTO_SameResultAsModelMapper() throws IllegalAccessException {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+
+        OrderDTO expected = modelMapper.map(order, OrderDTO.class);
+        OrderDTO actual = orderMapper.toDTO(order);
+
+        assertSameFields(expected, actual, "orderItems", "totalItems");
+        for (int i = 0; i < order.getOrderItems().size(); i++) {
+            OrderItem item = order.getOrderItems().get(i);
+            assertSameFields(modelMapper.map(item, OrderItemDTO.class), actual.getOrderItems().get(i));
+        }
+    }
+
+    @Test
+    void testToDTO_OrderWithoutItems() {
+        OrderDTO dto = orderMapper.toDTO(new Order(1L, "ORD-2", BigDecimal.TEN, "1 Main St"));
+
+        assertTrue(dto.getOrderItems().isEmpty());
+        assertEquals(0, dto.getTotalItems());
+    }
+
+    static void assertSameFields(Object expected, Object actual, String... skipped) throws IllegalAccessException {
+        for (Field field : expected.getClass().getDeclaredFields()) {
+            if (Arrays.asList(skipped).contains(field.getName())) {
+                continue;
+            }
+            field.setAccessible(true);
+            assertEquals(field.get(expected), field.get(actual), field.getName());
+        }
+    }
+}
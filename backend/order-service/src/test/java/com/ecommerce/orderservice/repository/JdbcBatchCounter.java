@@ -0,0 +1,87 @@
+package com.ecommerce.orderservice.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the test DataSource and counts what reaches the driver: executed JDBC batches, the statements
+ * queued into them, and INSERT/UPDATE/DELETE statements executed one at a time.
+ */
+class JdbcBatchCounter implements BeanPostProcessor {
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedStatements = new AtomicLong();
+    private final AtomicLong singleUpdates = new AtomicLong();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+    }
+
+    long getBatches() {
+        return batches.get();
+    }
+
+    long getBatchedStatements() {
+        return batchedStatements.get();
+    }
+
+    long getSingleUpdates() {
+        return singleUpdates.get();
+    }
+
+    void clear() {
+        batches.set(0);
+        batchedStatements.set(0);
+        singleUpdates.set(0);
+    }
+
+    // Helper Methods
+
+    private DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return result instanceof PreparedStatement statement ? wrap(statement) : result;
+        });
+    }
+
+    private PreparedStatement wrap(PreparedStatement statement) {
+        return proxy(PreparedStatement.class, statement, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "addBatch" -> batchedStatements.incrementAndGet();
+                case "executeBatch", "executeLargeBatch" -> batches.incrementAndGet();
+                case "executeUpdate", "executeLargeUpdate" -> singleUpdates.incrementAndGet();
+                default -> {
+                }
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(target.getClass().getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JdbcBatchCounter.class)
+class OrderInsertBatchingTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcBatchCounter jdbcBatchCounter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcBatchCounter.clear();
+    }
+
+    @Test
+    void testSaveLargeOrder_InsertedAsOneBatchPerTable() {
+        Order order = order("ORD-BATCH-1", 50);
+
+        Order saved = orderRepository.save(order);
+
+        // Sequence ids are assigned without inserting the row
+        assertNotNull(saved.getId());
+        assertNotNull(saved.getOrderItems().get(49).getId());
+        assertEquals(0, jdbcBatchCounter.getBatchedStatements());
+
+        entityManager.flush();
+
+        assertEquals(51, jdbcBatchCounter.getBatchedStatements());
+        assertEquals(2, jdbcBatchCounter.getBatches(), "One batch for the order, one for its 50 items");
+        assertEquals(0, jdbcBatchCounter.getSingleUpdates());
+    }
+
+    @Test
+    void testSaveManyOrders_InsertsGroupedByTable() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            orders.add(order("ORD-BATCH-M" + i, 2));
+        }
+
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+
+        // order_inserts keeps orders and items from interleaving: 50 + 50 + 20 orders, 240 items in 5 batches
+        assertEquals(360, jdbcBatchCounter.getBatchedStatements());
+        assertEquals(8, jdbcBatchCounter.getBatches());
+        assertEquals(0, jdbcBatchCounter.getSingleUpdates());
+    }
+
+    static Order order(String orderNumber, int items) {
+        Order order = new Order(1L, orderNumber, BigDecimal.ZERO, "1 Warehouse Way");
+        for (int i = 0; i < items; i++) {
+            order.addOrderItem(new OrderItem(100L + i, "Product " + i, null, new BigDecimal("9.99"), 1, null, "Books"));
+        }
+        return order;
+    }
+}
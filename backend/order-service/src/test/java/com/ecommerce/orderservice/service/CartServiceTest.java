@@ -3,22 +3,27 @@ package com.ecommerce.orderservice.service;
 import com.ecommerce.orderservice.dto.*;
 import com.ecommerce.orderservice.entity.Cart;
 import com.ecommerce.orderservice.entity.CartItem;
+import com.ecommerce.orderservice.mapper.CartMapper;
 import com.ecommerce.orderservice.repository.CartItemRepository;
 import com.ecommerce.orderservice.repository.CartRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -32,12 +37,11 @@ class CartServiceTest {
     private CartItemRepository cartItemRepository;
 
     @Mock
-    private ProductServiceClient productServiceClient;
+    private PlatformTransactionManager transactionManager;
 
     @Mock
-    private ModelMapper modelMapper;
+    private ProductServiceClient productServiceClient;
 
-    @InjectMocks
     private CartService cartService;
 
     private Cart testCart;
@@ -48,6 +52,22 @@ class CartServiceTest {
 
     @BeforeEach
     void setUp() {
+        CartStore cartStore = new CartStore(cartRepository, cartItemRepository, transactionManager, 64);
+        // The mocked repository keeps a single stored version, bumped by each conditional update
+        AtomicLong storedVersion = new AtomicLong();
+        AtomicLong itemIds = new AtomicLong(100);
+        lenient().when(cartRepository.findVersionByUserId(anyLong()))
+                .thenAnswer(invocation -> Optional.of(storedVersion.get()));
+        lenient().when(cartRepository.updateIfVersion(anyLong(), anyLong(), any(), any(), any()))
+                .thenAnswer(invocation -> storedVersion.compareAndSet(invocation.getArgument(1), invocation.<Long>getArgument(1) + 1) ? 1 : 0);
+        lenient().when(cartItemRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<CartItem> items = invocation.getArgument(0);
+            items.forEach(item -> item.setId(itemIds.incrementAndGet()));
+            return items;
+        });
+        lenient().when(cartRepository.saveAndFlush(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        cartService = new CartService(cartStore, productServiceClient, new CartMapper());
+
         testCart = new Cart(1L);
         testCart.setId(1L);
 
@@ -74,64 +94,62 @@ class CartServiceTest {
     @Test
     void testGetOrCreateCartForUser_ExistingCart() {
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(modelMapper.map(any(Cart.class), eq(CartDTO.class))).thenReturn(testCartDTO);
 
         CartDTO result = cartService.getOrCreateCartForUser(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
+        verify(cartRepository, never()).updateIfVersion(anyLong(), anyLong(), any(), any(), any());
     }
 
     @Test
     void testGetOrCreateCartForUser_NewCart() {
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.empty());
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
-        when(modelMapper.map(any(Cart.class), eq(CartDTO.class))).thenReturn(testCartDTO);
 
         CartDTO result = cartService.getOrCreateCartForUser(1L);
 
         assertNotNull(result);
-        verify(cartRepository).save(any(Cart.class));
+        assertEquals(1L, result.getUserId());
+        // Written through: the new cart is inserted by the request itself
+        verify(cartRepository, times(1)).saveAndFlush(any(Cart.class));
     }
 
     @Test
     void testAddItemToCart_NewItem() {
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(productServiceClient.getProductById(1L)).thenReturn(testProduct);
-        when(productServiceClient.isProductAvailable(1L, 2)).thenReturn(true);
-        when(cartItemRepository.findByCartIdAndProductId(anyLong(), anyLong())).thenReturn(Optional.empty());
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(testCartItem);
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
-        when(modelMapper.map(any(Cart.class), eq(CartDTO.class))).thenReturn(testCartDTO);
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.getProductById(1L, true)).thenReturn(testProduct);
+        when(productServiceClient.isProductAvailable(testProduct, 2)).thenReturn(true);
 
         CartDTO result = cartService.addItemToCart(1L, addToCartDTO);
 
         assertNotNull(result);
-        verify(cartItemRepository).save(any(CartItem.class));
+        assertEquals(1, result.getCartItems().size());
+        assertEquals(new BigDecimal("199.98"), result.getTotalAmount());
+        verify(cartRepository, times(1)).updateIfVersion(eq(1L), eq(0L), eq(new BigDecimal("199.98")), eq(2), any());
+        verify(cartItemRepository).saveAll(argThat(items -> items.iterator().next().getQuantity() == 2));
+        verify(productServiceClient, times(1)).getProductById(1L, true);
+        verify(productServiceClient, never()).isProductAvailable(anyLong(), anyInt());
     }
 
     @Test
     void testAddItemToCart_UpdateExistingItem() {
         testCart.getCartItems().add(testCartItem);
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(productServiceClient.getProductById(1L)).thenReturn(testProduct);
-        when(productServiceClient.isProductAvailable(eq(1L), anyInt())).thenReturn(true);
-        when(cartItemRepository.findByCartIdAndProductId(anyLong(), anyLong())).thenReturn(Optional.of(testCartItem));
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(testCartItem);
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
-        when(modelMapper.map(any(Cart.class), eq(CartDTO.class))).thenReturn(testCartDTO);
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.getProductById(1L, true)).thenReturn(testProduct);
+        when(productServiceClient.isProductAvailable(eq(testProduct), anyInt())).thenReturn(true);
 
         CartDTO result = cartService.addItemToCart(1L, addToCartDTO);
 
         assertNotNull(result);
-        verify(cartItemRepository).save(any(CartItem.class));
+        assertEquals(1, result.getCartItems().size());
+        assertEquals(4, result.getCartItems().get(0).getQuantity());
+        assertEquals(1L, result.getCartItems().get(0).getId());
     }
 
     @Test
     void testAddItemToCart_ProductNotFound() {
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(productServiceClient.getProductById(1L)).thenReturn(null);
+        when(productServiceClient.getProductById(1L, true)).thenReturn(null);
 
         assertThrows(RuntimeException.class, () -> {
             cartService.addItemToCart(1L, addToCartDTO);
@@ -140,9 +158,8 @@ class CartServiceTest {
 
     @Test
     void testAddItemToCart_ProductNotAvailable() {
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(productServiceClient.getProductById(1L)).thenReturn(testProduct);
-        when(productServiceClient.isProductAvailable(1L, 2)).thenReturn(false);
+        when(productServiceClient.getProductById(1L, true)).thenReturn(testProduct);
+        when(productServiceClient.isProductAvailable(testProduct, 2)).thenReturn(false);
 
         assertThrows(RuntimeException.class, () -> {
             cartService.addItemToCart(1L, addToCartDTO);
@@ -152,15 +169,15 @@ class CartServiceTest {
     @Test
     void testAddItemToCart_ExceedsStock() {
         testCart.getCartItems().add(testCartItem);
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(productServiceClient.getProductById(1L)).thenReturn(testProduct);
-        when(productServiceClient.isProductAvailable(1L, 2)).thenReturn(true);
-        when(productServiceClient.isProductAvailable(1L, 4)).thenReturn(false);
-        when(cartItemRepository.findByCartIdAndProductId(anyLong(), anyLong())).thenReturn(Optional.of(testCartItem));
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.getProductById(1L, true)).thenReturn(testProduct);
+        when(productServiceClient.isProductAvailable(testProduct, 2)).thenReturn(true);
+        when(productServiceClient.isProductAvailable(testProduct, 4)).thenReturn(false);
 
         assertThrows(RuntimeException.class, () -> {
             cartService.addItemToCart(1L, addToCartDTO);
         });
+        assertEquals(2, cartService.getCartByUserId(1L).getCartItems().get(0).getQuantity());
     }
 
     @Test
@@ -170,16 +187,17 @@ class CartServiceTest {
         updateDTO.setQuantity(5);
 
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(1L)).thenReturn(Optional.of(testCartItem));
         when(productServiceClient.isProductAvailable(1L, 5)).thenReturn(true);
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(testCartItem);
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
-        when(modelMapper.map(any(Cart.class), eq(CartDTO.class))).thenReturn(testCartDTO);
 
         CartDTO result = cartService.updateCartItemQuantity(1L, 1L, updateDTO);
 
         assertNotNull(result);
-        verify(cartItemRepository).save(any(CartItem.class));
+        assertEquals(5, result.getCartItems().get(0).getQuantity());
+        assertEquals(new BigDecimal("499.95"), result.getTotalAmount());
+        verify(cartRepository, times(1)).updateIfVersion(anyLong(), anyLong(), any(), any(), any());
+        // Only the changed line is written, without reloading the cart
+        verify(cartItemRepository).updateLine(eq(1L), any(), any(), eq(5), eq(new BigDecimal("499.95")), any(), any());
+        verify(cartRepository, times(1)).findByUserIdWithCartItems(1L);
     }
 
     @Test
@@ -188,7 +206,6 @@ class CartServiceTest {
         updateDTO.setQuantity(5);
 
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> {
             cartService.updateCartItemQuantity(1L, 1L, updateDTO);
@@ -200,15 +217,17 @@ class CartServiceTest {
         Cart otherCart = new Cart(2L);
         otherCart.setId(2L);
         testCartItem.setCart(otherCart);
+        otherCart.getCartItems().add(testCartItem);
         UpdateCartItemDTO updateDTO = new UpdateCartItemDTO();
         updateDTO.setQuantity(5);
 
+        // Item 1 belongs to user 2's cart, so it is not found in user 1's cart
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(1L)).thenReturn(Optional.of(testCartItem));
 
         assertThrows(RuntimeException.class, () -> {
             cartService.updateCartItemQuantity(1L, 1L, updateDTO);
         });
+        verify(productServiceClient, never()).isProductAvailable(anyLong(), anyInt());
     }
 
     @Test
@@ -218,7 +237,6 @@ class CartServiceTest {
         updateDTO.setQuantity(100);
 
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(1L)).thenReturn(Optional.of(testCartItem));
         when(productServiceClient.isProductAvailable(1L, 100)).thenReturn(false);
 
         assertThrows(RuntimeException.class, () -> {
@@ -230,21 +248,19 @@ class CartServiceTest {
     void testRemoveItemFromCart_Success() {
         testCart.getCartItems().add(testCartItem);
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(1L)).thenReturn(Optional.of(testCartItem));
-        doNothing().when(cartItemRepository).delete(any(CartItem.class));
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
-        when(modelMapper.map(any(Cart.class), eq(CartDTO.class))).thenReturn(testCartDTO);
 
         CartDTO result = cartService.removeItemFromCart(1L, 1L);
 
         assertNotNull(result);
-        verify(cartItemRepository).delete(any(CartItem.class));
+        assertTrue(result.getCartItems().isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(result.getTotalAmount()));
+        verify(cartRepository, times(1)).updateIfVersion(anyLong(), anyLong(), any(), any(), any());
+        verify(cartItemRepository).deleteAllByIdInBatch(argThat(ids -> ids.iterator().next().equals(1L)));
     }
 
     @Test
     void testRemoveItemFromCart_ItemNotFound() {
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> {
             cartService.removeItemFromCart(1L, 1L);
@@ -256,9 +272,9 @@ class CartServiceTest {
         Cart otherCart = new Cart(2L);
         otherCart.setId(2L);
         testCartItem.setCart(otherCart);
+        otherCart.getCartItems().add(testCartItem);
 
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(1L)).thenReturn(Optional.of(testCartItem));
 
         assertThrows(RuntimeException.class, () -> {
             cartService.removeItemFromCart(1L, 1L);
@@ -267,27 +283,119 @@ class CartServiceTest {
 
     @Test
     void testClearCart_Success() {
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
+        testCart.getCartItems().add(testCartItem);
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
 
         cartService.clearCart(1L);
 
-        verify(cartRepository).save(any(Cart.class));
+        // Cleared carts are written through straight away
+        verify(cartRepository).updateIfVersion(eq(1L), eq(0L), eq(BigDecimal.ZERO), eq(0), any());
+        verify(cartItemRepository).deleteAllByIdInBatch(argThat(ids -> ids.iterator().next().equals(1L)));
+        assertTrue(cartService.getCartByUserId(1L).getCartItems().isEmpty());
     }
 
     @Test
     void testClearCart_NoCart() {
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.empty());
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.empty());
 
         cartService.clearCart(1L);
 
-        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
+        verify(cartRepository, never()).updateIfVersion(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void testAddItemToCart_WritesEachChangeThrough() {
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.getProductById(1L, true)).thenReturn(testProduct);
+        when(productServiceClient.isProductAvailable(eq(testProduct), anyInt())).thenReturn(true);
+
+        cartService.addItemToCart(1L, addToCartDTO);
+        CartDTO result = cartService.addItemToCart(1L, addToCartDTO);
+
+        // Nothing is left for a later flush: each change is written before it returns, as a diff
+        // against the cached cart, which is never reloaded
+        verify(cartRepository).updateIfVersion(eq(1L), eq(0L), any(), eq(2), any());
+        verify(cartRepository).updateIfVersion(eq(1L), eq(1L), any(), eq(4), any());
+        verify(cartItemRepository, times(1)).saveAll(anyIterable());
+        verify(cartItemRepository).updateLine(eq(101L), any(), any(), eq(4), any(), any(), any());
+        verify(cartRepository, times(1)).findByUserIdWithCartItems(1L);
+        assertEquals(1, result.getCartItems().size());
+        assertEquals(4, result.getCartItems().get(0).getQuantity());
+    }
+
+    @Test
+    void testApplyBatch_AppliesAllOperationsWithOneProductLookup() {
+        CartItem secondItem = new CartItem(2L, "Second Product", new BigDecimal("5.00"), 1, null);
+        secondItem.setId(2L);
+        testCart.getCartItems().add(testCartItem);
+        testCart.getCartItems().add(secondItem);
+        ProductDTO newProduct = new ProductDTO();
+        newProduct.setId(3L);
+        newProduct.setName("New Product");
+        newProduct.setPrice(new BigDecimal("10.00"));
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.getProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct, 3L, newProduct));
+        when(productServiceClient.isProductAvailable(any(ProductDTO.class), anyInt())).thenReturn(true);
+
+        CartDTO result = cartService.applyBatch(1L, List.of(
+                CartOperationDTO.update(1L, 3),
+                CartOperationDTO.remove(2L),
+                CartOperationDTO.add(3L, 2),
+                CartOperationDTO.add(3L, 1)));
+
+        assertEquals(2, result.getCartItems().size());
+        assertEquals(6, result.getTotalItems());
+        assertEquals(new BigDecimal("329.97"), result.getTotalAmount());
+        verify(productServiceClient, times(1)).getProductsByIds(argThat(ids -> ids.size() == 2));
+        verify(productServiceClient).isProductAvailable(testProduct, 3);
+        verify(productServiceClient).isProductAvailable(newProduct, 3);
+        verify(productServiceClient, never()).getProductById(anyLong(), anyBoolean());
+        verify(cartRepository, times(1)).updateIfVersion(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void testApplyBatch_UnavailableProductLeavesCartUnchanged() {
+        testCart.getCartItems().add(testCartItem);
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.getProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct, 3L, new ProductDTO()));
+        when(productServiceClient.isProductAvailable(eq(testProduct), anyInt())).thenReturn(true);
+        when(productServiceClient.isProductAvailable(argThat((ProductDTO product) -> product != testProduct), anyInt())).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> cartService.applyBatch(1L, List.of(
+                CartOperationDTO.update(1L, 5),
+                CartOperationDTO.add(3L, 1))));
+
+        CartDTO cart = cartService.getCartByUserId(1L);
+        assertEquals(1, cart.getCartItems().size());
+        assertEquals(2, cart.getCartItems().get(0).getQuantity());
+    }
+
+    @Test
+    void testApplyBatch_ItemNotInUsersCart() {
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
+
+        assertThrows(RuntimeException.class, () -> cartService.applyBatch(1L, List.of(CartOperationDTO.remove(99L))));
+        verify(productServiceClient, never()).getProductsByIds(anyCollection());
+    }
+
+    @Test
+    void testApplyBatch_UpdateAfterRemoveOfSameItem() {
+        testCart.getCartItems().add(testCartItem);
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
+        when(productServiceClient.getProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct));
+
+        assertThrows(RuntimeException.class, () -> cartService.applyBatch(1L, List.of(
+                CartOperationDTO.remove(1L),
+                CartOperationDTO.update(1L, 2))));
+        assertThrows(IllegalArgumentException.class, () -> cartService.applyBatch(1L, List.of(
+                new CartOperationDTO(CartOperationDTO.Type.ADD, null, null, 1))));
+        assertEquals(1, cartService.getCartByUserId(1L).getCartItems().size());
     }
 
     @Test
     void testGetCartByUserId_Success() {
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(modelMapper.map(any(Cart.class), eq(CartDTO.class))).thenReturn(testCartDTO);
 
         CartDTO result = cartService.getCartByUserId(1L);
 
@@ -306,7 +414,9 @@ class CartServiceTest {
 
     @Test
     void testGetCartItemsCount() {
-        when(cartRepository.getTotalItemsByUserId(1L)).thenReturn(5);
+        testCartItem.updateQuantity(5);
+        testCart.getCartItems().add(testCartItem);
+        when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
 
         Integer result = cartService.getCartItemsCount(1L);
 
@@ -317,11 +427,14 @@ class CartServiceTest {
     void testValidateCartForCheckout_Success() {
         testCart.getCartItems().add(testCartItem);
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(productServiceClient.isProductAvailable(anyLong(), anyInt())).thenReturn(true);
+        when(productServiceClient.getProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct));
+        when(productServiceClient.isProductAvailable(any(ProductDTO.class), anyInt())).thenReturn(true);
 
         boolean result = cartService.validateCartForCheckout(1L);
 
         assertTrue(result);
+        verify(productServiceClient, times(1)).getProductsByIds(anyCollection());
+        verify(productServiceClient, never()).getProductById(anyLong());
     }
 
     @Test
@@ -346,11 +459,25 @@ class CartServiceTest {
     void testValidateCartForCheckout_ProductNotAvailable() {
         testCart.getCartItems().add(testCartItem);
         when(cartRepository.findByUserIdWithCartItems(1L)).thenReturn(Optional.of(testCart));
-        when(productServiceClient.isProductAvailable(anyLong(), anyInt())).thenReturn(false);
+        when(productServiceClient.getProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct));
+        when(productServiceClient.isProductAvailable(any(ProductDTO.class), anyInt())).thenReturn(false);
 
         boolean result = cartService.validateCartForCheckout(1L);
 
         assertFalse(result);
     }
-}
 
+    @Test
+    void testValidateCartForCheckout_WithResolvedProducts() {
+        CartItemDTO cartItemDTO = new CartItemDTO();
+        cartItemDTO.setProductId(1L);
+        cartItemDTO.setQuantity(2);
+        testCartDTO.setCartItems(Arrays.asList(cartItemDTO));
+        when(productServiceClient.isProductOrderable(testProduct)).thenReturn(true);
+
+        boolean result = cartService.validateCartForCheckout(testCartDTO, Map.of(1L, testProduct));
+
+        assertTrue(result);
+        verify(cartRepository, never()).findByUserIdWithCartItems(anyLong());
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.Cart;
+import com.ecommerce.orderservice.entity.CartItem;
+import com.ecommerce.orderservice.repository.CartItemRepository;
+import com.ecommerce.orderservice.repository.CartRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartStoreTest {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CartStore cartStore;
+
+    @BeforeEach
+    void setUp() {
+        cartStore = new CartStore(cartRepository, cartItemRepository, transactionManager, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void testUpdate_WritesThroughBeforeReturning() {
+        cartStore.update(1L, cart -> cart.addCartItem(item(10L, 1)), cart -> null);
+        cartStore.update(1L, cart -> {
+            cart.getCartItems().get(0).updateQuantity(3);
+            cart.addCartItem(item(20L, 2));
+        }, cart -> null);
+
+        Cart stored = cartRepository.findByUserIdWithCartItems(1L).orElseThrow();
+        assertEquals(2, stored.getCartItems().size());
+        assertEquals(0, new BigDecimal("50.00").compareTo(stored.getTotalAmount()));
+        assertEquals(5, cartRepository.getTotalItemsByUserId(1L));
+        assertEquals(1, stored.getVersion());
+    }
+
+    @Test
+    void testUpdate_ReturnsDatabaseLineIds() {
+        Long lineId = cartStore.update(1L, cart -> cart.addCartItem(item(10L, 1)),
+                cart -> cart.getCartItems().get(0).getId());
+
+        Cart stored = cartRepository.findByUserIdWithCartItems(1L).orElseThrow();
+        assertEquals(stored.getCartItems().get(0).getId(), lineId);
+
+        // The id keeps addressing the line after the cache is dropped, or from another instance
+        cartStore.evict(List.of(1L));
+        CartStore otherInstance = new CartStore(cartRepository, cartItemRepository, transactionManager, 64);
+        otherInstance.update(1L, cart -> cart.getCartItems().stream()
+                .filter(item -> item.getId().equals(lineId))
+                .findFirst().orElseThrow().updateQuantity(4), cart -> null);
+        assertEquals(4, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+    }
+
+    @Test
+    void testUpdate_RemovesDeletedLines() {
+        cartStore.update(1L, cart -> {
+            cart.addCartItem(item(10L, 1));
+            cart.addCartItem(item(20L, 1));
+        }, cart -> null);
+
+        cartStore.update(1L, cart -> cart.removeCartItem(cart.getCartItems().stream()
+                .filter(item -> item.getProductId().equals(10L))
+                .findFirst().orElseThrow()), cart -> null);
+
+        Cart stored = cartRepository.findByUserIdWithCartItems(1L).orElseThrow();
+        assertEquals(1, stored.getCartItems().size());
+        assertEquals(20L, stored.getCartItems().get(0).getProductId());
+    }
+
+    @Test
+    void testUpdate_FailedMutationChangesNothing() {
+        cartStore.update(1L, cart -> cart.addCartItem(item(10L, 1)), cart -> null);
+
+        assertThrows(IllegalStateException.class, () -> cartStore.update(1L, cart -> {
+            cart.addCartItem(item(20L, 1));
+            throw new IllegalStateException("Product 30 not found");
+        }, cart -> null));
+
+        assertEquals(1, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+        assertEquals(1, cartRepository.getTotalItemsByUserId(1L));
+    }
+
+    @Test
+    void testRead_ServesCachedCartWhileVersionUnchanged() {
+        cartStore.update(1L, cart -> cart.addCartItem(item(10L, 2)), cart -> null);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(2, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+        assertEquals(2, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+
+        // One version check per read, no reload of the cart and its lines
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testUpdate_WritesOnlyTheDifferenceWithoutReloading() {
+        cartStore.update(1L, cart -> {
+            cart.addCartItem(item(10L, 1));
+            cart.addCartItem(item(20L, 1));
+        }, cart -> null);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        cartStore.update(1L, cart -> cart.getCartItems().get(0).updateQuantity(2), cart -> null);
+
+        // Version check, conditional cart update and the one changed line; the unchanged line is not touched
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        Cart stored = cartRepository.findByUserIdWithCartItems(1L).orElseThrow();
+        assertEquals(1, stored.getVersion());
+        assertEquals(3, cartRepository.getTotalItemsByUserId(1L));
+    }
+
+    @Test
+    void testRead_SeesChangesMadeOnAnotherInstance() {
+        CartStore otherInstance = new CartStore(cartRepository, cartItemRepository, transactionManager, 64);
+        cartStore.update(1L, cart -> cart.addCartItem(item(10L, 1)), cart -> null);
+        assertEquals(1, otherInstance.read(1L, Cart::getTotalItems).orElseThrow());
+
+        otherInstance.update(1L, cart -> cart.getCartItems().get(0).updateQuantity(3), cart -> null);
+        assertEquals(3, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+
+        cartRepository.deleteAll();
+        assertTrue(cartStore.read(1L, Cart::getTotalItems).isEmpty());
+        assertTrue(otherInstance.read(1L, Cart::getTotalItems).isEmpty());
+    }
+
+    @Test
+    void testUpdate_ReappliesChangeThatLostARace() {
+        CartStore otherInstance = new CartStore(cartRepository, cartItemRepository, transactionManager, 64);
+        cartStore.update(1L, cart -> cart.addCartItem(item(10L, 1)), cart -> null);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // The other instance adds a line between this instance reading the cart and writing its change
+        cartStore.update(1L, cart -> {
+            if (attempts.incrementAndGet() == 1) {
+                otherInstance.update(1L, other -> other.addCartItem(item(20L, 1)), other -> null);
+            }
+            cart.addCartItem(item(30L, 1));
+        }, cart -> null);
+
+        assertEquals(2, attempts.get());
+        Cart stored = cartRepository.findByUserIdWithCartItems(1L).orElseThrow();
+        assertEquals(3, stored.getCartItems().size(), "Neither change is lost");
+        assertEquals(3, otherInstance.read(1L, Cart::getTotalItems).orElseThrow());
+    }
+
+    @Test
+    void testClear_WaitsForTransactionCommit() {
+        cartStore.update(1L, cart -> cart.addCartItem(item(10L, 1)), cart -> null);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cartStore.clear(1L);
+            status.setRollbackOnly();
+        });
+        assertEquals(1, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cartStore.clear(1L);
+            assertEquals(1, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+        });
+        assertEquals(0, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+        assertTrue(cartRepository.findByUserIdWithCartItems(1L).orElseThrow().getCartItems().isEmpty());
+        assertEquals(0, cartRepository.getTotalItemsByUserId(1L));
+    }
+
+    @Test
+    void testRead_SeesCartCreatedOnAnotherInstance() {
+        CartStore otherInstance = new CartStore(cartRepository, cartItemRepository, transactionManager, 64);
+        assertTrue(cartStore.read(1L, Cart::getTotalItems).isEmpty());
+
+        otherInstance.update(1L, cart -> cart.addCartItem(item(10L, 2)), cart -> null);
+
+        assertEquals(2, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+    }
+
+    @Test
+    void testEviction_EvictsOverBudgetAndReloads() {
+        cartStore = new CartStore(cartRepository, cartItemRepository, transactionManager, 1);
+        long budget = 1 << 20;
+        int carts = (int) (budget / (CartStore.CART_BYTES + CartStore.ITEM_BYTES)) + 50;
+        for (long userId = 1; userId <= carts; userId++) {
+            cartStore.update(userId, cart -> cart.addCartItem(item(10L, 1)), cart -> null);
+        }
+
+        assertTrue(cartStore.size() < carts);
+        assertTrue(cartStore.getUsedBytes() <= budget);
+        assertEquals(carts, cartRepository.count());
+        // The least recently used cart was evicted and is loaded again on access
+        assertEquals(1, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+    }
+
+    private static CartItem item(Long productId, int quantity) {
+        return new CartItem(productId, "Product " + productId, new BigDecimal("10.00"), quantity, null);
+    }
+}
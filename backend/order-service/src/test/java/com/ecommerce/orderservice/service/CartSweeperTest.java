@@ -0,0 +1,131 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.Cart;
+import com.ecommerce.orderservice.entity.CartItem;
+import com.ecommerce.orderservice.repository.CartItemRepository;
+import com.ecommerce.orderservice.repository.CartRepository;
+import com.ecommerce.orderservice.repository.JobLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartSweeperTest {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CartStore cartStore;
+    private CartSweeper cartSweeper;
+
+    @BeforeEach
+    void setUp() {
+        cartStore = new CartStore(cartRepository, cartItemRepository, transactionManager, 64);
+        // 30 day TTL, chunks of two carts, no pause
+        cartSweeper = new CartSweeper(cartRepository, cartItemRepository, cartStore,
+                new JobLeases(jobLeaseRepository, transactionManager), transactionManager, 30, 2, 0, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void testSweep_DeletesIdleCartsInChunks() {
+        for (long userId = 1; userId <= 5; userId++) {
+            cart(userId, 40 + (int) userId);
+        }
+        cart(6L, 10);
+
+        // Five idle carts in chunks of two
+        assertEquals(5, cartSweeper.sweep());
+
+        assertEquals(1, cartRepository.count());
+        assertTrue(cartRepository.findByUserId(6L).isPresent());
+        assertEquals(1, cartItemRepository.count());
+        assertEquals(0, cartSweeper.sweep());
+    }
+
+    @Test
+    void testSweep_KeepsCartsChangedThroughTheCartStore() {
+        cart(1L, 60);
+        cart(2L, 60);
+        cart(3L, 60);
+        // Read but not changed: still idle, dropped from memory along with the row
+        assertEquals(1, cartStore.read(1L, Cart::getTotalItems).orElseThrow());
+        // Changed through the store, which writes the change and its updated_at straight away
+        cartStore.update(2L, cart -> cart.getCartItems().get(0).updateQuantity(5), cart -> null);
+
+        assertEquals(2, cartSweeper.sweep());
+
+        assertTrue(cartStore.read(1L, Cart::getTotalItems).isEmpty());
+        assertEquals(5, cartStore.read(2L, Cart::getTotalItems).orElseThrow());
+        assertEquals(5, cartRepository.getTotalItemsByUserId(2L));
+        assertTrue(cartRepository.findByUserId(3L).isEmpty());
+    }
+
+    @Test
+    void testSweep_SkipsWhileAnotherInstanceHoldsTheLease() {
+        cart(1L, 60);
+        JobLeases otherInstance = new JobLeases(jobLeaseRepository, transactionManager);
+        assertTrue(otherInstance.tryAcquire(CartSweeper.JOB_NAME, 60_000));
+
+        assertEquals(0, cartSweeper.sweep());
+        assertEquals(1, cartRepository.count());
+
+        otherInstance.release(CartSweeper.JOB_NAME);
+        assertEquals(1, cartSweeper.sweep());
+    }
+
+    @Test
+    void testLease_ExpiredLeaseCanBeTaken() throws InterruptedException {
+        JobLeases crashedInstance = new JobLeases(jobLeaseRepository, transactionManager);
+        JobLeases otherInstance = new JobLeases(jobLeaseRepository, transactionManager);
+        assertTrue(crashedInstance.tryAcquire("job", 1000));
+        assertFalse(otherInstance.tryAcquire("job", 60_000));
+        assertTrue(crashedInstance.tryAcquire("job", 1000), "The holder can extend its lease");
+
+        Thread.sleep(1100);
+
+        assertTrue(otherInstance.tryAcquire("job", 60_000));
+        assertFalse(crashedInstance.tryAcquire("job", 50));
+    }
+
+    private void cart(Long userId, int idleDays) {
+        Cart cart = new Cart(userId);
+        cart.addCartItem(new CartItem(10L, "Product 10", new BigDecimal("10.00"), 1, null));
+        cart.calculateTotalAmount();
+        Cart saved = cartRepository.save(cart);
+        jdbcTemplate.update("UPDATE carts SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(idleDays)), saved.getId());
+    }
+}
@@ -0,0 +1,242 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.CartDTO;
+import com.ecommerce.orderservice.dto.CartItemDTO;
+import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.mapper.CartMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checkout latency against a local stub of product-service that answers every call after a fixed delay
+ */
+class CheckoutPipelineTest {
+
+    private static final long DELAY_MS = 200;
+    private static final int CART_LINES = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> releasedHolds = new CopyOnWriteArrayList<>();
+    private final AtomicInteger holds = new AtomicInteger();
+    private volatile long holdDelayMillis = DELAY_MS;
+    private volatile long firstHoldDelayMillis = -1;
+    private final AtomicInteger holdRequests = new AtomicInteger();
+    private volatile boolean refuseHolds;
+    // Stock of every product; a granted hold takes one unit of each, as every cart line holds one unit
+    private volatile int stock = 100;
+
+    private HttpServer productService;
+    private ExecutorService stubThreads;
+    private ProductServiceClient productServiceClient;
+    private CheckoutPipeline checkoutPipeline;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        productService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        productService.createContext("/api/products/batch", this::handleBatch);
+        productService.createContext("/api/products/stock/holds", this::handleHold);
+        stubThreads = Executors.newCachedThreadPool();
+        productService.setExecutor(stubThreads);
+        productService.start();
+
+        productServiceClient = new ProductServiceClient(WebClient.builder().build(), new ProductSnapshotCache(30, 1000));
+        ReflectionTestUtils.setField(productServiceClient, "productServiceName",
+                "localhost:" + productService.getAddress().getPort());
+        checkoutPipeline = new CheckoutPipeline(productServiceClient, 5000, 50, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.stop(0);
+        stubThreads.shutdownNow();
+    }
+
+    @Test
+    void testReserve_RunsRemoteCallsConcurrently() {
+        Map<Long, Integer> quantities = cart(CART_LINES);
+
+        // What checkout used to cost: every call one after the other
+        long sequentialStartedAt = System.nanoTime();
+        List<Long> productIds = new ArrayList<>(quantities.keySet());
+        for (int start = 0; start < productIds.size(); start += 50) {
+            productServiceClient.getProductsByIds(productIds.subList(start, start + 50));
+        }
+        productServiceClient.createStockHold(quantities);
+        long sequentialMillis = (System.nanoTime() - sequentialStartedAt) / 1_000_000;
+
+        CheckoutPipeline.Reservation reservation = checkoutPipeline.reserve(quantities, products -> true);
+
+        assertEquals(CART_LINES, reservation.getProducts().size());
+        assertNotNull(reservation.getHoldId());
+        assertTrue(reservation.getStageMillis().keySet().containsAll(List.of("resolve", "hold")));
+        assertTrue(sequentialMillis >= 5 * DELAY_MS);
+        assertTrue(reservation.getElapsedMillis() < sequentialMillis / 2,
+                "Pipeline took " + reservation.getElapsedMillis() + " ms against " + sequentialMillis
+                        + " ms sequential, stages " + reservation.getStageMillis());
+    }
+
+    @Test
+    void testReserve_DeadlineReleasesLateHold() throws InterruptedException {
+        holdDelayMillis = 1000;
+        checkoutPipeline = new CheckoutPipeline(productServiceClient, 400, 50, 8);
+
+        long startedAt = System.nanoTime();
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> checkoutPipeline.reserve(cart(10), products -> true));
+
+        assertTrue(e.getMessage().contains("timed out"));
+        assertTrue((System.nanoTime() - startedAt) / 1_000_000 < 900, "Checkout gave up at the deadline");
+        awaitReleasedHolds(1);
+        assertEquals(List.of("hold-1"), releasedHolds);
+    }
+
+    @Test
+    void testReserve_ValidationFailureReleasesHold() throws InterruptedException {
+        assertThrows(RuntimeException.class,
+                () -> checkoutPipeline.reserve(cart(10), products -> false));
+
+        awaitReleasedHolds(1);
+        assertEquals(List.of("hold-1"), releasedHolds);
+    }
+
+    @Test
+    void testReserve_RefusedHoldFailsWithoutRelease() throws InterruptedException {
+        refuseHolds = true;
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> checkoutPipeline.reserve(cart(10), products -> true));
+
+        assertTrue(e.getMessage().contains("Failed to reserve stock"));
+        Thread.sleep(DELAY_MS);
+        assertTrue(releasedHolds.isEmpty());
+    }
+
+    @Test
+    void testReserve_LastUnitsHeldBeforeProductsAreReadStillCheckOut() {
+        stock = 1;
+        holdDelayMillis = 0;
+        CartService cartService = new CartService(mock(CartStore.class), productServiceClient, mock(CartMapper.class));
+        CartItemDTO line = new CartItemDTO();
+        line.setProductId(1L);
+        line.setQuantity(1);
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setCartItems(List.of(line));
+
+        CheckoutPipeline.Reservation reservation = checkoutPipeline.reserve(cart(1),
+                products -> cartService.validateCartForCheckout(cartDTO, products));
+
+        assertEquals(0, reservation.getProducts().get(1L).getStock(), "The hold took the last unit first");
+        assertEquals("hold-1", reservation.getHoldId());
+        assertTrue(releasedHolds.isEmpty());
+    }
+
+    @Test
+    void testReserve_SlowCheckoutDoesNotHoldUpOthers() throws Exception {
+        firstHoldDelayMillis = 1500;
+        holdDelayMillis = 0;
+        checkoutPipeline = new CheckoutPipeline(productServiceClient, 5000, 50, 2);
+        CompletableFuture<CheckoutPipeline.Reservation> slow = CompletableFuture.supplyAsync(
+                () -> checkoutPipeline.reserve(cart(CART_LINES), products -> true));
+        awaitHoldRequests(1);
+
+        long startedAt = System.nanoTime();
+        checkoutPipeline.reserve(cart(CART_LINES), products -> true);
+
+        assertTrue((System.nanoTime() - startedAt) / 1_000_000 < 1000, "Second checkout waited for the first");
+        assertNotNull(slow.get().getHoldId());
+    }
+
+    private void awaitHoldRequests(int count) throws InterruptedException {
+        long giveUpAt = System.currentTimeMillis() + 5000;
+        while (holdRequests.get() < count && System.currentTimeMillis() < giveUpAt) {
+            Thread.sleep(20);
+        }
+    }
+
+    private void awaitReleasedHolds(int count) throws InterruptedException {
+        long giveUpAt = System.currentTimeMillis() + 5000;
+        while (releasedHolds.size() < count && System.currentTimeMillis() < giveUpAt) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static Map<Long, Integer> cart(int lines) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (long productId = 1; productId <= lines; productId++) {
+            quantities.put(productId, 1);
+        }
+        return quantities;
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        Long[] ids = objectMapper.readValue(exchange.getRequestBody(), Long[].class);
+        pause(DELAY_MS);
+        List<ProductDTO> products = new ArrayList<>();
+        for (Long id : ids) {
+            ProductDTO product = new ProductDTO();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setStock(stock);
+            product.setStatus("ACTIVE");
+            products.add(product);
+        }
+        respond(exchange, 200, objectMapper.writeValueAsString(products));
+    }
+
+    private void handleHold(HttpExchange exchange) throws IOException {
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            String path = exchange.getRequestURI().getPath();
+            releasedHolds.add(path.substring(path.lastIndexOf('/') + 1));
+            respond(exchange, 200, "");
+            return;
+        }
+        exchange.getRequestBody().readAllBytes();
+        pause(holdRequests.incrementAndGet() == 1 && firstHoldDelayMillis >= 0 ? firstHoldDelayMillis : holdDelayMillis);
+        if (refuseHolds) {
+            respond(exchange, 409, "{\"message\":\"Insufficient stock\"}");
+        } else {
+            stock--;
+            respond(exchange, 201, "{\"holdId\":\"hold-" + holds.incrementAndGet() + "\"}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
+import com.ecommerce.orderservice.repository.JobLeaseRepository;
+import com.ecommerce.orderservice.repository.OrderItemRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "orders.archive.min-age-days=30",
+        "orders.archive.chunk-size=2"
+})
+@ActiveProfiles("test")
+@Import({OrderArchive.class, JobLeases.class, OrderMapper.class, OrderStatusCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderArchiveTest {
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private OrderSearchIndex orderSearchIndex;
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        archivedOrderRepository.deleteAll();
+    }
+
+    @Test
+    void testArchiveOrders_MovesOnlyOldFinishedOrders() {
+        Order delivered = order("ORD-A1", OrderStatus.DELIVERED, 60);
+        Order cancelled = order("ORD-A2", OrderStatus.CANCELLED, 45);
+        Order returned = order("ORD-A3", OrderStatus.RETURNED, 31);
+        Order recentlyDelivered = order("ORD-A4", OrderStatus.DELIVERED, 5);
+        Order oldButShipped = order("ORD-A5", OrderStatus.SHIPPED, 90);
+        orderStatusCounters.reconcile();
+
+        // Three orders in chunks of two
+        assertEquals(3, orderArchive.archiveOrders());
+
+        assertEquals(2, orderRepository.count());
+        assertTrue(orderRepository.findById(recentlyDelivered.getId()).isPresent());
+        assertTrue(orderRepository.findById(oldButShipped.getId()).isPresent());
+        assertEquals(2, orderItemRepository.count());
+        assertEquals(3, archivedOrderRepository.count());
+        verify(orderSearchIndex).remove(delivered.getId());
+        verify(orderSearchIndex).remove(cancelled.getId());
+        verify(orderSearchIndex).remove(returned.getId());
+
+        // Nothing left to do, and statistics still count the archived orders
+        assertEquals(0, orderArchive.archiveOrders());
+        orderStatusCounters.reconcile();
+        assertEquals(5, orderStatusCounters.getTotal());
+        assertEquals(2, orderStatusCounters.getCount(OrderStatus.DELIVERED));
+    }
+
+    @Test
+    void testArchiveOrders_SkipsWhileAnotherInstanceHoldsTheLease() {
+        order("ORD-C1", OrderStatus.DELIVERED, 60);
+        JobLeases otherInstance = new JobLeases(jobLeaseRepository, transactionManager);
+        assertTrue(otherInstance.tryAcquire(OrderArchive.JOB_NAME, 60_000));
+
+        assertEquals(0, orderArchive.archiveOrders());
+        assertEquals(1, orderRepository.count());
+
+        otherInstance.release(OrderArchive.JOB_NAME);
+        assertEquals(1, orderArchive.archiveOrders());
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void testFind_ReadsArchivedOrderWithItems() {
+        Order delivered = order("ORD-B1", OrderStatus.DELIVERED, 60);
+        orderArchive.archiveOrders();
+
+        OrderDTO byId = orderArchive.findById(delivered.getId()).orElseThrow();
+        OrderDTO byNumber = orderArchive.findByOrderNumber("ORD-B1").orElseThrow();
+
+        assertEquals(delivered.getId(), byId.getId());
+        assertEquals(1L, byId.getUserId());
+        assertEquals(OrderStatus.DELIVERED, byId.getOrderStatus());
+        assertEquals(0, new BigDecimal("20.00").compareTo(byId.getFinalAmount()));
+        assertEquals(1, byId.getOrderItems().size());
+        assertEquals(2, byId.getOrderItems().get(0).getQuantity());
+        assertNotNull(byId.getCreatedAt());
+        assertEquals(byId.getId(), byNumber.getId());
+        assertTrue(orderArchive.findById(999_999L).isEmpty());
+        assertTrue(orderArchive.findByOrderNumber("ORD-NONE").isEmpty());
+    }
+
+    private Order order(String orderNumber, OrderStatus status, int daysSinceUpdate) {
+        Order order = new Order(1L, orderNumber, new BigDecimal("20.00"), "1 Warehouse Way");
+        order.setOrderStatus(status);
+        order.addOrderItem(new OrderItem(7L, "Product 7", null, new BigDecimal("10.00"), 2, null, "Books"));
+        Order saved = orderRepository.save(order);
+        jdbcTemplate.update("UPDATE orders SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(daysSinceUpdate)), saved.getId());
+        return saved;
+    }
+}
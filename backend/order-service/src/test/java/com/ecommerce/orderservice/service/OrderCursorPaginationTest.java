@@ -0,0 +1,253 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.CursorPage;
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.PaginatedResponse;
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.mapper.OrderJson;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({OrderService.class, OrderArchive.class, JobLeases.class, OrderMapper.class})
+class OrderCursorPaginationTest {
+
+    private static final int ORDERS = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @MockBean
+    private CartService cartService;
+
+    @MockBean
+    private ProductServiceClient productServiceClient;
+
+    @MockBean
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @MockBean
+    private OrderStatusCounters orderStatusCounters;
+
+    @MockBean
+    private CheckoutPipeline checkoutPipeline;
+
+    @MockBean
+    private OrderEventOutbox orderEventOutbox;
+
+    @MockBean
+    private StockReleaseQueue stockReleaseQueue;
+
+    @MockBean
+    private ProductSalesRollup productSalesRollup;
+
+    @MockBean
+    private OrderSearchIndex orderSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(i % 2 == 0 ? 1L : 2L, "ORD-CURSOR-" + i, BigDecimal.ZERO, "123 Test St");
+            order.setOrderStatus(i % 3 == 0 ? OrderStatus.DELIVERED : OrderStatus.PENDING);
+            order.addOrderItem(new OrderItem(100L + i, "Product " + i, null, new BigDecimal("10.00"), 1, null, "Books"));
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testGetAllOrdersForAdminByCursor_WalksEveryOrderOnceNewestFirst() {
+        List<OrderDTO> walked = walkAdmin(null, 7);
+
+        assertEquals(ORDERS, walked.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < walked.size(); i++) {
+            assertTrue(ids.add(walked.get(i).getId()));
+            if (i > 0) {
+                OrderDTO previous = walked.get(i - 1);
+                OrderDTO current = walked.get(i);
+                int byTime = current.getCreatedAt().compareTo(previous.getCreatedAt());
+                assertTrue(byTime < 0 || (byTime == 0 && current.getId() < previous.getId()));
+            }
+        }
+    }
+
+    @Test
+    void testGetAllOrdersForAdminByCursor_AppliesFilters() {
+        List<OrderDTO> delivered = walkAdmin(OrderStatus.DELIVERED, 4);
+
+        assertEquals(10, delivered.size());
+        assertTrue(delivered.stream().allMatch(order -> order.getOrderStatus() == OrderStatus.DELIVERED));
+    }
+
+    @Test
+    void testGetUserOrdersByCursor_OnlyUsersOrders() {
+        CursorPage<OrderDTO> first = orderService.getUserOrdersByCursor(1L, null, 10);
+        CursorPage<OrderDTO> second = orderService.getUserOrdersByCursor(1L, first.getNextCursor(), 10);
+
+        assertTrue(first.isHasMore());
+        assertEquals(10, first.getNumberOfElements());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(5, second.getNumberOfElements());
+        assertTrue(second.getContent().stream().allMatch(order -> order.getUserId().equals(1L)));
+    }
+
+    @Test
+    void testDeepPageCostsSameAsFirstPage() {
+        long firstPage = countStatements(null);
+        String cursor = null;
+        for (int i = 0; i < 5; i++) {
+            cursor = orderService.getAllOrdersForAdminByCursor(null, null, null, null, null, null, cursor, 5).getNextCursor();
+        }
+        long deepPage = countStatements(cursor);
+
+        assertEquals(firstPage, deepPage);
+        // the seek queries on orders and on the archive, and the batch item fetch; no count query
+        assertEquals(3, deepPage);
+    }
+
+    @Test
+    void testListings_IncludeArchivedOrders() {
+        // The delivered third of the orders, five of them user 1's
+        archive(OrderStatus.DELIVERED);
+
+        List<OrderDTO> walked = walkAdmin(null, 7);
+        assertEquals(ORDERS, walked.size());
+        assertNewestFirst(walked);
+        assertEquals(10, walkAdmin(OrderStatus.DELIVERED, 4).size());
+
+        CursorPage<OrderDTO> first = orderService.getUserOrdersByCursor(1L, null, 10);
+        CursorPage<OrderDTO> second = orderService.getUserOrdersByCursor(1L, first.getNextCursor(), 10);
+        assertEquals(10, first.getNumberOfElements());
+        assertEquals(5, second.getNumberOfElements());
+        assertFalse(second.isHasMore());
+
+        List<OrderDTO> paged = new ArrayList<>(orderService.getUserOrders(1L, 0, 10, "createdAt", "desc", true).getContent());
+        PaginatedResponse<OrderDTO> lastPage = orderService.getUserOrders(1L, 1, 10, "createdAt", "desc", true);
+        paged.addAll(lastPage.getContent());
+        assertEquals(15, lastPage.getTotalElements());
+        assertEquals(2, lastPage.getTotalPages());
+        assertTrue(lastPage.isLast());
+        assertEquals(15, paged.stream().map(OrderDTO::getId).distinct().count());
+        assertNewestFirst(paged);
+        assertTrue(paged.stream().allMatch(order -> order.getOrderItems().size() == 1));
+
+        PaginatedResponse<OrderDTO> delivered = orderService.getAllOrdersForAdmin(
+                null, OrderStatus.DELIVERED, null, null, null, 0, 20, "orderNumber", "asc", "ORD-CURSOR", true);
+        assertEquals(10, delivered.getTotalElements());
+        assertEquals("ORD-CURSOR-0", delivered.getContent().get(0).getOrderNumber());
+
+        // Without asking for them, listings show the orders that are not archived
+        assertEquals(10, orderService.getUserOrders(1L, 0, 20, "createdAt", "desc", false).getTotalElements());
+    }
+
+    @Test
+    void testOffsetListingWithArchivedOrders_LimitedDepthAndSortProperties() {
+        archive(OrderStatus.DELIVERED);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getUserOrders(1L, 1000, 20, "createdAt", "desc", true));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getUserOrders(1L, 0, 20, "shippingAddress", "desc", true));
+        // The hot listing goes to any depth
+        assertEquals(0, orderService.getUserOrders(1L, 1000, 20, "createdAt", "desc", false).getNumberOfElements());
+    }
+
+    @Test
+    void testInvalidCursorAndSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getUserOrdersByCursor(1L, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getUserOrdersByCursor(1L, null, 0));
+    }
+
+    @Test
+    void testOrderCursor_RoundTrip() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000), 42L);
+
+        OrderCursor decoded = OrderCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+        assertSame(OrderCursor.START, OrderCursor.decode(null));
+    }
+
+    /**
+     * What the archive job does, inside the test transaction
+     */
+    private void archive(OrderStatus status) {
+        List<Order> orders = entityManager.getEntityManager()
+                .createQuery("SELECT o FROM Order o WHERE o.orderStatus = :status", Order.class)
+                .setParameter("status", status)
+                .getResultList();
+        for (Order order : orders) {
+            entityManager.persist(new ArchivedOrder(order, OrderJson.write(orderMapper.toDTO(order))));
+            entityManager.remove(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static void assertNewestFirst(List<OrderDTO> orders) {
+        for (int i = 1; i < orders.size(); i++) {
+            OrderDTO previous = orders.get(i - 1);
+            OrderDTO current = orders.get(i);
+            int byTime = current.getCreatedAt().compareTo(previous.getCreatedAt());
+            assertTrue(byTime < 0 || (byTime == 0 && current.getId() < previous.getId()));
+        }
+    }
+
+    private List<OrderDTO> walkAdmin(OrderStatus status, int size) {
+        List<OrderDTO> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<OrderDTO> page = orderService.getAllOrdersForAdminByCursor(
+                    null, status, null, null, null, null, cursor, size);
+            walked.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return walked;
+    }
+
+    private long countStatements(String cursor) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        orderService.getAllOrdersForAdminByCursor(null, null, null, null, null, null, cursor, 5);
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,195 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderEventDTO;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderEventType;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.JobLeaseRepository;
+import com.ecommerce.orderservice.repository.OrderEventRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"orders.events.relay-batch-size=2", "orders.events.purge-chunk-size=2"})
+@ActiveProfiles("test")
+@Import({OrderEventOutbox.class, JobLeases.class, OrderMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderEventOutboxTest {
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderEventRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void testRecord_RequiresTheOrderTransaction() {
+        Order order = orderRepository.save(order("ORD-E0"));
+
+        assertThrows(IllegalTransactionStateException.class,
+                () -> orderEventOutbox.record(OrderEventType.CREATED, order, null));
+    }
+
+    @Test
+    void testRecord_RolledBackChangeLeavesNoEvent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Order order = orderRepository.save(order("ORD-E1"));
+            orderEventOutbox.record(OrderEventType.CREATED, order, null);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, orderEventRepository.count());
+        assertEquals(0, orderEventOutbox.relay());
+    }
+
+    @Test
+    void testRelay_PublishesCommittedEventsInBatchesWithOffsets() {
+        for (int i = 0; i < 5; i++) {
+            String orderNumber = "ORD-E" + (10 + i);
+            transactionTemplate.executeWithoutResult(status ->
+                    orderEventOutbox.record(OrderEventType.CREATED, orderRepository.save(order(orderNumber)), null));
+        }
+        assertTrue(orderEventOutbox.getEvents(0, 100).isEmpty(), "Events enter the feed through the relay");
+
+        // Three batches of at most two events
+        assertEquals(5, orderEventOutbox.relay());
+
+        List<OrderEventDTO> events = orderEventOutbox.getEvents(0, 100);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), events.stream().map(OrderEventDTO::getOffset).toList());
+        OrderEventDTO first = events.get(0);
+        assertEquals(OrderEventType.CREATED, first.getEventType());
+        assertEquals("ORD-E10", first.getOrderNumber());
+        assertEquals(OrderStatus.PENDING, first.getOrderStatus());
+        assertNotNull(first.getOccurredAt());
+        assertEquals(1, first.getOrder().getOrderItems().size());
+        assertEquals(7L, first.getOrder().getOrderItems().get(0).getProductId());
+
+        assertEquals(List.of(3L, 4L), orderEventOutbox.getEvents(2, 2).stream().map(OrderEventDTO::getOffset).toList());
+        assertTrue(orderEventOutbox.getEvents(5, 100).isEmpty());
+    }
+
+    @Test
+    void testRelay_ContinuesAfterPublishedEvents() {
+        Order order = transactionTemplate.execute(status -> {
+            Order saved = orderRepository.save(order("ORD-E20"));
+            orderEventOutbox.record(OrderEventType.CREATED, saved, null);
+            return saved;
+        });
+        orderEventOutbox.relay();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Order cancelled = orderRepository.findById(order.getId()).orElseThrow();
+            cancelled.setOrderStatus(OrderStatus.CANCELLED);
+            orderEventOutbox.record(OrderEventType.CANCELLED, cancelled, OrderStatus.PENDING);
+        });
+        assertEquals(1, orderEventOutbox.relay());
+
+        List<OrderEventDTO> events = orderEventOutbox.getEvents(1, 100);
+        assertEquals(1, events.size());
+        assertEquals(2L, events.get(0).getOffset());
+        assertEquals(OrderEventType.CANCELLED, events.get(0).getEventType());
+        assertEquals(OrderStatus.PENDING, events.get(0).getPreviousStatus());
+        assertEquals(OrderStatus.CANCELLED, events.get(0).getOrder().getOrderStatus());
+    }
+
+    @Test
+    void testPurge_DeletesExpiredEventsButKeepsTheFeedPosition() {
+        for (int i = 0; i < 5; i++) {
+            String orderNumber = "ORD-E" + (30 + i);
+            transactionTemplate.executeWithoutResult(status ->
+                    orderEventOutbox.record(OrderEventType.CREATED, orderRepository.save(order(orderNumber)), null));
+        }
+        orderEventOutbox.relay();
+        jdbcTemplate.update("UPDATE order_events SET published_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(30)));
+        transactionTemplate.executeWithoutResult(status ->
+                orderEventOutbox.record(OrderEventType.CREATED, orderRepository.save(order("ORD-E35")), null));
+
+        // Two chunks of two; the newest published event and the unpublished one stay
+        assertEquals(4, orderEventOutbox.purge());
+        assertEquals(2, orderEventRepository.count());
+        assertEquals(List.of(5L), orderEventOutbox.getEvents(0, 100).stream().map(OrderEventDTO::getOffset).toList());
+
+        assertEquals(1, orderEventOutbox.relay());
+        assertEquals(List.of(6L), orderEventOutbox.getEvents(5, 100).stream().map(OrderEventDTO::getOffset).toList());
+    }
+
+    @Test
+    void testPurge_KeepsEventsWithinRetentionAndSkipsWhileLeased() {
+        transactionTemplate.executeWithoutResult(status ->
+                orderEventOutbox.record(OrderEventType.CREATED, orderRepository.save(order("ORD-E40")), null));
+        transactionTemplate.executeWithoutResult(status ->
+                orderEventOutbox.record(OrderEventType.CREATED, orderRepository.save(order("ORD-E41")), null));
+        orderEventOutbox.relay();
+        assertEquals(0, orderEventOutbox.purge());
+
+        jdbcTemplate.update("UPDATE order_events SET published_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(30)));
+        JobLeases otherInstance = new JobLeases(jobLeaseRepository, transactionManager);
+        assertTrue(otherInstance.tryAcquire(OrderEventOutbox.PURGE_JOB_NAME, 60_000));
+        assertEquals(0, orderEventOutbox.purge());
+
+        otherInstance.release(OrderEventOutbox.PURGE_JOB_NAME);
+        assertEquals(1, orderEventOutbox.purge());
+        assertEquals(1, orderEventRepository.count());
+    }
+
+    @Test
+    void testGetEvents_RejectsInvalidPaging() {
+        assertThrows(IllegalArgumentException.class, () -> orderEventOutbox.getEvents(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> orderEventOutbox.getEvents(0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderEventOutbox.getEvents(0, OrderEventOutbox.MAX_PAGE_SIZE + 1));
+    }
+
+    private static Order order(String orderNumber) {
+        Order order = new Order(1L, orderNumber, new BigDecimal("20.00"), "1 Warehouse Way");
+        order.addOrderItem(new OrderItem(7L, "Product 7", null, new BigDecimal("10.00"), 2, null, "Books"));
+        return order;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.entity.PaymentStatus;
+import com.ecommerce.orderservice.mapper.OrderJson;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "orders.export.fetch-size=2")
+@ActiveProfiles("test")
+@Import(OrderExporter.class)
+class OrderExporterTest {
+
+    @Autowired
+    private OrderExporter orderExporter;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Order first;
+    private Order second;
+    private Order third;
+
+    @BeforeEach
+    void setUp() {
+        first = order("ORD-X1", 1L, OrderStatus.DELIVERED, 3);
+        first.setEmail("ann@example.com");
+        second = order("ORD-X2", 2L, OrderStatus.PENDING, 2);
+        second.setShippingAddress("12 Main St, \"Apt 4\"\nSpringfield");
+        third = order("ORD-X3", 1L, OrderStatus.PENDING, 1);
+        third.setPaymentStatus(PaymentStatus.COMPLETED);
+        orderRepository.flush();
+    }
+
+    @Test
+    void testExportCsv_NewestFirstWithEscaping() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExporter.export(null, null, null, null, null, null, false, OrderExporter.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, exported);
+        assertTrue(lines[0].startsWith("id,order_number,user_id,order_status,payment_status,total_amount"));
+        assertTrue(lines[1].startsWith(third.getId() + ",ORD-X3,1,PENDING,COMPLETED,20.00,"));
+        assertTrue(lines[2].contains(",\"12 Main St, \"\"Apt 4\"\"\nSpringfield\","), lines[2]);
+        assertTrue(lines[3].startsWith(first.getId() + ",ORD-X1,1,DELIVERED,PENDING,"));
+        assertEquals(4, lines.length);
+    }
+
+    @Test
+    void testExportNdjson_AppliesFilters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExporter.export(1L, OrderStatus.PENDING, PaymentStatus.COMPLETED,
+                LocalDateTime.now().minusDays(2), null, null, false, OrderExporter.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, exported);
+        assertEquals(1, lines.length);
+        JsonNode row = new ObjectMapper().readTree(lines[0]);
+        assertEquals(third.getId(), row.get("id").asLong());
+        assertEquals("ORD-X3", row.get("order_number").asText());
+        assertEquals(0, new BigDecimal("20.00").compareTo(row.get("final_amount").decimalValue()));
+        assertTrue(row.get("coupon_code").isNull());
+        assertNotNull(LocalDateTime.parse(row.get("created_at").asText()));
+    }
+
+    @Test
+    void testExport_SearchMatchesLikeTheAdminListing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExporter.export(null, null, null, null, null, "ANN@", false, OrderExporter.Format.NDJSON, out);
+
+        assertEquals(1, exported);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"order_number\":\"ORD-X1\""));
+    }
+
+    @Test
+    void testExport_IncludesArchivedOrdersOnlyWhenAsked() throws IOException {
+        Order archived = order("ORD-X0", 1L, OrderStatus.DELIVERED, 400);
+        archived.setCouponCode("SPRING10");
+        archived = orderRepository.findById(archived.getId()).orElseThrow();
+        archivedOrderRepository.saveAndFlush(new ArchivedOrder(archived, OrderJson.write(new OrderMapper().toDTO(archived))));
+        orderRepository.delete(archived);
+        orderRepository.flush();
+
+        ByteArrayOutputStream liveOnly = new ByteArrayOutputStream();
+        assertEquals(2, orderExporter.export(1L, null, null, null, null, null, false,
+                OrderExporter.Format.NDJSON, liveOnly));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = orderExporter.export(1L, null, null, null, null, null, true, OrderExporter.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exported);
+        JsonNode row = new ObjectMapper().readTree(lines[2]);
+        assertEquals(archived.getId(), row.get("id").asLong());
+        assertEquals("ORD-X0", row.get("order_number").asText());
+        assertEquals("DELIVERED", row.get("order_status").asText());
+        assertEquals("SPRING10", row.get("coupon_code").asText());
+        assertEquals(0, new BigDecimal("20.00").compareTo(row.get("total_amount").decimalValue()));
+    }
+
+    @Test
+    void testExport_StopsWhenTheClientGoesAway() {
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> orderExporter.export(null, null, null, null, null, null,
+                false, OrderExporter.Format.CSV, closed));
+    }
+
+    @Test
+    void testFormatOf() {
+        assertEquals(OrderExporter.Format.CSV, OrderExporter.Format.of("csv"));
+        assertEquals(OrderExporter.Format.NDJSON, OrderExporter.Format.of(" NDJSON "));
+        assertThrows(IllegalArgumentException.class, () -> OrderExporter.Format.of("xlsx"));
+    }
+
+    private Order order(String orderNumber, Long userId, OrderStatus status, int daysAgo) {
+        Order order = new Order(userId, orderNumber, new BigDecimal("20.00"), "1 Warehouse Way");
+        order.setOrderStatus(status);
+        Order saved = orderRepository.saveAndFlush(order);
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo)), saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.PaginatedResponse;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({OrderService.class, OrderArchive.class, JobLeases.class, OrderMapper.class})
+class OrderListingQueryCountTest {
+
+    private static final int ORDERS = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CartService cartService;
+
+    @MockBean
+    private ProductServiceClient productServiceClient;
+
+    @MockBean
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @MockBean
+    private OrderStatusCounters orderStatusCounters;
+
+    @MockBean
+    private CheckoutPipeline checkoutPipeline;
+
+    @MockBean
+    private OrderEventOutbox orderEventOutbox;
+
+    @MockBean
+    private StockReleaseQueue stockReleaseQueue;
+
+    @MockBean
+    private ProductSalesRollup productSalesRollup;
+
+    @MockBean
+    private OrderSearchIndex orderSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order(1L, "ORD-LIST-" + i, BigDecimal.ZERO, "123 Test St");
+            order.addOrderItem(new OrderItem(100L + i, "Product " + i, null, new BigDecimal("10.00"), 1, null, "Books"));
+            order.addOrderItem(new OrderItem(200L + i, "Product " + i + "b", null, new BigDecimal("5.00"), 2, null, "Books"));
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void testGetUserOrders_StatementCountIndependentOfPageSize() {
+        long smallPage = countStatements(() -> orderService.getUserOrders(1L, 0, 5, "createdAt", "desc", false));
+        long largePage = countStatements(() -> orderService.getUserOrders(1L, 0, 25, "createdAt", "desc", false));
+
+        assertEquals(smallPage, largePage);
+        // page query, one batch fetch of the items, and the count query; the archive is not asked
+        assertTrue(largePage <= 3, "Expected at most 3 statements but was " + largePage);
+    }
+
+    @Test
+    void testGetAllOrdersForAdmin_StatementCountIndependentOfPageSize() {
+        long smallPage = countStatements(() -> orderService.getAllOrdersForAdmin(
+                null, null, null, null, null, 0, 5, "createdAt", "desc", "ORD-LIST", false));
+        long largePage = countStatements(() -> orderService.getAllOrdersForAdmin(
+                null, null, null, null, null, 0, 25, "createdAt", "desc", "ORD-LIST", false));
+
+        assertEquals(smallPage, largePage);
+        assertTrue(largePage <= 3, "Expected at most 3 statements but was " + largePage);
+    }
+
+    @Test
+    void testGetUserOrders_ItemsMappedForEveryOrder() {
+        entityManager.clear();
+
+        PaginatedResponse<OrderDTO> response = orderService.getUserOrders(1L, 0, 10, "createdAt", "desc", false);
+
+        assertEquals(10, response.getContent().size());
+        assertEquals(ORDERS, response.getTotalElements());
+        for (OrderDTO order : response.getContent()) {
+            assertEquals(2, order.getOrderItems().size());
+            assertEquals(3, order.getTotalItems());
+        }
+    }
+
+    private long countStatements(Supplier<?> listing) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        listing.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,204 @@
+package com.ecommerce.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderNumberGeneratorTest {
+
+    private static final long NOW = OrderNumberGenerator.EPOCH_MS + 1_000_000L;
+    private static final long LEASE_MS = 60_000L;
+
+    @Test
+    void testNextId_EncodesTimestampNodeAndSequence() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(5, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertEquals(1_000_000L, first >>> 22);
+        assertEquals(5L, (first >>> 12) & OrderNumberGenerator.MAX_NODE_ID);
+        assertEquals(0L, first & 0xFFF);
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    void testNextOrderNumber_Format() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(5, () -> NOW);
+
+        String orderNumber = generator.nextOrderNumber();
+
+        assertTrue(orderNumber.matches("ORD-\\d+"));
+        assertTrue(orderNumber.length() <= 50);
+    }
+
+    @Test
+    void testNextId_SequenceOverflowBorrowsNextMillisecond() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, () -> NOW);
+
+        long last = 0;
+        for (int i = 0; i < 4096 + 10; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+
+        assertEquals(1_000_001L, last >>> 22);
+    }
+
+    @Test
+    void testNextId_MonotonicWhenClockMovesBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void testNextId_DifferentNodesNeverCollide() {
+        OrderNumberGenerator nodeA = new OrderNumberGenerator(1, () -> NOW);
+        OrderNumberGenerator nodeB = new OrderNumberGenerator(2, () -> NOW);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ids.add(nodeA.nextId()));
+            assertTrue(ids.add(nodeB.nextId()));
+        }
+    }
+
+    @Test
+    void testNextId_UniqueAndMonotonicAcrossThreads() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, System::currentTimeMillis);
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<long[]> task = () -> {
+                    long[] ids = new long[perThread];
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                results.add(executor.submit(task));
+            }
+
+            start.countDown();
+            Set<Long> unique = new HashSet<>(threads * perThread * 2);
+            for (Future<long[]> result : results) {
+                long[] ids = result.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(unique.add(ids[i]), "Duplicate id " + ids[i]);
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "Ids must increase within a thread");
+                    }
+                }
+            }
+
+            assertEquals(threads * perThread, unique.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNodeIdFor_StableAndInRange() {
+        long nodeId = OrderNumberGenerator.nodeIdFor("10.0.0.4/order-service:8087");
+
+        assertEquals(nodeId, OrderNumberGenerator.nodeIdFor("10.0.0.4/order-service:8087"));
+        assertTrue(nodeId >= 0 && nodeId <= OrderNumberGenerator.MAX_NODE_ID);
+        assertThrows(IllegalArgumentException.class,
+                () -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID + 1, System::currentTimeMillis));
+    }
+
+    @Test
+    void testLeasedNodeId_SkipsNodeIdsLeasedByOtherInstances() {
+        JobLeases jobLeases = mock(JobLeases.class);
+        when(jobLeases.tryAcquire(anyString(), eq(LEASE_MS))).thenReturn(false);
+        when(jobLeases.tryAcquire("order-number-node-0", LEASE_MS)).thenReturn(true);
+
+        OrderNumberGenerator generator = new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID - 1, jobLeases,
+                LEASE_MS, () -> NOW);
+
+        // Wraps around after the highest node id
+        assertEquals(0, generator.getNodeId());
+        verify(jobLeases).tryAcquire("order-number-node-1022", LEASE_MS);
+        verify(jobLeases).tryAcquire("order-number-node-1023", LEASE_MS);
+    }
+
+    @Test
+    void testLeasedNodeId_AllLeased() {
+        JobLeases jobLeases = mock(JobLeases.class);
+
+        assertThrows(IllegalStateException.class, () -> new OrderNumberGenerator(3, jobLeases, LEASE_MS, () -> NOW));
+    }
+
+    @Test
+    void testNextId_RefusedOnceLeaseCouldHaveRunOut() {
+        AtomicLong clock = new AtomicLong(NOW);
+        JobLeases jobLeases = mock(JobLeases.class);
+        when(jobLeases.tryAcquire("order-number-node-3", LEASE_MS)).thenReturn(true, false, true);
+        OrderNumberGenerator generator = new OrderNumberGenerator(3, jobLeases, LEASE_MS, clock::get);
+
+        clock.addAndGet(LEASE_MS - OrderNumberGenerator.NODE_LEASE_SAFETY_MS);
+        generator.nextId();
+        clock.incrementAndGet();
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        // Renewal failed because another instance took node 3 over: move on to node 4
+        when(jobLeases.tryAcquire("order-number-node-4", LEASE_MS)).thenReturn(true);
+        generator.renewNodeLease();
+
+        assertEquals(4, generator.getNodeId());
+        assertEquals(4L, (generator.nextId() >>> 12) & OrderNumberGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void testRenewNodeLease_ExtendsTheLease() {
+        AtomicLong clock = new AtomicLong(NOW);
+        JobLeases jobLeases = mock(JobLeases.class);
+        when(jobLeases.tryAcquire("order-number-node-3", LEASE_MS)).thenReturn(true);
+        OrderNumberGenerator generator = new OrderNumberGenerator(3, jobLeases, LEASE_MS, clock::get);
+
+        clock.addAndGet(LEASE_MS / 2);
+        generator.renewNodeLease();
+        clock.addAndGet(LEASE_MS / 2);
+
+        assertEquals(3L, (generator.nextId() >>> 12) & OrderNumberGenerator.MAX_NODE_ID);
+        generator.releaseNodeLease();
+        verify(jobLeases).release("order-number-node-3");
+    }
+
+    @Test
+    void testConfiguredNodeId_NeverLeases() {
+        JobLeases jobLeases = mock(JobLeases.class);
+
+        OrderNumberGenerator generator = new OrderNumberGenerator(9, 60_000, "order-service:8087", "10.0.0.4", jobLeases);
+        generator.renewNodeLease();
+
+        assertEquals(9, generator.getNodeId());
+        verifyNoInteractions(jobLeases);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.PaginatedResponse;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Admin order search over one million orders: the LIKE '%term%' query versus the trigram index.
+ * Not part of the regular build (surefire only picks up *Test classes); run it with
+ * {@code mvn test -Dtest=OrderSearchBenchmark -DargLine=-Xmx3g}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderService.class, OrderSearchIndex.class, OrderMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderSearchBenchmark {
+
+    private static final int ORDERS = 1_000_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int ROUNDS = 20;
+    private static final String[] TERMS = {"customer123456@", "ord-000000777", "555-65-98765", "txn-4242424"};
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderSearchIndex orderSearchIndex;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private CartService cartService;
+
+    @MockBean
+    private ProductServiceClient productServiceClient;
+
+    @MockBean
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @MockBean
+    private OrderStatusCounters orderStatusCounters;
+
+    @MockBean
+    private CheckoutPipeline checkoutPipeline;
+
+    @MockBean
+    private OrderArchive orderArchive;
+
+    @MockBean
+    private OrderEventOutbox orderEventOutbox;
+
+    @MockBean
+    private StockReleaseQueue stockReleaseQueue;
+
+    @MockBean
+    private ProductSalesRollup productSalesRollup;
+
+    @Test
+    void benchmarkAdminSearch() {
+        insertOrders();
+
+        long buildStartedAt = System.nanoTime();
+        orderSearchIndex.rebuild();
+        System.out.printf("Index build: %d orders in %.1f s%n", orderSearchIndex.size(),
+                (System.nanoTime() - buildStartedAt) / 1e9);
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("Heap used after build: %d MB%n", (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        for (String term : TERMS) {
+            Page<?> likePage = orderRepository.findOrdersWithFiltersAndSearch(
+                    null, OrderStatus.PENDING, null, null, null, term, pageable);
+            PaginatedResponse<OrderDTO> indexPage = orderService.getAllOrdersForAdmin(
+                    null, OrderStatus.PENDING, null, null, null, 0, 10, "createdAt", "desc", term, false);
+            assertEquals(likePage.getTotalElements(), indexPage.getTotalElements(), term);
+
+            double likeMs = averageMs(() -> orderRepository.findOrdersWithFiltersAndSearch(
+                    null, OrderStatus.PENDING, null, null, null, term, pageable));
+            double indexMs = averageMs(() -> orderService.getAllOrdersForAdmin(
+                    null, OrderStatus.PENDING, null, null, null, 0, 10, "createdAt", "desc", term, false));
+            System.out.printf("%-18s matches=%-4d LIKE query %8.2f ms   index %6.2f ms   (%.0fx)%n",
+                    term, indexPage.getTotalElements(), likeMs, indexMs, likeMs / indexMs);
+        }
+    }
+
+    private void insertOrders() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String sql = "INSERT INTO orders (id, user_id, order_number, order_status, payment_status, total_amount, " +
+                "tax_amount, shipping_amount, discount_amount, final_amount, shipping_address, phone_number, email, " +
+                "transaction_id, created_at, updated_at) VALUES (?, ?, ?, ?, 'PENDING', 10, 0, 0, 0, 10, ?, ?, ?, ?, ?, ?)";
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        String[] statuses = {"PENDING", "CONFIRMED", "SHIPPED", "DELIVERED"};
+        long startedAt = System.nanoTime();
+        for (int start = 0; start < ORDERS; start += INSERT_BATCH) {
+            List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+            for (int i = start; i < start + INSERT_BATCH; i++) {
+                rows.add(new Object[]{
+                        i + 1L,
+                        (long) (i % 50_000),
+                        String.format("ORD-%012d", i),
+                        statuses[i % statuses.length],
+                        (i % 9_999) + " Market Street, Springfield " + (i % 97),
+                        String.format("555-%02d-%05d", i % 100, i % 100_000),
+                        "customer" + i + "@example.com",
+                        i % 2 == 0 ? "TXN-" + (i * 7L) : null,
+                        createdAt,
+                        createdAt
+                });
+            }
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+        System.out.printf("Inserted %d orders in %.1f s%n", ORDERS, (System.nanoTime() - startedAt) / 1e9);
+    }
+
+    private double averageMs(Supplier<?> search) {
+        search.get();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            search.get();
+        }
+        return (System.nanoTime() - startedAt) / 1e6 / ROUNDS;
+    }
+}
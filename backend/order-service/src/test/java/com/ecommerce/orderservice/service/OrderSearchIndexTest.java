@@ -0,0 +1,167 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.PaginatedResponse;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "orders.search-index.max-candidates=5")
+@ActiveProfiles("test")
+@Import({OrderService.class, OrderSearchIndex.class, OrderArchive.class, JobLeases.class, OrderMapper.class})
+class OrderSearchIndexTest {
+
+    @Autowired
+    private OrderSearchIndex orderSearchIndex;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private CartService cartService;
+
+    @MockBean
+    private ProductServiceClient productServiceClient;
+
+    @MockBean
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @MockBean
+    private OrderStatusCounters orderStatusCounters;
+
+    @MockBean
+    private CheckoutPipeline checkoutPipeline;
+
+    @MockBean
+    private OrderEventOutbox orderEventOutbox;
+
+    @MockBean
+    private StockReleaseQueue stockReleaseQueue;
+
+    @MockBean
+    private ProductSalesRollup productSalesRollup;
+
+    private Order alice;
+    private Order bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = saveOrder("ORD-1001", "Alice@Example.com", "555-0101", "12 Baker Street", OrderStatus.DELIVERED);
+        bob = saveOrder("ORD-1002", "bob@example.org", "555-0202", "7 Elm Road", OrderStatus.PENDING);
+        entityManager.flush();
+    }
+
+    @Test
+    void testSearch_NotReadyUntilBuilt() {
+        assertTrue(new OrderSearchIndex(orderRepository, 5).search("alice").isEmpty());
+
+        orderSearchIndex.rebuild();
+
+        assertTrue(orderSearchIndex.isReady());
+        assertEquals(2, orderSearchIndex.size());
+    }
+
+    @Test
+    void testSearch_MatchesSubstringsOfAnyFieldIgnoringCase() {
+        orderSearchIndex.rebuild();
+
+        assertEquals(List.of(alice.getId()), orderSearchIndex.search("ALICE@").orElseThrow());
+        assertEquals(List.of(bob.getId()), orderSearchIndex.search("elm ro").orElseThrow());
+        assertEquals(List.of(alice.getId(), bob.getId()), orderSearchIndex.search("ord-100").orElseThrow());
+        assertEquals(List.of(alice.getId(), bob.getId()), orderSearchIndex.search("555-0").orElseThrow());
+        assertTrue(orderSearchIndex.search("zzz").orElseThrow().isEmpty());
+    }
+
+    @Test
+    void testSearch_VerifiesCandidatesAgainstText() {
+        orderSearchIndex.rebuild();
+
+        // every trigram of "555-01001" occurs in Alice's order, but not as one substring
+        assertTrue(orderSearchIndex.search("555-01001").orElseThrow().isEmpty());
+        // never matches across the boundary between two fields
+        assertTrue(orderSearchIndex.search("com555").orElseThrow().isEmpty());
+    }
+
+    @Test
+    void testSearch_ReturnsNullWhenIndexCannotAnswer() {
+        orderSearchIndex.rebuild();
+        for (int i = 0; i < 5; i++) {
+            saveOrder("ORD-2" + i, "bulk" + i + "@example.com", null, "1 Bulk Lane", OrderStatus.PENDING);
+        }
+        entityManager.flush();
+        orderSearchIndex.syncRecentChanges();
+
+        assertTrue(orderSearchIndex.search("or").isEmpty());
+        assertTrue(orderSearchIndex.search("example").isEmpty(), "More matches than max-candidates");
+        assertEquals(5, orderSearchIndex.search("bulk lane").orElseThrow().size());
+    }
+
+    @Test
+    void testIndex_UpdatedOrderFoundByNewValueOnly() {
+        orderSearchIndex.rebuild();
+
+        bob.setTransactionId("TXN-998877");
+        bob.setShippingAddress("99 Harbour View");
+        orderSearchIndex.index(orderRepository.saveAndFlush(bob));
+
+        assertEquals(List.of(bob.getId()), orderSearchIndex.search("txn-9988").orElseThrow());
+        assertEquals(List.of(bob.getId()), orderSearchIndex.search("harbour").orElseThrow());
+        assertTrue(orderSearchIndex.search("elm road").orElseThrow().isEmpty());
+    }
+
+    @Test
+    void testSyncRecentChanges_PicksUpOrdersWrittenElsewhere() {
+        orderSearchIndex.rebuild();
+
+        Order carol = saveOrder("ORD-1003", "carol@example.net", "555-0303", "3 Oak Avenue", OrderStatus.PENDING);
+        entityManager.flush();
+        assertTrue(orderSearchIndex.search("carol").orElseThrow().isEmpty());
+
+        orderSearchIndex.syncRecentChanges();
+
+        assertEquals(List.of(carol.getId()), orderSearchIndex.search("carol").orElseThrow());
+    }
+
+    @Test
+    void testGetAllOrdersForAdmin_UsesIndexMatchesWithFilters() {
+        orderSearchIndex.rebuild();
+
+        PaginatedResponse<OrderDTO> delivered = orderService.getAllOrdersForAdmin(
+                null, OrderStatus.DELIVERED, null, null, null, 0, 10, "createdAt", "desc", "555-0", false);
+        PaginatedResponse<OrderDTO> noMatch = orderService.getAllOrdersForAdmin(
+                null, null, null, null, null, 0, 10, "createdAt", "desc", "nobody", false);
+
+        assertEquals(1, delivered.getTotalElements());
+        assertEquals(alice.getId(), delivered.getContent().get(0).getId());
+        assertEquals(0, noMatch.getTotalElements());
+        assertTrue(noMatch.getContent().isEmpty());
+    }
+
+    private Order saveOrder(String orderNumber, String email, String phone, String address, OrderStatus status) {
+        Order order = new Order(1L, orderNumber, BigDecimal.TEN, address);
+        order.setEmail(email);
+        order.setPhoneNumber(phone);
+        order.setOrderStatus(status);
+        return entityManager.persist(order);
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusCountersTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    private OrderStatusCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.countOrdersGroupedByStatus()).thenReturn(List.of(
+                new Object[]{OrderStatus.PENDING, 4L},
+                new Object[]{OrderStatus.DELIVERED, 6L}));
+        counters = new OrderStatusCounters(orderRepository, archivedOrderRepository);
+        counters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReconcile_SeedsCountsFromDatabase() {
+        assertEquals(4, counters.getCount(OrderStatus.PENDING));
+        assertEquals(6, counters.getCount(OrderStatus.DELIVERED));
+        assertEquals(0, counters.getCount(OrderStatus.CANCELLED));
+        assertEquals(10, counters.getTotal());
+    }
+
+    @Test
+    void testReconcile_CountsArchivedOrders() {
+        when(archivedOrderRepository.countArchivedOrdersGroupedByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{OrderStatus.DELIVERED, 3L},
+                new Object[]{OrderStatus.CANCELLED, 2L}));
+
+        counters.reconcile();
+
+        assertEquals(9, counters.getCount(OrderStatus.DELIVERED));
+        assertEquals(2, counters.getCount(OrderStatus.CANCELLED));
+        assertEquals(15, counters.getTotal());
+    }
+
+    @Test
+    void testRecordCreatedAndTransition() {
+        counters.recordCreated(OrderStatus.PENDING);
+        counters.recordTransition(OrderStatus.PENDING, OrderStatus.CANCELLED);
+        counters.recordTransition(OrderStatus.DELIVERED, OrderStatus.DELIVERED);
+
+        assertEquals(4, counters.getCount(OrderStatus.PENDING));
+        assertEquals(1, counters.getCount(OrderStatus.CANCELLED));
+        assertEquals(6, counters.getCount(OrderStatus.DELIVERED));
+        assertEquals(11, counters.getTotal());
+        verify(orderRepository, times(1)).countOrdersGroupedByStatus();
+    }
+
+    @Test
+    void testReconcile_CorrectsDriftToDatabaseCounts() {
+        counters.recordCreated(OrderStatus.PENDING);
+        when(orderRepository.countOrdersGroupedByStatus()).thenReturn(List.of(
+                new Object[]{OrderStatus.PENDING, 7L},
+                new Object[]{OrderStatus.SHIPPED, 2L}));
+
+        counters.reconcile();
+
+        assertEquals(7, counters.getCount(OrderStatus.PENDING));
+        assertEquals(2, counters.getCount(OrderStatus.SHIPPED));
+        assertEquals(0, counters.getCount(OrderStatus.DELIVERED));
+        assertEquals(9, counters.getTotal());
+    }
+
+    @Test
+    void testReconcile_KeepsChangesCommittedWhileCounting() {
+        when(orderRepository.countOrdersGroupedByStatus()).thenAnswer(invocation -> {
+            // committed on another thread after the GROUP BY read its snapshot
+            Thread writer = new Thread(() -> counters.recordCreated(OrderStatus.PENDING));
+            writer.start();
+            writer.join(5000);
+            assertFalse(writer.isAlive(), "The change does not wait for the count");
+            assertEquals(5, counters.getCount(OrderStatus.PENDING));
+            return List.<Object[]>of(new Object[]{OrderStatus.PENDING, 4L});
+        });
+
+        counters.reconcile();
+
+        assertEquals(5, counters.getCount(OrderStatus.PENDING));
+    }
+
+    @Test
+    void testReconcile_ChangesRecordedBeforeCountingAreNotCountedTwice() {
+        counters.recordCreated(OrderStatus.PENDING);
+        when(orderRepository.countOrdersGroupedByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{OrderStatus.PENDING, 5L}));
+
+        counters.reconcile();
+        counters.reconcile();
+
+        assertEquals(5, counters.getCount(OrderStatus.PENDING));
+    }
+
+    @Test
+    void testRecord_AppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        counters.recordCreated(OrderStatus.PENDING);
+        counters.recordTransition(OrderStatus.DELIVERED, OrderStatus.RETURNED);
+        assertEquals(4, counters.getCount(OrderStatus.PENDING));
+        assertEquals(0, counters.getCount(OrderStatus.RETURNED));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(5, counters.getCount(OrderStatus.PENDING));
+        assertEquals(5, counters.getCount(OrderStatus.DELIVERED));
+        assertEquals(1, counters.getCount(OrderStatus.RETURNED));
+    }
+}
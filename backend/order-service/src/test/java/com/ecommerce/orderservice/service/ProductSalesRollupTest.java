@@ -0,0 +1,210 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.ProductSalesDTO;
+import com.ecommerce.orderservice.entity.ArchivedOrder;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderItem;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.mapper.OrderJson;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.repository.ArchivedOrderRepository;
+import com.ecommerce.orderservice.repository.JobLeaseRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.ProductDailySalesRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The rollup upsert is MySQL's INSERT ... ON DUPLICATE KEY UPDATE, which H2 runs in MySQL mode
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:sales-rollup;MODE=MySQL")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ProductSalesRollup.class, JobLeases.class, OrderMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSalesRollupTest {
+
+    @Autowired
+    private ProductSalesRollup productSalesRollup;
+
+    @Autowired
+    private ProductDailySalesRepository productDailySalesRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productDailySalesRepository.deleteAll();
+        orderRepository.deleteAll();
+        archivedOrderRepository.deleteAll();
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void testRecord_RequiresTheOrderTransaction() {
+        Order order = createOrder("ORD-S0", 0, item(7L, 1, "10.00"));
+
+        assertThrows(IllegalTransactionStateException.class, () -> productSalesRollup.recordCreated(order));
+    }
+
+    @Test
+    void testRecord_CreatedAndCancelledOrders() {
+        Order first = createAndRecord("ORD-S1", item(7L, 2, "10.00"), item(7L, 1, "10.00"), item(8L, 1, "5.00"));
+        createAndRecord("ORD-S2", item(7L, 1, "10.00"));
+
+        ProductSalesDTO product7 = productSalesRollup.getProductSales(7L, null);
+        assertEquals(4, product7.getUnits());
+        assertEquals(0, new BigDecimal("40.00").compareTo(product7.getRevenue()));
+        assertEquals(2, product7.getOrders(), "An order counts once per product");
+        assertEquals(List.of(7L, 8L), productSalesRollup.getMostPopularProducts(null, 10).stream()
+                .map(ProductSalesDTO::getProductId).toList());
+
+        changeStatus(first, OrderStatus.CANCELLED);
+        assertEquals(1, productSalesRollup.getProductSales(7L, null).getUnits());
+        assertEquals(1, productSalesRollup.getProductSales(7L, null).getOrders());
+        assertEquals(0, productSalesRollup.getProductSales(8L, null).getUnits());
+
+        // Other changes leave the rollup alone; leaving CANCELLED counts the order again
+        changeStatus(first, OrderStatus.CANCELLED);
+        assertEquals(1, productSalesRollup.getProductSales(7L, null).getUnits());
+        changeStatus(first, OrderStatus.PENDING);
+        assertEquals(4, productSalesRollup.getProductSales(7L, null).getUnits());
+        assertEquals(1, productSalesRollup.getProductSales(8L, null).getUnits());
+    }
+
+    @Test
+    void testGetMostPopularProducts_SinceDay() {
+        createAndRecord("ORD-S3", item(7L, 5, "10.00"));
+        Order old = createOrder("ORD-S4", 10, item(8L, 9, "1.00"));
+        transactionTemplate.executeWithoutResult(status -> productSalesRollup.recordCreated(old));
+
+        assertEquals(8L, productSalesRollup.getMostPopularProducts(null, 10).get(0).getProductId());
+        List<ProductSalesDTO> recent = productSalesRollup.getMostPopularProducts(LocalDate.now().minusDays(3), 10);
+        assertEquals(1, recent.size());
+        assertEquals(7L, recent.get(0).getProductId());
+        assertEquals(5, recent.get(0).getUnits());
+        assertThrows(IllegalArgumentException.class, () -> productSalesRollup.getMostPopularProducts(null, 0));
+        assertEquals(0, productSalesRollup.getProductSales(99L, null).getUnits());
+    }
+
+    @Test
+    void testBackfill_RebuildsFromOrdersAndArchive() {
+        createOrder("ORD-B1", 2, item(7L, 2, "10.00"), item(8L, 1, "5.00"));
+        createOrder("ORD-B2", 0, item(7L, 3, "10.00"));
+        Order cancelled = createOrder("ORD-B3", 0, item(7L, 100, "10.00"));
+        cancelled.setOrderStatus(OrderStatus.CANCELLED);
+        orderRepository.save(cancelled);
+
+        // An order that only exists in the archive any more
+        Order archived = createOrder("ORD-B4", 5, item(7L, 4, "10.00"));
+        archived.setOrderStatus(OrderStatus.DELIVERED);
+        archivedOrderRepository.save(new ArchivedOrder(archived, OrderJson.write(orderMapper.toDTO(archived))));
+        orderRepository.delete(archived);
+
+        // Stale rows of a rebuilt day are replaced
+        transactionTemplate.executeWithoutResult(status -> productDailySalesRepository.addSales(
+                LocalDate.now(), 7L, "Product 7", 50, new BigDecimal("500.00"), 9));
+
+        assertEquals(6, productSalesRollup.backfill());
+
+        ProductSalesDTO product7 = productSalesRollup.getProductSales(7L, null);
+        assertEquals(9, product7.getUnits());
+        assertEquals(0, new BigDecimal("90.00").compareTo(product7.getRevenue()));
+        assertEquals(3, product7.getOrders());
+        assertEquals(3, productSalesRollup.getProductSales(7L, LocalDate.now()).getUnits());
+        assertEquals(1, productSalesRollup.getProductSales(8L, null).getUnits());
+        assertTrue(jobLeaseRepository.findById(ProductSalesRollup.BACKFILL_JOB_NAME).isPresent());
+
+        // Rebuilding again changes nothing
+        productSalesRollup.backfill();
+        assertEquals(9, productSalesRollup.getProductSales(7L, null).getUnits());
+    }
+
+    @Test
+    void testSalesSign() {
+        assertEquals(-1, ProductSalesRollup.salesSign(OrderStatus.PENDING, OrderStatus.CANCELLED));
+        assertEquals(1, ProductSalesRollup.salesSign(OrderStatus.CANCELLED, OrderStatus.PROCESSING));
+        assertEquals(0, ProductSalesRollup.salesSign(OrderStatus.PENDING, OrderStatus.SHIPPED));
+        assertEquals(0, ProductSalesRollup.salesSign(OrderStatus.CANCELLED, OrderStatus.CANCELLED));
+    }
+
+    // Helper Methods
+
+    private Order createAndRecord(String orderNumber, OrderItem... items) {
+        return transactionTemplate.execute(status -> {
+            Order order = new Order(1L, orderNumber, new BigDecimal("20.00"), "1 Warehouse Way");
+            for (OrderItem item : items) {
+                order.addOrderItem(item);
+            }
+            Order saved = orderRepository.saveAndFlush(order);
+            productSalesRollup.recordCreated(saved);
+            return saved;
+        });
+    }
+
+    private void changeStatus(Order order, OrderStatus newStatus) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Order loaded = orderRepository.findWithOrderItemsByIdIn(List.of(order.getId())).get(0);
+            OrderStatus previousStatus = loaded.getOrderStatus();
+            loaded.setOrderStatus(newStatus);
+            productSalesRollup.recordStatusChange(loaded, previousStatus);
+        });
+    }
+
+    private Order createOrder(String orderNumber, int daysAgo, OrderItem... items) {
+        Order order = new Order(1L, orderNumber, new BigDecimal("20.00"), "1 Warehouse Way");
+        for (OrderItem item : items) {
+            order.addOrderItem(item);
+        }
+        Order saved = orderRepository.save(order);
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(daysAgo);
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), saved.getId());
+        saved.setCreatedAt(createdAt);
+        return saved;
+    }
+
+    private static OrderItem item(Long productId, int quantity, String unitPrice) {
+        return new OrderItem(productId, "Product " + productId, null, new BigDecimal(unitPrice), quantity, null, "Books");
+    }
+}
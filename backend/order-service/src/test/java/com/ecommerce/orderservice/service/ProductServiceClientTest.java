@@ -1,17 +1,26 @@
 package com.ecommerce.orderservice.service;
 
 import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.StockItemDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,6 +41,15 @@ class ProductServiceClientTest {
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
+    @Mock
+    private WebClient.RequestBodyUriSpec requestBodyUriSpec;
+
+    @Mock
+    private WebClient.RequestBodySpec requestBodySpec;
+
+    @Spy
+    private ProductSnapshotCache productCache = new ProductSnapshotCache(30, 100);
+
     @InjectMocks
     private ProductServiceClient productServiceClient;
 
@@ -65,6 +83,50 @@ class ProductServiceClientTest {
         assertEquals("Test Product", result.getName());
     }
 
+    @Test
+    void testGetProductById_SecondReadServedFromCache() {
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(ProductDTO.class)).thenReturn(Mono.just(testProductDTO));
+
+        productServiceClient.getProductById(1L);
+        ProductDTO result = productServiceClient.getProductById(1L);
+
+        assertEquals("Test Product", result.getName());
+        verify(webClient, times(1)).get();
+        assertEquals(1L, productServiceClient.getCacheStats().get("hits"));
+    }
+
+    @Test
+    void testIsProductAvailable_BypassesCache() {
+        productCache.put(testProductDTO);
+        ProductDTO soldOut = new ProductDTO();
+        soldOut.setId(1L);
+        soldOut.setStock(0);
+        soldOut.setStatus("ACTIVE");
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(ProductDTO.class)).thenReturn(Mono.just(soldOut));
+
+        assertFalse(productServiceClient.isProductAvailable(1L, 1));
+        assertEquals(0, productServiceClient.getProductById(1L).getStock());
+    }
+
+    @Test
+    void testGetProductById_ErrorIsNotCached() {
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(ProductDTO.class))
+                .thenReturn(Mono.error(new RuntimeException("Service unavailable")))
+                .thenReturn(Mono.just(testProductDTO));
+
+        assertEquals("Product Not Available", productServiceClient.getProductById(1L).getName());
+        assertEquals("Test Product", productServiceClient.getProductById(1L).getName());
+    }
+
     @Test
     void testGetProductById_Error() {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
@@ -118,33 +180,152 @@ class ProductServiceClientTest {
     }
 
     @Test
-    void testReserveProductStock_Success() {
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+    void testGetProductsByIds_SingleCall() {
+        ProductDTO secondProduct = new ProductDTO();
+        secondProduct.setId(2L);
+        secondProduct.setName("Second Product");
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestHeadersSpec).when(requestBodySpec).bodyValue(any());
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(ProductDTO.class)).thenReturn(Mono.just(testProductDTO));
+        when(responseSpec.bodyToFlux(ProductDTO.class)).thenReturn(Flux.just(testProductDTO, secondProduct));
 
-        boolean result = productServiceClient.reserveProductStock(1L, 10);
+        Map<Long, ProductDTO> result = productServiceClient.getProductsByIds(List.of(1L, 2L, 1L));
 
-        assertTrue(result);
+        assertEquals(2, result.size());
+        assertEquals("Test Product", result.get(1L).getName());
+        assertEquals("Second Product", result.get(2L).getName());
+        verify(webClient, times(1)).post();
+        verify(requestBodySpec).bodyValue(List.of(1L, 2L));
     }
 
     @Test
-    void testReserveProductStock_Failed() {
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+    void testGetProductsByIds_MissingProductsGetFallback() {
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestHeadersSpec).when(requestBodySpec).bodyValue(any());
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(ProductDTO.class))
-                .thenReturn(Mono.error(new RuntimeException("Error")));
+        when(responseSpec.bodyToFlux(ProductDTO.class)).thenReturn(Flux.error(new RuntimeException("Service unavailable")));
 
-        boolean result = productServiceClient.reserveProductStock(1L, 10);
+        Map<Long, ProductDTO> result = productServiceClient.getProductsByIds(List.of(1L));
 
-        assertFalse(result);
+        assertEquals("Product Not Available", result.get(1L).getName());
+        assertFalse(productServiceClient.isProductAvailable(result.get(1L), 1));
     }
 
     @Test
-    void testReleaseProductStock() {
-        assertDoesNotThrow(() -> productServiceClient.releaseProductStock(1L, 10));
+    void testGetProductsByIds_SplitIntoBatchesProductServiceAccepts() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2 * ProductServiceClient.MAX_BATCH_SIZE + 1; id++) {
+            ids.add(id);
+        }
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestHeadersSpec).when(requestBodySpec).bodyValue(any());
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(ProductDTO.class))
+                .thenReturn(Flux.just(testProductDTO))
+                .thenReturn(Flux.error(new RuntimeException("Service unavailable")))
+                .thenReturn(Flux.empty());
+
+        Map<Long, ProductDTO> result = productServiceClient.getProductsByIds(ids);
+
+        ArgumentCaptor<Object> batches = ArgumentCaptor.forClass(Object.class);
+        verify(requestBodySpec, times(3)).bodyValue(batches.capture());
+        assertEquals(ids.subList(0, 500), batches.getAllValues().get(0));
+        assertEquals(ids.subList(500, 1000), batches.getAllValues().get(1));
+        assertEquals(List.of(1001L), batches.getAllValues().get(2));
+        assertEquals(1001, result.size());
+        assertEquals("Test Product", result.get(1L).getName());
+        assertEquals("Product Not Available", result.get(2L).getName());
+    }
+
+    @Test
+    void testGetProductsByIds_EmptyIds() {
+        Map<Long, ProductDTO> result = productServiceClient.getProductsByIds(List.of());
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(webClient);
     }
-}
 
+    @Test
+    void testReleaseStock_TellsRefusalFromUnavailability() {
+        StockItemDTO item = new StockItemDTO(1L, 2);
+        item.setReleaseKey("order-7-product-1");
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestHeadersSpec).when(requestBodySpec).bodyValue(any());
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.toBodilessEntity()).thenReturn(
+                Mono.just(ResponseEntity.ok().build()),
+                Mono.error(WebClientResponseException.create(400, "Bad Request", null, null, null)),
+                Mono.error(WebClientResponseException.create(503, "Service Unavailable", null, null, null)));
+
+        assertEquals(ProductServiceClient.StockReleaseOutcome.RELEASED, productServiceClient.releaseStock(List.of(item)));
+        assertEquals(ProductServiceClient.StockReleaseOutcome.REJECTED, productServiceClient.releaseStock(List.of(item)));
+        assertEquals(ProductServiceClient.StockReleaseOutcome.UNAVAILABLE, productServiceClient.releaseStock(List.of(item)));
+        verify(requestBodyUriSpec, times(3)).uri("http://product-service/api/products/stock/release");
+    }
+
+    @Test
+    void testCommitStock_SendsKeyedLinesToTheCommitEndpoint() {
+        StockItemDTO item = new StockItemDTO(1L, 2);
+        item.setReleaseKey("order-7-product-1-commit");
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestHeadersSpec).when(requestBodySpec).bodyValue(any());
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.toBodilessEntity()).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        assertEquals(ProductServiceClient.StockReleaseOutcome.RELEASED, productServiceClient.commitStock(List.of(item)));
+        verify(requestBodyUriSpec).uri("http://product-service/api/products/stock/commit");
+        verify(requestBodySpec).bodyValue(Map.of("items", List.of(item)));
+    }
+
+    @Test
+    void testCreateStockHold_ReturnsHoldId() {
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestHeadersSpec).when(requestBodySpec).bodyValue(any());
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(Map.class)).thenReturn(Mono.just(Map.of("success", true, "holdId", "hold-1")));
+
+        String holdId = productServiceClient.createStockHold(Map.of(1L, 2));
+
+        assertEquals("hold-1", holdId);
+        verify(requestBodyUriSpec).uri("http://product-service/api/products/stock/holds");
+    }
+
+    @Test
+    void testCreateStockHold_Conflict() {
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        doReturn(requestHeadersSpec).when(requestBodySpec).bodyValue(any());
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(Map.class)).thenReturn(Mono.error(new RuntimeException("409 Conflict")));
+
+        assertNull(productServiceClient.createStockHold(Map.of(1L, 2)));
+    }
+
+    @Test
+    void testConfirmStockHold() {
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.toBodilessEntity()).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        assertTrue(productServiceClient.confirmStockHold("hold-1"));
+        verify(requestBodyUriSpec).uri("http://product-service/api/products/stock/holds/hold-1/confirm");
+    }
+
+    @Test
+    void testReleaseStockHold() {
+        when(webClient.delete()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.toBodilessEntity()).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        assertTrue(productServiceClient.releaseStockHold("hold-1"));
+        verify(requestHeadersUriSpec).uri("http://product-service/api/products/stock/holds/hold-1");
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSnapshotCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testGet_HitWithinTtlAndReloadAfterExpiry() {
+        ProductSnapshotCache cache = new ProductSnapshotCache(30, 10, now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> product(id, loads.incrementAndGet()));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        assertEquals(1, cache.get(1L, id -> product(id, loads.incrementAndGet())).getStock());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(2, cache.get(1L, id -> product(id, loads.incrementAndGet())).getStock());
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(2L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        ProductSnapshotCache cache = new ProductSnapshotCache(30, 2, now::get);
+        cache.put(product(1L, 1));
+        cache.put(product(2L, 1));
+        cache.get(1L, id -> fail("should be cached"));
+
+        cache.put(product(3L, 1));
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(2L, id -> product(id, loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+        assertEquals(2L, cache.getStats().get("evictions"));
+        assertEquals(2, cache.getStats().get("size"));
+    }
+
+    @Test
+    void testGet_NullResultIsNotCached() {
+        ProductSnapshotCache cache = new ProductSnapshotCache(30, 10, now::get);
+
+        assertNull(cache.get(1L, id -> null));
+        assertNotNull(cache.get(1L, id -> product(id, 5)));
+    }
+
+    @Test
+    void testRefresh_BypassesAndReplacesCachedCopy() {
+        ProductSnapshotCache cache = new ProductSnapshotCache(30, 10, now::get);
+        cache.put(product(1L, 10));
+
+        assertEquals(3, cache.refresh(1L, id -> product(id, 3)).getStock());
+        assertEquals(3, cache.get(1L, id -> fail("should be cached")).getStock());
+        assertEquals(1L, cache.getStats().get("bypasses"));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesShareOneLoad() throws Exception {
+        ProductSnapshotCache cache = new ProductSnapshotCache(30, 10, now::get);
+        int threads = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<ProductDTO>> results = new ArrayList<>();
+        results.add(executor.submit(() -> cache.get(1L, id -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            await(releaseLoader);
+            return product(id, 7);
+        })));
+        loaderStarted.await(5, TimeUnit.SECONDS);
+        for (int i = 1; i < threads; i++) {
+            results.add(executor.submit(() -> cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return product(id, 99);
+            })));
+        }
+        // Give the waiters time to join the in-flight load before it completes
+        Thread.sleep(200);
+        releaseLoader.countDown();
+
+        for (Future<ProductDTO> result : results) {
+            assertEquals(7, result.get(5, TimeUnit.SECONDS).getStock());
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().get("loads"));
+    }
+
+    private ProductDTO product(Long id, int stock) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setStock(stock);
+        product.setStatus("ACTIVE");
+        return product;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.StockItemDTO;
+import com.ecommerce.orderservice.entity.StockRelease;
+import com.ecommerce.orderservice.repository.StockReleaseRepository;
+import com.ecommerce.orderservice.service.ProductServiceClient.StockReleaseOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "orders.stock-release.batch-size=2",
+        "orders.stock-release.initial-backoff-ms=60000",
+        "orders.stock-release.max-backoff-ms=300000",
+        "orders.stock-release.max-attempts=2"
+})
+@ActiveProfiles("test")
+@Import(StockReleaseQueue.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReleaseQueueTest {
+
+    @Autowired
+    private StockReleaseQueue stockReleaseQueue;
+
+    @Autowired
+    private StockReleaseRepository stockReleaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private ProductServiceClient productServiceClient;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReleaseRepository.deleteAll();
+    }
+
+    @Test
+    void testEnqueue_RequiresTheCancellingTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> stockReleaseQueue.enqueue(1L, Map.of(10L, 1)));
+        verifyNoInteractions(productServiceClient);
+    }
+
+    @Test
+    void testDrain_SendsEachRowWithItsReleaseKeyAndDeletesReleased() {
+        when(productServiceClient.releaseStock(anyList())).thenReturn(StockReleaseOutcome.RELEASED);
+        transactionTemplate.executeWithoutResult(status -> {
+            stockReleaseQueue.enqueue(1L, Map.of(10L, 2));
+            stockReleaseQueue.enqueue(2L, Map.of(10L, 3));
+        });
+        transactionTemplate.executeWithoutResult(status -> stockReleaseQueue.enqueue(3L, Map.of(20L, 1)));
+        verifyNoInteractions(productServiceClient);
+
+        // Three releases in batches of two
+        assertEquals(3, stockReleaseQueue.drain());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockItemDTO>> sent = ArgumentCaptor.forClass(List.class);
+        verify(productServiceClient, times(2)).releaseStock(sent.capture());
+        // Not summed per product: product-service dedupes every order's line by its key
+        assertEquals(List.of("order-1-product-10", "order-2-product-10", "order-3-product-20"),
+                sent.getAllValues().stream().flatMap(List::stream).map(StockItemDTO::getReleaseKey).toList());
+        assertEquals(0, stockReleaseQueue.getPendingCount());
+    }
+
+    @Test
+    void testDrain_SendsCommitsToTheCommitEndpointWithTheirOwnKeys() {
+        when(productServiceClient.releaseStock(anyList())).thenReturn(StockReleaseOutcome.RELEASED);
+        when(productServiceClient.commitStock(anyList())).thenReturn(StockReleaseOutcome.RELEASED);
+        transactionTemplate.executeWithoutResult(status -> {
+            stockReleaseQueue.enqueueCommit(1L, Map.of(10L, 2));
+            stockReleaseQueue.enqueue(2L, Map.of(10L, 1));
+        });
+
+        assertEquals(2, stockReleaseQueue.drain());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockItemDTO>> committed = ArgumentCaptor.forClass(List.class);
+        verify(productServiceClient).commitStock(committed.capture());
+        assertEquals(List.of("order-1-product-10-commit"),
+                committed.getValue().stream().map(StockItemDTO::getReleaseKey).toList());
+        verify(productServiceClient).releaseStock(argThat(items -> items.size() == 1
+                && items.get(0).getReleaseKey().equals("order-2-product-10")));
+        assertEquals(0, stockReleaseQueue.getPendingCount());
+    }
+
+    @Test
+    void testEnqueueCommit_RolledBackWithTheOrderChange() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            stockReleaseQueue.enqueueCommit(1L, Map.of(10L, 2));
+            throw new IllegalStateException("Order update failed");
+        }));
+
+        assertEquals(0, stockReleaseQueue.getPendingCount());
+        assertEquals(0, stockReleaseQueue.drain());
+        verifyNoInteractions(productServiceClient);
+    }
+
+    @Test
+    void testDrain_RefusedBatchIsSplitSoOtherRowsGoThrough() {
+        when(productServiceClient.releaseStock(anyList())).thenAnswer(invocation -> {
+            List<StockItemDTO> items = invocation.getArgument(0);
+            return items.stream().anyMatch(item -> item.getProductId().equals(20L))
+                    ? StockReleaseOutcome.REJECTED : StockReleaseOutcome.RELEASED;
+        });
+        transactionTemplate.executeWithoutResult(status -> stockReleaseQueue.enqueue(1L, Map.of(10L, 2)));
+        transactionTemplate.executeWithoutResult(status -> stockReleaseQueue.enqueue(2L, Map.of(20L, 1)));
+
+        assertEquals(1, stockReleaseQueue.drain());
+
+        // The pair, then each row on its own
+        verify(productServiceClient, times(3)).releaseStock(anyList());
+        StockRelease refused = stockReleaseRepository.findAll().get(0);
+        assertEquals(20L, refused.getProductId());
+        assertEquals(1, refused.getAttempts());
+        assertTrue(refused.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        assertNull(refused.getDeadLetteredAt());
+    }
+
+    @Test
+    void testDrain_RowRefusedMaxAttemptsTimesIsDeadLettered() {
+        when(productServiceClient.releaseStock(anyList())).thenReturn(StockReleaseOutcome.REJECTED);
+        transactionTemplate.executeWithoutResult(status -> stockReleaseQueue.enqueue(1L, Map.of(10L, 2)));
+
+        assertEquals(0, stockReleaseQueue.drain());
+        StockRelease refused = stockReleaseRepository.findAll().get(0);
+        refused.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        stockReleaseRepository.save(refused);
+        assertEquals(0, stockReleaseQueue.drain());
+
+        assertEquals(0, stockReleaseQueue.getPendingCount());
+        assertEquals(1, stockReleaseQueue.getDeadLetterCount());
+        StockRelease deadLetter = stockReleaseRepository.findAll().get(0);
+        assertEquals(2, deadLetter.getAttempts());
+        assertNotNull(deadLetter.getDeadLetteredAt());
+
+        deadLetter.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        stockReleaseRepository.save(deadLetter);
+        assertEquals(0, stockReleaseQueue.drain());
+        verify(productServiceClient, times(2)).releaseStock(anyList());
+    }
+
+    @Test
+    void testDrain_FailedReleaseIsRetriedAfterBackoff() {
+        when(productServiceClient.releaseStock(anyList())).thenReturn(StockReleaseOutcome.UNAVAILABLE);
+        transactionTemplate.executeWithoutResult(status -> stockReleaseQueue.enqueue(1L, Map.of(10L, 2)));
+
+        assertEquals(0, stockReleaseQueue.drain());
+
+        StockRelease pending = stockReleaseRepository.findAll().get(0);
+        assertEquals(1, pending.getAttempts());
+        assertTrue(pending.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        assertEquals(0, stockReleaseQueue.drain(), "Not due again before the backoff");
+        verify(productServiceClient, times(1)).releaseStock(anyList());
+
+        pending.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        stockReleaseRepository.save(pending);
+        when(productServiceClient.releaseStock(anyList())).thenReturn(StockReleaseOutcome.RELEASED);
+
+        assertEquals(1, stockReleaseQueue.drain());
+        assertEquals(0, stockReleaseQueue.getPendingCount());
+    }
+
+    @Test
+    void testDrain_ExceptionCountsAsFailedAttempt() {
+        when(productServiceClient.releaseStock(anyList())).thenThrow(new RuntimeException("Connection refused"));
+        transactionTemplate.executeWithoutResult(status -> stockReleaseQueue.enqueue(1L, Map.of(10L, 2)));
+
+        assertEquals(0, stockReleaseQueue.drain());
+
+        assertEquals(1, stockReleaseRepository.findAll().get(0).getAttempts());
+    }
+
+    @Test
+    void testBackoff_DoublesUpToTheMaximum() {
+        assertEquals(60_000, stockReleaseQueue.backoffMillis(1));
+        assertEquals(120_000, stockReleaseQueue.backoffMillis(2));
+        assertEquals(240_000, stockReleaseQueue.backoffMillis(3));
+        assertEquals(300_000, stockReleaseQueue.backoffMillis(4));
+        assertEquals(300_000, stockReleaseQueue.backoffMillis(100));
+    }
+}
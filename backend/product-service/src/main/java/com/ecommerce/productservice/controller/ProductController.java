@@ -82,6 +82,25 @@ public class ProductController {
         }
     }
 
+    /**
+     * Get active products by IDs in one call (used by order-service for cart and checkout)
+     * POST /api/products/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductDTO>> getActiveProductsByIds(@RequestBody List<Long> ids) {
+        try {
+            logger.info("Fetching {} products by ID", ids != null ? ids.size() : 0);
+            List<ProductDTO> products = productService.getActiveProductsByIds(ids);
+            return ResponseEntity.ok(products);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid batch product request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error fetching products by IDs", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get active categories only (for users)
      * GET /api/products/categories
@@ -0,0 +1,229 @@
+package com.ecommerce.productservice.controller;
+
+import com.ecommerce.productservice.dto.StockHoldDTO;
+import com.ecommerce.productservice.dto.StockRequestDTO;
+import com.ecommerce.productservice.exception.InsufficientStockException;
+import com.ecommerce.productservice.service.HotStockManager;
+import com.ecommerce.productservice.service.StockHoldService;
+import com.ecommerce.productservice.service.StockService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stock reservation endpoints used by order-service during checkout and cancellation
+ */
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "http://localhost:4200")
+public class StockController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockController.class);
+    private final StockService stockService;
+    private final HotStockManager hotStockManager;
+    private final StockHoldService stockHoldService;
+
+    @Autowired
+    public StockController(StockService stockService, HotStockManager hotStockManager,
+                           StockHoldService stockHoldService) {
+        this.stockService = stockService;
+        this.hotStockManager = hotStockManager;
+        this.stockHoldService = stockHoldService;
+    }
+
+    /**
+     * Reserve stock for one product
+     * POST /api/products/{id}/stock/reserve?quantity=
+     */
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<Map<String, Object>> reserveStock(@PathVariable Long id, @RequestParam int quantity) {
+        return execute("reserved", () -> stockService.reserveStock(id, quantity));
+    }
+
+    /**
+     * Release reserved stock for one product
+     * POST /api/products/{id}/stock/release?quantity=
+     */
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<Map<String, Object>> releaseStock(@PathVariable Long id, @RequestParam int quantity) {
+        return execute("released", () -> stockService.releaseStock(id, quantity));
+    }
+
+    /**
+     * Commit reserved stock for one product
+     * POST /api/products/{id}/stock/commit?quantity=
+     */
+    @PostMapping("/{id}/stock/commit")
+    public ResponseEntity<Map<String, Object>> commitStock(@PathVariable Long id, @RequestParam int quantity) {
+        return execute("committed", () -> stockService.commitStock(id, quantity));
+    }
+
+    /**
+     * Reserve stock for several products, all or nothing
+     * POST /api/products/stock/reserve
+     */
+    @PostMapping("/stock/reserve")
+    public ResponseEntity<Map<String, Object>> reserveStock(@Valid @RequestBody StockRequestDTO request) {
+        return execute("reserved", () -> stockService.reserveStock(request.getItems()));
+    }
+
+    /**
+     * Release reserved stock for several products, all or nothing
+     * POST /api/products/stock/release
+     */
+    @PostMapping("/stock/release")
+    public ResponseEntity<Map<String, Object>> releaseStock(@Valid @RequestBody StockRequestDTO request) {
+        return execute("released", () -> stockService.releaseStock(request.getItems()));
+    }
+
+    /**
+     * Commit reserved stock for several products, all or nothing
+     * POST /api/products/stock/commit
+     */
+    @PostMapping("/stock/commit")
+    public ResponseEntity<Map<String, Object>> commitStock(@Valid @RequestBody StockRequestDTO request) {
+        return execute("committed", () -> stockService.commitStock(request.getItems()));
+    }
+
+    /**
+     * Hold stock for several products for a limited time, all or nothing
+     * POST /api/products/stock/holds?ttlSeconds=
+     */
+    @PostMapping("/stock/holds")
+    public ResponseEntity<Map<String, Object>> createHold(@Valid @RequestBody StockRequestDTO request,
+                                                          @RequestParam(required = false) Long ttlSeconds) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            StockHoldDTO hold = stockHoldService.createHold(request.getItems(), ttlSeconds);
+            response.put("success", true);
+            response.put("holdId", hold.getHoldId());
+            response.put("expiresAt", hold.getExpiresAt());
+            response.put("items", hold.getItems());
+            response.put("message", "Stock held successfully");
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (InsufficientStockException e) {
+            logger.warn(e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("productId", e.getProductId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Error creating stock hold", e);
+            response.put("success", false);
+            response.put("message", "Stock could not be held");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Confirm a hold once its order is placed; the units stay reserved for the order
+     * POST /api/products/stock/holds/{holdId}/confirm
+     */
+    @PostMapping("/stock/holds/{holdId}/confirm")
+    public ResponseEntity<Map<String, Object>> confirmHold(@PathVariable String holdId) {
+        return execute("Stock hold", "confirmed", () -> stockHoldService.confirmHold(holdId));
+    }
+
+    /**
+     * Release a hold before it expires
+     * DELETE /api/products/stock/holds/{holdId}
+     */
+    @DeleteMapping("/stock/holds/{holdId}")
+    public ResponseEntity<Map<String, Object>> releaseHold(@PathVariable String holdId) {
+        return execute("Stock hold", "released", () -> stockHoldService.releaseHold(holdId));
+    }
+
+    /**
+     * Put a hot product into flash-sale mode (stock served from in-memory shards of the instance handling this request)
+     * POST /api/products/{id}/stock/flash-sale?shards=
+     */
+    @PostMapping("/{id}/stock/flash-sale")
+    public ResponseEntity<Map<String, Object>> enableFlashSale(@PathVariable Long id,
+                                                               @RequestParam(required = false) Integer shards) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            int availableStock = hotStockManager.enable(id, shards);
+            response.put("success", true);
+            response.put("productId", id);
+            response.put("availableStock", availableStock);
+            response.put("message", "Flash-sale mode enabled");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Error enabling flash-sale mode for product {}", id, e);
+            response.put("success", false);
+            response.put("message", "Failed to enable flash-sale mode");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Take a product out of flash-sale mode from any instance; the owning instance writes the final stock back to the product row
+     * DELETE /api/products/{id}/stock/flash-sale
+     */
+    @DeleteMapping("/{id}/stock/flash-sale")
+    public ResponseEntity<Map<String, Object>> disableFlashSale(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            int availableStock = hotStockManager.disable(id);
+            response.put("success", true);
+            response.put("productId", id);
+            response.put("availableStock", availableStock);
+            response.put("message", "Flash-sale mode disabled");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Error disabling flash-sale mode for product {}", id, e);
+            response.put("success", false);
+            response.put("message", "Failed to disable flash-sale mode");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> execute(String action, Runnable operation) {
+        return execute("Stock", action, operation);
+    }
+
+    private ResponseEntity<Map<String, Object>> execute(String subject, String action, Runnable operation) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            operation.run();
+            response.put("success", true);
+            response.put("message", subject + " " + action + " successfully");
+            return ResponseEntity.ok(response);
+        } catch (InsufficientStockException e) {
+            logger.warn(e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("productId", e.getProductId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Stock request rejected: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            logger.error("Error processing stock request", e);
+            response.put("success", false);
+            response.put("message", subject + " could not be " + action);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
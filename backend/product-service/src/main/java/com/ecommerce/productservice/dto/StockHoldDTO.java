@@ -0,0 +1,54 @@
+package com.ecommerce.productservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class StockHoldDTO {
+
+    private String holdId;
+    private LocalDateTime expiresAt;
+    private List<StockItemDTO> items;
+
+    // Constructors
+    public StockHoldDTO() {}
+
+    public StockHoldDTO(String holdId, LocalDateTime expiresAt, List<StockItemDTO> items) {
+        this.holdId = holdId;
+        this.expiresAt = expiresAt;
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public List<StockItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockItemDTO> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "StockHoldDTO{" +
+                "holdId='" + holdId + '\'' +
+                ", expiresAt=" + expiresAt +
+                ", items=" + items +
+                '}';
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.productservice.dto;
+
+import jakarta.validation.constraints.*;
+
+public class StockItemDTO {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    // Optional idempotency key for releases: a key that was already applied is skipped
+    @Size(max = 100, message = "Release key must be at most 100 characters")
+    private String releaseKey;
+
+    // Constructors
+    public StockItemDTO() {}
+
+    public StockItemDTO(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getReleaseKey() {
+        return releaseKey;
+    }
+
+    public void setReleaseKey(String releaseKey) {
+        this.releaseKey = releaseKey;
+    }
+
+    @Override
+    public String toString() {
+        return "StockItemDTO{" +
+                "productId=" + productId +
+                ", quantity=" + quantity +
+                ", releaseKey='" + releaseKey + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StockRequestDTO {
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<StockItemDTO> items = new ArrayList<>();
+
+    // Constructors
+    public StockRequestDTO() {}
+
+    public StockRequestDTO(List<StockItemDTO> items) {
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public List<StockItemDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockItemDTO> items) {
+        this.items = items;
+    }
+}
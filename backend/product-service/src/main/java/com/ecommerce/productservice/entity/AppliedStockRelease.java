@@ -0,0 +1,69 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Key of a stock release or commit line that has been applied. A redelivered line carrying the
+ * same key is skipped, so queued releases and commits can be retried without settling other orders' stock.
+ */
+@Entity
+@Table(name = "applied_stock_releases", indexes = {
+        @Index(name = "uk_applied_stock_releases_release_key", columnList = "release_key", unique = true),
+        @Index(name = "idx_applied_stock_releases_applied_at", columnList = "applied_at")
+})
+public class AppliedStockRelease {
+
+    // Sequence ids (a table on MySQL) so the keys of a release batch are inserted as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "applied_stock_releases_seq")
+    @SequenceGenerator(name = "applied_stock_releases_seq", sequenceName = "applied_stock_releases_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "release_key", nullable = false, length = 100)
+    private String releaseKey;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    // Constructors
+    public AppliedStockRelease() {}
+
+    public AppliedStockRelease(String releaseKey, Long productId, Integer quantity) {
+        this.releaseKey = releaseKey;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        appliedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getReleaseKey() {
+        return releaseKey;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+}
@@ -9,8 +9,10 @@ import java.time.LocalDateTime;
 @Table(name = "products")
 public class Product {
 
+    // Sequence ids (a table on MySQL) so bulk product imports are inserted as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Product name is required")
@@ -43,6 +45,19 @@ public class Product {
     @Column(name = "stock", nullable = false)
     private Integer stock;
 
+    @NotNull(message = "Reserved stock is required")
+    @Min(value = 0, message = "Reserved stock cannot be negative")
+    @Column(name = "reserved_stock", nullable = false)
+    private Integer reservedStock = 0;
+
+    // Set while available stock is held in in-memory shards (see HotStockManager)
+    @Column(name = "flash_sale", nullable = false)
+    private Boolean flashSale = false;
+
+    // The one service instance whose shards hold the stock while in flash-sale mode
+    @Column(name = "flash_sale_owner", length = 64)
+    private String flashSaleOwner;
+
     @NotNull(message = "Status is required")
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
@@ -137,6 +152,30 @@ public class Product {
         this.stock = stock;
     }
 
+    public Integer getReservedStock() {
+        return reservedStock;
+    }
+
+    public void setReservedStock(Integer reservedStock) {
+        this.reservedStock = reservedStock;
+    }
+
+    public Boolean getFlashSale() {
+        return flashSale;
+    }
+
+    public void setFlashSale(Boolean flashSale) {
+        this.flashSale = flashSale;
+    }
+
+    public String getFlashSaleOwner() {
+        return flashSaleOwner;
+    }
+
+    public void setFlashSaleOwner(String flashSaleOwner) {
+        this.flashSaleOwner = flashSaleOwner;
+    }
+
     public ProductStatus getStatus() {
         return status;
     }
@@ -171,6 +210,8 @@ public class Product {
                 ", category='" + category + '\'' +
                 ", imageUrl='" + imageUrl + '\'' +
                 ", stock=" + stock +
+                ", reservedStock=" + reservedStock +
+                ", flashSale=" + flashSale +
                 ", status=" + status +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
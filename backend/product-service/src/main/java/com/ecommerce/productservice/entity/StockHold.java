@@ -0,0 +1,85 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One line of a short-lived stock hold. The held units sit in the product's reserved bucket
+ * until the hold is confirmed by an order, released, or expires.
+ */
+@Entity
+@Table(name = "stock_holds", indexes = {
+        @Index(name = "idx_stock_holds_hold_id", columnList = "hold_id"),
+        @Index(name = "idx_stock_holds_expires_at", columnList = "expires_at")
+})
+public class StockHold {
+
+    // Sequence ids (a table on MySQL): the lines of a hold are inserted as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_holds_seq")
+    @SequenceGenerator(name = "stock_holds_seq", sequenceName = "stock_holds_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "hold_id", nullable = false, length = 36)
+    private String holdId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public StockHold() {}
+
+    public StockHold(String holdId, Long productId, Integer quantity, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.productservice.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId, int quantity) {
+        super("Insufficient stock to reserve " + quantity + " units of product " + productId);
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
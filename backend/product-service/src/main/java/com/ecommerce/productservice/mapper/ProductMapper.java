@@ -0,0 +1,41 @@
+package com.ecommerce.productservice.mapper;
+
+import com.ecommerce.productservice.dto.ProductCreateDTO;
+import com.ecommerce.productservice.dto.ProductDTO;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.ProductStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps products to and from DTOs with plain getter/setter calls
+ */
+@Component
+public class ProductMapper {
+
+    public ProductDTO toDTO(Product product) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setCategory(product.getCategory());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setStock(product.getStock());
+        dto.setStatus(product.getStatus().getValue());
+        dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        return dto;
+    }
+
+    public Product toEntity(ProductCreateDTO dto) {
+        Product product = new Product();
+        product.setName(dto.getName());
+        product.setDescription(dto.getDescription());
+        product.setPrice(dto.getPrice());
+        product.setCategory(dto.getCategory());
+        product.setImageUrl(dto.getImageUrl());
+        product.setStock(dto.getStock());
+        product.setStatus(ProductStatus.fromValue(dto.getStatus()));
+        return product;
+    }
+}
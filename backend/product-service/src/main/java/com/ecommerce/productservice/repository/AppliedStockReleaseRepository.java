@@ -0,0 +1,25 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.AppliedStockRelease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AppliedStockReleaseRepository extends JpaRepository<AppliedStockRelease, Long> {
+
+    // Which of the given release keys have already been applied
+    @Query("SELECT r.releaseKey FROM AppliedStockRelease r WHERE r.releaseKey IN :releaseKeys")
+    List<String> findAppliedKeys(@Param("releaseKeys") Collection<String> releaseKeys);
+
+    // Keys older than any redelivery can be, see product.stock-release.key-retention-days
+    @Modifying
+    @Query("DELETE FROM AppliedStockRelease r WHERE r.appliedAt < :cutoff")
+    int deleteAppliedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
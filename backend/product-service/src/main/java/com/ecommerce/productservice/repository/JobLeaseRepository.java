@@ -0,0 +1,30 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take the lease if it expired or is already held by the owner; 1 when taken
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leasedBy = :owner, l.leasedUntil = :until " +
+           "WHERE l.jobName = :jobName AND (l.leasedUntil <= :now OR l.leasedBy = :owner)")
+    int acquire(@Param("jobName") String jobName, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * Give the lease back if the owner still holds it
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leasedUntil = :now WHERE l.jobName = :jobName AND l.leasedBy = :owner")
+    int release(@Param("jobName") String jobName, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -5,9 +5,11 @@ import com.ecommerce.productservice.entity.ProductStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -73,4 +75,74 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     // Check if product exists by name and not the same id (for update validation)
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
-} 
\ No newline at end of file
+
+    // Move stock into the reserved bucket only if enough is available (returns 0 when it is not)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.reservedStock = p.reservedStock + :quantity " +
+           "WHERE p.id = :id AND p.status = 'ACTIVE' AND p.flashSale = false AND p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Return previously reserved units to available stock
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.reservedStock = p.reservedStock - :quantity " +
+           "WHERE p.id = :id AND p.reservedStock >= :quantity")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Consume previously reserved units once the order has shipped
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedStock = p.reservedStock - :quantity " +
+           "WHERE p.id = :id AND p.reservedStock >= :quantity")
+    int commitStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Claim flash-sale mode for one instance (returns 0 if already in flash-sale mode)
+    @Modifying
+    @Query("UPDATE Product p SET p.flashSale = true, p.flashSaleOwner = :owner " +
+           "WHERE p.id = :id AND p.status = 'ACTIVE' AND p.flashSale = false")
+    int enableFlashSale(@Param("id") Long id, @Param("owner") String owner);
+
+    // Move available units off the row into the owner's in-memory shards
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :units WHERE p.id = :id AND p.stock >= :units")
+    int holdFlashSaleStock(@Param("id") Long id, @Param("units") int units);
+
+    // Clear flash-sale mode whoever owns it; the owner notices on its next flush and returns its units
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.flashSale = false, p.flashSaleOwner = null WHERE p.id = :id AND p.flashSale = true")
+    int disableFlashSale(@Param("id") Long id);
+
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Integer findStockById(@Param("id") Long id);
+
+    @Query("SELECT p.flashSaleOwner FROM Product p WHERE p.id = :id")
+    String findFlashSaleOwnerById(@Param("id") Long id);
+
+    List<Product> findByFlashSaleTrue();
+
+    // Write-behind from the in-memory shards: units reserved since the last flush move into the reserved bucket.
+    // Only the owner may write, and never below zero reserved units (returns 0 otherwise)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedStock = p.reservedStock + :reserved " +
+           "WHERE p.id = :id AND p.flashSaleOwner = :owner AND p.reservedStock + :reserved >= 0")
+    int applyFlashSaleReservations(@Param("id") Long id, @Param("owner") String owner, @Param("reserved") int reserved);
+
+    // The owner leaves flash-sale mode: last reservations into the reserved bucket, unsold units back to the row
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.flashSale = false, p.flashSaleOwner = null, " +
+           "p.reservedStock = p.reservedStock + :reserved, p.stock = p.stock + :unsold " +
+           "WHERE p.id = :id AND p.flashSaleOwner = :owner AND p.reservedStock + :reserved >= 0")
+    int endFlashSale(@Param("id") Long id, @Param("owner") String owner,
+                     @Param("reserved") int reserved, @Param("unsold") int unsold);
+
+    // A former owner whose flash-sale mode was cleared elsewhere hands back what it still held
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedStock = p.reservedStock + :reserved, p.stock = p.stock + :unsold " +
+           "WHERE p.id = :id AND p.reservedStock + :reserved >= 0")
+    int returnFlashSaleUnits(@Param("id") Long id, @Param("reserved") int reserved, @Param("unsold") int unsold);
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.StockHold;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    List<StockHold> findByHoldId(String holdId);
+
+    // The delete count decides which of confirm, release and expiry wins a race for the same hold
+    @Modifying
+    @Query("DELETE FROM StockHold h WHERE h.holdId = :holdId")
+    int deleteByHoldId(@Param("holdId") String holdId);
+
+    // One row per outstanding hold with its expiry, used to rebuild the expiry wheel on startup
+    @Query("SELECT h.holdId, MIN(h.expiresAt) FROM StockHold h GROUP BY h.holdId")
+    List<Object[]> findHoldExpiries();
+
+    // Holds that expired before the cutoff, whichever instance created them
+    @Query("SELECT DISTINCT h.holdId FROM StockHold h WHERE h.expiresAt < :cutoff")
+    List<String> findHoldsExpiredBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+}
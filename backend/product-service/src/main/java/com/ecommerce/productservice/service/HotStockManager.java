@@ -0,0 +1,390 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flash-sale mode for hot products. While a product is in flash-sale mode its available stock
+ * lives in N in-memory shards that are decremented with CAS, so concurrent reservations no longer
+ * queue on the product row. Reserved units are written back to the row periodically by {@link #flush()}.
+ *
+ * Exactly one instance owns a flash sale: enabling it records this process as owner on the product
+ * row and moves the row's available stock into its shards, and only the owner's writes are accepted.
+ * The flash_sale flag blocks the row-update reservation path everywhere else, so other instances
+ * refuse reservations rather than sell the same units twice. Disabling works from any instance;
+ * the owner returns its unsold units at once or, if it is another instance, on its next flush.
+ * The owner id is new for every process, so a restart never reloads stock into shards: units the
+ * old process held are missing from the row until the sale is disabled and stock corrected, and
+ * products are never oversold.
+ */
+@Service
+public class HotStockManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockManager.class);
+    private static final int MAX_SHARDS = 256;
+
+    private final ProductRepository productRepository;
+    private final int defaultShards;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Long, ShardedStock> hotProducts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HotStockManager(ProductRepository productRepository,
+                           @Value("${product.flash-sale.shards:8}") int defaultShards) {
+        this.productRepository = productRepository;
+        this.defaultShards = defaultShards;
+    }
+
+    /**
+     * Flash sales still flagged at startup belong to another instance, or to this one before a restart
+     */
+    @PostConstruct
+    public void reportFlashSaleProducts() {
+        for (Product product : productRepository.findByFlashSaleTrue()) {
+            logger.warn("Product {} is in flash-sale mode on instance {}; reservations are refused here. " +
+                    "If that instance has stopped, disable flash-sale mode and correct the stock",
+                    product.getId(), product.getFlashSaleOwner());
+        }
+    }
+
+    /**
+     * Put a product into flash-sale mode owned by this instance, moving its available stock into in-memory shards
+     */
+    @Transactional
+    public int enable(Long productId, Integer shards) {
+        int shardCount = shards != null ? shards : defaultShards;
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS);
+        }
+
+        // The flag update locks the row, so the stock read below cannot race a row-update reservation
+        if (productRepository.enableFlashSale(productId, instanceId) == 0) {
+            throw new IllegalArgumentException("Product " + productId + " is not active or already in flash-sale mode");
+        }
+        int stock = productRepository.findStockById(productId);
+        productRepository.holdFlashSaleStock(productId, stock);
+        hotProducts.put(productId, new ShardedStock(stock, shardCount));
+
+        logger.info("Product {} switched to flash-sale mode with {} units in {} shards", productId, stock, shardCount);
+        return stock;
+    }
+
+    /**
+     * Leave flash-sale mode. On the owner: wait for in-flight operations, write back the final count
+     * and return the unsold units. On any other instance: clear the flag, after which the owner
+     * returns its units on its next flush.
+     */
+    @Transactional
+    public int disable(Long productId) {
+        ShardedStock stock = hotProducts.get(productId);
+        if (stock != null && end(productId, stock)) {
+            logger.info("Product {} left flash-sale mode", productId);
+            return productRepository.findStockById(productId);
+        }
+
+        if (productRepository.disableFlashSale(productId) == 0) {
+            throw new IllegalArgumentException("Product " + productId + " is not in flash-sale mode");
+        }
+        logger.info("Product {} left flash-sale mode; its owner returns the units it holds on its next flush", productId);
+        return productRepository.findStockById(productId);
+    }
+
+    /**
+     * A graceful shutdown ends this instance's flash sales, so no units stay locked up in a stopped process
+     */
+    @PreDestroy
+    public void shutdown() {
+        hotProducts.forEach((productId, stock) -> {
+            try {
+                end(productId, stock);
+            } catch (Exception e) {
+                logger.error("Failed to end flash-sale mode for product {} on shutdown", productId, e);
+            }
+        });
+    }
+
+    /**
+     * The owner id this process records on the products whose flash sale it runs
+     */
+    String getInstanceId() {
+        return instanceId;
+    }
+
+    public boolean isHot(Long productId) {
+        return hotProducts.containsKey(productId);
+    }
+
+    /**
+     * Reserve from the shards. Returns null when this instance does not own a flash sale of the
+     * product, so the caller falls back to the row-update path.
+     */
+    public Boolean tryReserve(Long productId, int quantity) {
+        ShardedStock stock = hotProducts.get(productId);
+        return stock != null ? stock.reserve(quantity) : null;
+    }
+
+    /**
+     * Return released units to the shards. Only units reserved from the shards and not yet flushed
+     * can go back this way; for anything else (including units already in the row's reserved bucket)
+     * this returns false and the caller releases them on the row.
+     */
+    public boolean tryRelease(Long productId, int quantity) {
+        ShardedStock stock = hotProducts.get(productId);
+        return stock != null && stock.release(quantity);
+    }
+
+    /**
+     * Undo a reservation this instance just made from the shards, whether or not it was flushed since
+     */
+    public void cancelReservation(Long productId, int quantity) {
+        ShardedStock stock = hotProducts.get(productId);
+        if (stock == null || !stock.cancel(quantity)) {
+            logger.error("Could not return {} flash-sale units of product {}: flash-sale mode ended meanwhile",
+                    quantity, productId);
+        }
+    }
+
+    /**
+     * Units currently available in the shards, or null when this instance does not own a flash sale of the product
+     */
+    public Integer getAvailableStock(Long productId) {
+        ShardedStock stock = hotProducts.get(productId);
+        return stock != null ? stock.available() : null;
+    }
+
+    /**
+     * Write-behind: move units reserved since the last flush into the product row's reserved bucket
+     */
+    @Scheduled(fixedDelayString = "${product.flash-sale.flush-interval-ms:200}")
+    public void flush() {
+        hotProducts.forEach(this::flush);
+    }
+
+    /**
+     * Flush a single product, e.g. before committing reservations that may not have reached the row yet
+     */
+    public void flush(Long productId) {
+        ShardedStock stock = hotProducts.get(productId);
+        if (stock != null) {
+            flush(productId, stock);
+        }
+    }
+
+    // Helper Methods
+
+    private void flush(Long productId, ShardedStock stock) {
+        boolean owned;
+        synchronized (stock.lock) {
+            int reserved = stock.unflushed();
+            try {
+                if (reserved != 0
+                        && productRepository.applyFlashSaleReservations(productId, instanceId, reserved) > 0) {
+                    stock.flushedAvailable -= reserved;
+                    return;
+                }
+                owned = instanceId.equals(productRepository.findFlashSaleOwnerById(productId));
+            } catch (Exception e) {
+                // Nothing is lost: the next flush recomputes the delta from the same baseline
+                logger.error("Failed to write back flash-sale stock for product {}", productId, e);
+                return;
+            }
+            if (owned && reserved != 0) {
+                logger.error("Refused to move {} flash-sale units of product {} into its reserved bucket",
+                        reserved, productId);
+            }
+        }
+        if (!owned) {
+            returnUnits(productId, stock);
+        }
+    }
+
+    /**
+     * End this instance's flash sale of the product, returning false if it no longer owns it
+     */
+    private boolean end(Long productId, ShardedStock stock) {
+        stock.close();
+        synchronized (stock.lock) {
+            if (productRepository.endFlashSale(productId, instanceId, stock.unflushed(), stock.available()) == 0) {
+                if (instanceId.equals(productRepository.findFlashSaleOwnerById(productId))) {
+                    throw new IllegalStateException("Flash-sale stock of product " + productId + " does not add up");
+                }
+                returnUnits(productId, stock);
+                return false;
+            }
+            hotProducts.remove(productId, stock);
+            return true;
+        }
+    }
+
+    /**
+     * Flash-sale mode was cleared by another instance: stop selling and hand back what the shards still hold
+     */
+    private void returnUnits(Long productId, ShardedStock stock) {
+        stock.close();
+        synchronized (stock.lock) {
+            if (hotProducts.get(productId) != stock) {
+                return;
+            }
+            int unsold = stock.available();
+            if (productRepository.returnFlashSaleUnits(productId, stock.unflushed(), unsold) > 0) {
+                hotProducts.remove(productId, stock);
+                logger.info("Product {} left flash-sale mode elsewhere; returned {} unsold units", productId, unsold);
+            } else {
+                logger.error("Failed to return {} flash-sale units of product {}", unsold, productId);
+            }
+        }
+    }
+
+    /**
+     * Available stock split across cache-line padded counters. Reservations try the caller's home
+     * shard first, then the others, and only when every shard is short take the lock, pool all
+     * shards and spread the remainder evenly again. Releases, flushes and rebalancing all hold the
+     * lock, so the shard total they see is never one caught mid-rebalance.
+     */
+    static final class ShardedStock {
+
+        // 16 ints = 64 bytes, so neighbouring shards never share a cache line
+        private static final int PADDING = 16;
+
+        private final AtomicIntegerArray shards;
+        private final int shardCount;
+        private final LongAdder inFlight = new LongAdder();
+        private final Object lock = new Object();
+        private volatile boolean closed;
+
+        // Last available count written to the product row, only touched under the lock
+        private int flushedAvailable;
+
+        ShardedStock(int stock, int shardCount) {
+            this.shardCount = shardCount;
+            this.shards = new AtomicIntegerArray(shardCount * PADDING);
+            this.flushedAvailable = stock;
+            spread(stock);
+        }
+
+        boolean reserve(int quantity) {
+            inFlight.increment();
+            try {
+                if (closed) {
+                    return false;
+                }
+                int home = ThreadLocalRandom.current().nextInt(shardCount);
+                for (int i = 0; i < shardCount; i++) {
+                    if (tryTake((home + i) % shardCount, quantity)) {
+                        return true;
+                    }
+                }
+                return rebalanceAndTake(quantity);
+            } finally {
+                inFlight.decrement();
+            }
+        }
+
+        /**
+         * Take back released units, provided that many were reserved here since the last flush.
+         * Units already flushed sit in the row's reserved bucket and have to be released there.
+         */
+        boolean release(int quantity) {
+            synchronized (lock) {
+                if (closed || unflushed() < quantity) {
+                    return false;
+                }
+                add(quantity);
+                return true;
+            }
+        }
+
+        /**
+         * Take back units reserved here, flushed or not: the next flush moves any already flushed
+         * out of the row's reserved bucket again
+         */
+        boolean cancel(int quantity) {
+            synchronized (lock) {
+                if (closed) {
+                    return false;
+                }
+                add(quantity);
+                return true;
+            }
+        }
+
+        int available() {
+            int total = 0;
+            for (int i = 0; i < shardCount; i++) {
+                total += shards.get(i * PADDING);
+            }
+            return total;
+        }
+
+        /**
+         * Units reserved since the last flush (negative after cancelling flushed reservations); call under the lock
+         */
+        int unflushed() {
+            return flushedAvailable - available();
+        }
+
+        /**
+         * Reject new operations and wait until the ones already running have finished,
+         * after which the shard totals no longer change. Must not be called under the lock.
+         */
+        void close() {
+            closed = true;
+            while (inFlight.sum() != 0) {
+                Thread.onSpinWait();
+            }
+        }
+
+        private void add(int quantity) {
+            shards.addAndGet(ThreadLocalRandom.current().nextInt(shardCount) * PADDING, quantity);
+        }
+
+        private boolean tryTake(int shard, int quantity) {
+            int index = shard * PADDING;
+            while (true) {
+                int current = shards.get(index);
+                if (current < quantity) {
+                    return false;
+                }
+                if (shards.compareAndSet(index, current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean rebalanceAndTake(int quantity) {
+            synchronized (lock) {
+                int total = 0;
+                for (int i = 0; i < shardCount; i++) {
+                    total += shards.getAndSet(i * PADDING, 0);
+                }
+                boolean taken = total >= quantity;
+                spread(taken ? total - quantity : total);
+                return taken;
+            }
+        }
+
+        private void spread(int units) {
+            int share = units / shardCount;
+            int remainder = units % shardCount;
+            for (int i = 0; i < shardCount; i++) {
+                shards.addAndGet(i * PADDING, share + (i < remainder ? 1 : 0));
+            }
+        }
+    }
+}
@@ -5,8 +5,8 @@ import com.ecommerce.productservice.dto.ProductCreateDTO;
 import com.ecommerce.productservice.dto.ProductDTO;
 import com.ecommerce.productservice.entity.Product;
 import com.ecommerce.productservice.entity.ProductStatus;
+import com.ecommerce.productservice.mapper.ProductMapper;
 import com.ecommerce.productservice.repository.ProductRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -24,13 +25,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
 
     @Autowired
-    public ProductService(ProductRepository productRepository, ModelMapper modelMapper) {
+    public ProductService(ProductRepository productRepository, ProductMapper productMapper) {
         this.productRepository = productRepository;
-        this.modelMapper = modelMapper;
+        this.productMapper = productMapper;
     }
 
     // Admin Methods - Can see all products regardless of status
@@ -67,7 +70,7 @@ public class ProductService {
     public List<ProductDTO> getAllProductsForAdmin() {
         List<Product> products = productRepository.findAll(Sort.by(Sort.Direction.DESC, "updatedAt"));
         return products.stream()
-                .map(this::mapToDTO)
+                .map(productMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -76,6 +79,7 @@ public class ProductService {
     /**
      * Get active products for users with filters and pagination
      */
+    @Transactional(readOnly = true)
     public PaginatedResponse<ProductDTO> getActiveProducts(
             String category, String search, 
             BigDecimal minPrice, BigDecimal maxPrice,
@@ -104,9 +108,9 @@ public class ProductService {
             throw new IllegalArgumentException("Product with name '" + productCreateDTO.getName() + "' already exists");
         }
         
-        Product product = mapToEntity(productCreateDTO);
+        Product product = productMapper.toEntity(productCreateDTO);
         Product savedProduct = productRepository.save(product);
-        return mapToDTO(savedProduct);
+        return productMapper.toDTO(savedProduct);
     }
 
     /**
@@ -115,7 +119,25 @@ public class ProductService {
     @Transactional(readOnly = true)
     public Optional<ProductDTO> getProductById(Long id) {
         return productRepository.findById(id)
-                .map(this::mapToDTO);
+                .map(productMapper::toDTO);
+    }
+
+    /**
+     * Get active products by IDs in a single query (missing or inactive IDs are skipped)
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getActiveProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Cannot fetch more than " + MAX_BATCH_SIZE + " products per request");
+        }
+
+        return productRepository.findAllById(new LinkedHashSet<>(ids)).stream()
+                .filter(product -> product.getStatus() == ProductStatus.ACTIVE)
+                .map(productMapper::toDTO)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -140,7 +162,7 @@ public class ProductService {
         existingProduct.setStatus(ProductStatus.fromValue(productDTO.getStatus()));
         
         Product updatedProduct = productRepository.save(existingProduct);
-        return mapToDTO(updatedProduct);
+        return productMapper.toDTO(updatedProduct);
     }
 
     /**
@@ -213,7 +235,7 @@ public class ProductService {
 
     private PaginatedResponse<ProductDTO> mapToPagedResponse(Page<Product> productPage) {
         List<ProductDTO> productDTOs = productPage.getContent().stream()
-                .map(this::mapToDTO)
+                .map(productMapper::toDTO)
                 .collect(Collectors.toList());
         
         return new PaginatedResponse<>(
@@ -224,16 +246,4 @@ public class ProductService {
             productPage.getTotalPages()
         );
     }
-
-    private ProductDTO mapToDTO(Product product) {
-        ProductDTO dto = modelMapper.map(product, ProductDTO.class);
-        dto.setStatus(product.getStatus().getValue());
-        return dto;
-    }
-
-    private Product mapToEntity(ProductCreateDTO dto) {
-        Product product = modelMapper.map(dto, Product.class);
-        product.setStatus(ProductStatus.fromValue(dto.getStatus()));
-        return product;
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.productservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ticks the stock hold expiry wheel and releases whatever has expired, each hold in its own transaction.
+ * A slower sweep, held by a database lease so one instance runs it at a time, expires holds from the
+ * table that are overdue by more than grace-ms: holds whose instance stopped before their expiry fired.
+ */
+@Component
+public class StockHoldExpiryTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldExpiryTask.class);
+    static final String SWEEP_JOB_NAME = "stock-hold-sweeper";
+    // Extra lease time beyond the longest sweep, covering the last batch
+    private static final long LEASE_MARGIN_MILLIS = 60_000;
+
+    private final StockHoldService stockHoldService;
+    private final JobLeases jobLeases;
+    private final long graceMillis;
+    private final int batchSize;
+    private final long maxRunMillis;
+
+    @Autowired
+    public StockHoldExpiryTask(StockHoldService stockHoldService, JobLeases jobLeases,
+                               @Value("${product.holds.sweep.grace-ms:60000}") long graceMillis,
+                               @Value("${product.holds.sweep.batch-size:200}") int batchSize,
+                               @Value("${product.holds.sweep.max-run-ms:120000}") long maxRunMillis) {
+        if (graceMillis < 0 || batchSize < 1 || maxRunMillis < 1) {
+            throw new IllegalArgumentException("Stock hold sweep batch size and run time must be at least 1 and the grace not negative");
+        }
+        this.stockHoldService = stockHoldService;
+        this.jobLeases = jobLeases;
+        this.graceMillis = graceMillis;
+        this.batchSize = batchSize;
+        this.maxRunMillis = maxRunMillis;
+    }
+
+    @Scheduled(fixedRateString = "${product.holds.tick-ms:1000}")
+    public void expireHolds() {
+        for (String holdId : stockHoldService.pollExpiredHolds()) {
+            try {
+                stockHoldService.expireHold(holdId);
+            } catch (Exception e) {
+                logger.error("Failed to expire stock hold {}, retrying later", holdId, e);
+                stockHoldService.retryExpiry(holdId);
+            }
+        }
+    }
+
+    /**
+     * Expire overdue holds from the table, unless another instance is already sweeping. Returns the
+     * number expired; a hold its own instance expires at the same time is released only once.
+     */
+    @Scheduled(fixedDelayString = "${product.holds.sweep.interval-ms:60000}")
+    public int sweepOverdueHolds() {
+        if (!jobLeases.tryAcquire(SWEEP_JOB_NAME, maxRunMillis + LEASE_MARGIN_MILLIS)) {
+            return 0;
+        }
+        try {
+            return expireOverdueHolds();
+        } finally {
+            jobLeases.release(SWEEP_JOB_NAME);
+        }
+    }
+
+    // Helper Methods
+
+    private int expireOverdueHolds() {
+        long startedAt = System.currentTimeMillis();
+        int expired = 0;
+        while (System.currentTimeMillis() - startedAt < maxRunMillis) {
+            List<String> overdue = stockHoldService.findOverdueHolds(graceMillis, batchSize);
+            int failed = 0;
+            for (String holdId : overdue) {
+                try {
+                    if (stockHoldService.expireHold(holdId)) {
+                        expired++;
+                    }
+                } catch (Exception e) {
+                    // Left in the table for the next sweep
+                    logger.error("Failed to expire overdue stock hold {}", holdId, e);
+                    failed++;
+                }
+            }
+            // A batch that failed entirely would come back unchanged
+            if (overdue.size() < batchSize || failed == overdue.size()) {
+                break;
+            }
+        }
+        if (expired > 0) {
+            logger.info("Stock hold sweep expired {} overdue holds", expired);
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,188 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.StockHoldDTO;
+import com.ecommerce.productservice.dto.StockItemDTO;
+import com.ecommerce.productservice.entity.StockHold;
+import com.ecommerce.productservice.repository.StockHoldRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived stock holds taken at the start of checkout. A hold reserves its units straight
+ * away and is either confirmed by the order that used it, released, or expires. Expiry runs
+ * on an in-memory {@link TimingWheel} rather than polling the holds table, and the wheel is
+ * rebuilt from the table on startup. The wheel only knows the holds of its own instance, so holds
+ * left behind by an instance that stopped are expired from the table by {@link StockHoldExpiryTask}.
+ */
+@Service
+@Transactional
+public class StockHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldService.class);
+    private static final int WHEEL_SIZE = 64;
+    private static final long MAX_TTL_SECONDS = 24 * 60 * 60;
+    private static final long RETRY_DELAY_MS = 30_000;
+
+    private final StockHoldRepository stockHoldRepository;
+    private final StockService stockService;
+    private final long defaultTtlSeconds;
+    private final TimingWheel<String> expiryWheel;
+    private final Map<String, TimingWheel.Timeout<String>> timeouts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StockHoldService(StockHoldRepository stockHoldRepository, StockService stockService,
+                            @Value("${product.holds.default-ttl-seconds:600}") long defaultTtlSeconds,
+                            @Value("${product.holds.tick-ms:1000}") long tickMs) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.stockService = stockService;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.expiryWheel = new TimingWheel<>(tickMs, WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    /**
+     * Reschedule expiry for every hold still in the table (already overdue ones expire on the first tick)
+     */
+    @PostConstruct
+    public void rebuildExpiryWheel() {
+        List<Object[]> holds = stockHoldRepository.findHoldExpiries();
+        for (Object[] hold : holds) {
+            scheduleExpiry((String) hold[0], toEpochMillis((LocalDateTime) hold[1]));
+        }
+        if (!holds.isEmpty()) {
+            logger.info("Rescheduled expiry for {} outstanding stock holds", holds.size());
+        }
+    }
+
+    /**
+     * Reserve stock for all items (all or nothing) under a new hold that expires after the TTL
+     */
+    public StockHoldDTO createHold(List<StockItemDTO> items, Long ttlSeconds) {
+        long ttl = ttlSeconds != null ? ttlSeconds : defaultTtlSeconds;
+        if (ttl < 1 || ttl > MAX_TTL_SECONDS) {
+            throw new IllegalArgumentException("Hold TTL must be between 1 and " + MAX_TTL_SECONDS + " seconds");
+        }
+
+        Map<Long, Integer> quantities = StockService.mergeByProductId(items);
+        stockService.reserveStock(items);
+
+        String holdId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttl);
+        List<StockHold> lines = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> lines.add(new StockHold(holdId, productId, quantity, expiresAt)));
+        stockHoldRepository.saveAll(lines);
+
+        // If this transaction rolls back the hold rows never exist and the expiry is a no-op
+        scheduleExpiry(holdId, toEpochMillis(expiresAt));
+        logger.info("Created stock hold {} for {} products, expires at {}", holdId, lines.size(), expiresAt);
+
+        return new StockHoldDTO(holdId, expiresAt, toItems(lines));
+    }
+
+    /**
+     * Hand the held units over to an order. They stay reserved; the hold itself is gone.
+     */
+    public void confirmHold(String holdId) {
+        if (stockHoldRepository.deleteByHoldId(holdId) == 0) {
+            throw new IllegalArgumentException("Stock hold " + holdId + " not found or already expired");
+        }
+        cancelExpiry(holdId);
+        logger.info("Confirmed stock hold {}", holdId);
+    }
+
+    /**
+     * Give the held units back before the hold expires
+     */
+    public void releaseHold(String holdId) {
+        if (!releaseHeldStock(holdId)) {
+            throw new IllegalArgumentException("Stock hold " + holdId + " not found or already expired");
+        }
+        cancelExpiry(holdId);
+        logger.info("Released stock hold {}", holdId);
+    }
+
+    /**
+     * Release an expired hold. Returns false if it was confirmed or released in the meantime.
+     */
+    public boolean expireHold(String holdId) {
+        boolean expired = releaseHeldStock(holdId);
+        if (expired) {
+            logger.info("Stock hold {} expired, units returned to stock", holdId);
+        }
+        return expired;
+    }
+
+    /**
+     * Advance the expiry wheel to now and return the holds that have expired
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> pollExpiredHolds() {
+        List<String> expired = expiryWheel.advance(System.currentTimeMillis());
+        expired.forEach(timeouts::remove);
+        return expired;
+    }
+
+    /**
+     * Holds overdue by more than the grace period, for expiry on behalf of the instance that created them
+     */
+    @Transactional(readOnly = true)
+    public List<String> findOverdueHolds(long graceMillis, int limit) {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(graceMillis * 1_000_000);
+        return stockHoldRepository.findHoldsExpiredBefore(cutoff, Limit.of(limit));
+    }
+
+    /**
+     * Try an expiry again later, e.g. when the database was unavailable on the first attempt
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void retryExpiry(String holdId) {
+        scheduleExpiry(holdId, System.currentTimeMillis() + RETRY_DELAY_MS);
+    }
+
+    // Helper Methods
+
+    private boolean releaseHeldStock(String holdId) {
+        List<StockHold> lines = stockHoldRepository.findByHoldId(holdId);
+        if (lines.isEmpty() || stockHoldRepository.deleteByHoldId(holdId) == 0) {
+            return false;
+        }
+        stockService.releaseStock(toItems(lines));
+        return true;
+    }
+
+    private void scheduleExpiry(String holdId, long expiresAtMs) {
+        timeouts.put(holdId, expiryWheel.schedule(holdId, expiresAtMs));
+    }
+
+    private void cancelExpiry(String holdId) {
+        TimingWheel.Timeout<String> timeout = timeouts.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private List<StockItemDTO> toItems(List<StockHold> lines) {
+        return lines.stream()
+                .map(line -> new StockItemDTO(line.getProductId(), line.getQuantity()))
+                .collect(Collectors.toList());
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,260 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.StockItemDTO;
+import com.ecommerce.productservice.entity.AppliedStockRelease;
+import com.ecommerce.productservice.exception.InsufficientStockException;
+import com.ecommerce.productservice.repository.AppliedStockReleaseRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Stock reservation for checkout. Every operation is a single conditional UPDATE on the
+ * product row, so concurrent reservations can never take stock below zero. Products in
+ * flash-sale mode are served from in-memory shards instead (see {@link HotStockManager}).
+ */
+@Service
+@Transactional
+public class StockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockService.class);
+
+    private final ProductRepository productRepository;
+    private final HotStockManager hotStockManager;
+    private final AppliedStockReleaseRepository appliedStockReleaseRepository;
+    private final int releaseKeyRetentionDays;
+
+    @Autowired
+    public StockService(ProductRepository productRepository, HotStockManager hotStockManager,
+                        AppliedStockReleaseRepository appliedStockReleaseRepository,
+                        @Value("${product.stock-release.key-retention-days:30}") int releaseKeyRetentionDays) {
+        this.productRepository = productRepository;
+        this.hotStockManager = hotStockManager;
+        this.appliedStockReleaseRepository = appliedStockReleaseRepository;
+        this.releaseKeyRetentionDays = releaseKeyRetentionDays;
+    }
+
+    /**
+     * Reserve stock for one product. Runs without a transaction of its own so flash-sale
+     * reservations never touch the connection pool; the row update opens one if needed.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void reserveStock(Long productId, int quantity) {
+        reserve(productId, quantity);
+    }
+
+    /**
+     * Release previously reserved stock for one product
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void releaseStock(Long productId, int quantity) {
+        release(productId, quantity);
+    }
+
+    /**
+     * Commit previously reserved stock for one product (units have left the warehouse)
+     */
+    public void commitStock(Long productId, int quantity) {
+        validateQuantity(quantity);
+        // Flash-sale reservations reach the reserved bucket on write-behind, so push them out first
+        hotStockManager.flush(productId);
+        if (productRepository.commitStock(productId, quantity) == 0) {
+            throw new IllegalArgumentException("Cannot commit " + quantity + " units of product " + productId + ": not reserved");
+        }
+    }
+
+    /**
+     * Reserve stock for several products, all or nothing. Any failure rolls back the whole request.
+     */
+    public void reserveStock(List<StockItemDTO> items) {
+        Map<Long, Integer> hotReserved = new HashMap<>();
+        try {
+            mergeByProductId(items).forEach((productId, quantity) -> {
+                if (reserve(productId, quantity)) {
+                    hotReserved.put(productId, quantity);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Row reservations roll back with the transaction, in-memory ones have to be returned by hand
+            hotReserved.forEach(hotStockManager::cancelReservation);
+            throw e;
+        }
+    }
+
+    /**
+     * Release stock for several products, all or nothing. Lines carrying a release key are applied
+     * at most once: keys already applied by an earlier delivery are skipped and the new ones are
+     * recorded in the same transaction, so a redelivered request cannot free other orders' stock.
+     */
+    public void releaseStock(List<StockItemDTO> items) {
+        List<StockItemDTO> pending = withoutAppliedKeys(items);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> quantities = mergeByProductId(pending);
+        // Rows first: a failing row release then rolls back before any in-memory shard has changed
+        Map<Long, Integer> ordered = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (!hotStockManager.isHot(productId)) {
+                ordered.put(productId, quantity);
+            }
+        });
+        ordered.putAll(quantities);
+
+        Map<Long, Integer> hotReleased = new HashMap<>();
+        try {
+            ordered.forEach((productId, quantity) -> {
+                if (release(productId, quantity)) {
+                    hotReleased.put(productId, quantity);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Row releases roll back with the transaction, in-memory ones have to be taken back by hand
+            hotReleased.forEach((productId, quantity) -> {
+                if (!Boolean.TRUE.equals(hotStockManager.tryReserve(productId, quantity))) {
+                    logger.error("Could not take back {} released flash-sale units of product {}", quantity, productId);
+                }
+            });
+            throw e;
+        }
+    }
+
+    /**
+     * Commit stock for several products, all or nothing. Keyed lines are applied at most once, the
+     * same way as releases, so order-service can retry queued commits.
+     */
+    public void commitStock(List<StockItemDTO> items) {
+        List<StockItemDTO> pending = withoutAppliedKeys(items);
+        if (!pending.isEmpty()) {
+            mergeByProductId(pending).forEach(this::commitStock);
+        }
+    }
+
+    /**
+     * Forget release keys older than the retention period; redeliveries stop long before that
+     */
+    @Scheduled(cron = "${product.stock-release.key-purge-cron:0 30 3 * * *}")
+    public int purgeAppliedReleaseKeys() {
+        int purged = appliedStockReleaseRepository.deleteAppliedBefore(
+                LocalDateTime.now().minusDays(releaseKeyRetentionDays));
+        if (purged > 0) {
+            logger.info("Purged {} applied stock release keys", purged);
+        }
+        return purged;
+    }
+
+    // Helper Methods
+
+    /**
+     * Reserve one product from the shards or the product row, returning true if the shards were used
+     */
+    private boolean reserve(Long productId, int quantity) {
+        validateQuantity(quantity);
+        Boolean hot = hotStockManager.tryReserve(productId, quantity);
+        if (hot == null) {
+            if (productRepository.reserveStock(productId, quantity) > 0) {
+                return false;
+            }
+            // The row update also fails if the product switched to flash-sale mode after the first check
+            hot = hotStockManager.tryReserve(productId, quantity);
+        }
+        if (!Boolean.TRUE.equals(hot)) {
+            logger.warn("Reservation of {} units rejected for product {}", quantity, productId);
+            throw new InsufficientStockException(productId, quantity);
+        }
+        return true;
+    }
+
+    /**
+     * Release one product to the shards or the product row, returning true if the shards were used
+     */
+    private boolean release(Long productId, int quantity) {
+        validateQuantity(quantity);
+        if (hotStockManager.tryRelease(productId, quantity)) {
+            return true;
+        }
+        if (productRepository.releaseStock(productId, quantity) == 0) {
+            throw new IllegalArgumentException("Cannot release " + quantity + " units of product " + productId + ": not reserved");
+        }
+        return false;
+    }
+
+    /**
+     * Drop lines whose release key was applied before (or earlier in the same request) and record
+     * the keys of the rest. Returns the lines still to apply; lines without a key are always applied.
+     */
+    private List<StockItemDTO> withoutAppliedKeys(List<StockItemDTO> items) {
+        // Malformed requests are rejected before any key is recorded
+        validateItems(items);
+        Set<String> keysSent = items.stream()
+                .map(StockItemDTO::getReleaseKey)
+                .filter(key -> key != null)
+                .collect(Collectors.toSet());
+        Set<String> applied = keysSent.isEmpty() ? new HashSet<>()
+                : new HashSet<>(appliedStockReleaseRepository.findAppliedKeys(keysSent));
+
+        List<StockItemDTO> pending = new ArrayList<>();
+        List<AppliedStockRelease> keys = new ArrayList<>();
+        for (StockItemDTO item : items) {
+            String key = item.getReleaseKey();
+            if (key == null) {
+                pending.add(item);
+            } else if (applied.add(key)) {
+                pending.add(item);
+                keys.add(new AppliedStockRelease(key, item.getProductId(), item.getQuantity()));
+            } else {
+                logger.info("Skipping stock line {}: already applied", key);
+            }
+        }
+        appliedStockReleaseRepository.saveAll(keys);
+        return pending;
+    }
+
+    /**
+     * Sum quantities per product and order by product ID, so concurrent multi-item
+     * requests always lock rows in the same order and cannot deadlock each other.
+     */
+    static Map<Long, Integer> mergeByProductId(List<StockItemDTO> items) {
+        validateItems(items);
+
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockItemDTO item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private static void validateItems(List<StockItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        for (StockItemDTO item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null) {
+                throw new IllegalArgumentException("Product ID and quantity are required");
+            }
+        }
+    }
+
+    private void validateQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+    }
+}
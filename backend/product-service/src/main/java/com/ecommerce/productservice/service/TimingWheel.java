@@ -0,0 +1,154 @@
+package com.ecommerce.productservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Scheduling and cancelling a timeout are O(1), and each tick only
+ * empties the one bucket whose time has come, however many timeouts are outstanding. Timeouts
+ * beyond the span of a wheel go to an overflow wheel whose tick is that whole span, and cascade
+ * down into finer wheels as their time approaches.
+ *
+ * The wheel has no clock of its own: the owner calls {@link #advance(long)} with the current time,
+ * and timeouts fire with tick granularity. Safe for concurrent use.
+ */
+public class TimingWheel<T> {
+
+    private final int wheelSize;
+    private final Level root;
+    private final List<Timeout<T>> due = new ArrayList<>();
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms and the wheel at least 2 buckets");
+        }
+        this.wheelSize = wheelSize;
+        this.root = new Level(tickMs, startMs);
+    }
+
+    /**
+     * Schedule an item to expire at the given time. Items already due fire on the next advance.
+     */
+    public synchronized Timeout<T> schedule(T item, long expiresAtMs) {
+        Timeout<T> timeout = new Timeout<>(item, expiresAtMs);
+        if (!root.add(timeout)) {
+            due.add(timeout);
+        }
+        return timeout;
+    }
+
+    /**
+     * Move the wheel forward to the given time and return the items that expired on the way,
+     * skipping cancelled ones
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        for (Timeout<T> timeout : due) {
+            collect(timeout, expired);
+        }
+        due.clear();
+        root.advance(nowMs, expired);
+        return expired;
+    }
+
+    private void collect(Timeout<T> timeout, List<T> expired) {
+        if (!timeout.isCancelled()) {
+            expired.add(timeout.getItem());
+        }
+    }
+
+    /**
+     * Handle for a scheduled item. Cancelling only flags it; the entry is dropped when its bucket comes up.
+     */
+    public static final class Timeout<T> {
+
+        private final T item;
+        private final long expiresAtMs;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long expiresAtMs) {
+            this.item = item;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getExpiresAtMs() {
+            return expiresAtMs;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * One wheel of the hierarchy. Bucket i holds timeouts expiring in [t, t + tick) for the t that maps to i.
+     */
+    private final class Level {
+
+        private final long tickMs;
+        private final long intervalMs;
+        private final List<List<Timeout<T>>> buckets;
+        private long currentTimeMs;
+        private Level overflow;
+
+        private Level(long tickMs, long startMs) {
+            this.tickMs = tickMs;
+            this.intervalMs = tickMs * wheelSize;
+            this.currentTimeMs = startMs - (startMs % tickMs);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * Place a timeout in this wheel or an overflow wheel, returning false if it is already due
+         */
+        private boolean add(Timeout<T> timeout) {
+            long expiresAtMs = timeout.getExpiresAtMs();
+            if (expiresAtMs < currentTimeMs + tickMs) {
+                return false;
+            }
+            if (expiresAtMs < currentTimeMs + intervalMs) {
+                buckets.get(bucketIndex(expiresAtMs)).add(timeout);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(intervalMs, currentTimeMs);
+            }
+            return overflow.add(timeout);
+        }
+
+        private void advance(long nowMs, List<T> expired) {
+            while (nowMs >= currentTimeMs + tickMs) {
+                currentTimeMs += tickMs;
+                int index = bucketIndex(currentTimeMs);
+                List<Timeout<T>> bucket = buckets.get(index);
+                if (!bucket.isEmpty()) {
+                    buckets.set(index, new ArrayList<>());
+                    for (Timeout<T> timeout : bucket) {
+                        // Due timeouts fire, timeouts from a coarser wheel drop into a finer one
+                        if (!timeout.isCancelled() && !root.add(timeout)) {
+                            expired.add(timeout.getItem());
+                        }
+                    }
+                }
+                if (overflow != null) {
+                    overflow.advance(currentTimeMs, expired);
+                }
+            }
+        }
+
+        private int bucketIndex(long timeMs) {
+            return (int) ((timeMs / tickMs) % wheelSize);
+        }
+    }
+}
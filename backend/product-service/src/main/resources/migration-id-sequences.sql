@@ -0,0 +1,14 @@
+-- Migration script for the sequence-based entity ids
+-- Run this in MySQL Workbench or your database tool BEFORE starting the new version against an existing database
+
+-- Hibernate keeps each id sequence in a one-row <table>_seq table on MySQL and reserves 50 ids per read,
+-- handing out next_val - 49 up to next_val. Seeding next_val with MAX(id) + 50 makes new ids start right after
+-- the existing rows. Safe to re-run while the service is stopped.
+
+CREATE TABLE IF NOT EXISTS products_seq (next_val BIGINT);
+DELETE FROM products_seq;
+INSERT INTO products_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM products;
+
+CREATE TABLE IF NOT EXISTS stock_holds_seq (next_val BIGINT);
+DELETE FROM stock_holds_seq;
+INSERT INTO stock_holds_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM stock_holds;
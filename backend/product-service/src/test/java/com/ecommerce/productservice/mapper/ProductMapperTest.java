@@ -0,0 +1,70 @@
+package com.ecommerce.productservice.mapper;
+
+import com.ecommerce.productservice.dto.ProductCreateDTO;
+import com.ecommerce.productservice.dto.ProductDTO;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.ProductStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProductMapperTest {
+
+    private final ProductMapper productMapper = new ProductMapper();
+
+    @Test
+    void testToDTO_CopiesFieldsAndStatusValue() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 10, 0);
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("Laptop");
+        product.setDescription("A laptop");
+        product.setPrice(new BigDecimal("999.99"));
+        product.setCategory("Electronics");
+        product.setImageUrl("http://example.com/laptop.jpg");
+        product.setStock(5);
+        product.setStatus(ProductStatus.INACTIVE);
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now.plusHours(1));
+
+        ProductDTO dto = productMapper.toDTO(product);
+
+        assertThat(dto.getId()).isEqualTo(1L);
+        assertThat(dto.getName()).isEqualTo("Laptop");
+        assertThat(dto.getDescription()).isEqualTo("A laptop");
+        assertThat(dto.getPrice()).isEqualByComparingTo("999.99");
+        assertThat(dto.getCategory()).isEqualTo("Electronics");
+        assertThat(dto.getImageUrl()).isEqualTo("http://example.com/laptop.jpg");
+        assertThat(dto.getStock()).isEqualTo(5);
+        assertThat(dto.getStatus()).isEqualTo(ProductStatus.INACTIVE.getValue());
+        assertThat(dto.getCreatedAt()).isEqualTo(now);
+        assertThat(dto.getUpdatedAt()).isEqualTo(now.plusHours(1));
+    }
+
+    @Test
+    void testToEntity_ParsesStatusAndLeavesIdUnset() {
+        ProductCreateDTO dto = new ProductCreateDTO();
+        dto.setName("Desk");
+        dto.setDescription("A desk");
+        dto.setPrice(new BigDecimal("150.00"));
+        dto.setCategory("Furniture");
+        dto.setImageUrl("http://example.com/desk.jpg");
+        dto.setStock(3);
+        dto.setStatus("inactive");
+
+        Product product = productMapper.toEntity(dto);
+
+        assertThat(product.getId()).isNull();
+        assertThat(product.getName()).isEqualTo("Desk");
+        assertThat(product.getDescription()).isEqualTo("A desk");
+        assertThat(product.getPrice()).isEqualByComparingTo("150.00");
+        assertThat(product.getCategory()).isEqualTo("Furniture");
+        assertThat(product.getImageUrl()).isEqualTo("http://example.com/desk.jpg");
+        assertThat(product.getStock()).isEqualTo(3);
+        assertThat(product.getStatus()).isEqualTo(ProductStatus.INACTIVE);
+        assertThat(product.getReservedStock()).isZero();
+    }
+}
@@ -0,0 +1,191 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotStockManagerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private HotStockManager hotStockManager;
+
+    @BeforeEach
+    void setUp() {
+        hotStockManager = new HotStockManager(productRepository, 8);
+    }
+
+    @Test
+    void testTryReserve_NotHotFallsBackToRow() {
+        assertNull(hotStockManager.tryReserve(1L, 1));
+        assertFalse(hotStockManager.tryRelease(1L, 1));
+        assertFalse(hotStockManager.isHot(1L));
+    }
+
+    @Test
+    void testEnable_AlreadyHotOrInactive() {
+        when(productRepository.enableFlashSale(eq(1L), anyString())).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> hotStockManager.enable(1L, 4));
+        assertFalse(hotStockManager.isHot(1L));
+    }
+
+    @Test
+    void testEnable_InvalidShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> hotStockManager.enable(1L, 0));
+        verify(productRepository, never()).enableFlashSale(anyLong(), anyString());
+    }
+
+    @Test
+    void testReserve_RebalancesWhenEveryShardIsShort() {
+        enable(1L, 4, 4);
+
+        // One unit per shard: a 3-unit request only fits after pooling the shards
+        assertTrue(hotStockManager.tryReserve(1L, 3));
+        assertEquals(1, hotStockManager.getAvailableStock(1L));
+        assertFalse(hotStockManager.tryReserve(1L, 2));
+        assertEquals(1, hotStockManager.getAvailableStock(1L));
+    }
+
+    @Test
+    void testFlush_WritesOnlyTheDeltaSinceLastFlush() {
+        enable(1L, 10, 2);
+
+        hotStockManager.tryReserve(1L, 3);
+        hotStockManager.flush();
+        hotStockManager.tryReserve(1L, 2);
+        hotStockManager.tryRelease(1L, 1);
+        hotStockManager.flush();
+        hotStockManager.flush();
+
+        verify(productRepository).applyFlashSaleReservations(1L, owner(), 3);
+        verify(productRepository).applyFlashSaleReservations(1L, owner(), 1);
+        verifyNoMoreInteractions(ignoreStubs(productRepository));
+    }
+
+    @Test
+    void testFlush_FailureIsRetriedOnNextFlush() {
+        enable(1L, 10, 2);
+        when(productRepository.applyFlashSaleReservations(1L, owner(), 4))
+                .thenThrow(new RuntimeException("Connection reset"))
+                .thenReturn(1);
+
+        hotStockManager.tryReserve(1L, 4);
+        hotStockManager.flush();
+        hotStockManager.flush();
+
+        verify(productRepository, times(2)).applyFlashSaleReservations(1L, owner(), 4);
+    }
+
+    @Test
+    void testRelease_OnlyTakesBackUnitsNotYetFlushed() {
+        enable(1L, 10, 2);
+
+        hotStockManager.tryReserve(1L, 3);
+        hotStockManager.flush();
+        // Those 3 are in the row's reserved bucket now and have to be released there
+        assertFalse(hotStockManager.tryRelease(1L, 1));
+
+        hotStockManager.tryReserve(1L, 2);
+        assertFalse(hotStockManager.tryRelease(1L, 3));
+        assertTrue(hotStockManager.tryRelease(1L, 2));
+        assertFalse(hotStockManager.tryRelease(1L, 1));
+        assertEquals(7, hotStockManager.getAvailableStock(1L));
+    }
+
+    @Test
+    void testCancelReservation_AfterFlushMovesUnitsOutOfReservedAgain() {
+        enable(1L, 10, 2);
+
+        hotStockManager.tryReserve(1L, 4);
+        hotStockManager.flush();
+        hotStockManager.cancelReservation(1L, 4);
+        hotStockManager.flush();
+
+        assertEquals(10, hotStockManager.getAvailableStock(1L));
+        verify(productRepository).applyFlashSaleReservations(1L, owner(), 4);
+        verify(productRepository).applyFlashSaleReservations(1L, owner(), -4);
+    }
+
+    @Test
+    void testFlush_OwnershipLostReturnsHeldUnits() {
+        enable(1L, 10, 2);
+        hotStockManager.tryReserve(1L, 4);
+        // Flash-sale mode was disabled on another instance
+        when(productRepository.applyFlashSaleReservations(1L, owner(), 4)).thenReturn(0);
+        when(productRepository.findFlashSaleOwnerById(1L)).thenReturn(null);
+        when(productRepository.returnFlashSaleUnits(1L, 4, 6)).thenReturn(1);
+
+        hotStockManager.flush();
+
+        verify(productRepository).returnFlashSaleUnits(1L, 4, 6);
+        assertFalse(hotStockManager.isHot(1L));
+        assertNull(hotStockManager.tryReserve(1L, 1));
+    }
+
+    @Test
+    void testFlush_RefusedWriteKeepsBaseline() {
+        enable(1L, 10, 2);
+        hotStockManager.tryReserve(1L, 4);
+        when(productRepository.applyFlashSaleReservations(1L, owner(), 4)).thenReturn(0, 1);
+
+        hotStockManager.flush();
+        hotStockManager.flush();
+
+        verify(productRepository, times(2)).applyFlashSaleReservations(1L, owner(), 4);
+        verify(productRepository, never()).returnFlashSaleUnits(anyLong(), anyInt(), anyInt());
+        assertTrue(hotStockManager.isHot(1L));
+    }
+
+    @Test
+    void testDisable_ReturnsUnsoldUnitsAndRejectsFurtherReservations() {
+        enable(1L, 10, 2);
+        hotStockManager.tryReserve(1L, 6);
+        when(productRepository.endFlashSale(1L, owner(), 6, 4)).thenReturn(1);
+        when(productRepository.findStockById(1L)).thenReturn(4);
+
+        assertEquals(4, hotStockManager.disable(1L));
+
+        verify(productRepository).endFlashSale(1L, owner(), 6, 4);
+        verify(productRepository, never()).disableFlashSale(anyLong());
+        assertFalse(hotStockManager.isHot(1L));
+        assertNull(hotStockManager.tryReserve(1L, 1));
+    }
+
+    @Test
+    void testDisable_OnAnotherInstanceOnlyClearsTheFlag() {
+        when(productRepository.disableFlashSale(1L)).thenReturn(1);
+        when(productRepository.findStockById(1L)).thenReturn(0);
+
+        assertEquals(0, hotStockManager.disable(1L));
+
+        verify(productRepository, never()).endFlashSale(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testDisable_NotInFlashSaleMode() {
+        assertThrows(IllegalArgumentException.class, () -> hotStockManager.disable(1L));
+    }
+
+    private String owner() {
+        return hotStockManager.getInstanceId();
+    }
+
+    private void enable(Long productId, int stock, int shards) {
+        when(productRepository.enableFlashSale(productId, owner())).thenReturn(1);
+        when(productRepository.findStockById(productId)).thenReturn(stock);
+        when(productRepository.holdFlashSaleStock(productId, stock)).thenReturn(1);
+        lenient().when(productRepository.applyFlashSaleReservations(eq(productId), eq(owner()), anyInt())).thenReturn(1);
+        lenient().when(productRepository.findFlashSaleOwnerById(productId)).thenReturn(owner());
+        hotStockManager.enable(productId, shards);
+    }
+}
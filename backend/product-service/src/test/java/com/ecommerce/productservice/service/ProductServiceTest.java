@@ -5,14 +5,15 @@ import com.ecommerce.productservice.dto.ProductCreateDTO;
 import com.ecommerce.productservice.dto.ProductDTO;
 import com.ecommerce.productservice.entity.Product;
 import com.ecommerce.productservice.entity.ProductStatus;
+import com.ecommerce.productservice.mapper.ProductMapper;
 import com.ecommerce.productservice.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -24,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,8 +37,8 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private ProductMapper productMapper = new ProductMapper();
 
     @InjectMocks
     private ProductService productService;
@@ -111,7 +113,6 @@ class ProductServiceTest {
         when(productRepository.findProductsWithFilters(eq(category), eq(ProductStatus.ACTIVE), 
              eq(search), eq(minPrice), eq(maxPrice), any(Pageable.class)))
              .thenReturn(productPage);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When
         PaginatedResponse<ProductDTO> result = productService.getProductsForAdmin(
@@ -135,7 +136,6 @@ class ProductServiceTest {
         Page<Product> productPage = new PageImpl<>(Arrays.asList(sampleProduct));
         when(productRepository.findProductsWithFilters(any(), any(), any(), any(), any(), any(Pageable.class)))
              .thenReturn(productPage);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When
         PaginatedResponse<ProductDTO> result = productService.getProductsForAdmin(
@@ -153,7 +153,6 @@ class ProductServiceTest {
         Page<Product> productPage = new PageImpl<>(Arrays.asList(sampleProduct));
         when(productRepository.findProductsWithFilters(any(), any(), any(), any(), any(), any(Pageable.class)))
              .thenReturn(productPage);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When
         productService.getProductsForAdmin(null, null, null, null, null, 0, 10, null, "asc");
@@ -168,14 +167,13 @@ class ProductServiceTest {
         // Given
         List<Product> products = Arrays.asList(sampleProduct);
         when(productRepository.findAll(Sort.by(Sort.Direction.DESC, "updatedAt"))).thenReturn(products);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When
         List<ProductDTO> result = productService.getAllProductsForAdmin();
 
         // Then
         assertThat(result).hasSize(1);
-        assertThat(result.get(0)).isEqualTo(sampleProductDTO);
+        assertThat(result.get(0)).usingRecursiveComparison().ignoringFields("createdAt", "updatedAt").isEqualTo(sampleProductDTO);
         verify(productRepository).findAll(Sort.by(Sort.Direction.DESC, "updatedAt"));
     }
 
@@ -185,7 +183,6 @@ class ProductServiceTest {
         Page<Product> productPage = new PageImpl<>(Arrays.asList(sampleProduct));
         when(productRepository.findActiveProductsWithFilters(any(), any(), any(), any(), any(Pageable.class)))
              .thenReturn(productPage);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When
         PaginatedResponse<ProductDTO> result = productService.getActiveProducts(
@@ -202,9 +199,7 @@ class ProductServiceTest {
     void testCreateProduct_Success() {
         // Given
         when(productRepository.existsByNameIgnoreCase("New Product")).thenReturn(false);
-        when(modelMapper.map(sampleProductCreateDTO, Product.class)).thenReturn(sampleProduct);
         when(productRepository.save(any(Product.class))).thenReturn(sampleProduct);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When
         ProductDTO result = productService.createProduct(sampleProductCreateDTO);
@@ -233,14 +228,13 @@ class ProductServiceTest {
     void testGetProductById_Found() {
         // Given
         when(productRepository.findById(1L)).thenReturn(Optional.of(sampleProduct));
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When
         Optional<ProductDTO> result = productService.getProductById(1L);
 
         // Then
         assertThat(result).isPresent();
-        assertThat(result.get()).isEqualTo(sampleProductDTO);
+        assertThat(result.get()).usingRecursiveComparison().ignoringFields("createdAt", "updatedAt").isEqualTo(sampleProductDTO);
         verify(productRepository).findById(1L);
     }
 
@@ -257,13 +251,49 @@ class ProductServiceTest {
         verify(productRepository).findById(999L);
     }
 
+    @Test
+    void testGetActiveProductsByIds_SkipsInactiveProducts() {
+        // Given
+        Product inactiveProduct = createSampleProduct();
+        inactiveProduct.setId(2L);
+        inactiveProduct.setStatus(ProductStatus.INACTIVE);
+        when(productRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(sampleProduct, inactiveProduct));
+
+        // When
+        List<ProductDTO> result = productService.getActiveProductsByIds(Arrays.asList(1L, 2L, 1L));
+
+        // Then
+        assertThat(result).hasSize(1);
+        verify(productRepository, times(1)).findAllById(argThat(ids -> ids.spliterator().getExactSizeIfKnown() == 2));
+    }
+
+    @Test
+    void testGetActiveProductsByIds_EmptyIds() {
+        // When
+        List<ProductDTO> result = productService.getActiveProductsByIds(List.of());
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(productRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void testGetActiveProductsByIds_TooManyIds() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        // When & Then
+        assertThatThrownBy(() -> productService.getActiveProductsByIds(ids))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(productRepository, never()).findAllById(anyIterable());
+    }
+
     @Test
     void testUpdateProduct_Success() {
         // Given
         when(productRepository.findById(1L)).thenReturn(Optional.of(sampleProduct));
         when(productRepository.existsByNameIgnoreCaseAndIdNot("Updated Product", 1L)).thenReturn(false);
         when(productRepository.save(any(Product.class))).thenReturn(sampleProduct);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         ProductDTO updateDTO = createSampleProductDTO();
         updateDTO.setName("Updated Product");
@@ -429,7 +459,6 @@ class ProductServiceTest {
     @Test
     void testMapToDTO_VerifyStatusMapping() {
         // Given
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
         when(productRepository.findById(1L)).thenReturn(Optional.of(sampleProduct));
 
         // When
@@ -444,15 +473,13 @@ class ProductServiceTest {
     void testMapToEntity_VerifyStatusMapping() {
         // Given
         when(productRepository.existsByNameIgnoreCase(any())).thenReturn(false);
-        when(modelMapper.map(any(ProductCreateDTO.class), eq(Product.class))).thenReturn(sampleProduct);
         when(productRepository.save(any(Product.class))).thenReturn(sampleProduct);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When
         productService.createProduct(sampleProductCreateDTO);
 
         // Then
-        verify(modelMapper).map(sampleProductCreateDTO, Product.class);
+        verify(productMapper).toEntity(sampleProductCreateDTO);
         verify(productRepository).save(argThat(product -> 
             product.getStatus() == ProductStatus.ACTIVE));
     }
@@ -463,7 +490,6 @@ class ProductServiceTest {
         Page<Product> productPage = new PageImpl<>(Arrays.asList(sampleProduct));
         when(productRepository.findProductsWithFilters(any(), eq(null), any(), any(), any(), any(Pageable.class)))
              .thenReturn(productPage);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When - Pass null status to test the branch
         PaginatedResponse<ProductDTO> result = productService.getProductsForAdmin(
@@ -481,7 +507,6 @@ class ProductServiceTest {
         Page<Product> productPage = new PageImpl<>(Arrays.asList(sampleProduct));
         when(productRepository.findProductsWithFilters(any(), eq(null), any(), any(), any(), any(Pageable.class)))
              .thenReturn(productPage);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When - Pass empty string status to test the branch
         PaginatedResponse<ProductDTO> result = productService.getProductsForAdmin(
@@ -499,7 +524,6 @@ class ProductServiceTest {
         Page<Product> productPage = new PageImpl<>(Arrays.asList(sampleProduct));
         when(productRepository.findActiveProductsWithFilters(any(), any(), any(), any(), any(Pageable.class)))
              .thenReturn(productPage);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When - Use "asc" to test the ASC branch
         PaginatedResponse<ProductDTO> result = productService.getActiveProducts(
@@ -518,7 +542,6 @@ class ProductServiceTest {
         Page<Product> productPage = new PageImpl<>(Arrays.asList(sampleProduct));
         when(productRepository.findActiveProductsWithFilters(any(), any(), any(), any(), any(Pageable.class)))
              .thenReturn(productPage);
-        when(modelMapper.map(any(Product.class), eq(ProductDTO.class))).thenReturn(sampleProductDTO);
 
         // When - Pass null sortBy to test default behavior
         PaginatedResponse<ProductDTO> result = productService.getActiveProducts(
@@ -0,0 +1,102 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.ProductStatus;
+import com.ecommerce.productservice.entity.StockHold;
+import com.ecommerce.productservice.repository.JobLeaseRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.StockHoldRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+// ProductServiceApplicationTest leaves spring.autoconfigure.exclude set as a system property
+@DataJpaTest(properties = {"spring.autoconfigure.exclude=", "product.holds.sweep.grace-ms=1000",
+        "product.holds.sweep.batch-size=2"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StockHoldExpiryTask.class, StockHoldService.class, StockService.class, HotStockManager.class, JobLeases.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockHoldExpiryTaskTest {
+
+    @Autowired
+    private StockHoldExpiryTask stockHoldExpiryTask;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        stockHoldRepository.deleteAll();
+        productRepository.deleteAll();
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void testSweep_ExpiresHoldsLeftByAnotherInstance() {
+        Product product = saveProduct("Tripod", 10);
+        // Holds this instance's wheel never saw, as if created by an instance that stopped
+        for (int i = 1; i <= 3; i++) {
+            productRepository.reserveStock(product.getId(), 2);
+            stockHoldRepository.save(new StockHold("orphan-" + i, product.getId(), 2, LocalDateTime.now().minusMinutes(5)));
+        }
+        productRepository.reserveStock(product.getId(), 1);
+        stockHoldRepository.save(new StockHold("within-grace", product.getId(), 1, LocalDateTime.now()));
+
+        // Two batches of at most two holds
+        assertThat(stockHoldExpiryTask.sweepOverdueHolds()).isEqualTo(3);
+
+        assertThat(stockHoldRepository.findAll()).extracting(StockHold::getHoldId).containsExactly("within-grace");
+        assertStock(product.getId(), 9, 1);
+        assertThat(stockHoldExpiryTask.sweepOverdueHolds()).isZero();
+    }
+
+    @Test
+    void testSweep_SkipsWhileAnotherInstanceHoldsTheLease() {
+        Product product = saveProduct("Flash", 5);
+        productRepository.reserveStock(product.getId(), 2);
+        stockHoldRepository.save(new StockHold("orphan", product.getId(), 2, LocalDateTime.now().minusMinutes(5)));
+        JobLeases otherInstance = new JobLeases(jobLeaseRepository, transactionManager);
+        assertThat(otherInstance.tryAcquire(StockHoldExpiryTask.SWEEP_JOB_NAME, 60_000)).isTrue();
+
+        assertThat(stockHoldExpiryTask.sweepOverdueHolds()).isZero();
+        assertStock(product.getId(), 3, 2);
+
+        otherInstance.release(StockHoldExpiryTask.SWEEP_JOB_NAME);
+        assertThat(stockHoldExpiryTask.sweepOverdueHolds()).isEqualTo(1);
+        assertStock(product.getId(), 5, 0);
+    }
+
+    private Product saveProduct(String name, int stock) {
+        Product product = new Product(name, name + " description", new BigDecimal("49.99"),
+                "Electronics", null, stock, ProductStatus.ACTIVE);
+        return productRepository.save(product);
+    }
+
+    private void assertStock(Long productId, int expectedStock, int expectedReserved) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(product.getStock()).isEqualTo(expectedStock);
+        assertThat(product.getReservedStock()).isEqualTo(expectedReserved);
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.StockHoldDTO;
+import com.ecommerce.productservice.dto.StockItemDTO;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.ProductStatus;
+import com.ecommerce.productservice.entity.StockHold;
+import com.ecommerce.productservice.exception.InsufficientStockException;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.StockHoldRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// ProductServiceApplicationTest leaves spring.autoconfigure.exclude set as a system property
+@DataJpaTest(properties = {"spring.autoconfigure.exclude=", "product.holds.tick-ms=50"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StockHoldService.class, StockService.class, HotStockManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockHoldServiceTest {
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        stockHoldRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testCreateHold_ReservesAndStoresMergedLines() {
+        Product product = saveProduct("Headphones", 10);
+
+        StockHoldDTO hold = stockHoldService.createHold(List.of(
+                new StockItemDTO(product.getId(), 2), new StockItemDTO(product.getId(), 1)), null);
+
+        assertThat(hold.getHoldId()).isNotBlank();
+        assertThat(hold.getExpiresAt()).isAfter(LocalDateTime.now().plusSeconds(500));
+        assertThat(stockHoldRepository.findByHoldId(hold.getHoldId()))
+                .singleElement()
+                .extracting(StockHold::getQuantity)
+                .isEqualTo(3);
+        assertStock(product.getId(), 7, 3);
+    }
+
+    @Test
+    void testCreateHold_InsufficientStockStoresNothing() {
+        Product product = saveProduct("Speaker", 1);
+
+        assertThatThrownBy(() -> stockHoldService.createHold(List.of(new StockItemDTO(product.getId(), 2)), null))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(stockHoldRepository.count()).isZero();
+        assertStock(product.getId(), 1, 0);
+    }
+
+    @Test
+    void testConfirmHold_KeepsUnitsReservedAndCancelsExpiry() throws Exception {
+        Product product = saveProduct("Camera", 5);
+        StockHoldDTO hold = stockHoldService.createHold(List.of(new StockItemDTO(product.getId(), 2)), 1L);
+
+        stockHoldService.confirmHold(hold.getHoldId());
+        Thread.sleep(1_200);
+
+        assertThat(stockHoldService.pollExpiredHolds()).doesNotContain(hold.getHoldId());
+        assertThat(stockHoldRepository.count()).isZero();
+        assertStock(product.getId(), 3, 2);
+        assertThatThrownBy(() -> stockHoldService.confirmHold(hold.getHoldId()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testReleaseHold_ReturnsUnits() {
+        Product product = saveProduct("Tripod", 5);
+        StockHoldDTO hold = stockHoldService.createHold(List.of(new StockItemDTO(product.getId(), 4)), null);
+
+        stockHoldService.releaseHold(hold.getHoldId());
+
+        assertStock(product.getId(), 5, 0);
+        assertThatThrownBy(() -> stockHoldService.releaseHold(hold.getHoldId()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testExpiredHold_ReleasedAfterTtl() throws Exception {
+        Product product = saveProduct("Lens", 5);
+        StockHoldDTO hold = stockHoldService.createHold(List.of(new StockItemDTO(product.getId(), 3)), 1L);
+
+        assertThat(stockHoldService.pollExpiredHolds()).isEmpty();
+        Thread.sleep(1_200);
+        List<String> expired = stockHoldService.pollExpiredHolds();
+
+        assertThat(expired).containsExactly(hold.getHoldId());
+        assertThat(stockHoldService.expireHold(hold.getHoldId())).isTrue();
+        assertThat(stockHoldService.expireHold(hold.getHoldId())).isFalse();
+        assertStock(product.getId(), 5, 0);
+    }
+
+    @Test
+    void testRebuildExpiryWheel_RestoresHoldsFromTable() {
+        Product product = saveProduct("Drone", 5);
+        productRepository.reserveStock(product.getId(), 2);
+        stockHoldRepository.save(new StockHold("restored-hold", product.getId(), 2, LocalDateTime.now().minusSeconds(5)));
+
+        stockHoldService.rebuildExpiryWheel();
+        List<String> expired = stockHoldService.pollExpiredHolds();
+
+        assertThat(expired).contains("restored-hold");
+        assertThat(stockHoldService.expireHold("restored-hold")).isTrue();
+        assertStock(product.getId(), 5, 0);
+    }
+
+    @Test
+    void testCreateHold_InvalidTtl() {
+        Product product = saveProduct("Gimbal", 5);
+
+        assertThatThrownBy(() -> stockHoldService.createHold(List.of(new StockItemDTO(product.getId(), 1)), 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertStock(product.getId(), 5, 0);
+    }
+
+    private Product saveProduct(String name, int stock) {
+        Product product = new Product(name, name + " description", new BigDecimal("49.99"),
+                "Electronics", null, stock, ProductStatus.ACTIVE);
+        return productRepository.save(product);
+    }
+
+    private void assertStock(Long productId, int expectedStock, int expectedReserved) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(product.getStock()).isEqualTo(expectedStock);
+        assertThat(product.getReservedStock()).isEqualTo(expectedReserved);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.ProductStatus;
+import com.ecommerce.productservice.exception.InsufficientStockException;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Reservations per second on a single SKU, row-update path versus flash-sale shards.
+ * Not part of the regular build (surefire only picks up *Test classes); run it with
+ * {@code mvn test -Dtest=StockReservationBenchmark}.
+ */
+// ProductServiceApplicationTest leaves spring.autoconfigure.exclude set as a system property
+@DataJpaTest(properties = "spring.autoconfigure.exclude=")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StockService.class, HotStockManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int RESERVATIONS = 20_000;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private HotStockManager hotStockManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void benchmarkSingleSkuReservations() throws Exception {
+        // Warm up both paths before measuring
+        run(false, 2_000);
+        run(true, 2_000);
+
+        double rowPerSecond = run(false, RESERVATIONS);
+        double shardedPerSecond = run(true, RESERVATIONS);
+
+        System.out.printf("Single SKU, %d threads, %d reservations%n", THREADS, RESERVATIONS);
+        System.out.printf("  row update : %,12.0f reservations/sec%n", rowPerSecond);
+        System.out.printf("  flash sale : %,12.0f reservations/sec (%.1fx)%n",
+                shardedPerSecond, shardedPerSecond / rowPerSecond);
+    }
+
+    private double run(boolean flashSale, int reservations) throws Exception {
+        Product product = productRepository.save(new Product("Benchmark SKU", "Benchmark SKU", new BigDecimal("9.99"),
+                "Electronics", null, reservations, ProductStatus.ACTIVE));
+        if (flashSale) {
+            hotStockManager.enable(product.getId(), THREADS);
+        }
+
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            executor.submit(() -> {
+                start.await();
+                while (true) {
+                    try {
+                        stockService.reserveStock(product.getId(), 1);
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        return null;
+                    }
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        long elapsed = System.nanoTime() - began;
+
+        if (flashSale) {
+            hotStockManager.disable(product.getId());
+        }
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(reserved.get()).isEqualTo(reservations);
+        assertThat(after.getStock()).isZero();
+        assertThat(after.getReservedStock()).isEqualTo(reservations);
+
+        return reservations / (elapsed / 1_000_000_000.0);
+    }
+}
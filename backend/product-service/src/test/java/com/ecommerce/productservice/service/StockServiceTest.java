@@ -0,0 +1,355 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.StockItemDTO;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.ProductStatus;
+import com.ecommerce.productservice.exception.InsufficientStockException;
+import com.ecommerce.productservice.repository.AppliedStockReleaseRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs against H2 without a wrapping test transaction, so every reservation commits
+ * on its own connection exactly as it does in production.
+ */
+// ProductServiceApplicationTest leaves spring.autoconfigure.exclude set as a system property
+@DataJpaTest(properties = "spring.autoconfigure.exclude=")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StockService.class, HotStockManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockServiceTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private HotStockManager hotStockManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AppliedStockReleaseRepository appliedStockReleaseRepository;
+
+    @AfterEach
+    void tearDown() {
+        appliedStockReleaseRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testReserveReleaseCommit_MovesUnitsBetweenBuckets() {
+        Product product = saveProduct("Keyboard", 10);
+
+        stockService.reserveStock(product.getId(), 4);
+        assertStock(product.getId(), 6, 4);
+
+        stockService.releaseStock(product.getId(), 1);
+        assertStock(product.getId(), 7, 3);
+
+        stockService.commitStock(product.getId(), 3);
+        assertStock(product.getId(), 7, 0);
+    }
+
+    @Test
+    void testReserveStock_InsufficientStock() {
+        Product product = saveProduct("Mouse", 2);
+
+        assertThatThrownBy(() -> stockService.reserveStock(product.getId(), 3))
+                .isInstanceOf(InsufficientStockException.class);
+        assertStock(product.getId(), 2, 0);
+    }
+
+    @Test
+    void testReserveStock_InactiveProduct() {
+        Product product = saveProduct("Monitor", 5);
+        product.setStatus(ProductStatus.INACTIVE);
+        productRepository.save(product);
+
+        assertThatThrownBy(() -> stockService.reserveStock(product.getId(), 1))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test
+    void testReleaseStock_MoreThanReserved() {
+        Product product = saveProduct("Headset", 5);
+        stockService.reserveStock(product.getId(), 1);
+
+        assertThatThrownBy(() -> stockService.releaseStock(product.getId(), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertStock(product.getId(), 4, 1);
+    }
+
+    @Test
+    void testReserveStock_MultiItemIsAllOrNothing() {
+        Product plenty = saveProduct("Cable", 10);
+        Product scarce = saveProduct("Dock", 1);
+
+        assertThatThrownBy(() -> stockService.reserveStock(List.of(
+                new StockItemDTO(plenty.getId(), 3),
+                new StockItemDTO(scarce.getId(), 2))))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertStock(plenty.getId(), 10, 0);
+        assertStock(scarce.getId(), 1, 0);
+    }
+
+    @Test
+    void testReserveStock_MultiItemMergesDuplicateLines() {
+        Product product = saveProduct("Charger", 5);
+
+        stockService.reserveStock(List.of(
+                new StockItemDTO(product.getId(), 2),
+                new StockItemDTO(product.getId(), 3)));
+
+        assertStock(product.getId(), 0, 5);
+    }
+
+    @Test
+    void testConcurrentReservations_NeverOversell() throws Exception {
+        int initialStock = 100;
+        int threads = 32;
+        int attemptsPerThread = 50;
+        Product product = saveProduct("Flash Sale Phone", initialStock);
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    try {
+                        stockService.reserveStock(product.getId(), 1);
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(reserved.get()).isEqualTo(initialStock);
+        assertThat(rejected.get()).isEqualTo(threads * attemptsPerThread - initialStock);
+        assertStock(product.getId(), 0, initialStock);
+    }
+
+    @Test
+    void testFlashSale_ConcurrentReservationsNeverOversell() throws Exception {
+        int initialStock = 100;
+        int threads = 32;
+        int attemptsPerThread = 50;
+        Product product = saveProduct("Hot Phone", initialStock);
+        hotStockManager.enable(product.getId(), 8);
+
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    try {
+                        stockService.reserveStock(product.getId(), 1);
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // sold out
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(reserved.get()).isEqualTo(initialStock);
+        assertThat(hotStockManager.getAvailableStock(product.getId())).isZero();
+        // The shards hold the stock; the reserved bucket only catches up on flush
+        assertStock(product.getId(), 0, 0);
+        hotStockManager.flush();
+        assertStock(product.getId(), 0, initialStock);
+
+        hotStockManager.disable(product.getId());
+    }
+
+    @Test
+    void testFlashSale_DisableWritesBackAndRestoresRowPath() {
+        Product product = saveProduct("Hot Console", 10);
+        hotStockManager.enable(product.getId(), 4);
+
+        stockService.reserveStock(product.getId(), 3);
+        stockService.releaseStock(product.getId(), 1);
+        assertThat(productRepository.reserveStock(product.getId(), 1)).isZero();
+
+        assertThat(hotStockManager.disable(product.getId())).isEqualTo(8);
+        assertStock(product.getId(), 8, 2);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getFlashSale()).isFalse();
+
+        stockService.reserveStock(product.getId(), 8);
+        assertStock(product.getId(), 0, 10);
+    }
+
+    @Test
+    void testFlashSale_CommitFlushesPendingReservations() {
+        Product product = saveProduct("Hot Tablet", 5);
+        hotStockManager.enable(product.getId(), 2);
+
+        stockService.reserveStock(product.getId(), 2);
+        stockService.commitStock(product.getId(), 2);
+
+        assertStock(product.getId(), 0, 0);
+        assertThat(hotStockManager.disable(product.getId())).isEqualTo(3);
+        assertStock(product.getId(), 3, 0);
+    }
+
+    @Test
+    void testFlashSale_FlushedUnitsAreReleasedOnTheRow() {
+        Product product = saveProduct("Hot Camera", 5);
+        hotStockManager.enable(product.getId(), 2);
+        stockService.reserveStock(product.getId(), 2);
+        hotStockManager.flush();
+
+        stockService.releaseStock(product.getId(), 2);
+        assertThatThrownBy(() -> stockService.releaseStock(product.getId(), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(hotStockManager.getAvailableStock(product.getId())).isEqualTo(3);
+        assertStock(product.getId(), 2, 0);
+        assertThat(hotStockManager.disable(product.getId())).isEqualTo(5);
+        assertStock(product.getId(), 5, 0);
+    }
+
+    @Test
+    void testFlashSale_OnlyTheOwningInstanceSellsAndDisablingElsewhereHandsUnitsBack() {
+        Product product = saveProduct("Hot Drone", 6);
+        hotStockManager.enable(product.getId(), 2);
+        stockService.reserveStock(product.getId(), 2);
+        // Another instance, or this one after a restart, starts with no shards and no stock to sell
+        HotStockManager otherInstance = new HotStockManager(productRepository, 2);
+        otherInstance.reportFlashSaleProducts();
+
+        assertThat(otherInstance.tryReserve(product.getId(), 1)).isNull();
+        assertThat(productRepository.reserveStock(product.getId(), 1)).isZero();
+
+        assertThat(otherInstance.disable(product.getId())).isZero();
+        hotStockManager.flush();
+
+        assertThat(hotStockManager.isHot(product.getId())).isFalse();
+        assertStock(product.getId(), 4, 2);
+    }
+
+    @Test
+    void testFlashSale_MultiItemFailureReturnsShardUnits() {
+        Product hot = saveProduct("Hot Watch", 5);
+        Product cold = saveProduct("Cold Strap", 1);
+        hotStockManager.enable(hot.getId(), 2);
+
+        List<StockItemDTO> items = List.of(new StockItemDTO(hot.getId(), 2), new StockItemDTO(cold.getId(), 2));
+        assertThatThrownBy(() -> stockService.reserveStock(items))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(hotStockManager.getAvailableStock(hot.getId())).isEqualTo(5);
+        assertStock(cold.getId(), 1, 0);
+        hotStockManager.disable(hot.getId());
+    }
+
+    @Test
+    void testReleaseStock_SkipsReleaseKeysAlreadyApplied() {
+        Product first = saveProduct("Lamp", 10);
+        Product second = saveProduct("Bulb", 10);
+        stockService.reserveStock(List.of(new StockItemDTO(first.getId(), 5), new StockItemDTO(second.getId(), 5)));
+
+        List<StockItemDTO> release = List.of(keyed(first.getId(), 2, "order:1:" + first.getId()),
+                keyed(second.getId(), 1, "order:1:" + second.getId()));
+        stockService.releaseStock(release);
+        // Redelivered, alone and together with a new line
+        stockService.releaseStock(release);
+        stockService.releaseStock(List.of(release.get(0), keyed(first.getId(), 1, "order:2:" + first.getId())));
+
+        assertStock(first.getId(), 8, 2);
+        assertStock(second.getId(), 6, 4);
+        assertThat(appliedStockReleaseRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void testCommitStock_SkipsKeysAlreadyApplied() {
+        Product product = saveProduct("Desk", 10);
+        stockService.reserveStock(List.of(new StockItemDTO(product.getId(), 4)));
+
+        List<StockItemDTO> commit = List.of(keyed(product.getId(), 3, "order-1-product-" + product.getId() + "-commit"));
+        stockService.commitStock(commit);
+        // Redelivered after a lost response
+        stockService.commitStock(commit);
+
+        assertStock(product.getId(), 6, 1);
+        assertThat(appliedStockReleaseRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testReleaseStock_FailedLineRollsBackRowsShardsAndKeys() {
+        Product hot = saveProduct("Hot Speaker", 5);
+        Product cold = saveProduct("Cold Cable", 5);
+        stockService.reserveStock(cold.getId(), 1);
+        hotStockManager.enable(hot.getId(), 2);
+        stockService.reserveStock(hot.getId(), 2);
+
+        List<StockItemDTO> release = List.of(keyed(hot.getId(), 2, "order:3:" + hot.getId()),
+                keyed(cold.getId(), 1, "order:3:" + cold.getId()),
+                keyed(cold.getId(), 1, "order:4:" + cold.getId()));
+        assertThatThrownBy(() -> stockService.releaseStock(release))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(hotStockManager.getAvailableStock(hot.getId())).isEqualTo(3);
+        assertStock(cold.getId(), 4, 1);
+        assertThat(appliedStockReleaseRepository.count()).isZero();
+
+        // The good lines go through once the bad one is left out
+        stockService.releaseStock(release.subList(0, 2));
+        assertThat(hotStockManager.getAvailableStock(hot.getId())).isEqualTo(5);
+        assertStock(cold.getId(), 5, 0);
+        hotStockManager.disable(hot.getId());
+    }
+
+    private static StockItemDTO keyed(Long productId, int quantity, String releaseKey) {
+        StockItemDTO item = new StockItemDTO(productId, quantity);
+        item.setReleaseKey(releaseKey);
+        return item;
+    }
+
+    private Product saveProduct(String name, int stock) {
+        Product product = new Product(name, name + " description", new BigDecimal("19.99"),
+                "Electronics", null, stock, ProductStatus.ACTIVE);
+        return productRepository.save(product);
+    }
+
+    private void assertStock(Long productId, int expectedStock, int expectedReserved) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(product.getStock()).isEqualTo(expectedStock);
+        assertThat(product.getReservedStock()).isEqualTo(expectedReserved);
+    }
+}
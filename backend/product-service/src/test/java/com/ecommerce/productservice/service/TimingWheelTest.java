@@ -0,0 +1,76 @@
+package com.ecommerce.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void testAdvance_FiresOnlyDueTimeouts() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 55);
+
+        assertThat(wheel.advance(19)).isEmpty();
+        assertThat(wheel.advance(29)).containsExactly("a");
+        assertThat(wheel.advance(49)).isEmpty();
+        assertThat(wheel.advance(59)).containsExactly("b");
+    }
+
+    @Test
+    void testAdvance_CascadesFromOverflowWheels() {
+        // 8 x 10 ms per level: 500 ms and 5 s need the second and third levels
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("second-level", 500);
+        wheel.schedule("third-level", 5_000);
+
+        assertThat(wheel.advance(499)).isEmpty();
+        assertThat(wheel.advance(509)).containsExactly("second-level");
+        assertThat(wheel.advance(4_999)).isEmpty();
+        assertThat(wheel.advance(5_009)).containsExactly("third-level");
+    }
+
+    @Test
+    void testAdvance_LargeJumpFiresEverythingInOrderOfBuckets() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, 0);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            wheel.schedule(i, i * 37L);
+            expected.add(i);
+        }
+
+        List<Integer> fired = wheel.advance(200 * 37L);
+
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(wheel.advance(1_000_000)).isEmpty();
+    }
+
+    @Test
+    void testCancel_SkipsCancelledTimeouts() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 500);
+        wheel.schedule("kept", 500);
+
+        cancelled.cancel();
+
+        assertThat(wheel.advance(600)).containsExactly("kept");
+    }
+
+    @Test
+    void testSchedule_OverdueFiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 1_000);
+        wheel.schedule("overdue", 500);
+
+        assertThat(wheel.advance(1_000)).containsExactly("overdue");
+    }
+
+    @Test
+    void testConstructor_InvalidArguments() {
+        assertThatThrownBy(() -> new TimingWheel<String>(0, 8, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimingWheel<String>(10, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
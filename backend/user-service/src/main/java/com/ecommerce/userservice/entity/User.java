@@ -8,8 +8,10 @@ import java.time.LocalDateTime;
 @Table(name = "users")
 public class User {
 
+    // Sequence ids (a table on MySQL); IDENTITY would rule out insert batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Username is required")
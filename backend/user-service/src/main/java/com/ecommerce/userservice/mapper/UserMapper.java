@@ -0,0 +1,30 @@
+package com.ecommerce.userservice.mapper;
+
+import com.ecommerce.userservice.dto.UserDTO;
+import com.ecommerce.userservice.entity.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps users to DTOs with plain getter/setter calls; the password is never copied
+ */
+@Component
+public class UserMapper {
+
+    public UserDTO toDTO(User user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setFirstName(user.getFirstName());
+        dto.setLastName(user.getLastName());
+        dto.setRole(user.getRole());
+        dto.setStatus(user.getStatus());
+        dto.setAvatar(user.getAvatar());
+        dto.setPhoneNumber(user.getPhoneNumber());
+        dto.setAddress(user.getAddress());
+        dto.setCreatedAt(user.getCreatedAt());
+        dto.setUpdatedAt(user.getUpdatedAt());
+        dto.setLastLogin(user.getLastLogin());
+        return dto;
+    }
+}
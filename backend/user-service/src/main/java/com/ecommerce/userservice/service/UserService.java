@@ -2,8 +2,8 @@ package com.ecommerce.userservice.service;
 
 import com.ecommerce.userservice.dto.*;
 import com.ecommerce.userservice.entity.*;
+import com.ecommerce.userservice.mapper.UserMapper;
 import com.ecommerce.userservice.repository.UserRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,13 +27,13 @@ public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
 
     @Autowired
-    public UserService(UserRepository userRepository, ModelMapper modelMapper, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -67,7 +67,7 @@ public class UserService {
         User savedUser = userRepository.save(user);
         logger.info("User registered successfully with ID: {}", savedUser.getId());
 
-        return modelMapper.map(savedUser, UserDTO.class);
+        return userMapper.toDTO(savedUser);
     }
 
     public Optional<UserDTO> loginUser(UserLoginDTO loginDTO) {
@@ -96,21 +96,21 @@ public class UserService {
         userRepository.save(user);
 
         logger.info("Login successful for email: {}", loginDTO.getEmail());
-        return Optional.of(modelMapper.map(user, UserDTO.class));
+        return Optional.of(userMapper.toDTO(user));
     }
 
     @Transactional(readOnly = true)
     public Optional<UserDTO> getUserById(Long id) {
         logger.info("Fetching user with ID: {}", id);
         return userRepository.findById(id)
-                .map(user -> modelMapper.map(user, UserDTO.class));
+                .map(userMapper::toDTO);
     }
 
     @Transactional(readOnly = true)
     public Optional<UserDTO> getUserByEmail(String email) {
         logger.info("Fetching user with email: {}", email);
         return userRepository.findByEmail(email)
-                .map(user -> modelMapper.map(user, UserDTO.class));
+                .map(userMapper::toDTO);
     }
 
     @Transactional(readOnly = true)
@@ -131,7 +131,7 @@ public class UserService {
         }
 
         List<UserDTO> userDTOs = userPage.getContent().stream()
-                .map(user -> modelMapper.map(user, UserDTO.class))
+                .map(userMapper::toDTO)
                 .collect(Collectors.toList());
 
         return new PaginatedResponse<>(userDTOs, page, size, userPage.getTotalElements());
@@ -170,7 +170,7 @@ public class UserService {
         User updatedUser = userRepository.save(existingUser);
         logger.info("User updated successfully with ID: {}", updatedUser.getId());
 
-        return modelMapper.map(updatedUser, UserDTO.class);
+        return userMapper.toDTO(updatedUser);
     }
 
     public void changePassword(Long userId, ChangePasswordDTO changePasswordDTO) {
@@ -202,7 +202,7 @@ public class UserService {
         User updatedUser = userRepository.save(user);
 
         logger.info("User blocked successfully with ID: {}", id);
-        return modelMapper.map(updatedUser, UserDTO.class);
+        return userMapper.toDTO(updatedUser);
     }
 
     public UserDTO unblockUser(Long id) {
@@ -215,7 +215,7 @@ public class UserService {
         User updatedUser = userRepository.save(user);
 
         logger.info("User unblocked successfully with ID: {}", id);
-        return modelMapper.map(updatedUser, UserDTO.class);
+        return userMapper.toDTO(updatedUser);
     }
 
     public void deleteUser(Long id) {
@@ -3,7 +3,6 @@ package com.ecommerce.userservice.config;
 import com.ecommerce.userservice.repository.UserRepository;
 import io.swagger.v3.oas.models.OpenAPI;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,14 +14,6 @@ import static org.mockito.Mockito.*;
 
 class ConfigTest {
 
-    @Test
-    void testModelMapperConfig() {
-        ModelMapperConfig config = new ModelMapperConfig();
-        ModelMapper modelMapper = config.modelMapper();
-        
-        assertNotNull(modelMapper);
-    }
-
     @Test
     void testOpenApiConfig() {
         OpenApiConfig config = new OpenApiConfig();
@@ -0,0 +1,52 @@
+package com.ecommerce.userservice.mapper;
+
+import com.ecommerce.userservice.dto.UserDTO;
+import com.ecommerce.userservice.entity.User;
+import com.ecommerce.userservice.entity.UserRole;
+import com.ecommerce.userservice.entity.UserStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserMapperTest {
+
+    private final UserMapper userMapper = new UserMapper();
+
+    @Test
+    void testToDTO_CopiesProfileFields() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 10, 0);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("jdoe");
+        user.setEmail("jdoe@example.com");
+        user.setPassword("encoded-password");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setRole(UserRole.ADMIN);
+        user.setStatus(UserStatus.ACTIVE);
+        user.setAvatar("http://example.com/avatar.png");
+        user.setPhoneNumber("555-0101");
+        user.setAddress("1 Main St");
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now.plusDays(1));
+        user.setLastLogin(now.plusDays(2));
+
+        UserDTO dto = userMapper.toDTO(user);
+
+        assertEquals(1L, dto.getId());
+        assertEquals("jdoe", dto.getUsername());
+        assertEquals("jdoe@example.com", dto.getEmail());
+        assertEquals("John", dto.getFirstName());
+        assertEquals("Doe", dto.getLastName());
+        assertEquals(UserRole.ADMIN, dto.getRole());
+        assertEquals(UserStatus.ACTIVE, dto.getStatus());
+        assertEquals("http://example.com/avatar.png", dto.getAvatar());
+        assertEquals("555-0101", dto.getPhoneNumber());
+        assertEquals("1 Main St", dto.getAddress());
+        assertEquals(now, dto.getCreatedAt());
+        assertEquals(now.plusDays(1), dto.getUpdatedAt());
+        assertEquals(now.plusDays(2), dto.getLastLogin());
+    }
+}
@@ -2,14 +2,15 @@ package com.ecommerce.userservice.service;
 
 import com.ecommerce.userservice.dto.*;
 import com.ecommerce.userservice.entity.*;
+import com.ecommerce.userservice.mapper.UserMapper;
 import com.ecommerce.userservice.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -29,8 +30,8 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private UserMapper userMapper = new UserMapper();
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -84,7 +85,6 @@ class UserServiceTest {
         when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(modelMapper.map(testUser, UserDTO.class)).thenReturn(testUserDTO);
 
         UserDTO result = userService.registerUser(registrationDTO);
 
@@ -126,7 +126,6 @@ class UserServiceTest {
         when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(testUserDTO);
 
         UserDTO result = userService.registerUser(registrationDTO);
 
@@ -141,7 +140,6 @@ class UserServiceTest {
         when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(testUserDTO);
 
         UserDTO result = userService.registerUser(registrationDTO);
 
@@ -154,7 +152,6 @@ class UserServiceTest {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(modelMapper.map(testUser, UserDTO.class)).thenReturn(testUserDTO);
 
         Optional<UserDTO> result = userService.loginUser(loginDTO);
 
@@ -198,7 +195,6 @@ class UserServiceTest {
     @Test
     void testGetUserById_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(modelMapper.map(testUser, UserDTO.class)).thenReturn(testUserDTO);
 
         Optional<UserDTO> result = userService.getUserById(1L);
 
@@ -218,7 +214,6 @@ class UserServiceTest {
     @Test
     void testGetUserByEmail_Success() {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(modelMapper.map(testUser, UserDTO.class)).thenReturn(testUserDTO);
 
         Optional<UserDTO> result = userService.getUserByEmail("test@example.com");
 
@@ -241,7 +236,6 @@ class UserServiceTest {
         Page<User> userPage = new PageImpl<>(users, PageRequest.of(0, 10), 1);
         
         when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(testUserDTO);
 
         PaginatedResponse<UserDTO> result = userService.getAllUsers(null, null, null, 0, 10, "createdAt", "desc");
 
@@ -256,7 +250,6 @@ class UserServiceTest {
         Page<User> userPage = new PageImpl<>(users, PageRequest.of(0, 10), 1);
         
         when(userRepository.findWithFilters(any(), any(), anyString(), any(Pageable.class))).thenReturn(userPage);
-        when(modelMapper.map(any(User.class), eq(UserDTO.class))).thenReturn(testUserDTO);
 
         PaginatedResponse<UserDTO> result = userService.getAllUsers(
             UserRole.CUSTOMER, UserStatus.ACTIVE, "test", 0, 10, "createdAt", "asc");
@@ -276,7 +269,6 @@ class UserServiceTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(modelMapper.map(testUser, UserDTO.class)).thenReturn(testUserDTO);
 
         UserDTO result = userService.updateUser(1L, updateDTO);
 
@@ -306,7 +298,6 @@ class UserServiceTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(modelMapper.map(testUser, UserDTO.class)).thenReturn(testUserDTO);
 
         UserDTO result = userService.updateUser(1L, updateDTO);
 
@@ -318,7 +309,6 @@ class UserServiceTest {
     void testBlockUser_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(modelMapper.map(testUser, UserDTO.class)).thenReturn(testUserDTO);
 
         UserDTO result = userService.blockUser(1L);
 
@@ -341,7 +331,6 @@ class UserServiceTest {
     void testUnblockUser_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(modelMapper.map(testUser, UserDTO.class)).thenReturn(testUserDTO);
 
         UserDTO result = userService.unblockUser(1L);
 
@@ -10,8 +10,10 @@ import java.util.ArrayList;
 @Table(name = "wishlist_collections")
 public class WishlistCollection {
 
+    // Sequence ids (a table on MySQL); IDENTITY would rule out insert batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wishlist_collections_seq")
+    @SequenceGenerator(name = "wishlist_collections_seq", sequenceName = "wishlist_collections_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Collection name is required")
@@ -9,8 +9,10 @@ import java.time.LocalDateTime;
 @Table(name = "wishlist_items")
 public class WishlistItem {
 
+    // Sequence ids (a table on MySQL) so items added together are inserted as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wishlist_items_seq")
+    @SequenceGenerator(name = "wishlist_items_seq", sequenceName = "wishlist_items_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Product ID is required")
@@ -0,0 +1,47 @@
+package com.ecommerce.wishlistservice.mapper;
+
+import com.ecommerce.wishlistservice.dto.WishlistCollectionDTO;
+import com.ecommerce.wishlistservice.dto.WishlistItemDTO;
+import com.ecommerce.wishlistservice.entity.WishlistCollection;
+import com.ecommerce.wishlistservice.entity.WishlistItem;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps wishlist collections and items to DTOs with plain getter/setter calls
+ */
+@Component
+public class WishlistMapper {
+
+    public WishlistCollectionDTO toDTO(WishlistCollection collection) {
+        WishlistCollectionDTO dto = new WishlistCollectionDTO();
+        dto.setId(collection.getId());
+        dto.setName(collection.getName());
+        dto.setUserId(collection.getUserId());
+        dto.setCreatedAt(collection.getCreatedAt());
+        dto.setUpdatedAt(collection.getUpdatedAt());
+
+        if (collection.getItems() != null) {
+            List<WishlistItemDTO> itemDTOs = new ArrayList<>(collection.getItems().size());
+            for (WishlistItem item : collection.getItems()) {
+                itemDTOs.add(toDTO(item));
+            }
+            dto.setItems(itemDTOs);
+        }
+        return dto;
+    }
+
+    public WishlistItemDTO toDTO(WishlistItem item) {
+        WishlistItemDTO dto = new WishlistItemDTO();
+        dto.setId(item.getId());
+        dto.setProductId(item.getProductId());
+        dto.setProductName(item.getProductName());
+        dto.setPrice(item.getPrice());
+        dto.setCategory(item.getCategory());
+        dto.setImageUrl(item.getImageUrl());
+        dto.setAddedAt(item.getAddedAt());
+        return dto;
+    }
+}
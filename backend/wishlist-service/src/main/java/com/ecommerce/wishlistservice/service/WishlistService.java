@@ -5,9 +5,9 @@ import com.ecommerce.wishlistservice.entity.WishlistCollection;
 import com.ecommerce.wishlistservice.entity.WishlistItem;
 import com.ecommerce.wishlistservice.exception.DuplicateItemException;
 import com.ecommerce.wishlistservice.exception.WishlistNotFoundException;
+import com.ecommerce.wishlistservice.mapper.WishlistMapper;
 import com.ecommerce.wishlistservice.repository.WishlistCollectionRepository;
 import com.ecommerce.wishlistservice.repository.WishlistItemRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,15 +21,15 @@ public class WishlistService {
 
     private final WishlistCollectionRepository collectionRepository;
     private final WishlistItemRepository itemRepository;
-    private final ModelMapper modelMapper;
+    private final WishlistMapper wishlistMapper;
 
     @Autowired
     public WishlistService(WishlistCollectionRepository collectionRepository,
                           WishlistItemRepository itemRepository,
-                          ModelMapper modelMapper) {
+                          WishlistMapper wishlistMapper) {
         this.collectionRepository = collectionRepository;
         this.itemRepository = itemRepository;
-        this.modelMapper = modelMapper;
+        this.wishlistMapper = wishlistMapper;
     }
 
     /**
@@ -39,7 +39,7 @@ public class WishlistService {
     public List<WishlistCollectionDTO> getUserCollections(Long userId) {
         List<WishlistCollection> collections = collectionRepository.findByUserIdWithItems(userId);
         return collections.stream()
-                .map(this::convertToCollectionDTO)
+                .map(wishlistMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -58,7 +58,7 @@ public class WishlistService {
         );
 
         WishlistCollection savedCollection = collectionRepository.save(collection);
-        return convertToCollectionDTO(savedCollection);
+        return wishlistMapper.toDTO(savedCollection);
     }
 
     /**
@@ -68,7 +68,7 @@ public class WishlistService {
     public WishlistCollectionDTO getCollection(Long collectionId, Long userId) {
         WishlistCollection collection = collectionRepository.findByIdAndUserId(collectionId, userId)
                 .orElseThrow(() -> new WishlistNotFoundException("Collection not found with id: " + collectionId));
-        return convertToCollectionDTO(collection);
+        return wishlistMapper.toDTO(collection);
     }
 
     /**
@@ -86,7 +86,7 @@ public class WishlistService {
 
         collection.setName(newName);
         WishlistCollection savedCollection = collectionRepository.save(collection);
-        return convertToCollectionDTO(savedCollection);
+        return wishlistMapper.toDTO(savedCollection);
     }
 
     /**
@@ -120,7 +120,7 @@ public class WishlistService {
 
         collection.addItem(item);
         WishlistItem savedItem = itemRepository.save(item);
-        return convertToItemDTO(savedItem);
+        return wishlistMapper.toDTO(savedItem);
     }
 
     /**
@@ -148,7 +148,7 @@ public class WishlistService {
     public List<WishlistItemDTO> getAllUserItems(Long userId) {
         List<WishlistItem> items = itemRepository.findByUserId(userId);
         return items.stream()
-                .map(this::convertToItemDTO)
+                .map(wishlistMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -175,22 +175,4 @@ public class WishlistService {
         stats.setTotalItems(itemsCount);
         return stats;
     }
-
-    // Helper methods for DTO conversion
-    private WishlistCollectionDTO convertToCollectionDTO(WishlistCollection collection) {
-        WishlistCollectionDTO dto = modelMapper.map(collection, WishlistCollectionDTO.class);
-        
-        if (collection.getItems() != null) {
-            List<WishlistItemDTO> itemDTOs = collection.getItems().stream()
-                    .map(this::convertToItemDTO)
-                    .collect(Collectors.toList());
-            dto.setItems(itemDTOs);
-        }
-        
-        return dto;
-    }
-
-    private WishlistItemDTO convertToItemDTO(WishlistItem item) {
-        return modelMapper.map(item, WishlistItemDTO.class);
-    }
-} 
\ No newline at end of file
+}
@@ -2,7 +2,6 @@ package com.ecommerce.wishlistservice.config;
 
 import io.swagger.v3.oas.models.OpenAPI;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 
@@ -10,14 +9,6 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class ConfigTest {
 
-    @Test
-    void testModelMapperConfig() {
-        ModelMapperConfig config = new ModelMapperConfig();
-        ModelMapper modelMapper = config.modelMapper();
-        
-        assertNotNull(modelMapper);
-    }
-
     @Test
     void testWebClientConfig() {
         WebClientConfig config = new WebClientConfig();
@@ -0,0 +1,60 @@
+package com.ecommerce.wishlistservice.mapper;
+
+import com.ecommerce.wishlistservice.dto.WishlistCollectionDTO;
+import com.ecommerce.wishlistservice.dto.WishlistItemDTO;
+import com.ecommerce.wishlistservice.entity.WishlistCollection;
+import com.ecommerce.wishlistservice.entity.WishlistItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WishlistMapperTest {
+
+    private final WishlistMapper wishlistMapper = new WishlistMapper();
+
+    @Test
+    void testToDTO_CollectionWithItems() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 10, 0);
+        WishlistCollection collection = new WishlistCollection("Birthday", 7L);
+        collection.setId(1L);
+        collection.setCreatedAt(now);
+        collection.setUpdatedAt(now.plusHours(1));
+        WishlistItem item = new WishlistItem(10L, "Headphones", new BigDecimal("59.90"), "Electronics",
+                "http://example.com/headphones.jpg");
+        item.setId(100L);
+        item.setAddedAt(now);
+        collection.addItem(item);
+
+        WishlistCollectionDTO dto = wishlistMapper.toDTO(collection);
+
+        assertEquals(1L, dto.getId());
+        assertEquals("Birthday", dto.getName());
+        assertEquals(7L, dto.getUserId());
+        assertEquals(now, dto.getCreatedAt());
+        assertEquals(now.plusHours(1), dto.getUpdatedAt());
+        assertEquals(1, dto.getItems().size());
+
+        WishlistItemDTO itemDTO = dto.getItems().get(0);
+        assertEquals(100L, itemDTO.getId());
+        assertEquals(10L, itemDTO.getProductId());
+        assertEquals("Headphones", itemDTO.getProductName());
+        assertEquals(new BigDecimal("59.90"), itemDTO.getPrice());
+        assertEquals("Electronics", itemDTO.getCategory());
+        assertEquals("http://example.com/headphones.jpg", itemDTO.getImageUrl());
+        assertEquals(now, itemDTO.getAddedAt());
+    }
+
+    @Test
+    void testToDTO_CollectionWithoutItems() {
+        WishlistCollection collection = new WishlistCollection("Empty", 7L);
+        collection.setItems(null);
+
+        WishlistCollectionDTO dto = wishlistMapper.toDTO(collection);
+
+        assertNotNull(dto.getItems());
+        assertTrue(dto.getItems().isEmpty());
+    }
+}
@@ -5,6 +5,7 @@ import com.ecommerce.wishlistservice.entity.WishlistCollection;
 import com.ecommerce.wishlistservice.entity.WishlistItem;
 import com.ecommerce.wishlistservice.exception.DuplicateItemException;
 import com.ecommerce.wishlistservice.exception.WishlistNotFoundException;
+import com.ecommerce.wishlistservice.mapper.WishlistMapper;
 import com.ecommerce.wishlistservice.repository.WishlistCollectionRepository;
 import com.ecommerce.wishlistservice.repository.WishlistItemRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,8 +13,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -36,8 +37,8 @@ class WishlistServiceTest {
     @Mock
     private WishlistItemRepository itemRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private WishlistMapper wishlistMapper = new WishlistMapper();
 
     @InjectMocks
     private WishlistService wishlistService;
@@ -87,7 +88,6 @@ class WishlistServiceTest {
     @Test
     void testGetUserCollections_Success() {
         when(collectionRepository.findByUserIdWithItems(1L)).thenReturn(Arrays.asList(testCollection));
-        when(modelMapper.map(any(WishlistCollection.class), eq(WishlistCollectionDTO.class))).thenReturn(testCollectionDTO);
 
         List<WishlistCollectionDTO> result = wishlistService.getUserCollections(1L);
 
@@ -110,7 +110,6 @@ class WishlistServiceTest {
     void testCreateCollection_Success() {
         when(collectionRepository.existsByNameAndUserId(anyString(), anyLong())).thenReturn(false);
         when(collectionRepository.save(any(WishlistCollection.class))).thenReturn(testCollection);
-        when(modelMapper.map(any(WishlistCollection.class), eq(WishlistCollectionDTO.class))).thenReturn(testCollectionDTO);
 
         WishlistCollectionDTO result = wishlistService.createCollection(createCollectionDTO);
 
@@ -133,7 +132,6 @@ class WishlistServiceTest {
     @Test
     void testGetCollection_Success() {
         when(collectionRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testCollection));
-        when(modelMapper.map(any(WishlistCollection.class), eq(WishlistCollectionDTO.class))).thenReturn(testCollectionDTO);
 
         WishlistCollectionDTO result = wishlistService.getCollection(1L, 1L);
 
@@ -155,7 +153,6 @@ class WishlistServiceTest {
         when(collectionRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testCollection));
         when(collectionRepository.existsByNameAndUserId("Updated Name", 1L)).thenReturn(false);
         when(collectionRepository.save(any(WishlistCollection.class))).thenReturn(testCollection);
-        when(modelMapper.map(any(WishlistCollection.class), eq(WishlistCollectionDTO.class))).thenReturn(testCollectionDTO);
 
         WishlistCollectionDTO result = wishlistService.updateCollection(1L, 1L, "Updated Name");
 
@@ -167,7 +164,6 @@ class WishlistServiceTest {
     void testUpdateCollection_SameName() {
         when(collectionRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testCollection));
         when(collectionRepository.save(any(WishlistCollection.class))).thenReturn(testCollection);
-        when(modelMapper.map(any(WishlistCollection.class), eq(WishlistCollectionDTO.class))).thenReturn(testCollectionDTO);
 
         WishlistCollectionDTO result = wishlistService.updateCollection(1L, 1L, "My Wishlist");
 
@@ -218,7 +214,6 @@ class WishlistServiceTest {
         when(collectionRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testCollection));
         when(itemRepository.existsByCollectionIdAndProductId(1L, 1L)).thenReturn(false);
         when(itemRepository.save(any(WishlistItem.class))).thenReturn(testItem);
-        when(modelMapper.map(any(WishlistItem.class), eq(WishlistItemDTO.class))).thenReturn(testItemDTO);
 
         WishlistItemDTO result = wishlistService.addItemToCollection(1L, 1L, addItemDTO);
 
@@ -295,7 +290,6 @@ class WishlistServiceTest {
     @Test
     void testGetAllUserItems_Success() {
         when(itemRepository.findByUserId(1L)).thenReturn(Arrays.asList(testItem));
-        when(modelMapper.map(any(WishlistItem.class), eq(WishlistItemDTO.class))).thenReturn(testItemDTO);
 
         List<WishlistItemDTO> result = wishlistService.getAllUserItems(1L);
 
@@ -348,8 +342,6 @@ class WishlistServiceTest {
     @Test
     void testConvertToCollectionDTO_WithItems() {
         testCollection.setItems(Arrays.asList(testItem));
-        when(modelMapper.map(any(WishlistCollection.class), eq(WishlistCollectionDTO.class))).thenReturn(testCollectionDTO);
-        when(modelMapper.map(any(WishlistItem.class), eq(WishlistItemDTO.class))).thenReturn(testItemDTO);
 
         List<WishlistCollectionDTO> result = wishlistService.getUserCollections(1L);
         when(collectionRepository.findByUserIdWithItems(1L)).thenReturn(Arrays.asList(testCollection));